@@ -0,0 +1,243 @@
+/*
+ * Copyright 2019 Pivotal, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.artifacts.cache;
+
+import com.netflix.spinnaker.kork.artifacts.model.Artifact;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A size-bounded, on-disk cache of downloaded artifacts.
+ *
+ * <p>Artifacts are stored under a digest of everything that identifies their contents (type,
+ * account, reference, name, version and location), so two artifacts only share an entry when they
+ * would be downloaded from the same place. Concurrent requests for an artifact that is not cached
+ * yet share a single download, and least recently used artifacts are evicted once the cache grows
+ * past its maximum size. Evicting an artifact only unlinks its file, so streams already reading it
+ * are unaffected.
+ */
+@Slf4j
+public class ArtifactCache {
+  /** Matches the names of cached artifacts and of downloads that were never completed. */
+  private static final Pattern CACHE_FILE = Pattern.compile("[0-9a-f]{64}(\\d*\\.partial)?");
+
+  private final Path directory;
+  private final long maxSizeBytes;
+  private final Duration ttl;
+  private final List<String> excludedTypes;
+  private final Clock clock;
+
+  private final Map<String, CompletableFuture<Void>> downloads = new ConcurrentHashMap<>();
+
+  /** Guarded by {@code this}; iterates from least to most recently used. */
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long sizeBytes;
+
+  public ArtifactCache(ArtifactCacheProperties properties, Clock clock) throws IOException {
+    this.directory = Paths.get(properties.getDirectory());
+    this.maxSizeBytes = properties.getMaxSizeBytes();
+    this.ttl = Duration.ofSeconds(properties.getTtlSeconds());
+    this.excludedTypes = properties.getExcludedTypes();
+    this.clock = clock;
+
+    Files.createDirectories(directory);
+    // nothing is known about files left behind by a previous process, so start from scratch;
+    // only files this cache would have written are removed, since the directory may be shared
+    try (DirectoryStream<Path> leftovers =
+        Files.newDirectoryStream(
+            directory, path -> CACHE_FILE.matcher(path.getFileName().toString()).matches())) {
+      for (Path leftover : leftovers) {
+        Files.deleteIfExists(leftover);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  public interface Downloader {
+    InputStream download() throws IOException;
+  }
+
+  public boolean isCacheable(Artifact artifact) {
+    return !excludedTypes.contains(artifact.getType());
+  }
+
+  /**
+   * Returns the contents of {@code artifact}, calling {@code downloader} only if they are not
+   * cached yet and no other caller is already downloading them.
+   */
+  public InputStream get(Artifact artifact, Downloader downloader) throws IOException {
+    String key = keyFor(artifact);
+
+    InputStream cached = open(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    CompletableFuture<Void> download = new CompletableFuture<>();
+    CompletableFuture<Void> inFlight = downloads.putIfAbsent(key, download);
+    if (inFlight == null) {
+      try {
+        InputStream stored = store(key, downloader);
+        download.complete(null);
+        return stored;
+      } catch (IOException | RuntimeException e) {
+        download.completeExceptionally(e);
+        throw e;
+      } finally {
+        downloads.remove(key, download);
+      }
+    }
+
+    await(inFlight);
+    cached = open(key);
+    // the artifact may already have been evicted again if it is larger than the cache itself
+    return cached != null ? cached : downloader.download();
+  }
+
+  private synchronized InputStream open(String key) throws IOException {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (clock.instant().isAfter(entry.storedAt.plus(ttl))) {
+      remove(key);
+      return null;
+    }
+    return Files.newInputStream(entry.path);
+  }
+
+  private InputStream store(String key, Downloader downloader) throws IOException {
+    Path path = directory.resolve(key);
+    Path partial = Files.createTempFile(directory, key, ".partial");
+    long size;
+    try (InputStream in = downloader.download()) {
+      size = Files.copy(in, partial, StandardCopyOption.REPLACE_EXISTING);
+      Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(partial);
+    }
+
+    synchronized (this) {
+      // open before evicting, so the caller can read the artifact even if it is evicted at once
+      InputStream stored = Files.newInputStream(path);
+      Entry previous = entries.put(key, new Entry(path, size, clock.instant()));
+      if (previous != null) {
+        sizeBytes -= previous.sizeBytes;
+      }
+      sizeBytes += size;
+      evict();
+      return stored;
+    }
+  }
+
+  private void evict() {
+    Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+    while (sizeBytes > maxSizeBytes && it.hasNext()) {
+      Entry entry = it.next().getValue();
+      it.remove();
+      sizeBytes -= entry.sizeBytes;
+      delete(entry.path);
+    }
+  }
+
+  private void remove(String key) {
+    Entry entry = entries.remove(key);
+    if (entry != null) {
+      sizeBytes -= entry.sizeBytes;
+      delete(entry.path);
+    }
+  }
+
+  private static void delete(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      log.warn("Failed to delete cached artifact {}", path, e);
+    }
+  }
+
+  private static void await(CompletableFuture<Void> download) throws IOException {
+    try {
+      download.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for artifact download", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  static String keyFor(Artifact artifact) {
+    String identity =
+        Stream.of(
+                artifact.getType(),
+                artifact.getArtifactAccount(),
+                artifact.getReference(),
+                artifact.getName(),
+                artifact.getVersion(),
+                artifact.getLocation())
+            .map(Objects::toString)
+            .collect(Collectors.joining("\n"));
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(identity.getBytes(StandardCharsets.UTF_8));
+      return String.format("%064x", new BigInteger(1, digest));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @AllArgsConstructor
+  private static class Entry {
+    private final Path path;
+    private final long sizeBytes;
+    private final Instant storedAt;
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 Pivotal, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.artifacts.cache;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("artifacts.cache")
+public class ArtifactCacheProperties {
+  private boolean enabled;
+
+  /** Where downloaded artifacts are kept; it is emptied when clouddriver starts. */
+  private String directory =
+      Paths.get(System.getProperty("java.io.tmpdir"), "clouddriver-artifact-cache").toString();
+
+  /** Least recently used artifacts are evicted once the cache grows past this size. */
+  private long maxSizeBytes = 1024L * 1024 * 1024;
+
+  /**
+   * How long a downloaded artifact is served before it is downloaded again, bounding how stale
+   * artifacts that point at something mutable (a branch, a 'latest' tag) can get.
+   */
+  private long ttlSeconds = 600;
+
+  /** Artifact types that are never cached, such as those that carry their own contents. */
+  private List<String> excludedTypes =
+      new ArrayList<>(Collections.singletonList("embedded/base64"));
+}
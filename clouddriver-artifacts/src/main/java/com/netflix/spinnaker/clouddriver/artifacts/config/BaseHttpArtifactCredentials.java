@@ -73,9 +73,19 @@ public abstract class BaseHttpArtifactCredentials<T extends ArtifactAccount> {
   }
 
   protected ResponseBody fetchUrl(HttpUrl url) throws IOException {
-    Request request = new Request.Builder().headers(headers).url(url).build();
+    return fetchResponse(url, new Headers.Builder().build()).body();
+  }
+
+  /**
+   * Fetches {@code url} with this account's headers plus {@code extraHeaders}, returning the whole
+   * response so callers can act on its status and headers (e.g. conditional requests).
+   */
+  protected Response fetchResponse(HttpUrl url, Headers extraHeaders) throws IOException {
+    Request.Builder request = new Request.Builder().headers(headers).url(url);
+    for (String name : extraHeaders.names()) {
+      request.header(name, extraHeaders.get(name));
+    }
 
-    Response downloadResponse = okHttpClient.newCall(request).execute();
-    return downloadResponse.body();
+    return okHttpClient.newCall(request.build()).execute();
   }
 }
@@ -23,12 +23,15 @@ import com.netflix.spinnaker.clouddriver.artifacts.config.BaseHttpArtifactCreden
 import com.netflix.spinnaker.clouddriver.artifacts.exceptions.FailedDownloadException;
 import com.netflix.spinnaker.kork.artifacts.model.Artifact;
 import com.netflix.spinnaker.kork.web.exceptions.NotFoundException;
+import com.squareup.okhttp.Headers;
 import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Response;
 import com.squareup.okhttp.ResponseBody;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -40,6 +43,13 @@ public class HelmArtifactCredentials extends BaseHttpArtifactCredentials<HelmArt
 
   @JsonIgnore private final IndexParser indexParser;
 
+  /**
+   * The last index read from the repository, with the validators it was served with. It is
+   * revalidated on every use, so a repository that supports conditional requests only sends the
+   * index again once it changed.
+   */
+  @JsonIgnore private CachedIndex cachedIndex;
+
   HelmArtifactCredentials(HelmArtifactAccount account, OkHttpClient okHttpClient) {
     super(okHttpClient, account);
     this.name = account.getName();
@@ -48,7 +58,7 @@ public class HelmArtifactCredentials extends BaseHttpArtifactCredentials<HelmArt
 
   @Override
   public InputStream download(Artifact artifact) throws IOException {
-    InputStream index = downloadIndex();
+    HelmIndex index = getIndex();
 
     List<String> urls = indexParser.findUrls(index, artifact.getName(), artifact.getVersion());
     ResponseBody downloadResponse;
@@ -64,11 +74,9 @@ public class HelmArtifactCredentials extends BaseHttpArtifactCredentials<HelmArt
   }
 
   public List<String> getArtifactNames() {
-    InputStream index;
     List<String> names;
     try {
-      index = downloadIndex();
-      names = indexParser.findNames(index);
+      names = indexParser.findNames(getIndex());
     } catch (IOException e) {
       throw new NotFoundException("Failed to download chart names for '" + name + "' account");
     }
@@ -76,24 +84,57 @@ public class HelmArtifactCredentials extends BaseHttpArtifactCredentials<HelmArt
   }
 
   public List<String> getArtifactVersions(String artifactName) {
-    InputStream index;
     List<String> versions;
     try {
-      index = downloadIndex();
-      versions = indexParser.findVersions(index, artifactName);
+      versions = indexParser.findVersions(getIndex(), artifactName);
     } catch (IOException e) {
       throw new NotFoundException("Failed to download chart versions for '" + name + "' account");
     }
     return versions;
   }
 
-  private InputStream downloadIndex() throws IOException {
+  private synchronized HelmIndex getIndex() throws IOException {
+    Headers.Builder conditions = new Headers.Builder();
+    if (cachedIndex != null) {
+      if (cachedIndex.etag != null) {
+        conditions.set("If-None-Match", cachedIndex.etag);
+      }
+      if (cachedIndex.lastModified != null) {
+        conditions.set("If-Modified-Since", cachedIndex.lastModified);
+      }
+    }
+
+    Response response;
     try {
-      ResponseBody indexDownloadResponse = fetchUrl(indexParser.indexPath());
-      return indexDownloadResponse.byteStream();
+      response = fetchResponse(parseUrl(indexParser.indexPath()), conditions.build());
     } catch (IOException e) {
       throw new FailedDownloadException(
           "Failed to download index.yaml file in '" + indexParser.getRepository() + "' repository");
     }
+
+    try (ResponseBody body = response.body()) {
+      if (response.code() == 304 && cachedIndex != null) {
+        return cachedIndex.index;
+      }
+      if (!response.isSuccessful()) {
+        throw new FailedDownloadException(
+            "Failed to download index.yaml file in '"
+                + indexParser.getRepository()
+                + "' repository: "
+                + response.code());
+      }
+
+      HelmIndex index = indexParser.parseIndex(body.byteStream());
+      cachedIndex =
+          new CachedIndex(index, response.header("ETag"), response.header("Last-Modified"));
+      return index;
+    }
+  }
+
+  @AllArgsConstructor
+  private static class CachedIndex {
+    private final HelmIndex index;
+    private final String etag;
+    private final String lastModified;
   }
 }
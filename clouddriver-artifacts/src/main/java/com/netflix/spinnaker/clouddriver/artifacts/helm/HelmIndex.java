@@ -0,0 +1,39 @@
+/*
+ * Copyright 2019 Pivotal, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.artifacts.helm;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parts of a Helm repository's index.yaml needed to resolve charts: the urls of every version
+ * of every chart, in index order. Urls are kept as they appear in the index, and may be relative to
+ * the repository.
+ */
+public class HelmIndex {
+  private final Map<String, Map<String, List<String>>> entries;
+
+  HelmIndex(Map<String, Map<String, List<String>>> entries) {
+    this.entries = Collections.unmodifiableMap(entries);
+  }
+
+  /** @return chart name -> version -> urls */
+  public Map<String, Map<String, List<String>>> getEntries() {
+    return entries;
+  }
+}
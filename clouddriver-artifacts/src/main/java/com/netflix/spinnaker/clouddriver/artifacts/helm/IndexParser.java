@@ -16,8 +16,8 @@
 
 package com.netflix.spinnaker.clouddriver.artifacts.helm;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import java.io.IOException;
 import java.io.InputStream;
@@ -25,6 +25,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -35,6 +36,8 @@ import org.apache.commons.lang3.StringUtils;
 @Slf4j
 @Data
 public class IndexParser {
+  private static final YAMLFactory yamlFactory = new YAMLFactory();
+
   private String repository;
 
   public IndexParser(String repository) {
@@ -46,27 +49,99 @@ public class IndexParser {
   }
 
   public List<String> findNames(InputStream in) throws IOException {
-    IndexConfig indexConfig = buildIndexConfig(in);
-    return new ArrayList<>(indexConfig.getEntries().keySet());
+    return findNames(parseIndex(in));
+  }
+
+  public List<String> findNames(HelmIndex index) {
+    return new ArrayList<>(index.getEntries().keySet());
   }
 
   public List<String> findVersions(InputStream in, String name) throws IOException {
+    return findVersions(parseIndex(in), name);
+  }
+
+  public List<String> findVersions(HelmIndex index, String name) {
     if (name == null || name.isEmpty()) {
       throw new IllegalArgumentException("Artifact name field should not be empty");
     }
-    List<EntryConfig> configs = buildEntryConfigsByName(buildIndexConfig(in), name);
-    List<String> versions = new ArrayList<>();
-    configs.forEach(e -> versions.add(e.getVersion()));
-    return versions;
+    return new ArrayList<>(findEntryByName(index, name).keySet());
   }
 
   public List<String> findUrls(InputStream in, String name, String version) throws IOException {
+    return findUrls(parseIndex(in), name, version);
+  }
+
+  public List<String> findUrls(HelmIndex index, String name, String version) {
     if (name == null || name.isEmpty()) {
       throw new IllegalArgumentException("Artifact name field should not be empty");
     }
-    List<EntryConfig> configs = buildEntryConfigsByName(buildIndexConfig(in), name);
-    String validVersion = StringUtils.isBlank(version) ? findLatestVersion(configs) : version;
-    return resolveReferenceUrls(findUrlsByVersion(configs, validVersion));
+    Map<String, List<String>> entry = findEntryByName(index, name);
+    String validVersion = StringUtils.isBlank(version) ? findLatestVersion(entry) : version;
+    return resolveReferenceUrls(findUrlsByVersion(entry, validVersion));
+  }
+
+  /**
+   * Reads the name, versions and urls of every chart from an index.yaml, streaming through the
+   * file and skipping everything else, so large indexes are never held in memory as a whole.
+   */
+  public HelmIndex parseIndex(InputStream in) throws IOException {
+    Map<String, Map<String, List<String>>> entries = new LinkedHashMap<>();
+    try (JsonParser parser = yamlFactory.createParser(in)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("index.yaml is not a map");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        if (parser.nextToken() == JsonToken.START_OBJECT && field.equals("entries")) {
+          parseEntries(parser, entries);
+        } else {
+          parser.skipChildren();
+        }
+      }
+    } catch (IOException e) {
+      throw new IOException("Invalid index.yaml file in repository " + repository);
+    }
+    return new HelmIndex(entries);
+  }
+
+  private static void parseEntries(
+      JsonParser parser, Map<String, Map<String, List<String>>> entries) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      Map<String, List<String>> versions =
+          entries.computeIfAbsent(parser.getCurrentName(), n -> new LinkedHashMap<>());
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        parser.skipChildren();
+        continue;
+      }
+
+      JsonToken token;
+      while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+        if (token != JsonToken.START_OBJECT) {
+          parser.skipChildren();
+          continue;
+        }
+
+        String version = null;
+        List<String> urls = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String field = parser.getCurrentName();
+          JsonToken value = parser.nextToken();
+          if (field.equals("version") && value.isScalarValue()) {
+            version = parser.getText();
+          } else if (field.equals("urls") && value == JsonToken.START_ARRAY) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+              urls.add(parser.getText());
+            }
+          } else {
+            parser.skipChildren();
+          }
+        }
+
+        if (version != null) {
+          versions.computeIfAbsent(version, v -> new ArrayList<>()).addAll(urls);
+        }
+      }
+    }
   }
 
   private List<String> resolveReferenceUrls(List<String> urls) {
@@ -89,55 +164,25 @@ public class IndexParser {
     return resolvedRef;
   }
 
-  private List<String> findUrlsByVersion(List<EntryConfig> configs, String version) {
-    List<String> urls = new ArrayList<>();
-    configs.forEach(
-        e -> {
-          if (e.getVersion().equals(version)) {
-            urls.addAll(e.getUrls());
-          }
-        });
-    if (urls.isEmpty()) {
+  private List<String> findUrlsByVersion(Map<String, List<String>> entry, String version) {
+    List<String> urls = entry.get(version);
+    if (urls == null || urls.isEmpty()) {
       throw new IllegalArgumentException(
           "Could not find correct entry with artifact version " + version);
     }
     return urls;
   }
 
-  private String findLatestVersion(List<EntryConfig> configs) {
-    return configs.stream().max(Comparator.comparing(EntryConfig::getVersion)).get().getVersion();
-  }
-
-  private IndexConfig buildIndexConfig(InputStream in) throws IOException {
-    ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-    IndexConfig indexConfig;
-    try {
-      indexConfig = mapper.readValue(in, IndexConfig.class);
-    } catch (IOException e) {
-      throw new IOException("Invalid index.yaml file in repository " + repository);
-    }
-    return indexConfig;
+  private String findLatestVersion(Map<String, List<String>> entry) {
+    return entry.keySet().stream().max(Comparator.naturalOrder()).get();
   }
 
-  private List<EntryConfig> buildEntryConfigsByName(IndexConfig indexConfig, String name) {
-    List<EntryConfig> configs = indexConfig.getEntries().get(name);
-    if (configs == null || configs.isEmpty()) {
+  private Map<String, List<String>> findEntryByName(HelmIndex index, String name) {
+    Map<String, List<String>> entry = index.getEntries().get(name);
+    if (entry == null || entry.isEmpty()) {
       throw new IllegalArgumentException("Could not find correct entry with artifact name " + name);
     }
-    return configs;
+    return entry;
   }
 }
 
-@Data
-@JsonIgnoreProperties(ignoreUnknown = true)
-class IndexConfig {
-  private Map<String, List<EntryConfig>> entries;
-}
-
-@Data
-@JsonIgnoreProperties(ignoreUnknown = true)
-class EntryConfig {
-  private String name;
-  private String version;
-  private List<String> urls;
-}
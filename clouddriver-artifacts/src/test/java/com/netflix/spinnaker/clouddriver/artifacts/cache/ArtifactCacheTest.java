@@ -0,0 +1,199 @@
+/*
+ * Copyright 2019 Pivotal, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.artifacts.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.netflix.spinnaker.kork.artifacts.model.Artifact;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+
+@ExtendWith(TempDirectory.class)
+class ArtifactCacheTest {
+  private final MutableClock clock = new MutableClock();
+  private final AtomicInteger downloads = new AtomicInteger();
+
+  @Test
+  void servesRepeatedDownloadsFromDisk(@TempDirectory.TempDir Path tempDir) throws IOException {
+    ArtifactCache cache = new ArtifactCache(properties(tempDir, 1024), clock);
+
+    assertThat(read(cache.get(artifact("1.0.0"), () -> contents("one")))).isEqualTo("one");
+    assertThat(read(cache.get(artifact("1.0.0"), () -> contents("other")))).isEqualTo("one");
+    assertThat(read(cache.get(artifact("2.0.0"), () -> contents("two")))).isEqualTo("two");
+    assertThat(downloads.get()).isEqualTo(2);
+  }
+
+  @Test
+  void downloadsAgainOnceExpired(@TempDirectory.TempDir Path tempDir) throws IOException {
+    ArtifactCache cache = new ArtifactCache(properties(tempDir, 1024), clock);
+
+    cache.get(artifact("1.0.0"), () -> contents("one")).close();
+    clock.advance(Duration.ofSeconds(61));
+
+    assertThat(read(cache.get(artifact("1.0.0"), () -> contents("changed"))))
+        .isEqualTo("changed");
+    assertThat(downloads.get()).isEqualTo(2);
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedArtifacts(@TempDirectory.TempDir Path tempDir) throws IOException {
+    ArtifactCache cache = new ArtifactCache(properties(tempDir, 6), clock);
+
+    cache.get(artifact("1"), () -> contents("aaa")).close();
+    cache.get(artifact("2"), () -> contents("bbb")).close();
+    cache.get(artifact("1"), () -> contents("aaa")).close();
+    InputStream third = cache.get(artifact("3"), () -> contents("ccc"));
+    assertThat(downloads.get()).isEqualTo(3);
+
+    cache.get(artifact("1"), () -> contents("aaa")).close();
+    assertThat(downloads.get()).isEqualTo(3);
+    cache.get(artifact("2"), () -> contents("bbb")).close();
+    assertThat(downloads.get()).isEqualTo(4);
+
+    // artifact 3 was evicted while it was still open
+    assertThat(read(third)).isEqualTo("ccc");
+  }
+
+  @Test
+  void removesOnlyItsOwnLeftoverFilesOnStartup(@TempDirectory.TempDir Path tempDir)
+      throws IOException {
+    String key = ArtifactCache.keyFor(artifact("1.0.0"));
+    Path cached = Files.write(tempDir.resolve(key), "stale".getBytes(StandardCharsets.UTF_8));
+    Path partial = Files.createFile(tempDir.resolve(key + "12345.partial"));
+    Path unrelated = Files.createFile(tempDir.resolve("unrelated.txt"));
+    Path subdirectory = Files.createDirectory(tempDir.resolve("subdirectory"));
+
+    ArtifactCache cache = new ArtifactCache(properties(tempDir, 1024), clock);
+
+    assertThat(cached).doesNotExist();
+    assertThat(partial).doesNotExist();
+    assertThat(unrelated).exists();
+    assertThat(subdirectory).exists();
+    assertThat(read(cache.get(artifact("1.0.0"), () -> contents("one")))).isEqualTo("one");
+  }
+
+  @Test
+  void concurrentRequestsShareOneDownload(@TempDirectory.TempDir Path tempDir) throws Exception {
+    ArtifactCache cache = new ArtifactCache(properties(tempDir, 1024), clock);
+    CountDownLatch downloading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    try {
+      Future<String> first =
+          executor.submit(
+              () ->
+                  read(
+                      cache.get(
+                          artifact("1.0.0"),
+                          () -> {
+                            downloading.countDown();
+                            awaitUninterruptibly(release);
+                            return contents("one");
+                          })));
+      downloading.await();
+      Future<String> second =
+          executor.submit(() -> read(cache.get(artifact("1.0.0"), () -> contents("other"))));
+      Thread.sleep(100);
+      release.countDown();
+
+      assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("one");
+      assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("one");
+      assertThat(downloads.get()).isEqualTo(1);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private ArtifactCacheProperties properties(Path directory, long maxSizeBytes) {
+    ArtifactCacheProperties properties = new ArtifactCacheProperties();
+    properties.setDirectory(directory.toString());
+    properties.setMaxSizeBytes(maxSizeBytes);
+    properties.setTtlSeconds(60);
+    return properties;
+  }
+
+  private Artifact artifact(String version) {
+    return Artifact.builder()
+        .type("helm/chart")
+        .artifactAccount("my-account")
+        .name("my-chart")
+        .version(version)
+        .build();
+  }
+
+  private InputStream contents(String contents) {
+    downloads.incrementAndGet();
+    return new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static String read(InputStream in) throws IOException {
+    try (InputStream stream = in) {
+      return IOUtils.toString(stream, StandardCharsets.UTF_8);
+    }
+  }
+
+  private static class MutableClock extends Clock {
+    private Instant instant = Instant.parse("2019-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
@@ -29,6 +29,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Function;
 import org.apache.commons.io.Charsets;
 import org.junit.jupiter.api.Test;
@@ -82,6 +84,38 @@ class HelmArtifactCredentialsTest {
     runTestCase(server, account, m -> m.withHeader("Authorization", absent()));
   }
 
+  @Test
+  void reusesIndexWhenNotModified(@WiremockResolver.Wiremock WireMockServer server)
+      throws IOException {
+    HelmArtifactAccount account = new HelmArtifactAccount();
+    account.setRepository(server.baseUrl() + "/" + REPOSITORY);
+    account.setName("my-helm-account");
+    HelmArtifactCredentials credentials = new HelmArtifactCredentials(account, okHttpClient);
+
+    final String indexPath = "/" + REPOSITORY + "/index.yaml";
+    server.stubFor(
+        any(urlPathEqualTo(indexPath))
+            .atPriority(2)
+            .willReturn(
+                aResponse()
+                    .withHeader("ETag", "\"v1\"")
+                    .withBody(objectMapper.writeValueAsString(getIndex(server.baseUrl())))));
+    server.stubFor(
+        any(urlPathEqualTo(indexPath))
+            .atPriority(1)
+            .withHeader("If-None-Match", equalTo("\"v1\""))
+            .willReturn(aResponse().withStatus(304)));
+
+    assertThat(credentials.getArtifactNames()).containsExactly(CHART_NAME);
+    assertThat(credentials.getArtifactVersions(CHART_NAME)).containsExactly(CHART_VERSION);
+
+    server.verify(2, getRequestedFor(urlPathEqualTo(indexPath)));
+    server.verify(
+        1,
+        getRequestedFor(urlPathEqualTo(indexPath))
+            .withHeader("If-None-Match", equalTo("\"v1\"")));
+  }
+
   private void runTestCase(
       WireMockServer server,
       HelmArtifactAccount account,
@@ -102,28 +136,25 @@ class HelmArtifactCredentialsTest {
   private void prepareServer(
       WireMockServer server, Function<MappingBuilder, MappingBuilder> withAuth) throws IOException {
     final String indexPath = "/" + REPOSITORY + "/index.yaml";
-    IndexConfig indexConfig = getIndexConfig(server.baseUrl());
+    Map<String, Object> index = getIndex(server.baseUrl());
 
     server.stubFor(
         withAuth.apply(
             any(urlPathEqualTo(indexPath))
-                .willReturn(aResponse().withBody(objectMapper.writeValueAsString(indexConfig)))));
+                .willReturn(aResponse().withBody(objectMapper.writeValueAsString(index)))));
 
     server.stubFor(
         withAuth.apply(
             any(urlPathEqualTo(CHART_PATH)).willReturn(aResponse().withBody(FILE_CONTENTS))));
   }
 
-  private IndexConfig getIndexConfig(String baseUrl) {
-    EntryConfig entryConfig = new EntryConfig();
-    entryConfig.setName(CHART_NAME);
-    entryConfig.setVersion(CHART_VERSION);
-    entryConfig.setUrls(Collections.singletonList(baseUrl + CHART_PATH));
-
-    IndexConfig indexConfig = new IndexConfig();
-    indexConfig.setEntries(
-        Collections.singletonMap("my-chart", Collections.singletonList(entryConfig)));
+  private Map<String, Object> getIndex(String baseUrl) {
+    Map<String, Object> entry = new HashMap<>();
+    entry.put("name", CHART_NAME);
+    entry.put("version", CHART_VERSION);
+    entry.put("urls", Collections.singletonList(baseUrl + CHART_PATH));
 
-    return indexConfig;
+    return Collections.singletonMap(
+        "entries", Collections.singletonMap(CHART_NAME, Collections.singletonList(entry)));
   }
 }
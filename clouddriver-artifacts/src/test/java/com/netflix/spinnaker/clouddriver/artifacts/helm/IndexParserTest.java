@@ -89,4 +89,32 @@ public class IndexParserTest {
               "http://localhost/test/test-chart1-0.0.1.tgz");
     }
   }
+
+  @Test
+  public void parseIndexShouldSkipUnusedFields() throws IOException {
+    IndexParser parser = new IndexParser("http://localhost/test/");
+
+    String indexYaml =
+        "---\n"
+            + "apiVersion: v1\n"
+            + "entries:\n"
+            + "  test-chart1:\n"
+            + "  - description: a chart\n"
+            + "    maintainers:\n"
+            + "    - name: someone\n"
+            + "    version: 0.0.2\n"
+            + "    urls:\n"
+            + "    - test-chart1-0.0.2.tgz\n"
+            + "  - version: 0.0.1\n"
+            + "    urls:\n"
+            + "    - test-chart1-0.0.1.tgz\n"
+            + "generated: 2019-01-01T00:00:00Z\n";
+    try (InputStream is = new ByteArrayInputStream(indexYaml.getBytes())) {
+      HelmIndex index = parser.parseIndex(is);
+      assertThat(parser.findNames(index)).containsExactly("test-chart1");
+      assertThat(parser.findVersions(index, "test-chart1")).containsExactly("0.0.2", "0.0.1");
+      assertThat(parser.findUrls(index, "test-chart1", null))
+          .containsOnly("http://localhost/test/test-chart1-0.0.2.tgz");
+    }
+  }
 }
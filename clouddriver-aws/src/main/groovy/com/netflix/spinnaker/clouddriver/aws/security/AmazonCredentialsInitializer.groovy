@@ -21,7 +21,9 @@ import com.netflix.spinnaker.cats.module.CatsModule
 import com.netflix.spinnaker.clouddriver.aws.security.config.CredentialsConfig
 import com.netflix.spinnaker.clouddriver.aws.security.config.CredentialsLoader
 import com.netflix.spinnaker.clouddriver.security.AccountCredentialsRepository
+import com.netflix.spinnaker.clouddriver.security.ParallelAccountInitializer
 import com.netflix.spinnaker.clouddriver.security.ProviderUtils
+import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.context.properties.ConfigurationProperties
 import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean
@@ -36,6 +38,9 @@ import static com.amazonaws.regions.Regions.US_WEST_2
 @EnableConfigurationProperties(DefaultAccountConfigurationProperties)
 class AmazonCredentialsInitializer {
 
+  @Autowired(required = false)
+  ParallelAccountInitializer parallelAccountInitializer
+
   @Bean
   @ConfigurationProperties('aws')
   CredentialsConfig credentialsConfig() {
@@ -85,7 +90,7 @@ class AmazonCredentialsInitializer {
       }
     }
 
-    List<? extends NetflixAmazonCredentials> accounts = credentialsLoader.load(credentialsConfig)
+    List<? extends NetflixAmazonCredentials> accounts = credentialsLoader.load(credentialsConfig, parallelAccountInitializer)
 
     def (ArrayList<NetflixAmazonCredentials> accountsToAdd, List<String> namesOfDeletedAccounts) =
     ProviderUtils.calculateAccountDeltas(accountCredentialsRepository, NetflixAmazonCredentials, accounts)
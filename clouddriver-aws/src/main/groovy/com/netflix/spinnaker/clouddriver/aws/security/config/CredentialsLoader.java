@@ -25,13 +25,16 @@ import com.netflix.spinnaker.clouddriver.aws.security.AmazonCredentials;
 import com.netflix.spinnaker.clouddriver.aws.security.DefaultAWSAccountInfoLookup;
 import com.netflix.spinnaker.clouddriver.aws.security.config.CredentialsConfig.Account;
 import com.netflix.spinnaker.clouddriver.aws.security.config.CredentialsConfig.Region;
+import com.netflix.spinnaker.clouddriver.security.ParallelAccountInitializer;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class CredentialsLoader<T extends AmazonCredentials> {
 
@@ -211,6 +214,16 @@ public class CredentialsLoader<T extends AmazonCredentials> {
   }
 
   public List<T> load(CredentialsConfig source) throws Throwable {
+    return load(source, null);
+  }
+
+  /**
+   * Loads every configured account. Resolving an account can call AWS to look up its account id
+   * and regions, so when `initializer` runs accounts in parallel they are resolved concurrently.
+   * Every account is treated as required: any failure fails the whole load, as it does serially.
+   */
+  public List<T> load(CredentialsConfig source, ParallelAccountInitializer initializer)
+      throws Throwable {
     final CredentialsConfig config = objectMapper.convertValue(source, CredentialsConfig.class);
 
     if (config.getAccounts() == null || config.getAccounts().isEmpty()) {
@@ -218,83 +231,112 @@ public class CredentialsLoader<T extends AmazonCredentials> {
     }
 
     Lazy<List<Region>> defaultRegions = createDefaults(config.getDefaultRegions());
-    List<T> initializedAccounts = new ArrayList<>(config.getAccounts().size());
-    for (Account account : config.getAccounts()) {
-      if (account.getAccountId() == null) {
-        if (!credentialTranslator.resolveAccountId()) {
-          throw new IllegalArgumentException(
-              "accountId is required and not resolvable for this credentials type");
-        }
-        account.setAccountId(awsAccountInfoLookup.findAccountId());
+    List<Account> accounts = config.getAccounts();
+    List<T> initializedAccounts = new ArrayList<>(accounts.size());
+    if (initializer == null || !initializer.isParallel()) {
+      for (Account account : accounts) {
+        initializedAccounts.add(loadAccount(config, defaultRegions, account));
       }
+    } else {
+      AtomicReferenceArray<T> loaded = new AtomicReferenceArray<>(accounts.size());
+      initializer.initialize(
+          "AWS",
+          IntStream.range(0, accounts.size()).boxed().collect(Collectors.toList()),
+          i -> accounts.get(i).getName(),
+          i -> true,
+          i -> {
+            try {
+              loaded.set(i, loadAccount(config, defaultRegions, accounts.get(i)));
+            } catch (Exception e) {
+              throw e;
+            } catch (Throwable t) {
+              throw new IllegalStateException(t);
+            }
+          });
 
-      if (account.getEnvironment() == null) {
-        account.setEnvironment(account.getName());
+      for (int i = 0; i < accounts.size(); i++) {
+        initializedAccounts.add(loaded.get(i));
       }
+    }
 
-      if (account.getAccountType() == null) {
-        account.setAccountType(account.getName());
-      }
+    return initializedAccounts.stream()
+        .filter(AmazonCredentials::isEnabled)
+        .collect(Collectors.toList());
+  }
 
-      account.setRegions(initRegions(defaultRegions, account.getRegions()));
-      account.setDefaultSecurityGroups(
-          account.getDefaultSecurityGroups() != null
-              ? account.getDefaultSecurityGroups()
-              : config.getDefaultSecurityGroups());
-      account.setLifecycleHooks(
-          account.getLifecycleHooks() != null
-              ? account.getLifecycleHooks()
-              : config.getDefaultLifecycleHooks());
-      account.setEnabled(Optional.ofNullable(account.getEnabled()).orElse(true));
-
-      Map<String, String> templateContext = new HashMap<>(templateValues);
-      templateContext.put("name", account.getName());
-      templateContext.put("accountId", account.getAccountId());
-      templateContext.put("environment", account.getEnvironment());
-      templateContext.put("accountType", account.getAccountType());
-
-      account.setDefaultKeyPair(
-          templateFirstNonNull(
-              templateContext, account.getDefaultKeyPair(), config.getDefaultKeyPairTemplate()));
-      account.setEdda(
-          templateFirstNonNull(
-              templateContext, account.getEdda(), config.getDefaultEddaTemplate()));
-      account.setFront50(
-          templateFirstNonNull(
-              templateContext, account.getFront50(), config.getDefaultFront50Template()));
-      account.setDiscovery(
-          templateFirstNonNull(
-              templateContext, account.getDiscovery(), config.getDefaultDiscoveryTemplate()));
-      account.setAssumeRole(
-          templateFirstNonNull(
-              templateContext, account.getAssumeRole(), config.getDefaultAssumeRole()));
-      account.setSessionName(
-          templateFirstNonNull(
-              templateContext, account.getSessionName(), config.getDefaultSessionName()));
-      account.setBastionHost(
-          templateFirstNonNull(
-              templateContext, account.getBastionHost(), config.getDefaultBastionHostTemplate()));
-
-      if (account.getLifecycleHooks() != null) {
-        for (CredentialsConfig.LifecycleHook lifecycleHook : account.getLifecycleHooks()) {
-          lifecycleHook.setRoleARN(
-              templateFirstNonNull(
-                  templateContext,
-                  lifecycleHook.getRoleARN(),
-                  config.getDefaultLifecycleHookRoleARNTemplate()));
-          lifecycleHook.setNotificationTargetARN(
-              templateFirstNonNull(
-                  templateContext,
-                  lifecycleHook.getNotificationTargetARN(),
-                  config.getDefaultLifecycleHookNotificationTargetARNTemplate()));
-        }
+  private T loadAccount(
+      CredentialsConfig config, Lazy<List<Region>> defaultRegions, Account account)
+      throws Throwable {
+    if (account.getAccountId() == null) {
+      if (!credentialTranslator.resolveAccountId()) {
+        throw new IllegalArgumentException(
+            "accountId is required and not resolvable for this credentials type");
       }
+      account.setAccountId(awsAccountInfoLookup.findAccountId());
+    }
 
-      initializedAccounts.add(credentialTranslator.translate(credentialsProvider, account));
+    if (account.getEnvironment() == null) {
+      account.setEnvironment(account.getName());
     }
-    return initializedAccounts.stream()
-        .filter(AmazonCredentials::isEnabled)
-        .collect(Collectors.toList());
+
+    if (account.getAccountType() == null) {
+      account.setAccountType(account.getName());
+    }
+
+    account.setRegions(initRegions(defaultRegions, account.getRegions()));
+    account.setDefaultSecurityGroups(
+        account.getDefaultSecurityGroups() != null
+            ? account.getDefaultSecurityGroups()
+            : config.getDefaultSecurityGroups());
+    account.setLifecycleHooks(
+        account.getLifecycleHooks() != null
+            ? account.getLifecycleHooks()
+            : config.getDefaultLifecycleHooks());
+    account.setEnabled(Optional.ofNullable(account.getEnabled()).orElse(true));
+
+    Map<String, String> templateContext = new HashMap<>(templateValues);
+    templateContext.put("name", account.getName());
+    templateContext.put("accountId", account.getAccountId());
+    templateContext.put("environment", account.getEnvironment());
+    templateContext.put("accountType", account.getAccountType());
+
+    account.setDefaultKeyPair(
+        templateFirstNonNull(
+            templateContext, account.getDefaultKeyPair(), config.getDefaultKeyPairTemplate()));
+    account.setEdda(
+        templateFirstNonNull(templateContext, account.getEdda(), config.getDefaultEddaTemplate()));
+    account.setFront50(
+        templateFirstNonNull(
+            templateContext, account.getFront50(), config.getDefaultFront50Template()));
+    account.setDiscovery(
+        templateFirstNonNull(
+            templateContext, account.getDiscovery(), config.getDefaultDiscoveryTemplate()));
+    account.setAssumeRole(
+        templateFirstNonNull(
+            templateContext, account.getAssumeRole(), config.getDefaultAssumeRole()));
+    account.setSessionName(
+        templateFirstNonNull(
+            templateContext, account.getSessionName(), config.getDefaultSessionName()));
+    account.setBastionHost(
+        templateFirstNonNull(
+            templateContext, account.getBastionHost(), config.getDefaultBastionHostTemplate()));
+
+    if (account.getLifecycleHooks() != null) {
+      for (CredentialsConfig.LifecycleHook lifecycleHook : account.getLifecycleHooks()) {
+        lifecycleHook.setRoleARN(
+            templateFirstNonNull(
+                templateContext,
+                lifecycleHook.getRoleARN(),
+                config.getDefaultLifecycleHookRoleARNTemplate()));
+        lifecycleHook.setNotificationTargetARN(
+            templateFirstNonNull(
+                templateContext,
+                lifecycleHook.getNotificationTargetARN(),
+                config.getDefaultLifecycleHookNotificationTargetARNTemplate()));
+      }
+    }
+
+    return credentialTranslator.translate(credentialsProvider, account);
   }
 
   private static class Lazy<T> {
@@ -309,7 +351,7 @@ public class CredentialsLoader<T extends AmazonCredentials> {
       this.loader = loader;
     }
 
-    public T get() {
+    public synchronized T get() {
       if (ref.get() == null) {
         ref.set(loader.get());
       }
@@ -24,6 +24,8 @@ import com.netflix.spinnaker.clouddriver.aws.security.NetflixAmazonCredentials
 import com.netflix.spinnaker.clouddriver.aws.security.config.CredentialsConfig.Account
 import com.netflix.spinnaker.clouddriver.aws.security.config.CredentialsConfig.LifecycleHook
 import com.netflix.spinnaker.clouddriver.aws.security.config.CredentialsConfig.Region
+import com.netflix.spinnaker.clouddriver.security.ParallelAccountInitializer
+import com.netflix.spinnaker.clouddriver.security.config.CredentialsInitializationProperties
 import spock.lang.Specification
 
 class CredentialsLoaderSpec extends Specification {
@@ -121,6 +123,50 @@ class CredentialsLoaderSpec extends Specification {
         0 * _
     }
 
+    def 'accounts loaded through a parallel initializer keep their configured order'() {
+        setup:
+        def config = new CredentialsConfig(
+                defaultRegions: [new Region(name: 'us-east-1')],
+                accounts: (1..10).collect { new Account(name: "account-$it", accountId: it) })
+        AWSCredentialsProvider provider = Mock(AWSCredentialsProvider)
+        AWSAccountInfoLookup lookup = Mock(AWSAccountInfoLookup)
+        CredentialsLoader<AmazonCredentials> ci = new CredentialsLoader<>(provider, lookup, AmazonCredentials)
+        def initializer = new ParallelAccountInitializer(new CredentialsInitializationProperties(parallel: true, parallelism: 4))
+
+        when:
+        List<AmazonCredentials> creds = ci.load(config, initializer)
+
+        then:
+        1 * lookup.listRegions(['us-east-1']) >> [new AmazonCredentials.AWSRegion('us-east-1', ['us-east-1a'])]
+        creds.name == (1..10).collect { "account-$it".toString() }
+        creds.every { it.regions.name == ['us-east-1'] }
+
+        cleanup:
+        initializer.shutdown()
+    }
+
+    def 'a failed account fails a parallel load'() {
+        setup:
+        def config = new CredentialsConfig(
+                defaultRegions: [new Region(name: 'us-east-1', availabilityZones: ['us-east-1a'])],
+                accounts: [new Account(name: 'default', accountId: 1), new Account(name: 'unresolved')])
+        AWSCredentialsProvider provider = Mock(AWSCredentialsProvider)
+        AWSAccountInfoLookup lookup = Mock(AWSAccountInfoLookup)
+        CredentialsLoader<AmazonCredentials> ci = new CredentialsLoader<>(provider, lookup, AmazonCredentials)
+        def initializer = new ParallelAccountInitializer(new CredentialsInitializationProperties(parallel: true))
+
+        when:
+        ci.load(config, initializer)
+
+        then:
+        1 * lookup.findAccountId() >> { throw new IllegalStateException('no account id') }
+        def e = thrown(IllegalArgumentException)
+        e.cause.message == 'no account id'
+
+        cleanup:
+        initializer.shutdown()
+    }
+
     def 'availabilityZones are resolved for account-specific region if not defined in defaults'() {
         def config = new CredentialsConfig(
                 defaultRegions: [new Region(name: 'us-east-1')],
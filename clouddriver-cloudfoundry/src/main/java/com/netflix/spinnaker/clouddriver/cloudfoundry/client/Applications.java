@@ -23,9 +23,8 @@ import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.netflix.frigga.Names;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.api.ApplicationService;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.ApplicationEnv;
@@ -40,13 +39,20 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
-import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -58,50 +64,133 @@ import retrofit.mime.TypedInput;
 @RequiredArgsConstructor
 @Slf4j
 public class Applications {
+  static final int MAX_CACHED_SERVER_GROUPS = 20_000;
+
+  /**
+   * Below this many changed applications, fetching each one's process is cheaper than listing
+   * every process in the foundation.
+   */
+  private static final int PROCESS_LISTING_THRESHOLD = 50;
+
+  /**
+   * Service bindings, environment and process changes don't bump an application's `updated_at`, so
+   * a cached server group is mapped in full again once it is this old, however unchanged its
+   * application looks.
+   */
+  static final Duration MAX_SERVER_GROUP_AGE = Duration.ofMinutes(5);
+
+  /**
+   * How far the foundation's clock may run behind ours. An application updated within this long
+   * before a listing started is treated as changed by the next listing.
+   */
+  static final Duration CLOCK_SKEW_MARGIN = Duration.ofMinutes(1);
+
   private final String account;
   private final String appsManagerUri;
   private final String metricsUri;
   private final ApplicationService api;
   private final Spaces spaces;
 
-  private final LoadingCache<String, CloudFoundryServerGroup> serverGroupCache =
-      CacheBuilder.newBuilder()
-          .expireAfterWrite(5, TimeUnit.MINUTES)
-          .build(
-              new CacheLoader<String, CloudFoundryServerGroup>() {
-                @Override
-                public CloudFoundryServerGroup load(@Nonnull String guid)
-                    throws ResourceNotFoundException {
-                  return safelyCall(() -> api.findById(guid))
-                      .map(Applications.this::map)
-                      .orElseThrow(ResourceNotFoundException::new);
-                }
-              });
+  /** Bounds the requests made concurrently to this foundation while listing all applications. */
+  private final Executor executor;
+
+  private final Cache<String, MappedServerGroup> serverGroupCache =
+      CacheBuilder.newBuilder().maximumSize(MAX_CACHED_SERVER_GROUPS).build();
+
+  /**
+   * The start of the last complete listing of all applications, less {@link #CLOCK_SKEW_MARGIN}.
+   * Cached server groups of applications last updated before it are known to be current, apart
+   * from their instances.
+   */
+  @Nullable private volatile ZonedDateTime highWaterMark;
 
+  @Setter(AccessLevel.PACKAGE)
+  private Clock clock = Clock.systemUTC();
+
+  /**
+   * Returns the server group from the cache if present and recently mapped. Otherwise the
+   * application is fetched directly; concurrent lookups of other server groups never wait on that
+   * fetch.
+   */
   @Nullable
   public CloudFoundryServerGroup findById(String guid) {
-    return safelyCall(
-            () -> {
-              try {
-                return serverGroupCache.get(guid);
-              } catch (ExecutionException e) {
-                if (e.getCause() instanceof ResourceNotFoundException) {
-                  return null;
-                }
-                throw new CloudFoundryApiException(
-                    e.getCause(), "Unable to find server group by id");
-              }
-            })
-        .orElse(null);
+    MappedServerGroup cached = serverGroupCache.getIfPresent(guid);
+    if (cached != null && !cached.isOlderThan(MAX_SERVER_GROUP_AGE, clock.instant())) {
+      return cached.getServerGroup();
+    }
+
+    CloudFoundryServerGroup serverGroup =
+        safelyCall(() -> api.findById(guid)).map(this::map).orElse(null);
+    if (serverGroup != null) {
+      cacheMapped(serverGroup);
+    }
+    return serverGroup;
   }
 
   public List<CloudFoundryApplication> all() {
-    List<CloudFoundryServerGroup> serverGroups =
-        collectPages("applications", page -> api.all(page, null, null)).stream()
-            .map(this::map)
+    Instant listingStartedAt = clock.instant();
+
+    // an application created or deleted while pages are fetched concurrently can shift another
+    // application onto two pages, so only the first sighting of each is kept
+    Map<String, Application> applications = new LinkedHashMap<>();
+    for (Application application :
+        collectPages("applications", page -> api.all(page, null, null), executor)) {
+      applications.putIfAbsent(application.getGuid(), application);
+    }
+
+    // only applications changed since the last listing, or mapped too long ago, are mapped in
+    // full; the rest reuse their cached server group and refresh just their instances
+    ZonedDateTime previousHighWaterMark = highWaterMark;
+    List<Application> changed = new ArrayList<>();
+    Map<String, MappedServerGroup> unchanged = new HashMap<>();
+    for (Application application : applications.values()) {
+      MappedServerGroup cached = serverGroupCache.getIfPresent(application.getGuid());
+      if (cached != null
+          && !cached.isOlderThan(MAX_SERVER_GROUP_AGE, listingStartedAt)
+          && previousHighWaterMark != null
+          && application.getUpdatedAt() != null
+          && application.getUpdatedAt().isBefore(previousHighWaterMark)) {
+        unchanged.put(application.getGuid(), cached);
+      } else {
+        changed.add(application);
+      }
+    }
+
+    Map<String, Process> webProcesses =
+        changed.size() > PROCESS_LISTING_THRESHOLD ? findWebProcesses() : emptyMap();
+    List<CompletableFuture<MappedServerGroup>> mappedServerGroups =
+        applications.values().stream()
+            .map(
+                application -> {
+                  MappedServerGroup cached = unchanged.get(application.getGuid());
+                  return CompletableFuture.supplyAsync(
+                      () ->
+                          cached != null
+                              ? refreshInstances(application, cached)
+                              : new MappedServerGroup(
+                                  map(application, webProcesses.get(application.getGuid())),
+                                  clock.instant()),
+                      executor);
+                })
             .collect(toList());
-    serverGroupCache.invalidateAll();
-    serverGroups.forEach(sg -> serverGroupCache.put(sg.getId(), sg));
+    List<MappedServerGroup> mapped =
+        mappedServerGroups.stream().map(CloudFoundryClientUtils::join).collect(toList());
+
+    serverGroupCache.asMap().keySet().retainAll(applications.keySet());
+    mapped.forEach(m -> serverGroupCache.put(m.getServerGroup().getId(), m));
+    // page contents are fetched at different times, so the latest `updated_at` among them says
+    // nothing about what the listing as a whole has seen; its start time does
+    highWaterMark =
+        ZonedDateTime.ofInstant(listingStartedAt.minus(CLOCK_SKEW_MARGIN), ZoneOffset.UTC);
+
+    List<CloudFoundryServerGroup> serverGroups =
+        mapped.stream().map(MappedServerGroup::getServerGroup).collect(toList());
+
+    log.debug(
+        "Mapped {} changed and refreshed {} unchanged server groups in account '{}'",
+        changed.size(),
+        unchanged.size(),
+        account);
 
     Map<String, Set<CloudFoundryServerGroup>> serverGroupsByClusters = new HashMap<>();
     Map<String, Set<String>> clustersByApps = new HashMap<>();
@@ -145,6 +234,7 @@ public class Applications {
   @Nullable
   public String findServerGroupId(String name, String spaceId) {
     return serverGroupCache.asMap().values().stream()
+        .map(MappedServerGroup::getServerGroup)
         .filter(
             serverGroup ->
                 serverGroup.getName().equalsIgnoreCase(name)
@@ -161,14 +251,53 @@ public class Applications {
                                 .map(this::map)
                                 .map(
                                     serverGroup -> {
-                                      serverGroupCache.put(serverGroup.getId(), serverGroup);
+                                      cacheMapped(serverGroup);
                                       return serverGroup;
                                     })
                                 .map(CloudFoundryServerGroup::getId))
                     .orElse(null));
   }
 
+  /**
+   * Lists the web process of every application in one paged request instead of one request per
+   * application. A web process shares its application's guid. Returns an empty map if processes
+   * can't be listed, in which case each application's process is fetched on its own.
+   */
+  private Map<String, Process> findWebProcesses() {
+    try {
+      return collectPages(
+              "processes", page -> api.allProcesses(page, singletonList("web")), executor)
+          .stream()
+          .collect(Collectors.toMap(Process::getGuid, process -> process, (p1, p2) -> p1));
+    } catch (CloudFoundryApiException e) {
+      log.debug("Unable to list processes for account '" + account + "'", e);
+      return emptyMap();
+    }
+  }
+
   private CloudFoundryServerGroup map(Application application) {
+    return map(application, null);
+  }
+
+  private void cacheMapped(CloudFoundryServerGroup serverGroup) {
+    serverGroupCache.put(serverGroup.getId(), new MappedServerGroup(serverGroup, clock.instant()));
+  }
+
+  /** Refreshes the instances of a cached server group, which keeps the time it was mapped at. */
+  private MappedServerGroup refreshInstances(Application application, MappedServerGroup cached) {
+    CloudFoundryServerGroup serverGroup = cached.getServerGroup();
+    CloudFoundryServerGroup.State state =
+        CloudFoundryServerGroup.State.valueOf(application.getState());
+    if (state != serverGroup.getState()) {
+      // a start or stop normally bumps updated_at, but map in full if it somehow didn't
+      return new MappedServerGroup(map(application), clock.instant());
+    }
+    return new MappedServerGroup(
+        serverGroup.withInstances(findInstances(application, state, serverGroup.getSpace())),
+        cached.getMappedAt());
+  }
+
+  private CloudFoundryServerGroup map(Application application, @Nullable Process webProcess) {
     CloudFoundryServerGroup.State state =
         CloudFoundryServerGroup.State.valueOf(application.getState());
 
@@ -178,69 +307,12 @@ public class Applications {
     String appId = application.getGuid();
     ApplicationEnv applicationEnv =
         safelyCall(() -> api.findApplicationEnvById(appId)).orElse(null);
-    Process process = safelyCall(() -> api.findProcessById(appId)).orElse(null);
-
-    Set<CloudFoundryInstance> instances;
-    switch (state) {
-      case STOPPED:
-        instances = emptySet();
-        break;
-      case STARTED:
-        try {
-          instances =
-              safelyCall(() -> api.instances(appId)).orElse(emptyMap()).entrySet().stream()
-                  .map(
-                      inst -> {
-                        HealthState healthState = HealthState.Unknown;
-                        switch (inst.getValue().getState()) {
-                          case RUNNING:
-                            healthState = HealthState.Up;
-                            break;
-                          case DOWN:
-                          case CRASHED:
-                            healthState = HealthState.Down;
-                            break;
-                          case STARTING:
-                            healthState = HealthState.Starting;
-                            break;
-                        }
-                        return CloudFoundryInstance.builder()
-                            .appGuid(appId)
-                            .key(inst.getKey())
-                            .healthState(healthState)
-                            .details(inst.getValue().getDetails())
-                            .launchTime(
-                                System.currentTimeMillis() - (inst.getValue().getUptime() * 1000))
-                            .zone(space == null ? "unknown" : space.getName())
-                            .build();
-                      })
-                  .collect(toSet());
+    Process process =
+        webProcess != null
+            ? webProcess
+            : safelyCall(() -> api.findProcessById(appId)).orElse(null);
 
-          log.debug(
-              "Successfully retrieved "
-                  + instances.size()
-                  + " instances for application '"
-                  + application.getName()
-                  + "'");
-        } catch (RetrofitError e) {
-          try {
-            log.debug(
-                "Unable to retrieve instances for application '"
-                    + application.getName()
-                    + "': "
-                    + IOUtils.toString(e.getResponse().getBody().in(), Charset.defaultCharset()));
-          } catch (IOException e1) {
-            log.debug("Unable to retrieve droplet for application '" + application.getName() + "'");
-          }
-          instances = emptySet();
-        } catch (Exception ex) {
-          log.debug("Unable to retrieve droplet for application '" + application.getName() + "'");
-          instances = emptySet();
-        }
-        break;
-      default:
-        instances = emptySet();
-    }
+    Set<CloudFoundryInstance> instances = findInstances(application, state, space);
 
     CloudFoundryDroplet droplet = null;
     try {
@@ -374,6 +446,76 @@ public class Applications {
         .build();
   }
 
+  private Set<CloudFoundryInstance> findInstances(
+      Application application,
+      CloudFoundryServerGroup.State state,
+      @Nullable CloudFoundrySpace space) {
+    String appId = application.getGuid();
+    Set<CloudFoundryInstance> instances;
+    switch (state) {
+      case STOPPED:
+        instances = emptySet();
+        break;
+      case STARTED:
+        try {
+          instances =
+              safelyCall(() -> api.instances(appId)).orElse(emptyMap()).entrySet().stream()
+                  .map(
+                      inst -> {
+                        HealthState healthState = HealthState.Unknown;
+                        switch (inst.getValue().getState()) {
+                          case RUNNING:
+                            healthState = HealthState.Up;
+                            break;
+                          case DOWN:
+                          case CRASHED:
+                            healthState = HealthState.Down;
+                            break;
+                          case STARTING:
+                            healthState = HealthState.Starting;
+                            break;
+                        }
+                        return CloudFoundryInstance.builder()
+                            .appGuid(appId)
+                            .key(inst.getKey())
+                            .healthState(healthState)
+                            .details(inst.getValue().getDetails())
+                            .launchTime(
+                                System.currentTimeMillis() - (inst.getValue().getUptime() * 1000))
+                            .zone(space == null ? "unknown" : space.getName())
+                            .build();
+                      })
+                  .collect(toSet());
+
+          log.debug(
+              "Successfully retrieved "
+                  + instances.size()
+                  + " instances for application '"
+                  + application.getName()
+                  + "'");
+        } catch (RetrofitError e) {
+          try {
+            log.debug(
+                "Unable to retrieve instances for application '"
+                    + application.getName()
+                    + "': "
+                    + IOUtils.toString(e.getResponse().getBody().in(), Charset.defaultCharset()));
+          } catch (IOException e1) {
+            log.debug("Unable to retrieve droplet for application '" + application.getName() + "'");
+          }
+          instances = emptySet();
+        } catch (Exception ex) {
+          log.debug("Unable to retrieve droplet for application '" + application.getName() + "'");
+          instances = emptySet();
+        }
+        break;
+      default:
+        instances = emptySet();
+    }
+
+    return instances;
+  }
+
   private String getEnvironmentVar(
       Map<String, Object> environmentVars, ServerGroupMetaDataEnvVar var) {
     return Optional.ofNullable(environmentVars.get(var.envVarName))
@@ -595,4 +737,16 @@ public class Applications {
             })
         .collect(Collectors.toList());
   }
+
+  @Value
+  private static class MappedServerGroup {
+    CloudFoundryServerGroup serverGroup;
+
+    /** When the server group was last mapped in full. */
+    Instant mappedAt;
+
+    boolean isOlderThan(Duration age, Instant now) {
+      return mappedAt.plus(age).isBefore(now);
+    }
+  }
 }
@@ -23,6 +23,9 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Pagination
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import retrofit.RetrofitError;
 
@@ -101,6 +104,90 @@ final class CloudFoundryClientUtils {
     return allResources;
   }
 
+  /**
+   * Like {@link #collectPages(String, Function)}, but fetches every page after the first
+   * concurrently on `executor`, which bounds how many requests are in flight.
+   */
+  static <R> List<R> collectPages(
+      String resourceNamePluralized, Function<Integer, Pagination<R>> fetchPage, Executor executor)
+      throws CloudFoundryApiException {
+    Pagination<R> firstPage =
+        safelyCall(() -> fetchPage.apply(null))
+            .orElseThrow(
+                () -> new CloudFoundryApiException("Unable to retrieve " + resourceNamePluralized));
+
+    return collectRemainingPages(
+        resourceNamePluralized,
+        firstPage.getResources(),
+        firstPage.getPagination().getTotalPages(),
+        page -> fetchPage.apply(page).getResources(),
+        executor);
+  }
+
+  /**
+   * Like {@link #collectPageResources(String, Function)}, but fetches every page after the first
+   * concurrently on `executor`, which bounds how many requests are in flight.
+   */
+  static <R> List<Resource<R>> collectPageResources(
+      String resourceNamePluralized, Function<Integer, Page<R>> fetchPage, Executor executor)
+      throws CloudFoundryApiException {
+    Page<R> firstPage =
+        safelyCall(() -> fetchPage.apply(null))
+            .orElseThrow(
+                () -> new CloudFoundryApiException("Unable to retrieve " + resourceNamePluralized));
+
+    return collectRemainingPages(
+        resourceNamePluralized,
+        firstPage.getResources(),
+        firstPage.getTotalPages(),
+        page -> fetchPage.apply(page).getResources(),
+        executor);
+  }
+
+  private static <T> List<T> collectRemainingPages(
+      String resourceNamePluralized,
+      List<T> firstPageResources,
+      int totalPages,
+      Function<Integer, List<T>> fetchPageResources,
+      Executor executor)
+      throws CloudFoundryApiException {
+    List<CompletableFuture<List<T>>> remainingPages = new ArrayList<>();
+    for (int page = 2; page <= totalPages; page++) {
+      final int p = page;
+      remainingPages.add(
+          CompletableFuture.supplyAsync(
+              () ->
+                  safelyCall(() -> fetchPageResources.apply(p))
+                      .orElseThrow(
+                          () ->
+                              new CloudFoundryApiException(
+                                  "Unable to retrieve " + resourceNamePluralized)),
+              executor));
+    }
+
+    // pages are joined in order, so resources come back in the same order as a sequential fetch
+    List<T> allResources = new ArrayList<>(firstPageResources);
+    for (CompletableFuture<List<T>> page : remainingPages) {
+      allResources.addAll(join(page));
+    }
+    return allResources;
+  }
+
+  /**
+   * Waits for `future`, rethrowing a failure the way the call would have thrown it had it been
+   * made on the calling thread.
+   */
+  static <T> T join(CompletableFuture<T> future) throws CloudFoundryApiException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new CloudFoundryApiException(e.getCause(), "Unable to complete request");
+    }
+  }
+
   interface RetrofitCallable<T> {
     T call() throws RetrofitError;
   }
@@ -21,6 +21,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.google.common.annotations.VisibleForTesting;
+import com.netflix.spinnaker.cats.thread.NamedThreadFactory;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.api.ApplicationService;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.api.AuthenticationService;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.api.ConfigService;
@@ -38,6 +40,7 @@ import com.squareup.okhttp.Response;
 import io.github.resilience4j.retry.IntervalFunction;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
+import java.io.Closeable;
 import java.net.SocketTimeoutException;
 import java.nio.charset.Charset;
 import java.security.KeyManagementException;
@@ -45,6 +48,9 @@ import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
 import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.net.ssl.SSLContext;
@@ -59,12 +65,17 @@ import retrofit.client.OkClient;
 import retrofit.converter.JacksonConverter;
 
 @Slf4j
-public class HttpCloudFoundryClient implements CloudFoundryClient {
+public class HttpCloudFoundryClient implements CloudFoundryClient, Closeable {
+  public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 16;
+
   private final String apiHost;
   private final String user;
   private final String password;
   private final OkHttpClient okHttpClient;
 
+  /** Bounds the requests this client makes at once while listing applications. */
+  private final ThreadPoolExecutor executor;
+
   private AuthenticationService uaaService;
   private AtomicLong tokenExpirationNs = new AtomicLong(System.nanoTime());
   private volatile Token token;
@@ -163,11 +174,32 @@ public class HttpCloudFoundryClient implements CloudFoundryClient {
       String user,
       String password,
       boolean skipSslValidation) {
+    this(
+        account,
+        appsManagerUri,
+        metricsUri,
+        apiHost,
+        user,
+        password,
+        skipSslValidation,
+        DEFAULT_MAX_CONCURRENT_REQUESTS);
+  }
+
+  public HttpCloudFoundryClient(
+      String account,
+      String appsManagerUri,
+      String metricsUri,
+      String apiHost,
+      String user,
+      String password,
+      boolean skipSslValidation,
+      int maxConcurrentRequests) {
     this.apiHost = apiHost;
     this.user = user;
     this.password = password;
 
     this.okHttpClient = createHttpClient(skipSslValidation);
+    this.executor = createExecutor(account, maxConcurrentRequests);
 
     okHttpClient.interceptors().add(this::createRetryInterceptor);
 
@@ -191,7 +223,12 @@ public class HttpCloudFoundryClient implements CloudFoundryClient {
     this.spaces = new Spaces(createService(SpaceService.class), organizations);
     this.applications =
         new Applications(
-            account, appsManagerUri, metricsUri, createService(ApplicationService.class), spaces);
+            account,
+            appsManagerUri,
+            metricsUri,
+            createService(ApplicationService.class),
+            spaces,
+            executor);
     this.domains = new Domains(createService(DomainService.class), organizations);
     this.serviceInstances =
         new ServiceInstances(
@@ -205,6 +242,34 @@ public class HttpCloudFoundryClient implements CloudFoundryClient {
     this.tasks = new Tasks(createService(TaskService.class));
   }
 
+  private static ThreadPoolExecutor createExecutor(String account, int maxConcurrentRequests) {
+    int threads = Math.max(maxConcurrentRequests, 1);
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            1,
+            TimeUnit.MINUTES,
+            new LinkedBlockingQueue<>(),
+            new NamedThreadFactory(HttpCloudFoundryClient.class.getSimpleName() + "-" + account));
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Stops the client's request pool once the requests already handed to it complete. The client
+   * should not be used afterwards.
+   */
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  @VisibleForTesting
+  public boolean isClosed() {
+    return executor.isShutdown();
+  }
+
   private static OkHttpClient createHttpClient(boolean skipSslValidation) {
     OkHttpClient client = new OkHttpClient();
 
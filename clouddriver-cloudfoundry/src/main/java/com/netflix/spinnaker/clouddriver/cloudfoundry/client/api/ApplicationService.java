@@ -83,6 +83,10 @@ public interface ApplicationService {
   @GET("/v3/processes/{guid}")
   Process findProcessById(@Path("guid") String guid);
 
+  @GET("/v3/processes?per_page=5000")
+  Pagination<Process> allProcesses(
+      @Query("page") Integer page, @Query("types") List<String> types);
+
   @GET("/v3/processes/{guid}/stats")
   ProcessResources findProcessStatsById(@Path("guid") String guid);
 
@@ -16,6 +16,7 @@
 
 package com.netflix.spinnaker.clouddriver.cloudfoundry.config;
 
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.HttpCloudFoundryClient;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.Data;
@@ -41,6 +42,12 @@ public class CloudFoundryConfigurationProperties implements DisposableBean {
   private int asyncOperationMaxPollingIntervalMilliseconds =
       ASYNC_OPERATION_MAX_POLLING_INTERVAL_MILLISECONDS;
 
+  /**
+   * How long the client of a replaced or deleted account stays open, so caching cycles and
+   * operations that already hold it can finish before its request pool is shut down.
+   */
+  private long clientCloseGracePeriodMilliseconds = ASYNC_OPERATION_TIMEOUT_MILLISECONDS_DEFAULT;
+
   private List<ManagedAccount> accounts = new ArrayList<>();
 
   @Override
@@ -60,5 +67,8 @@ public class CloudFoundryConfigurationProperties implements DisposableBean {
     private String password;
     private String environment;
     private boolean skipSslValidation;
+
+    /** The most requests this account makes at once to its foundation while caching. */
+    private int maxConcurrentRequests = HttpCloudFoundryClient.DEFAULT_MAX_CONCURRENT_REQUESTS;
   }
 }
@@ -25,6 +25,8 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.client.CloudFoundryApiExce
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.CloudFoundryClient;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.HttpCloudFoundryClient;
 import com.netflix.spinnaker.clouddriver.security.AccountCredentials;
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.*;
 import javax.annotation.Nullable;
 import lombok.Getter;
@@ -50,6 +52,7 @@ public class CloudFoundryCredentials implements AccountCredentials<CloudFoundryC
 
   @Deprecated private final List<String> requiredGroupMembership = Collections.emptyList();
   private final boolean skipSslValidation;
+  private final int maxConcurrentRequests;
 
   private CloudFoundryClient credentials;
 
@@ -62,6 +65,28 @@ public class CloudFoundryCredentials implements AccountCredentials<CloudFoundryC
       String password,
       String environment,
       boolean skipSslValidation) {
+    this(
+        name,
+        appsManagerUri,
+        metricsUri,
+        apiHost,
+        userName,
+        password,
+        environment,
+        skipSslValidation,
+        HttpCloudFoundryClient.DEFAULT_MAX_CONCURRENT_REQUESTS);
+  }
+
+  public CloudFoundryCredentials(
+      String name,
+      String appsManagerUri,
+      String metricsUri,
+      String apiHost,
+      String userName,
+      String password,
+      String environment,
+      boolean skipSslValidation,
+      int maxConcurrentRequests) {
     this.name = name;
     this.appsManagerUri = appsManagerUri;
     this.metricsUri = metricsUri;
@@ -70,13 +95,21 @@ public class CloudFoundryCredentials implements AccountCredentials<CloudFoundryC
     this.password = password;
     this.environment = Optional.ofNullable(environment).orElse("dev");
     this.skipSslValidation = skipSslValidation;
+    this.maxConcurrentRequests = maxConcurrentRequests;
   }
 
   public CloudFoundryClient getCredentials() {
     if (this.credentials == null) {
       this.credentials =
           new HttpCloudFoundryClient(
-              name, appsManagerUri, metricsUri, apiHost, userName, password, skipSslValidation);
+              name,
+              appsManagerUri,
+              metricsUri,
+              apiHost,
+              userName,
+              password,
+              skipSslValidation,
+              maxConcurrentRequests);
     }
     return credentials;
   }
@@ -85,6 +118,17 @@ public class CloudFoundryCredentials implements AccountCredentials<CloudFoundryC
     return getCredentials();
   }
 
+  /** Releases the resources held by the client, if one was created. */
+  public void close() {
+    if (credentials instanceof Closeable) {
+      try {
+        ((Closeable) credentials).close();
+      } catch (IOException e) {
+        log.warn("Unable to close the client of Cloud Foundry account " + name, e);
+      }
+    }
+  }
+
   public Collection<Map<String, String>> getRegions() {
     try {
       return getCredentials().getSpaces().all().stream()
@@ -109,12 +153,20 @@ public class CloudFoundryCredentials implements AccountCredentials<CloudFoundryC
         && Objects.equals(userName, that.userName)
         && Objects.equals(password, that.password)
         && Objects.equals(environment, that.environment)
-        && Objects.equals(skipSslValidation, that.skipSslValidation);
+        && Objects.equals(skipSslValidation, that.skipSslValidation)
+        && maxConcurrentRequests == that.maxConcurrentRequests;
   }
 
   @Override
   public int hashCode() {
     return Objects.hash(
-        name, appsManagerUri, metricsUri, userName, password, environment, skipSslValidation);
+        name,
+        appsManagerUri,
+        metricsUri,
+        userName,
+        password,
+        environment,
+        skipSslValidation,
+        maxConcurrentRequests);
   }
 }
@@ -19,6 +19,7 @@ package com.netflix.spinnaker.clouddriver.cloudfoundry.security;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.cats.agent.Agent;
 import com.netflix.spinnaker.cats.module.CatsModule;
+import com.netflix.spinnaker.cats.thread.NamedThreadFactory;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.config.CloudFoundryConfigurationProperties;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.provider.CloudFoundryProvider;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.provider.agent.CloudFoundryCachingAgent;
@@ -29,8 +30,13 @@ import com.netflix.spinnaker.clouddriver.security.ProviderUtils;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 public class CloudFoundryCredentialsSynchronizer implements CredentialsInitializerSynchronizable {
 
@@ -40,6 +46,11 @@ public class CloudFoundryCredentialsSynchronizer implements CredentialsInitializ
   private final CatsModule catsModule;
   private final Registry registry;
 
+  private final Set<CloudFoundryCredentials> retiredCredentials = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService closer =
+      Executors.newSingleThreadScheduledExecutor(
+          new NamedThreadFactory(CloudFoundryCredentialsSynchronizer.class.getSimpleName()));
+
   public CloudFoundryCredentialsSynchronizer(
       CloudFoundryProvider cloudFoundryProvider,
       CloudFoundryConfigurationProperties cloudFoundryConfigurationProperties,
@@ -59,20 +70,32 @@ public class CloudFoundryCredentialsSynchronizer implements CredentialsInitializ
     List<String> deletedAccountNames =
         getDeletedAccountNames(accountCredentialsRepository, cloudFoundryConfigurationProperties);
 
+    List<AccountCredentials> replacedCredentials = new ArrayList<>();
     List<String> changedAccountNames =
         synchronizeRepository(
-            cloudFoundryConfigurationProperties.getAccounts(), deletedAccountNames);
+            cloudFoundryConfigurationProperties.getAccounts(),
+            deletedAccountNames,
+            replacedCredentials);
 
     synchronizeAgentCache(changedAccountNames, deletedAccountNames);
+
+    // the agents of replaced accounts are unscheduled by now, but a caching cycle or operation
+    // that started before the swap may still be using their clients
+    replacedCredentials.forEach(this::retire);
   }
 
   private List<String> synchronizeRepository(
       List<CloudFoundryConfigurationProperties.ManagedAccount> accounts,
-      List<String> deletedAccountNames) {
+      List<String> deletedAccountNames,
+      List<AccountCredentials> replacedCredentials) {
 
     List<String> changedAccountNames = new ArrayList<>();
 
-    deletedAccountNames.forEach(accountCredentialsRepository::delete);
+    deletedAccountNames.forEach(
+        name -> {
+          replacedCredentials.add(accountCredentialsRepository.getOne(name));
+          accountCredentialsRepository.delete(name);
+        });
 
     accounts.forEach(
         managedAccount -> {
@@ -85,13 +108,15 @@ public class CloudFoundryCredentialsSynchronizer implements CredentialsInitializ
                   managedAccount.getUser(),
                   managedAccount.getPassword(),
                   managedAccount.getEnvironment(),
-                  managedAccount.isSkipSslValidation());
+                  managedAccount.isSkipSslValidation(),
+                  managedAccount.getMaxConcurrentRequests());
 
           AccountCredentials existingCredentials =
               accountCredentialsRepository.getOne(credentials.getName());
           if (existingCredentials != null) {
             if (!existingCredentials.equals(credentials)) {
               accountCredentialsRepository.save(managedAccount.getName(), credentials);
+              replacedCredentials.add(existingCredentials);
 
               changedAccountNames.add(managedAccount.getName());
             }
@@ -103,6 +128,41 @@ public class CloudFoundryCredentialsSynchronizer implements CredentialsInitializ
     return changedAccountNames;
   }
 
+  /**
+   * Closes the client of replaced or deleted credentials once the grace period elapses, so calls
+   * that already hold it aren't cut off by the swap.
+   */
+  private void retire(AccountCredentials credentials) {
+    if (!(credentials instanceof CloudFoundryCredentials)) {
+      return;
+    }
+
+    CloudFoundryCredentials cloudFoundryCredentials = (CloudFoundryCredentials) credentials;
+    retiredCredentials.add(cloudFoundryCredentials);
+    closer.schedule(
+        () -> {
+          if (retiredCredentials.remove(cloudFoundryCredentials)) {
+            cloudFoundryCredentials.close();
+          }
+        },
+        cloudFoundryConfigurationProperties.getClientCloseGracePeriodMilliseconds(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Closes the clients of every Cloud Foundry account, including retired ones still in their grace
+   * period, when the application shuts down.
+   */
+  @PreDestroy
+  public void closeClients() {
+    closer.shutdownNow();
+    retiredCredentials.forEach(CloudFoundryCredentials::close);
+    retiredCredentials.clear();
+    ProviderUtils.buildThreadSafeSetOfAccounts(
+            accountCredentialsRepository, CloudFoundryCredentials.class)
+        .forEach(CloudFoundryCredentials::close);
+  }
+
   private void synchronizeAgentCache(
       List<String> changedAccountNames, List<String> deletedAccountNames) {
     ProviderUtils.unscheduleAndDeregisterAgents(changedAccountNames, catsModule);
@@ -118,8 +178,9 @@ public class CloudFoundryCredentialsSynchronizer implements CredentialsInitializ
       AccountCredentialsRepository accountCredentialsRepository,
       CloudFoundryConfigurationProperties cloudFoundryConfigurationProperties) {
     List<String> existingNames =
-        accountCredentialsRepository.getAll().stream()
-            .filter(c -> CloudFoundryProvider.PROVIDER_ID.equals(c.getCloudProvider()))
+        accountCredentialsRepository
+            .getAllByCloudProvider(CloudFoundryProvider.PROVIDER_ID)
+            .stream()
             .map(AccountCredentials::getName)
             .collect(Collectors.toList());
 
@@ -23,6 +23,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.api.ApplicationService;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.*;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.*;
@@ -34,6 +35,10 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.model.CloudFoundryOrganiza
 import com.netflix.spinnaker.clouddriver.cloudfoundry.model.CloudFoundryServerGroup;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.model.CloudFoundrySpace;
 import io.vavr.collection.HashMap;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.*;
 import org.junit.jupiter.api.Test;
@@ -46,7 +51,13 @@ class ApplicationsTest {
   private ApplicationService applicationService = mock(ApplicationService.class);
   private Spaces spaces = mock(Spaces.class);
   private Applications apps =
-      new Applications("pws", "some-apps-man-uri", "some-metrics-uri", applicationService, spaces);
+      new Applications(
+          "pws",
+          "some-apps-man-uri",
+          "some-metrics-uri",
+          applicationService,
+          spaces,
+          MoreExecutors.directExecutor());
   private String spaceId = "space-guid";
   private CloudFoundrySpace cloudFoundrySpace =
       CloudFoundrySpace.builder()
@@ -398,6 +409,83 @@ class ApplicationsTest {
     verify(applicationService, never()).findById(serverGroupId);
   }
 
+  @Test
+  void allOnlyRemapsApplicationsUpdatedSinceTheLastListing() {
+    ZonedDateTime now = ZonedDateTime.now();
+    Application unchangedApplication =
+        new Application()
+            .setCreatedAt(now.minusDays(2))
+            .setUpdatedAt(now.minusDays(1))
+            .setGuid("unchanged-guid")
+            .setName("app-unchanged-v000")
+            .setState("STARTED")
+            .setLinks(
+                HashMap.of("space", new Link().setHref("http://capi.io/space/space-guid"))
+                    .toJavaMap());
+    Application latestApplication =
+        new Application()
+            .setCreatedAt(now.minusDays(2))
+            .setUpdatedAt(now)
+            .setGuid("latest-guid")
+            .setName("app-latest-v000")
+            .setState("STARTED")
+            .setLinks(
+                HashMap.of("space", new Link().setHref("http://capi.io/space/space-guid"))
+                    .toJavaMap());
+    Pagination<Application> applicationPagination =
+        new Pagination<Application>()
+            .setPagination(new Pagination.Details().setTotalPages(1))
+            .setResources(Arrays.asList(unchangedApplication, latestApplication));
+    when(applicationService.all(any(), any(), any())).thenReturn(applicationPagination);
+    mockMap(cloudFoundrySpace, "droplet-id");
+
+    apps.all();
+    List<CloudFoundryApplication> applications = apps.all();
+
+    assertThat(applications).extracting(CloudFoundryApplication::getName).containsOnly("app");
+    // the application updated within the clock skew margin of the first listing's start might
+    // have changed after its page was fetched, so it is mapped again; the older one only has its
+    // instances refreshed
+    verify(applicationService, times(1)).findApplicationEnvById("unchanged-guid");
+    verify(applicationService, times(2)).findApplicationEnvById("latest-guid");
+    verify(applicationService, times(2)).instances("unchanged-guid");
+  }
+
+  @Test
+  void allRemapsServerGroupsMappedLongerAgoThanTheMaximumAge() {
+    Instant start = Instant.parse("2019-06-01T12:00:00Z");
+    Application application =
+        new Application()
+            .setCreatedAt(ZonedDateTime.ofInstant(start, ZoneOffset.UTC).minusDays(2))
+            .setUpdatedAt(ZonedDateTime.ofInstant(start, ZoneOffset.UTC).minusDays(1))
+            .setGuid("app-guid")
+            .setName("app-v000")
+            .setState("STARTED")
+            .setLinks(
+                HashMap.of("space", new Link().setHref("http://capi.io/space/space-guid"))
+                    .toJavaMap());
+    Pagination<Application> applicationPagination =
+        new Pagination<Application>()
+            .setPagination(new Pagination.Details().setTotalPages(1))
+            .setResources(Collections.singletonList(application));
+    when(applicationService.all(any(), any(), any())).thenReturn(applicationPagination);
+    mockMap(cloudFoundrySpace, "droplet-id");
+
+    apps.setClock(Clock.fixed(start, ZoneOffset.UTC));
+    apps.all();
+    apps.setClock(Clock.fixed(start.plus(Duration.ofMinutes(1)), ZoneOffset.UTC));
+    apps.all();
+
+    // refreshing the instances must not make the server group look recently mapped
+    apps.setClock(
+        Clock.fixed(
+            start.plus(Applications.MAX_SERVER_GROUP_AGE).plusSeconds(1), ZoneOffset.UTC));
+    apps.all();
+
+    verify(applicationService, times(2)).findApplicationEnvById("app-guid");
+    verify(applicationService, times(3)).instances("app-guid");
+  }
+
   private com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Application getApplication(
       String applicationName) {
     return new com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Application()
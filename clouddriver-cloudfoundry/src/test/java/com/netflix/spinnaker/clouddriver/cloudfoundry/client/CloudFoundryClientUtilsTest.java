@@ -28,6 +28,8 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Applicatio
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Pagination;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.jupiter.api.Test;
 
 class CloudFoundryClientUtilsTest {
@@ -105,4 +107,36 @@ class CloudFoundryClientUtilsTest {
     assertThat(results)
         .containsExactly(pageOne.getResources().get(0), pageTwo.getResources().get(0));
   }
+
+  @Test
+  void collectPagesFetchesRemainingPagesConcurrentlyInOrder() {
+    ApplicationService applicationService = mock(ApplicationService.class);
+    Application applicationOne = new Application().setName("app-name-one");
+    Pagination<Application> pageOne = new Pagination<>();
+    pageOne.setPagination(new Pagination.Details().setTotalPages(3));
+    pageOne.setResources(Collections.singletonList(applicationOne));
+    Application applicationTwo = new Application().setName("app-name-two");
+    Pagination<Application> pageTwo = new Pagination<>();
+    pageTwo.setPagination(new Pagination.Details().setTotalPages(3));
+    pageTwo.setResources(Collections.singletonList(applicationTwo));
+    Application applicationThree = new Application().setName("app-name-three");
+    Pagination<Application> pageThree = new Pagination<>();
+    pageThree.setPagination(new Pagination.Details().setTotalPages(3));
+    pageThree.setResources(Collections.singletonList(applicationThree));
+
+    when(applicationService.all(null, null, null)).thenReturn(pageOne);
+    when(applicationService.all(2, null, null)).thenReturn(pageTwo);
+    when(applicationService.all(3, null, null)).thenReturn(pageThree);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List results =
+          CloudFoundryClientUtils.collectPages(
+              "applications", page -> applicationService.all(page, null, null), executor);
+
+      assertThat(results).containsExactly(applicationOne, applicationTwo, applicationThree);
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
@@ -24,6 +24,7 @@ import com.netflix.spinnaker.cats.agent.*;
 import com.netflix.spinnaker.cats.module.CatsModule;
 import com.netflix.spinnaker.cats.module.CatsModuleAware;
 import com.netflix.spinnaker.cats.provider.ProviderRegistry;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.HttpCloudFoundryClient;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.config.CloudFoundryConfigurationProperties;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.provider.CloudFoundryProvider;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.provider.agent.CloudFoundryCachingAgent;
@@ -36,6 +37,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -136,6 +138,75 @@ class CloudFoundryCredentialsSynchronizerTest {
         .containsExactlyInAnyOrder("to-be-changed", "to-be-deleted");
   }
 
+  @Test
+  void synchronizeClosesTheClientsOfReplacedAccountsAfterTheGracePeriod()
+      throws InterruptedException {
+    configurationProperties.setClientCloseGracePeriodMilliseconds(10);
+    CloudFoundryCredentials changed = createCredentials("to-be-changed");
+    CloudFoundryCredentials unchanged = createCredentials("unchanged");
+    CloudFoundryCredentials deleted = createCredentials("to-be-deleted");
+    repository.save("to-be-changed", changed);
+    repository.save("unchanged", unchanged);
+    repository.save("to-be-deleted", deleted);
+
+    loadProviderFromRepository();
+
+    CloudFoundryConfigurationProperties.ManagedAccount changedAccount =
+        createAccount("to-be-changed");
+    changedAccount.setPassword("newpassword");
+    configurationProperties.setAccounts(Arrays.asList(createAccount("unchanged"), changedAccount));
+
+    synchronizer.synchronize();
+
+    awaitClosed(changed);
+    awaitClosed(deleted);
+    assertThat(((HttpCloudFoundryClient) unchanged.getClient()).isClosed()).isFalse();
+
+    synchronizer.closeClients();
+
+    assertThat(((HttpCloudFoundryClient) unchanged.getClient()).isClosed()).isTrue();
+  }
+
+  @Test
+  void inFlightCallsKeepTheirClientAcrossACredentialsSwap() {
+    configurationProperties.setClientCloseGracePeriodMilliseconds(TimeUnit.MINUTES.toMillis(1));
+    CloudFoundryCredentials original = createCredentials("to-be-changed");
+    repository.save("to-be-changed", original);
+
+    loadProviderFromRepository();
+
+    // a caching cycle or operation that picked up the client before the swap
+    HttpCloudFoundryClient inFlightClient = (HttpCloudFoundryClient) original.getClient();
+
+    CloudFoundryConfigurationProperties.ManagedAccount changedAccount =
+        createAccount("to-be-changed");
+    changedAccount.setPassword("newpassword");
+    configurationProperties.setAccounts(Collections.singletonList(changedAccount));
+
+    synchronizer.synchronize();
+
+    CloudFoundryCredentials replacement =
+        (CloudFoundryCredentials) repository.getOne("to-be-changed");
+    assertThat(replacement).isNotSameAs(original);
+    assertThat(replacement.getClient()).isNotSameAs(inFlightClient);
+    assertThat(inFlightClient.isClosed()).isFalse();
+
+    synchronizer.closeClients();
+
+    assertThat(inFlightClient.isClosed()).isTrue();
+    assertThat(((HttpCloudFoundryClient) replacement.getClient()).isClosed()).isTrue();
+  }
+
+  private static void awaitClosed(CloudFoundryCredentials credentials)
+      throws InterruptedException {
+    HttpCloudFoundryClient client = (HttpCloudFoundryClient) credentials.getClient();
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+    while (!client.isClosed() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(client.isClosed()).isTrue();
+  }
+
   private CloudFoundryConfigurationProperties.ManagedAccount createAccount(String name) {
     CloudFoundryConfigurationProperties.ManagedAccount account =
         new CloudFoundryConfigurationProperties.ManagedAccount();
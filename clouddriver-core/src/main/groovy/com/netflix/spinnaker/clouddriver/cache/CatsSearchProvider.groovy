@@ -20,13 +20,12 @@ import com.netflix.spinnaker.cats.cache.Cache
 import com.netflix.spinnaker.cats.provider.ProviderRegistry
 import com.netflix.spinnaker.clouddriver.search.SearchProvider
 import com.netflix.spinnaker.clouddriver.search.SearchResultSet
+import com.netflix.spinnaker.clouddriver.security.ReadPermissions
 import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator
 import groovy.text.SimpleTemplateEngine
 import groovy.text.Template
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
-import org.springframework.security.core.Authentication
-import org.springframework.security.core.context.SecurityContextHolder
 
 import javax.annotation.PostConstruct
 import java.util.concurrent.Executors
@@ -163,7 +162,7 @@ class CatsSearchProvider implements SearchProvider, Runnable {
 
     List<String> matches = findMatches(query, types, filters)
     if (permissionEvaluator) {
-      Authentication auth = SecurityContextHolder.context.authentication
+      ReadPermissions permissions = ReadPermissions.forCurrentUser(permissionEvaluator)
 
       matches = new ArrayList(matches).findResults { String key ->
         Map<String, String> result = providers.findResult { it.parseKey(key) }
@@ -174,10 +173,10 @@ class CatsSearchProvider implements SearchProvider, Runnable {
 
         boolean canView = true
         if (result.application) {
-          canView = permissionEvaluator.hasPermission(auth, result.application as String, 'APPLICATION', 'READ')
+          canView = permissions.canReadApplication(result.application as String)
         }
         if (canView && result.account) {
-          canView = permissionEvaluator.hasPermission(auth, result.account as String, 'ACCOUNT', 'READ')
+          canView = permissions.canReadAccount(result.account as String)
         }
         return canView ? key : null
       }
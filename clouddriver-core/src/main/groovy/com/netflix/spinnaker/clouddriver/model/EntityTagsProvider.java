@@ -16,10 +16,14 @@
 
 package com.netflix.spinnaker.clouddriver.model;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public interface EntityTagsProvider {
   /**
@@ -38,6 +42,40 @@ public interface EntityTagsProvider {
       Map<String, Object> tags,
       int maxResults);
 
+  /**
+   * Fetch the EntityTags of many entities at once (ie. every server group of a cluster view), keyed
+   * by {@code entityId}. Entities without any EntityTags are absent from the result.
+   */
+  default Map<String, List<EntityTags>> getAllByEntityIds(
+      String cloudProvider, String entityType, Collection<String> entityIds) {
+    // the largest result window that Elasticsearch allows by default; a request filling it may have
+    // been truncated, so its entity ids are split in half and requested again
+    int maxResults = 10000;
+
+    List<EntityTags> entityTags = new ArrayList<>();
+    Deque<List<String>> batches = new ArrayDeque<>();
+    batches.push(new ArrayList<>(entityIds));
+    while (!batches.isEmpty()) {
+      List<String> batch = batches.pop();
+      if (batch.isEmpty()) {
+        continue;
+      }
+
+      Collection<EntityTags> results =
+          getAll(cloudProvider, null, entityType, batch, null, null, null, null, null, maxResults);
+      if (results.size() >= maxResults && batch.size() > 1) {
+        batches.push(batch.subList(batch.size() / 2, batch.size()));
+        batches.push(batch.subList(0, batch.size() / 2));
+      } else {
+        entityTags.addAll(results);
+      }
+    }
+
+    return entityTags.stream()
+        .filter(e -> e.getEntityRef() != null && e.getEntityRef().getEntityId() != null)
+        .collect(Collectors.groupingBy(e -> e.getEntityRef().getEntityId()));
+  }
+
   /** Fetch EntityTags by {@code id} */
   Optional<EntityTags> get(String id);
 
@@ -19,11 +19,10 @@ package com.netflix.spinnaker.clouddriver.search
 import com.google.common.collect.ImmutableList
 import com.netflix.spinnaker.clouddriver.core.services.Front50Service
 import com.netflix.spinnaker.clouddriver.model.ClusterProvider
+import com.netflix.spinnaker.clouddriver.security.ReadPermissions
 import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator
 import groovy.transform.Canonical
 import org.springframework.beans.factory.annotation.Autowired
-import org.springframework.security.core.Authentication
-import org.springframework.security.core.context.SecurityContextHolder
 
 @Canonical
 class ApplicationSearchProvider implements SearchProvider {
@@ -66,11 +65,11 @@ class ApplicationSearchProvider implements SearchProvider {
       return new SearchResultSet(totalMatches: 0)
     }
 
-    Authentication auth = SecurityContextHolder.context.authentication
+    ReadPermissions permissions = ReadPermissions.forCurrentUser(permissionEvaluator)
 
     def results = front50Service.searchByName(query, pageSize, filters).findResults {
       def application = it.name.toString().toLowerCase()
-      if (permissionEvaluator && !permissionEvaluator.hasPermission(auth, application, 'APPLICATION', 'READ')) {
+      if (!permissions.canReadApplication(application)) {
         return null
       }
       it.application = application
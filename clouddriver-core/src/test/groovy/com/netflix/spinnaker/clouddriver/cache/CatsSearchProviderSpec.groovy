@@ -20,6 +20,7 @@ import com.netflix.spinnaker.cats.agent.AgentDataType
 import com.netflix.spinnaker.cats.agent.CachingAgent
 import com.netflix.spinnaker.cats.provider.ProviderCache
 import com.netflix.spinnaker.cats.provider.ProviderRegistry
+import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator
 import spock.lang.Shared
 import spock.lang.Specification;
 
@@ -95,4 +96,46 @@ class CatsSearchProviderSpec extends Specification {
     then:
     catsSearchProvider.cachedIdentifiersByType.get() == [:]
   }
+
+  def "should only return search results the user can read"() {
+    given:
+    def permissionEvaluator = Mock(FiatPermissionEvaluator)
+    def searchableProvider = Stub(SearchableProvider) {
+      getDefaultCaches() >> ["instances"]
+      supportsSearch('instances', _) >> true
+      getAgents() >> [ instanceAgent ]
+      parseKey(_) >> { String k ->
+        def parts = k.split(":")
+        return [type: "instances", application: parts[2], account: parts[3], originalKey: k]
+      }
+    }
+    def keys = [
+      "aws:instances:allowed:prod:i-1",
+      "aws:instances:allowed:secret:i-2",
+      "aws:instances:denied:prod:i-3",
+      "aws:instances:allowed:prod:i-4",
+    ]
+    cache.getIdentifiers("instances") >> keys
+    def searchProvider = new CatsSearchProvider(
+      catsInMemorySearchProperties,
+      cache,
+      [searchableProvider],
+      Stub(ProviderRegistry) { getProviderCache(_) >> cache },
+      Optional.of(permissionEvaluator),
+      Optional.empty()
+    )
+    searchProvider.run()
+
+    when:
+    def resultSet = searchProvider.search("i-", ["instances"], 1, 10)
+
+    then:
+    1 * permissionEvaluator.hasPermission(_, "allowed", "APPLICATION", "READ") >> true
+    1 * permissionEvaluator.hasPermission(_, "denied", "APPLICATION", "READ") >> false
+    1 * permissionEvaluator.hasPermission(_, "prod", "ACCOUNT", "READ") >> true
+    1 * permissionEvaluator.hasPermission(_, "secret", "ACCOUNT", "READ") >> false
+    0 * permissionEvaluator._
+    resultSet.results*.originalKey.sort() == ["aws:instances:allowed:prod:i-1", "aws:instances:allowed:prod:i-4"]
+    resultSet.totalMatches == 2
+  }
 }
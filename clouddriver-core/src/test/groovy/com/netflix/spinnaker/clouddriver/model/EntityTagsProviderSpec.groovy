@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.model
+
+import spock.lang.Specification
+
+class EntityTagsProviderSpec extends Specification {
+  def "should split the entity ids of a request that may have been truncated"() {
+    given:
+    def provider = Spy(AbstractEntityTagsProvider)
+    def entityIds = (1..4).collect { "entity-$it" as String }
+
+    when:
+    def result = provider.getAllByEntityIds("aws", "servergroup", entityIds)
+
+    then:
+    1 * provider.getAll("aws", null, "servergroup", entityIds, null, null, null, null, null, 10000) >> {
+      (1..10000).collect { entityTags("entity-1") }
+    }
+    1 * provider.getAll("aws", null, "servergroup", ["entity-1", "entity-2"], null, null, null, null, null, 10000) >> {
+      [entityTags("entity-1"), entityTags("entity-2")]
+    }
+    1 * provider.getAll("aws", null, "servergroup", ["entity-3", "entity-4"], null, null, null, null, null, 10000) >> {
+      [entityTags("entity-4")]
+    }
+    result.keySet() == ["entity-1", "entity-2", "entity-4"] as Set
+    result.values()*.size() == [1, 1, 1]
+  }
+
+  private static EntityTags entityTags(String entityId) {
+    return new EntityTags(id: "aws:servergroup:$entityId", entityRef: new EntityTags.EntityRef(entityId: entityId))
+  }
+
+  static abstract class AbstractEntityTagsProvider implements EntityTagsProvider {}
+}
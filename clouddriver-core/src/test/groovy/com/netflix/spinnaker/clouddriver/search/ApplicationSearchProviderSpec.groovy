@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.search
+
+import com.netflix.spinnaker.clouddriver.core.services.Front50Service
+import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator
+import spock.lang.Specification
+
+class ApplicationSearchProviderSpec extends Specification {
+  def front50Service = Stub(Front50Service)
+  def permissionEvaluator = Mock(FiatPermissionEvaluator)
+
+  def "should only return applications the user can read"() {
+    given:
+    def searchProvider = new ApplicationSearchProvider()
+    searchProvider.front50Service = front50Service
+    searchProvider.clusterProviders = []
+    searchProvider.permissionEvaluator = permissionEvaluator
+    front50Service.searchByName("app", 10, [:]) >> [[name: "App"], [name: "OtherApp"], [name: "app"]]
+
+    when:
+    def resultSet = searchProvider.search("app", 1, 10)
+
+    then:
+    1 * permissionEvaluator.hasPermission(_, "app", "APPLICATION", "READ") >> true
+    1 * permissionEvaluator.hasPermission(_, "otherapp", "APPLICATION", "READ") >> false
+    0 * permissionEvaluator._
+    resultSet.results*.application == ["app", "app"]
+    resultSet.totalMatches == 2
+  }
+
+  def "should return every application without fiat"() {
+    given:
+    def searchProvider = new ApplicationSearchProvider()
+    searchProvider.front50Service = front50Service
+    searchProvider.clusterProviders = []
+    front50Service.searchByName("app", 10, [:]) >> [[name: "App"], [name: "OtherApp"]]
+
+    when:
+    def resultSet = searchProvider.search("app", 1, 10)
+
+    then:
+    resultSet.results*.application == ["app", "otherapp"]
+  }
+}
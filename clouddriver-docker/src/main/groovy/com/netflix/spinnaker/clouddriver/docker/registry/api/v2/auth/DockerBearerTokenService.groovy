@@ -16,8 +16,11 @@
 
 package com.netflix.spinnaker.clouddriver.docker.registry.api.v2.auth
 
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.clouddriver.docker.registry.api.v2.DockerUserAgent
 import com.netflix.spinnaker.clouddriver.docker.registry.api.v2.exception.DockerRegistryAuthenticationException
+import groovy.transform.PackageScope
 import groovy.util.logging.Slf4j
 import org.apache.commons.io.IOUtils
 import retrofit.RestAdapter
@@ -28,11 +31,35 @@ import retrofit.http.Query
 
 import java.nio.charset.Charset
 import java.nio.charset.StandardCharsets
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.regex.Pattern
 
+/*
+ * Tokens are cached by realm, service and scope. Once the registry has challenged any request, its
+ * realm and service are known, so a token for another repository is requested up front with that
+ * repository's pull scope instead of after the registry rejects a request made without one.
+ * Requests whose scopes are identical share a token. A token is refreshed by the first request that
+ * finds less than a quarter of its lifetime left, and an expired token is refreshed before the
+ * request is made rather than after the registry rejects it.
+ */
 @Slf4j
 class DockerBearerTokenService {
+  // Per the token spec, tokens without an expires_in are valid for 60 seconds.
+  private static final int DEFAULT_EXPIRES_IN_SECONDS = 60
+
+  // https://docs.docker.com/registry/spec/api/#overview
+  private static final String NAME_COMPONENT = '[a-z0-9]+(?:[._-][a-z0-9]+)*'
+  private static final Pattern REPOSITORY_NAME = Pattern.compile("${NAME_COMPONENT}(?:/${NAME_COMPONENT})*")
+  private static final String CATALOG = "_catalog"
+
   Map<String, TokenService> realmToService
-  Map<String, DockerBearerToken> cachedTokens
+  private final Map<String, AuthenticateDetails> repositoryDetails = new ConcurrentHashMap<>()
+  private final Map<String, CachedToken> tokensByScope = new ConcurrentHashMap<>()
+  private volatile AuthenticateDetails lastChallenge
+  Registry registry = new NoopRegistry()
+  String registryAddress
   String username
   String password
   String passwordCommand
@@ -42,8 +69,7 @@ class DockerBearerTokenService {
   final static String userAgent = DockerUserAgent.getUserAgent()
 
   DockerBearerTokenService() {
-    realmToService = new HashMap<String, TokenService>()
-    cachedTokens = new HashMap<String, DockerBearerToken>()
+    realmToService = new ConcurrentHashMap<String, TokenService>()
   }
 
   DockerBearerTokenService(String username, String password, String passwordCommand) {
@@ -184,20 +210,57 @@ class DockerBearerTokenService {
     return result
   }
 
-  private getTokenService(String realm) {
-    def tokenService = realmToService.get(realm)
+  private TokenService getTokenService(String realm) {
+    return realmToService.computeIfAbsent(realm, {
+      new RestAdapter.Builder().setEndpoint(realm).setLogLevel(RestAdapter.LogLevel.NONE).build().create(TokenService.class)
+    })
+  }
 
-    if (tokenService == null) {
-      def builder = new RestAdapter.Builder().setEndpoint(realm).setLogLevel(RestAdapter.LogLevel.NONE).build()
-      tokenService = builder.create(TokenService.class)
-      realmToService[realm] = tokenService
+  public DockerBearerToken getToken(String repository) {
+    AuthenticateDetails details = repositoryDetails.get(repository) ?: deriveDetails(repository)
+    if (!details) {
+      recordRequest("miss")
+      return null
     }
 
-    return tokenService
-  }
+    String scope = details.key
+    CachedToken cached = tokensByScope.get(scope)
+    if (!cached) {
+      recordRequest("derived")
+      try {
+        cached = fetchToken(details, "derived")
+      } catch (Exception e) {
+        // fall back to requesting without a token, which lets the registry tell us how to authenticate
+        log.warn("Failed to request a token for '$repository' from ${details.realm}: ${e.message}")
+        return null
+      }
+      tokensByScope.put(scope, cached)
+      return cached.token
+    }
 
-  public DockerBearerToken getToken(String repository) {
-    return cachedTokens[repository]
+    long now = registry.clock().wallTime()
+    if (now >= cached.expiresAt) {
+      recordRequest("expired")
+      try {
+        return refresh(scope, cached, "expired").token
+      } catch (Exception e) {
+        log.warn("Failed to refresh expired token for '$repository' from ${cached.details.realm}: ${e.message}")
+        return null
+      }
+    }
+
+    recordRequest("hit")
+    if (now >= cached.refreshAt && cached.refreshing.compareAndSet(false, true)) {
+      // only this request waits for the refresh; concurrent ones keep using the still valid token
+      try {
+        return refresh(scope, cached, "proactive").token
+      } catch (Exception e) {
+        log.warn("Failed to refresh token for '$repository' from ${cached.details.realm} ahead of expiry: ${e.message}")
+      } finally {
+        cached.refreshing.set(false)
+      }
+    }
+    return cached.token
   }
 
   public DockerBearerToken getToken(String repository, String authenticateHeader) {
@@ -208,8 +271,52 @@ class DockerBearerTokenService {
       throw new DockerRegistryAuthenticationException("Failed to parse www-authenticate header: ${e.message}")
     }
 
+    lastChallenge = authenticateDetails
+    CachedToken cached = fetchToken(authenticateDetails, "challenged")
+    tokensByScope.put(authenticateDetails.key, cached)
+    repositoryDetails.put(repository, authenticateDetails)
+    return cached.token
+  }
+
+  public void clearToken(String repository) {
+    AuthenticateDetails details = repositoryDetails.remove(repository) ?: deriveDetails(repository)
+    if (details) {
+      tokensByScope.remove(details.key)
+    }
+  }
+
+  /**
+   * Builds the token request for a repository the registry hasn't challenged yet, from the realm
+   * and service of the last challenge and the scope the registry asks for when pulling.
+   */
+  private AuthenticateDetails deriveDetails(String repository) {
+    AuthenticateDetails challenge = lastChallenge
+    if (!challenge) {
+      return null
+    }
+
+    String scope
+    if (repository == CATALOG) {
+      scope = "registry:catalog:*"
+    } else if (REPOSITORY_NAME.matcher(repository).matches()) {
+      scope = "repository:${repository}:pull"
+    } else {
+      return null
+    }
+    return new AuthenticateDetails(realm: challenge.realm, path: challenge.path, service: challenge.service, scope: scope)
+  }
+
+  private CachedToken refresh(String scope, CachedToken previous, String reason) {
+    CachedToken refreshed = fetchToken(previous.details, reason)
+    // don't resurrect a token that was cleared while it was being refreshed
+    tokensByScope.replace(scope, previous, refreshed)
+    return refreshed
+  }
+
+  private CachedToken fetchToken(AuthenticateDetails authenticateDetails, String reason) {
     def tokenService = getTokenService(authenticateDetails.realm)
-    def token
+    long issuedAt = registry.clock().wallTime()
+    DockerBearerToken token
     try {
       if (basicAuthHeader) {
         token = tokenService.getToken(authenticateDetails.path, authenticateDetails.service, authenticateDetails.scope, basicAuthHeader, userAgent)
@@ -217,6 +324,7 @@ class DockerBearerTokenService {
         token = tokenService.getToken(authenticateDetails.path, authenticateDetails.service, authenticateDetails.scope, userAgent)
       }
     } catch (Exception e) {
+      recordRefresh(reason, false)
       if (authWarning) {
         throw new DockerRegistryAuthenticationException("Authentication failed ($authWarning): ${e.getMessage()}", e)
       } else {
@@ -224,15 +332,36 @@ class DockerBearerTokenService {
       }
     }
 
-    cachedTokens[repository] = token
-    return token
+    recordRefresh(reason, true)
+    long lifetime = TimeUnit.SECONDS.toMillis(token.expires_in > 0 ? token.expires_in : DEFAULT_EXPIRES_IN_SECONDS)
+    return new CachedToken(token, authenticateDetails, issuedAt + lifetime, issuedAt + (lifetime * 3).intdiv(4))
   }
 
-  public void clearToken(String repository) {
-    cachedTokens.remove(repository)
+  private void recordRequest(String result) {
+    registry.counter("dockerRegistry.tokens.requests", "registry", registryAddress ?: "unknown", "result", result).increment()
+  }
+
+  private void recordRefresh(String reason, boolean success) {
+    registry.counter("dockerRegistry.tokens.refreshes", "registry", registryAddress ?: "unknown", "reason", reason, "success", String.valueOf(success)).increment()
   }
 
-  private interface TokenService {
+  private static class CachedToken {
+    final DockerBearerToken token
+    final AuthenticateDetails details
+    final long expiresAt
+    final long refreshAt
+    final AtomicBoolean refreshing = new AtomicBoolean()
+
+    CachedToken(DockerBearerToken token, AuthenticateDetails details, long expiresAt, long refreshAt) {
+      this.token = token
+      this.details = details
+      this.expiresAt = expiresAt
+      this.refreshAt = refreshAt
+    }
+  }
+
+  @PackageScope
+  interface TokenService {
     @GET("/{path}")
     @Headers([
       "Docker-Distribution-API-Version: registry/2.0"
@@ -255,5 +384,9 @@ class DockerBearerTokenService {
     String path
     String service
     String scope
+
+    String getKey() {
+      return "${realm}/${path}?service=${service}&scope=${scope}"
+    }
   }
 }
@@ -18,6 +18,7 @@ package com.netflix.spinnaker.clouddriver.docker.registry.api.v2.client
 
 import com.google.gson.Gson
 import com.google.gson.GsonBuilder
+import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.clouddriver.docker.registry.api.v2.DockerUserAgent
 import com.netflix.spinnaker.clouddriver.docker.registry.api.v2.auth.DockerBearerToken
 import com.netflix.spinnaker.clouddriver.docker.registry.api.v2.auth.DockerBearerTokenService
@@ -31,12 +32,14 @@ import retrofit.RetrofitError
 import retrofit.client.Response
 import retrofit.converter.GsonConverter
 import retrofit.http.GET
+import retrofit.http.HEAD
 import retrofit.http.Header
 import retrofit.http.Headers
 import retrofit.http.Path
 import retrofit.http.Query
 
 import java.time.Instant
+import java.util.concurrent.ConcurrentHashMap
 
 @Slf4j
 class DockerRegistryClient {
@@ -54,6 +57,7 @@ class DockerRegistryClient {
     String catalogFile
     boolean insecureRegistry
     DockerOkClientProvider okClientProvider
+    Registry registry
 
     Builder address(String address) {
       this.address = address
@@ -115,18 +119,29 @@ class DockerRegistryClient {
       return this
     }
 
+    Builder registry(Registry registry) {
+      this.registry = registry
+      return this
+    }
+
     DockerRegistryClient build() {
 
       if (password && passwordFile || password && passwordCommand || passwordFile && passwordCommand) {
         throw new IllegalArgumentException('Error, at most one of "password", "passwordFile", "passwordCommand" or "dockerconfigFile" can be specified')
       }
+      DockerRegistryClient client
       if (password || passwordCommand) {
-        return new DockerRegistryClient(address, email, username, password, passwordCommand, clientTimeoutMillis, paginateSize, catalogFile, insecureRegistry, okClientProvider)
+        client = new DockerRegistryClient(address, email, username, password, passwordCommand, clientTimeoutMillis, paginateSize, catalogFile, insecureRegistry, okClientProvider)
       } else if (passwordFile) {
-        return new DockerRegistryClient(address, email, username, passwordFile, clientTimeoutMillis, paginateSize, catalogFile, insecureRegistry, okClientProvider)
+        client = new DockerRegistryClient(address, email, username, passwordFile, clientTimeoutMillis, paginateSize, catalogFile, insecureRegistry, okClientProvider)
       } else {
-        return new DockerRegistryClient(address, clientTimeoutMillis, paginateSize, catalogFile, insecureRegistry, okClientProvider)
+        client = new DockerRegistryClient(address, clientTimeoutMillis, paginateSize, catalogFile, insecureRegistry, okClientProvider)
       }
+      client.tokenService.registryAddress = address
+      if (registry) {
+        client.tokenService.registry = registry
+      }
+      return client
     }
 
   }
@@ -211,6 +226,12 @@ class DockerRegistryClient {
     ])
     Response getManifest(@Path(value="name", encode=false) String name, @Path(value="reference", encode=false) String reference, @Header("Authorization") String token, @Header("User-Agent") String agent)
 
+    @HEAD("/v2/{name}/manifests/{reference}")
+    @Headers([
+      "Docker-Distribution-API-Version: registry/2.0"
+    ])
+    Response headManifest(@Path(value="name", encode=false) String name, @Path(value="reference", encode=false) String reference, @Header("Authorization") String token, @Header("User-Agent") String agent)
+
     @GET("/v2/_catalog")
     @Headers([
         "Docker-Distribution-API-Version: registry/2.0"
@@ -231,25 +252,49 @@ class DockerRegistryClient {
     Response checkVersion(@Header("Authorization") String token, @Header("User-Agent") String agent)
   }
 
+  /*
+   * Resolves the digest of a tag with a HEAD request, which doesn't download the manifest and isn't
+   * counted against pull rate limits by most registries. Falls back to fetching the manifest for
+   * registries that don't support HEAD or don't return the digest header on it.
+   */
   public String getDigest(String name, String tag) {
-    def response = getManifest(name, tag)
-    def headers = response.headers
-    def digest = headers?.find {
-      it.name == "Docker-Content-Digest"
+    String digest = null
+    try {
+      digest = findDigest(headManifest(name, tag))
+    } catch (RetrofitError e) {
+      // only registries that don't support HEAD on manifests fall back to a GET; anything else (e.g. a 404 or being
+      // rate limited) would fail the GET the same way
+      if (!(e.response?.status in [405, 501])) {
+        throw e
+      }
+      log.debug("HEAD of manifest ${name}:${tag} is not supported by ${address}, fetching manifest instead")
     }
-    return digest?.value
+    return digest ?: findDigest(getManifest(name, tag))
   }
 
-  private Map tagDateCache = [:]
+  private static String findDigest(Response response) {
+    return response?.headers?.find {
+      it.name.equalsIgnoreCase("Docker-Content-Digest")
+    }?.value
+  }
+
+  private Map<String, Instant> tagDateCache = new ConcurrentHashMap<>()
 
   public Instant getCreationDate(String name, String tag) {
     String key = "${name}:${tag}"
     if(tagDateCache.containsKey(key) && tag !='latest'){
       return tagDateCache[key]
     }
+    return fetchCreationDate(name, tag)
+  }
+
+  /*
+   * Reads the creation date of a tag from its manifest, even if it has been read before.
+   */
+  public Instant fetchCreationDate(String name, String tag) {
     Map manifest = converter.fromBody(getManifest(name, tag).body, Map)
     Instant dateCreated = Instant.parse(new Gson().fromJson(manifest.history[0].v1Compatibility, Map).created)
-    tagDateCache[key] = dateCreated
+    tagDateCache["${name}:${tag}".toString()] = dateCreated
     dateCreated
   }
 
@@ -261,6 +306,14 @@ class DockerRegistryClient {
     }, name)
   }
 
+  private headManifest(String name, String tag) {
+    request({
+      registryService.headManifest(name, tag, tokenService.basicAuthHeader, userAgent)
+    }, { token ->
+      registryService.headManifest(name, tag, token, userAgent)
+    }, name)
+  }
+
   private static String parseLink(retrofit.client.Header header) {
     if (!header.name.equalsIgnoreCase("link")) {
       return null
@@ -47,6 +47,8 @@ class DockerRegistryConfigurationProperties {
     long clientTimeoutMillis
     // Paginate size for the docker repository /_catalog endpoint. Default is 100.
     int paginateSize
+    // How many manifests of this registry to fetch at once while caching. Default is 4.
+    int maxConcurrentManifestRequests
     // Track digest changes. This is _not_ recommended as it consumes a high QPM, and most registries are flaky.
     boolean trackDigests
     // Sort tags by creation date.
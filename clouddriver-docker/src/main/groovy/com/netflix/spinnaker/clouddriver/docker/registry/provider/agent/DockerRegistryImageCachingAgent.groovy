@@ -46,6 +46,7 @@ class DockerRegistryImageCachingAgent implements CachingAgent, AccountAware, Age
   private final int threadCount
   private final long interval
   private String registry
+  private final DockerRegistryManifestCache manifestCache
 
   DockerRegistryImageCachingAgent(DockerRegistryCloudProvider dockerRegistryCloudProvider,
                                   String accountName,
@@ -61,6 +62,7 @@ class DockerRegistryImageCachingAgent implements CachingAgent, AccountAware, Age
     this.threadCount = threadCount
     this.interval = TimeUnit.SECONDS.toMillis(intervalSecs)
     this.registry = registry
+    this.manifestCache = new DockerRegistryManifestCache(credentials.client, credentials.trackDigests, credentials.manifestExecutor)
   }
 
   @Override
@@ -131,44 +133,26 @@ class DockerRegistryImageCachingAgent implements CachingAgent, AccountAware, Age
     Map<String, DefaultCacheDataBuilder> cachedTags = DefaultCacheDataBuilder.defaultCacheDataBuilderMap()
     Map<String, DefaultCacheDataBuilder> cachedIds = DefaultCacheDataBuilder.defaultCacheDataBuilderMap()
 
+    Map<String, DockerRegistryManifestCache.Manifest> manifests = manifestCache.resolve(tagMap)
+
     tagMap.forEach { repository, tags ->
       tags.forEach { tag ->
         if (!tag) {
           log.warn("Empty tag encountered for $accountName/$repository, not caching")
           return
         }
+        def manifest = manifests["${repository}:${tag}".toString()]
+        if (!manifest) {
+          return
+        }
         def tagKey = Keys.getTaggedImageKey(accountName, repository, tag)
         def imageIdKey = Keys.getImageIdKey(DockerRegistryProviderUtils.imageId(registry, repository, tag))
-        def digest = null
-        def creationDate = null
-
-        if (credentials.trackDigests) {
-          try {
-            digest = credentials.client.getDigest(repository, tag)
-          } catch (Exception e) {
-            if (e instanceof RetrofitError && ((RetrofitError) e).response?.status == 404) {
-              // Indicates inconsistency in registry, or deletion between call for all tags and manifest retrieval.
-              // In either case, we need to trust that this tag no longer exists.
-              log.warn("Image manifest for $tagKey no longer available; tag will not be cached: $e.message")
-              return
-            } else {
-              // It is safe to not cache the tag here because igor now persists all the tags it has seen.
-              log.warn("Error retrieving manifest for $tagKey; digest and tag will not be cached: $e.message")
-              return
-            }
-          }
-        }
-        try {
-          creationDate = credentials.client.getCreationDate(repository, tag)
-        } catch (Exception e) {
-          log.warn("Unable to fetch tag creation date, reason: {} (tag: {}, repository: {})", e.message, tag, repository)
-        }
 
         cachedTags[tagKey].with {
           attributes.name = "${repository}:${tag}".toString()
           attributes.account = accountName
-          attributes.digest = digest
-          attributes.date = creationDate
+          attributes.digest = manifest.digest
+          attributes.date = manifest.creationDate
         }
 
         cachedIds[imageIdKey].with {
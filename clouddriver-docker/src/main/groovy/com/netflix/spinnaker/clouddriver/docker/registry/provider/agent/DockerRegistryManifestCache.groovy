@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.docker.registry.provider.agent
+
+import com.netflix.spinnaker.clouddriver.docker.registry.api.v2.client.DockerRegistryClient
+import groovy.transform.Immutable
+import groovy.util.logging.Slf4j
+import retrofit.RetrofitError
+
+import java.time.Instant
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executor
+
+/**
+ * Remembers the digest and creation date of every tag across caching cycles. A tag's manifest is
+ * only downloaded again when its digest changed (or, without digest tracking, when it is 'latest'),
+ * and the manifests of a cycle are resolved concurrently on the executor shared by the account.
+ */
+@Slf4j
+class DockerRegistryManifestCache {
+  private final DockerRegistryClient client
+  private final boolean trackDigests
+  private final Executor executor
+  private final Map<String, Manifest> manifests = new ConcurrentHashMap<>()
+
+  DockerRegistryManifestCache(DockerRegistryClient client, boolean trackDigests, Executor executor) {
+    this.client = client
+    this.trackDigests = trackDigests
+    this.executor = executor
+  }
+
+  /**
+   * Resolves the manifest of every tag in `tagMap` (repository -> tags), keyed by
+   * 'repository:tag'. Tags whose digest could not be resolved are left out, and tags no longer
+   * in `tagMap` are forgotten.
+   */
+  Map<String, Manifest> resolve(Map<String, Set<String>> tagMap) {
+    Map<String, CompletableFuture<Manifest>> futures = [:]
+    tagMap.each { repository, tags ->
+      tags.findAll { it }.each { tag ->
+        futures["${repository}:${tag}".toString()] = CompletableFuture.supplyAsync({
+          resolveTag(repository, tag)
+        }, executor)
+      }
+    }
+
+    Map<String, Manifest> resolved = [:]
+    futures.each { key, future ->
+      Manifest manifest = future.join()
+      if (manifest) {
+        resolved[key] = manifest
+      }
+    }
+
+    manifests.keySet().retainAll(resolved.keySet())
+    return resolved
+  }
+
+  private Manifest resolveTag(String repository, String tag) {
+    String key = "${repository}:${tag}"
+    Manifest previous = manifests.get(key)
+
+    String digest = null
+    if (trackDigests) {
+      try {
+        digest = client.getDigest(repository, tag)
+      } catch (Exception e) {
+        if (e instanceof RetrofitError && ((RetrofitError) e).response?.status == 404) {
+          // Indicates inconsistency in registry, or deletion between call for all tags and manifest retrieval.
+          // In either case, we need to trust that this tag no longer exists.
+          log.warn("Image manifest for $key no longer available; tag will not be cached: $e.message")
+        } else {
+          // It is safe to not cache the tag here because igor now persists all the tags it has seen.
+          log.warn("Error retrieving manifest for $key; digest and tag will not be cached: $e.message")
+        }
+        return null
+      }
+    }
+
+    Instant creationDate = null
+    if (previous?.creationDate && unchanged(previous, tag, digest)) {
+      creationDate = previous.creationDate
+    } else {
+      try {
+        creationDate = client.fetchCreationDate(repository, tag)
+      } catch (Exception e) {
+        log.warn("Unable to fetch tag creation date, reason: {} (tag: {}, repository: {})", e.message, tag, repository)
+      }
+    }
+
+    Manifest manifest = new Manifest(digest, creationDate)
+    manifests.put(key, manifest)
+    return manifest
+  }
+
+  private boolean unchanged(Manifest previous, String tag, String digest) {
+    if (trackDigests) {
+      return digest && digest == previous.digest
+    }
+    // without digests there is no way to tell whether a tag moved, so only trust immutable-by-convention tags
+    return tag != 'latest'
+  }
+
+  @Immutable(knownImmutableClasses = [Instant])
+  static class Manifest {
+    String digest
+    Instant creationDate
+  }
+}
@@ -16,8 +16,14 @@
 
 package com.netflix.spinnaker.clouddriver.docker.registry.security
 
+import com.netflix.spinnaker.cats.thread.NamedThreadFactory
 import com.netflix.spinnaker.clouddriver.docker.registry.api.v2.client.DockerRegistryClient
 
+import java.util.concurrent.Executor
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
 class DockerRegistryCredentials {
   private final DockerRegistryClient client
   private List<String> repositories
@@ -25,8 +31,13 @@ class DockerRegistryCredentials {
   private final boolean trackDigests
   private final boolean sortTagsByDate
   private List<String> skip
+  private final ThreadPoolExecutor manifestExecutor
 
   DockerRegistryCredentials(DockerRegistryClient client, List<String> repositories, boolean trackDigests, List<String> skip, boolean sortTagsByDate) {
+    this(client, repositories, trackDigests, skip, sortTagsByDate, 1)
+  }
+
+  DockerRegistryCredentials(DockerRegistryClient client, List<String> repositories, boolean trackDigests, List<String> skip, boolean sortTagsByDate, int maxConcurrentManifestRequests) {
     this.client = client
     this.trackDigests = trackDigests
     this.skip = skip
@@ -38,6 +49,11 @@ class DockerRegistryCredentials {
       this.repositories = repositories
     }
     this.sortTagsByDate = sortTagsByDate
+    // shared by all caching agents of the account, so the limit applies to the registry as a whole
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(maxConcurrentManifestRequests, maxConcurrentManifestRequests,
+      1, TimeUnit.MINUTES, new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory("${DockerRegistryCredentials.simpleName}-${client.address}"))
+    executor.allowCoreThreadTimeOut(true)
+    this.manifestExecutor = executor
   }
 
   DockerRegistryClient getClient() {
@@ -52,6 +68,22 @@ class DockerRegistryCredentials {
     return trackDigests
   }
 
+  Executor getManifestExecutor() {
+    return manifestExecutor
+  }
+
+  /**
+   * Stops the manifest request pool once the requests already handed to it complete. Called when the account's
+   * credentials are replaced or deleted.
+   */
+  void close() {
+    manifestExecutor.shutdown()
+  }
+
+  boolean isClosed() {
+    return manifestExecutor.isShutdown()
+  }
+
   List<String> getSkip(){
     return skip
   }
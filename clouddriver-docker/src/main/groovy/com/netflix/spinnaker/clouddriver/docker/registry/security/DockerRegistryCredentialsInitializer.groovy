@@ -16,6 +16,7 @@
 
 package com.netflix.spinnaker.clouddriver.docker.registry.security
 
+import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.cats.module.CatsModule
 import com.netflix.spinnaker.clouddriver.docker.registry.api.v2.client.DefaultDockerOkClientProvider
 import com.netflix.spinnaker.clouddriver.docker.registry.api.v2.client.DockerOkClientProvider
@@ -36,8 +37,9 @@ class DockerRegistryCredentialsInitializer {
   @Bean
   List<? extends DockerRegistryNamedAccountCredentials> dockerRegistryNamedAccountCredentials(DockerRegistryConfigurationProperties dockerRegistryConfigurationProperties,
                                                                                               AccountCredentialsRepository accountCredentialsRepository,
-                                                                                              DockerOkClientProvider dockerOkClientProvider) {
-    synchronizeDockerRegistryAccounts(dockerRegistryConfigurationProperties, accountCredentialsRepository, null, dockerOkClientProvider)
+                                                                                              DockerOkClientProvider dockerOkClientProvider,
+                                                                                              Registry registry) {
+    synchronizeDockerRegistryAccounts(dockerRegistryConfigurationProperties, accountCredentialsRepository, null, dockerOkClientProvider, registry)
   }
 
   @Bean
@@ -50,8 +52,13 @@ class DockerRegistryCredentialsInitializer {
     DockerRegistryConfigurationProperties dockerRegistryConfigurationProperties,
     AccountCredentialsRepository accountCredentialsRepository,
     CatsModule catsModule,
-    DockerOkClientProvider dockerOkClientProvider) {
-    
+    DockerOkClientProvider dockerOkClientProvider,
+    Registry registry) {
+
+    Map<String, DockerRegistryNamedAccountCredentials> existingAccounts = accountCredentialsRepository.all.findAll {
+      it instanceof DockerRegistryNamedAccountCredentials
+    }.collectEntries { [(it.name): it] }
+
     def (ArrayList<DockerRegistryConfigurationProperties.ManagedAccount> accountsToAdd, List<String> namesOfDeletedAccounts) =
     ProviderUtils.calculateAccountDeltas(accountCredentialsRepository, DockerRegistryNamedAccountCredentials,
       dockerRegistryConfigurationProperties.accounts)
@@ -74,24 +81,39 @@ class DockerRegistryCredentialsInitializer {
           .cacheIntervalSeconds(managedAccount.cacheIntervalSeconds)
           .clientTimeoutMillis(managedAccount.clientTimeoutMillis)
           .paginateSize(managedAccount.paginateSize)
+          .maxConcurrentManifestRequests(managedAccount.maxConcurrentManifestRequests)
           .trackDigests(managedAccount.trackDigests)
           .sortTagsByDate(managedAccount.sortTagsByDate)
           .insecureRegistry(managedAccount.insecureRegistry)
           .repositories(managedAccount.repositories)
           .skip(managedAccount.skip)
           .dockerOkClientProvider(dockerOkClientProvider)
+          .metricsRegistry(registry)
           .build()
 
         accountCredentialsRepository.save(managedAccount.name, dockerRegistryAccount)
+        closeReplacedCredentials(existingAccounts[managedAccount.name], dockerRegistryAccount)
       } catch (e) {
         log.info "Could not load account ${managedAccount.name} for DockerRegistry.", e
       }
     }
 
     ProviderUtils.unscheduleAndDeregisterAgents(namesOfDeletedAccounts, catsModule)
+    namesOfDeletedAccounts.each { closeReplacedCredentials(existingAccounts[it], null) }
 
     accountCredentialsRepository.all.findAll {
       it instanceof DockerRegistryNamedAccountCredentials
     } as List<DockerRegistryNamedAccountCredentials>
   }
+
+  /**
+   * Shuts down the manifest request pool of credentials that were replaced or deleted, so each synchronization doesn't
+   * leave the previous pool behind.
+   */
+  private static void closeReplacedCredentials(DockerRegistryNamedAccountCredentials previous,
+                                               DockerRegistryNamedAccountCredentials current) {
+    if (previous && !previous.is(current)) {
+      previous.credentials?.close()
+    }
+  }
 }
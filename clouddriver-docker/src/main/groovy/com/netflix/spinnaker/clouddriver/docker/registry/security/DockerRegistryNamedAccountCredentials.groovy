@@ -17,6 +17,7 @@
 package com.netflix.spinnaker.clouddriver.docker.registry.security
 
 import com.fasterxml.jackson.annotation.JsonIgnore
+import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.clouddriver.docker.registry.api.v2.client.DockerOkClientProvider
 import com.netflix.spinnaker.clouddriver.docker.registry.api.v2.client.DockerRegistryClient
 import com.netflix.spinnaker.clouddriver.docker.registry.exception.DockerRegistryConfigException
@@ -43,6 +44,7 @@ class DockerRegistryNamedAccountCredentials implements AccountCredentials<Docker
     long cacheIntervalSeconds
     long clientTimeoutMillis
     int paginateSize
+    int maxConcurrentManifestRequests
     boolean trackDigests
     boolean sortTagsByDate
     boolean insecureRegistry
@@ -50,6 +52,7 @@ class DockerRegistryNamedAccountCredentials implements AccountCredentials<Docker
     List<String> skip
     String catalogFile
     DockerOkClientProvider dockerOkClientProvider
+    Registry metricsRegistry
 
     Builder() {}
 
@@ -133,6 +136,11 @@ class DockerRegistryNamedAccountCredentials implements AccountCredentials<Docker
       return this
     }
 
+    Builder maxConcurrentManifestRequests(int maxConcurrentManifestRequests) {
+      this.maxConcurrentManifestRequests = maxConcurrentManifestRequests
+      return this
+    }
+
     Builder trackDigests(boolean trackDigests) {
       this.trackDigests = trackDigests
       return this
@@ -168,6 +176,11 @@ class DockerRegistryNamedAccountCredentials implements AccountCredentials<Docker
       return this
     }
 
+    Builder metricsRegistry(Registry metricsRegistry) {
+      this.metricsRegistry = metricsRegistry
+      return this
+    }
+
     DockerRegistryNamedAccountCredentials build() {
       return new DockerRegistryNamedAccountCredentials(accountName,
                                                        environment,
@@ -185,11 +198,13 @@ class DockerRegistryNamedAccountCredentials implements AccountCredentials<Docker
                                                        cacheIntervalSeconds,
                                                        clientTimeoutMillis,
                                                        paginateSize,
+                                                       maxConcurrentManifestRequests,
                                                        trackDigests,
                                                        sortTagsByDate,
                                                        catalogFile,
                                                        insecureRegistry,
-                                                       dockerOkClientProvider)
+                                                       dockerOkClientProvider,
+                                                       metricsRegistry)
     }
   }
 
@@ -209,11 +224,13 @@ class DockerRegistryNamedAccountCredentials implements AccountCredentials<Docker
                                         long cacheIntervalSeconds,
                                         long clientTimeoutMillis,
                                         int paginateSize,
+                                        int maxConcurrentManifestRequests,
                                         boolean trackDigests,
                                         boolean sortTagsByDate,
                                         String catalogFile,
                                         boolean insecureRegistry,
-                                        DockerOkClientProvider dockerOkClientProvider) {
+                                        DockerOkClientProvider dockerOkClientProvider,
+                                        Registry metricsRegistry) {
     this(accountName,
          environment,
          accountType,
@@ -230,12 +247,14 @@ class DockerRegistryNamedAccountCredentials implements AccountCredentials<Docker
          cacheIntervalSeconds,
          clientTimeoutMillis,
          paginateSize,
+         maxConcurrentManifestRequests,
          trackDigests,
          sortTagsByDate,
          catalogFile,
          insecureRegistry,
          null,
-         dockerOkClientProvider)
+         dockerOkClientProvider,
+         metricsRegistry)
   }
 
   DockerRegistryNamedAccountCredentials(String accountName,
@@ -254,12 +273,14 @@ class DockerRegistryNamedAccountCredentials implements AccountCredentials<Docker
                                         long cacheIntervalSeconds,
                                         long clientTimeoutMillis,
                                         int paginateSize,
+                                        int maxConcurrentManifestRequests,
                                         boolean trackDigests,
                                         boolean sortTagsByDate,
                                         String catalogFile,
                                         boolean insecureRegistry,
                                         List<String> requiredGroupMembership,
-                                        DockerOkClientProvider dockerOkClientProvider) {
+                                        DockerOkClientProvider dockerOkClientProvider,
+                                        Registry metricsRegistry) {
     if (!accountName) {
       throw new IllegalArgumentException("Docker Registry account must be provided with a name.")
     }
@@ -276,8 +297,10 @@ class DockerRegistryNamedAccountCredentials implements AccountCredentials<Docker
     this.cacheThreads = cacheThreads ?: 1
     this.cacheIntervalSeconds = cacheIntervalSeconds ?: 30
     this.paginateSize = paginateSize ?: 100
+    this.maxConcurrentManifestRequests = maxConcurrentManifestRequests ?: 4
     this.clientTimeoutMillis = clientTimeoutMillis ?: TimeUnit.MINUTES.toMillis(1)
     this.dockerOkClientProvider = dockerOkClientProvider
+    this.metricsRegistry = metricsRegistry
 
     if (!address) {
       throw new IllegalArgumentException("Docker Registry account $accountName must provide an endpoint address.");
@@ -368,9 +391,10 @@ class DockerRegistryNamedAccountCredentials implements AccountCredentials<Docker
         .catalogFile(catalogFile)
         .insecureRegistry(insecureRegistry)
         .okClientProvider(dockerOkClientProvider)
+        .registry(metricsRegistry)
         .build()
 
-      return new DockerRegistryCredentials(client, repositories, trackDigests, skip, sortTagsByDate)
+      return new DockerRegistryCredentials(client, repositories, trackDigests, skip, sortTagsByDate, maxConcurrentManifestRequests)
     } catch (RetrofitError e) {
       if (e.response?.status == 404) {
         throw new DockerRegistryConfigException("No repositories specified for ${name}, and the provided endpoint ${address} does not support /_catalog.")
@@ -399,6 +423,7 @@ class DockerRegistryNamedAccountCredentials implements AccountCredentials<Docker
   final long cacheIntervalSeconds
   final long clientTimeoutMillis
   final int paginateSize
+  final int maxConcurrentManifestRequests
   final boolean insecureRegistry
   @JsonIgnore
   final DockerRegistryCredentials credentials
@@ -406,4 +431,6 @@ class DockerRegistryNamedAccountCredentials implements AccountCredentials<Docker
   final List<String> skip
   final String catalogFile
   final DockerOkClientProvider dockerOkClientProvider
+  @JsonIgnore
+  final Registry metricsRegistry
 }
@@ -17,11 +17,15 @@
 package com.netflix.spinnaker.clouddriver.docker.registry.api.v2.auth
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spectator.api.DefaultRegistry
+import com.netflix.spectator.api.ManualClock
 import spock.lang.Ignore
 import spock.lang.Shared
 import spock.lang.Specification
 import sun.misc.BASE64Decoder
 
+import java.util.concurrent.TimeUnit
+
 class DockerBearerTokenServiceSpec extends Specification {
   private static final REALM1 = "https://auth.docker.io"
   private static final PATH1 = "token"
@@ -136,6 +140,129 @@ class DockerBearerTokenServiceSpec extends Specification {
       token.token.length() > 0
   }
 
+  void "should request a token for another repository up front once the registry has challenged a request."() {
+    setup:
+      def service = new DockerBearerTokenService()
+      def realmService = Mock(DockerBearerTokenService.TokenService)
+      service.realmToService[REALM1] = realmService
+      def authenticateHeader = "realm=\"${REALM1}/${PATH1}\",service=\"${SERVICE1}\",scope=\"${SCOPE1}\""
+
+    when:
+      DockerBearerToken unknown = service.getToken("library/debian")
+
+    then:
+      0 * realmService._
+      unknown == null
+
+    when:
+      service.getToken(REPOSITORY1, authenticateHeader)
+      DockerBearerToken first = service.getToken("library/debian")
+      DockerBearerToken second = service.getToken("library/debian")
+      DockerBearerToken catalog = service.getToken("_catalog")
+      DockerBearerToken versionCheck = service.getToken("v2 version check")
+
+    then:
+      1 * realmService.getToken(PATH1, SERVICE1, SCOPE1, _) >> new DockerBearerToken(token: "ubuntu", expires_in: 300)
+      1 * realmService.getToken(PATH1, SERVICE1, "repository:library/debian:pull", _) >> new DockerBearerToken(token: "debian", expires_in: 300)
+      1 * realmService.getToken(PATH1, SERVICE1, "registry:catalog:*", _) >> new DockerBearerToken(token: "catalog", expires_in: 300)
+      0 * realmService._
+      first.token == "debian"
+      second.token == "debian"
+      catalog.token == "catalog"
+      versionCheck == null
+  }
+
+  void "should share a cached token between repositories with identical scopes."() {
+    setup:
+      def service = new DockerBearerTokenService()
+      def realmService = Mock(DockerBearerTokenService.TokenService)
+      service.realmToService[REALM1] = realmService
+      def authenticateHeader = "realm=\"${REALM1}/${PATH1}\",service=\"${SERVICE1}\",scope=\"repository:library/debian:pull\""
+
+    when:
+      service.getToken("library/ubuntu-mirror", authenticateHeader)
+      DockerBearerToken token = service.getToken("library/debian")
+
+    then:
+      1 * realmService.getToken(PATH1, SERVICE1, "repository:library/debian:pull", _) >> new DockerBearerToken(token: "debian", expires_in: 300)
+      0 * realmService._
+      token.token == "debian"
+  }
+
+  void "should refresh a token once less than a quarter of its lifetime remains."() {
+    setup:
+      def clock = new ManualClock()
+      def service = new DockerBearerTokenService()
+      service.registry = new DefaultRegistry(clock)
+      def realmService = Mock(DockerBearerTokenService.TokenService)
+      service.realmToService[REALM1] = realmService
+      def authenticateHeader = "realm=\"${REALM1}/${PATH1}\",service=\"${SERVICE1}\",scope=\"${SCOPE1}\""
+
+    when:
+      service.getToken(REPOSITORY1, authenticateHeader)
+      clock.setWallTime(TimeUnit.SECONDS.toMillis(200))
+      DockerBearerToken early = service.getToken(REPOSITORY1)
+
+    then:
+      1 * realmService.getToken(PATH1, SERVICE1, SCOPE1, _) >> new DockerBearerToken(token: "first", expires_in: 300)
+      0 * realmService._
+      early.token == "first"
+
+    when:
+      clock.setWallTime(TimeUnit.SECONDS.toMillis(250))
+      DockerBearerToken refreshed = service.getToken(REPOSITORY1)
+      DockerBearerToken cached = service.getToken(REPOSITORY1)
+
+    then:
+      1 * realmService.getToken(PATH1, SERVICE1, SCOPE1, _) >> new DockerBearerToken(token: "second", expires_in: 300)
+      0 * realmService._
+      refreshed.token == "second"
+      cached.token == "second"
+      service.registry.counter("dockerRegistry.tokens.refreshes", "registry", "unknown", "reason", "proactive", "success", "true").count() == 1
+  }
+
+  void "should keep using a token that is still valid when refreshing it ahead of expiry fails."() {
+    setup:
+      def clock = new ManualClock()
+      def service = new DockerBearerTokenService()
+      service.registry = new DefaultRegistry(clock)
+      def realmService = Mock(DockerBearerTokenService.TokenService)
+      service.realmToService[REALM1] = realmService
+      def authenticateHeader = "realm=\"${REALM1}/${PATH1}\",service=\"${SERVICE1}\",scope=\"${SCOPE1}\""
+
+    when:
+      service.getToken(REPOSITORY1, authenticateHeader)
+      clock.setWallTime(TimeUnit.SECONDS.toMillis(250))
+      DockerBearerToken failed = service.getToken(REPOSITORY1)
+      DockerBearerToken retried = service.getToken(REPOSITORY1)
+
+    then:
+      3 * realmService.getToken(PATH1, SERVICE1, SCOPE1, _) >>> [new DockerBearerToken(token: "first", expires_in: 300)] >>
+        { throw new RuntimeException("unavailable") } >> new DockerBearerToken(token: "second", expires_in: 300)
+      failed.token == "first"
+      retried.token == "second"
+      service.registry.counter("dockerRegistry.tokens.refreshes", "registry", "unknown", "reason", "proactive", "success", "false").count() == 1
+  }
+
+  void "should refresh an expired token before it is used."() {
+    setup:
+      def clock = new ManualClock()
+      def service = new DockerBearerTokenService()
+      service.registry = new DefaultRegistry(clock)
+      def realmService = Mock(DockerBearerTokenService.TokenService)
+      service.realmToService[REALM1] = realmService
+      def authenticateHeader = "realm=\"${REALM1}/${PATH1}\",service=\"${SERVICE1}\",scope=\"${SCOPE1}\""
+    when:
+      service.getToken(REPOSITORY1, authenticateHeader)
+      clock.setWallTime(TimeUnit.SECONDS.toMillis(400))
+      DockerBearerToken token = service.getToken(REPOSITORY1)
+
+    then:
+      2 * realmService.getToken(PATH1, SERVICE1, SCOPE1, _) >>> [new DockerBearerToken(token: "first", expires_in: 300), new DockerBearerToken(token: "second", expires_in: 300)]
+      token.token == "second"
+      service.registry.counter("dockerRegistry.tokens.requests", "registry", "unknown", "result", "expired").count() == 1
+  }
+
   void "should read a password from a file, and correctly prepare the basic auth string."() {
     setup:
       def passwordFile = new File("src/test/resources/password.txt")
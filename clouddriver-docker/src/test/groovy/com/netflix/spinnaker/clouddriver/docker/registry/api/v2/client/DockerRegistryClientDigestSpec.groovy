@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.docker.registry.api.v2.client
+
+import com.netflix.spinnaker.clouddriver.docker.registry.api.v2.auth.DockerBearerTokenService
+import retrofit.RetrofitError
+import retrofit.client.Header
+import retrofit.client.Response
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.concurrent.TimeUnit
+
+class DockerRegistryClientDigestSpec extends Specification {
+  DockerRegistryClient client = new DockerRegistryClient("https://registry.example.com", TimeUnit.MINUTES.toMillis(1), 100, "", false, new DefaultDockerOkClientProvider())
+
+  def setup() {
+    client.tokenService = Mock(DockerBearerTokenService)
+    client.registryService = Mock(DockerRegistryClient.DockerRegistryService)
+  }
+
+  void "reads the digest from the HEAD of the manifest"() {
+    when:
+    def digest = client.getDigest("repo", "v1")
+
+    then:
+    digest == "sha256:1"
+    1 * client.registryService.headManifest("repo", "v1", _, _) >> response(200, "sha256:1")
+    0 * client.registryService.getManifest(_, _, _, _)
+  }
+
+  @Unroll
+  void "fetches the manifest when the registry doesn't support HEAD (#status)"() {
+    when:
+    def digest = client.getDigest("repo", "v1")
+
+    then:
+    digest == "sha256:1"
+    1 * client.registryService.headManifest("repo", "v1", _, _) >> { throw error(status) }
+    1 * client.registryService.getManifest("repo", "v1", _, _) >> response(200, "sha256:1")
+
+    where:
+    status << [405, 501]
+  }
+
+  @Unroll
+  void "does not fetch the manifest when the HEAD fails with #status"() {
+    when:
+    client.getDigest("repo", "v1")
+
+    then:
+    def e = thrown(RetrofitError)
+    e.response.status == status
+    1 * client.registryService.headManifest("repo", "v1", _, _) >> { throw error(status) }
+    0 * client.registryService.getManifest(_, _, _, _)
+
+    where:
+    status << [404, 429, 500, 503]
+  }
+
+  private static Response response(int status, String digest) {
+    return new Response("https://registry.example.com/v2/repo/manifests/v1", status, "", [new Header("Docker-Content-Digest", digest)], null)
+  }
+
+  private static RetrofitError error(int status) {
+    return RetrofitError.httpError("https://registry.example.com/v2/repo/manifests/v1", new Response("https://registry.example.com/v2/repo/manifests/v1", status, "", [], null), null, null)
+  }
+}
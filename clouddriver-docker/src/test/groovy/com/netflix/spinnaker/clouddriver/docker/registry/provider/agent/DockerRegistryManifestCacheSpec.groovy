@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.docker.registry.provider.agent
+
+import com.netflix.spinnaker.clouddriver.docker.registry.api.v2.client.DockerRegistryClient
+import retrofit.RetrofitError
+import retrofit.client.Response
+import spock.lang.Specification
+
+import java.time.Instant
+import java.util.concurrent.Executor
+
+class DockerRegistryManifestCacheSpec extends Specification {
+
+  def client = Mock(DockerRegistryClient)
+  def directExecutor = { Runnable r -> r.run() } as Executor
+
+  void 'only fetches the manifest of tags whose digest changed'() {
+    given:
+    def cache = new DockerRegistryManifestCache(client, true, directExecutor)
+    def created = Instant.parse('2019-01-01T00:00:00Z')
+
+    when:
+    def first = cache.resolve([repo: ['v1', 'v2'] as Set])
+
+    then:
+    1 * client.getDigest('repo', 'v1') >> 'sha256:1'
+    1 * client.getDigest('repo', 'v2') >> 'sha256:2'
+    2 * client.fetchCreationDate('repo', _) >> created
+    first['repo:v1'].digest == 'sha256:1'
+    first['repo:v2'].creationDate == created
+
+    when:
+    def second = cache.resolve([repo: ['v1', 'v2'] as Set])
+
+    then:
+    1 * client.getDigest('repo', 'v1') >> 'sha256:1'
+    1 * client.getDigest('repo', 'v2') >> 'sha256:changed'
+    1 * client.fetchCreationDate('repo', 'v2') >> created
+    0 * client.fetchCreationDate('repo', 'v1')
+    second['repo:v1'].creationDate == created
+    second['repo:v2'].digest == 'sha256:changed'
+  }
+
+  void 'leaves out tags whose manifest no longer exists'() {
+    given:
+    def cache = new DockerRegistryManifestCache(client, true, directExecutor)
+    def notFound = RetrofitError.httpError('http://registry/v2/repo/manifests/gone', new Response('', 404, '', [], null), null, null)
+
+    when:
+    def manifests = cache.resolve([repo: ['gone', 'present'] as Set])
+
+    then:
+    client.getDigest('repo', 'gone') >> { throw notFound }
+    client.getDigest('repo', 'present') >> 'sha256:1'
+    manifests.keySet() == ['repo:present'] as Set
+  }
+
+  void 'without digest tracking only refetches latest'() {
+    given:
+    def cache = new DockerRegistryManifestCache(client, false, directExecutor)
+    def created = Instant.parse('2019-01-01T00:00:00Z')
+    client.fetchCreationDate(_, _) >> created
+    cache.resolve([repo: ['v1', 'latest'] as Set])
+
+    when:
+    cache.resolve([repo: ['v1', 'latest'] as Set])
+
+    then:
+    0 * client.getDigest(_, _)
+    1 * client.fetchCreationDate('repo', 'latest') >> created
+    0 * client.fetchCreationDate('repo', 'v1')
+  }
+}
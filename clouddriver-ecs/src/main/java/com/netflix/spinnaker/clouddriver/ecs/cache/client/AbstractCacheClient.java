@@ -21,7 +21,9 @@ import com.netflix.spinnaker.cats.cache.CacheData;
 import com.netflix.spinnaker.clouddriver.ecs.cache.Keys;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -74,6 +76,40 @@ abstract class AbstractCacheClient<T> {
     return null;
   }
 
+  /**
+   * @param keys Keys within the key namespace that will be used to retrieve objects in a single
+   *     cache read.
+   * @return The objects associated with the keys that were found, indexed by key.
+   */
+  public Map<String, T> getAll(Collection<String> keys) {
+    if (keys.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    Collection<CacheData> allData = cacheView.getAll(keyNamespace, keys);
+    if (allData == null) {
+      return Collections.emptyMap();
+    }
+
+    Map<String, T> result = new HashMap<>();
+    for (CacheData cacheData : allData) {
+      result.put(cacheData.getId(), convert(cacheData));
+    }
+    return result;
+  }
+
+  /**
+   * @param account name of the AWS account, as defined in clouddriver.yml
+   * @param region region of the AWS account, as defined in clouddriver.yml
+   * @return Views of all entries belonging to the account and region in the key namespace, which
+   *     are only converted into generic type objects when asked.
+   */
+  public Collection<CacheDataView<T>> getViews(String account, String region) {
+    return fetchFromCache(account, region).stream()
+        .map(cacheData -> new CacheDataView<>(cacheData, this::convert))
+        .collect(Collectors.toList());
+  }
+
   /**
    * @param cacheData A collection of CacheData that will be converted into a collection of generic
    *     typ objects.
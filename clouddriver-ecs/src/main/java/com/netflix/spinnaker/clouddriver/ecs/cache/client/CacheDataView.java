@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License
+ * for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.ecs.cache.client;
+
+import com.netflix.spinnaker.cats.cache.CacheData;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A read-only view of a cached entry. Single attributes can be read straight from the cached
+ * attribute map, and the entry is only converted into a model object the first time {@link
+ * #get()} is called.
+ */
+public class CacheDataView<T> {
+  private final CacheData cacheData;
+  private final Function<CacheData, T> converter;
+  private T converted;
+
+  CacheDataView(CacheData cacheData, Function<CacheData, T> converter) {
+    this.cacheData = cacheData;
+    this.converter = converter;
+  }
+
+  public String getId() {
+    return cacheData.getId();
+  }
+
+  public Map<String, Object> getAttributes() {
+    return cacheData.getAttributes();
+  }
+
+  /**
+   * @param name The name of an attribute of the cached entry.
+   * @return The attribute as stored in the cache, without any conversion.
+   */
+  @SuppressWarnings("unchecked")
+  public <V> V getAttribute(String name) {
+    return (V) cacheData.getAttributes().get(name);
+  }
+
+  /** @return The entry converted into a model object; converted at most once. */
+  public T get() {
+    if (converted == null) {
+      converted = converter.apply(cacheData);
+    }
+    return converted;
+  }
+}
@@ -72,8 +72,18 @@ public class EcsCloudWatchAlarmCacheClient extends AbstractCacheClient<EcsMetric
 
   public List<EcsMetricAlarm> getMetricAlarms(
       String serviceName, String accountName, String region) {
+    return getMetricAlarms(serviceName, getAll(accountName, region));
+  }
+
+  /**
+   * @param serviceName name of the service whose alarms to select
+   * @param allMetricAlarms alarms already read from the cache, so that the alarms of many services
+   *     can be selected from a single cache read
+   * @return The alarms with an action on the service.
+   */
+  public List<EcsMetricAlarm> getMetricAlarms(
+      String serviceName, Collection<EcsMetricAlarm> allMetricAlarms) {
     List<EcsMetricAlarm> metricAlarms = new LinkedList<>();
-    Collection<EcsMetricAlarm> allMetricAlarms = getAll(accountName, region);
 
     outLoop:
     for (EcsMetricAlarm metricAlarm : allMetricAlarms) {
@@ -23,6 +23,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.netflix.spinnaker.cats.cache.Cache;
 import com.netflix.spinnaker.clouddriver.aws.data.Keys;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Component;
@@ -54,4 +58,36 @@ public class EcsInstanceCacheClient {
         .map(cacheData -> objectMapper.convertValue(cacheData.getAttributes(), Instance.class))
         .collect(Collectors.toSet());
   }
+
+  /**
+   * Finds many instances of an account and region with a single cache read.
+   *
+   * @return The instances that were found, indexed by instance ID.
+   */
+  public Map<String, Instance> findAll(
+      Collection<String> instanceIds, String account, String region) {
+    if (instanceIds.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    Map<String, Instance> instances = new HashMap<>();
+    if (account == null || region == null) {
+      // without an account or region the keys can't be built, so fall back to searching for each
+      for (String instanceId : instanceIds) {
+        find(instanceId, account, region).stream()
+            .findFirst()
+            .ifPresent(instance -> instances.put(instanceId, instance));
+      }
+      return instances;
+    }
+
+    List<String> instanceKeys =
+        instanceIds.stream()
+            .map(instanceId -> Keys.getInstanceKey(instanceId, account, region))
+            .collect(Collectors.toList());
+    cacheView.getAll(INSTANCES.getNs(), instanceKeys).stream()
+        .map(cacheData -> objectMapper.convertValue(cacheData.getAttributes(), Instance.class))
+        .forEach(instance -> instances.putIfAbsent(instance.getInstanceId(), instance));
+    return instances;
+  }
 }
@@ -49,13 +49,19 @@ import com.netflix.spinnaker.clouddriver.ecs.cache.model.ContainerInstance;
 import com.netflix.spinnaker.clouddriver.ecs.cache.model.Service;
 import com.netflix.spinnaker.clouddriver.ecs.cache.model.Task;
 import com.netflix.spinnaker.clouddriver.ecs.cache.model.TaskHealth;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -94,6 +100,12 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
     return attributes;
   }
 
+  /**
+   * Resolves the health of every cached task in a fixed number of calls: the services, container
+   * instances and task definitions the tasks reference are each read from the cache in a single
+   * call, and target health is described once per target group for all of the tasks' targets in
+   * it.
+   */
   @Override
   protected List<TaskHealth> getItems(AmazonECS ecs, ProviderCache providerCache) {
     TaskCacheClient taskCacheClient = new TaskCacheClient(providerCache, objectMapper);
@@ -113,95 +125,187 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
     taskDefEvictions = new LinkedList<>();
 
     Collection<Task> tasks = taskCacheClient.getAll(accountName, region);
-    if (tasks != null) {
-      for (Task task : tasks) {
-        String containerInstanceCacheKey =
-            Keys.getContainerInstanceKey(accountName, region, task.getContainerInstanceArn());
+    if (tasks == null) {
+      return taskHealthList;
+    }
+
+    Set<String> containerInstanceKeys = new HashSet<>();
+    Set<String> serviceKeys = new HashSet<>();
+    for (Task task : tasks) {
+      if (task.getContainerInstanceArn() != null) {
+        containerInstanceKeys.add(
+            Keys.getContainerInstanceKey(accountName, region, task.getContainerInstanceArn()));
+      }
+      serviceKeys.add(Keys.getServiceKey(accountName, region, getServiceName(task)));
+    }
+    Map<String, ContainerInstance> containerInstances =
+        containerInstanceCacheClient.getAll(containerInstanceKeys);
+    Map<String, Service> services = serviceCacheClient.getAll(serviceKeys);
+    Map<String, TaskDefinition> taskDefinitions =
+        taskDefinitionCacheClient.getAll(
+            services.values().stream()
+                .map(
+                    service ->
+                        Keys.getTaskDefinitionKey(
+                            accountName, region, service.getTaskDefinition()))
+                .collect(Collectors.toSet()));
+
+    List<TaskTargets> taskTargetsList = new LinkedList<>();
+    for (Task task : tasks) {
+      String serviceName = getServiceName(task);
+      Service service = services.get(Keys.getServiceKey(accountName, region, serviceName));
+
+      if (service == null) {
+        String taskEvictionKey = Keys.getTaskKey(accountName, region, task.getTaskId());
+        taskEvictions.add(taskEvictionKey);
+        continue;
+      }
+
+      if (isContainerMissingNetworking(task)) {
+        continue;
+      }
+
+      TaskTargets taskTargets;
+      if (task.getContainers().get(0).getNetworkBindings().size() >= 1) {
         ContainerInstance containerInstance =
-            containerInstanceCacheClient.get(containerInstanceCacheKey);
-
-        String serviceName = StringUtils.substringAfter(task.getGroup(), "service:");
-        String serviceKey = Keys.getServiceKey(accountName, region, serviceName);
-        Service service = serviceCacheClient.get(serviceKey);
-
-        if (service == null) {
-          String taskEvictionKey = Keys.getTaskKey(accountName, region, task.getTaskId());
-          taskEvictions.add(taskEvictionKey);
-          continue;
-        }
-
-        String taskDefinitionCacheKey =
-            Keys.getTaskDefinitionKey(accountName, region, service.getTaskDefinition());
-        TaskDefinition taskDefinition = taskDefinitionCacheClient.get(taskDefinitionCacheKey);
-
-        if (isContainerMissingNetworking(task)) {
-          continue;
-        }
-
-        TaskHealth taskHealth;
-        if (task.getContainers().get(0).getNetworkBindings().size() >= 1) {
-          taskHealth =
-              inferHealthNetworkBindedContainer(
-                  amazonloadBalancing, task, containerInstance, serviceName, service);
-        } else {
-          taskHealth =
-              inferHealthNetworkInterfacedContainer(
-                  amazonloadBalancing, task, serviceName, service, taskDefinition);
-        }
-
-        if (taskHealth != null) {
-          taskHealthList.add(taskHealth);
-        }
+            containerInstances.get(
+                Keys.getContainerInstanceKey(accountName, region, task.getContainerInstanceArn()));
+        taskTargets = getNetworkBindedContainerTargets(task, containerInstance, service);
+      } else {
+        TaskDefinition taskDefinition =
+            taskDefinitions.get(
+                Keys.getTaskDefinitionKey(accountName, region, service.getTaskDefinition()));
+        taskTargets = getNetworkInterfacedContainerTargets(task, service, taskDefinition);
+      }
+      taskTargetsList.add(taskTargets);
+    }
+
+    Map<String, Map<String, TargetHealthDescription>> targetHealth =
+        describeTargetHealth(amazonloadBalancing, taskTargetsList);
+
+    for (TaskTargets taskTargets : taskTargetsList) {
+      TaskHealth taskHealth = inferHealth(taskTargets, targetHealth);
+      if (taskHealth != null) {
+        taskHealthList.add(taskHealth);
       }
     }
 
     return taskHealthList;
   }
 
-  private TaskHealth inferHealthNetworkInterfacedContainer(
-      AmazonElasticLoadBalancing amazonloadBalancing,
-      Task task,
-      String serviceName,
-      Service loadBalancerService,
-      TaskDefinition taskDefinition) {
+  private static String getServiceName(Task task) {
+    return StringUtils.substringAfter(task.getGroup(), "service:");
+  }
 
-    List<LoadBalancer> loadBalancers = loadBalancerService.getLoadBalancers();
+  private TaskTargets getNetworkInterfacedContainerTargets(
+      Task task, Service loadBalancerService, TaskDefinition taskDefinition) {
+    TaskTargets taskTargets = new TaskTargets(task, loadBalancerService);
 
-    for (LoadBalancer loadBalancer : loadBalancers) {
+    for (LoadBalancer loadBalancer : loadBalancerService.getLoadBalancers()) {
       if (loadBalancer.getTargetGroupArn() == null) {
         continue;
       }
 
       NetworkInterface networkInterface = task.getContainers().get(0).getNetworkInterfaces().get(0);
-      DescribeTargetHealthResult describeTargetHealthResult =
-          amazonloadBalancing.describeTargetHealth(
-              new DescribeTargetHealthRequest()
-                  .withTargetGroupArn(loadBalancer.getTargetGroupArn())
-                  .withTargets(
-                      new TargetDescription()
-                          .withId(networkInterface.getPrivateIpv4Address())
-                          .withPort(
-                              taskDefinition
-                                  .getContainerDefinitions()
-                                  .get(0)
-                                  .getPortMappings()
-                                  .get(0)
-                                  .getContainerPort())));
-
-      if (describeTargetHealthResult.getTargetHealthDescriptions().isEmpty()) {
-        evictStaleData(task, loadBalancerService);
+      taskTargets.add(
+          loadBalancer.getTargetGroupArn(),
+          new TargetDescription()
+              .withId(networkInterface.getPrivateIpv4Address())
+              .withPort(
+                  taskDefinition
+                      .getContainerDefinitions()
+                      .get(0)
+                      .getPortMappings()
+                      .get(0)
+                      .getContainerPort()));
+    }
+    return taskTargets;
+  }
+
+  private TaskTargets getNetworkBindedContainerTargets(
+      Task task, ContainerInstance containerInstance, Service loadBalancerService) {
+    TaskTargets taskTargets = new TaskTargets(task, loadBalancerService);
+    int port = task.getContainers().get(0).getNetworkBindings().get(0).getHostPort();
+
+    for (LoadBalancer loadBalancer : loadBalancerService.getLoadBalancers()) {
+      if (loadBalancer.getTargetGroupArn() == null
+          || containerInstance == null
+          || containerInstance.getEc2InstanceId() == null) {
         continue;
       }
 
+      taskTargets.add(
+          loadBalancer.getTargetGroupArn(),
+          new TargetDescription().withId(containerInstance.getEc2InstanceId()).withPort(port));
+    }
+    return taskTargets;
+  }
+
+  /**
+   * Describes the health of the targets of all tasks with one call per target group, returning
+   * the descriptions by target group arn and then by target.
+   */
+  private Map<String, Map<String, TargetHealthDescription>> describeTargetHealth(
+      AmazonElasticLoadBalancing amazonloadBalancing, List<TaskTargets> taskTargetsList) {
+    Map<String, Map<String, TargetDescription>> targetsByGroup = new HashMap<>();
+    for (TaskTargets taskTargets : taskTargetsList) {
+      for (Map.Entry<String, TargetDescription> target : taskTargets.targets) {
+        targetsByGroup
+            .computeIfAbsent(target.getKey(), arn -> new LinkedHashMap<>())
+            .putIfAbsent(targetKey(target.getValue()), target.getValue());
+      }
+    }
+
+    Map<String, Map<String, TargetHealthDescription>> targetHealth = new HashMap<>();
+    targetsByGroup.forEach(
+        (targetGroupArn, targets) -> {
+          DescribeTargetHealthResult describeTargetHealthResult =
+              amazonloadBalancing.describeTargetHealth(
+                  new DescribeTargetHealthRequest()
+                      .withTargetGroupArn(targetGroupArn)
+                      .withTargets(targets.values()));
+
+          Map<String, TargetHealthDescription> descriptions = new HashMap<>();
+          for (TargetHealthDescription description :
+              describeTargetHealthResult.getTargetHealthDescriptions()) {
+            if (description.getTarget() != null) {
+              descriptions.put(targetKey(description.getTarget()), description);
+            } else if (targets.size() == 1) {
+              descriptions.put(targets.keySet().iterator().next(), description);
+            }
+          }
+          targetHealth.put(targetGroupArn, descriptions);
+        });
+
+    log.debug(
+        "Described target health of {} target groups in {}",
+        targetsByGroup.size(),
+        getAgentType());
+    return targetHealth;
+  }
+
+  private TaskHealth inferHealth(
+      TaskTargets taskTargets, Map<String, Map<String, TargetHealthDescription>> targetHealth) {
+    for (Map.Entry<String, TargetDescription> target : taskTargets.targets) {
       TargetHealthDescription healthDescription =
-          describeTargetHealthResult.getTargetHealthDescriptions().get(0);
+          targetHealth
+              .getOrDefault(target.getKey(), Collections.emptyMap())
+              .get(targetKey(target.getValue()));
+
+      if (healthDescription == null) {
+        evictStaleData(taskTargets.task, taskTargets.service);
+        continue;
+      }
 
-      TaskHealth taskHealth = makeTaskHealth(task, serviceName, healthDescription);
-      return taskHealth;
+      return makeTaskHealth(taskTargets.task, getServiceName(taskTargets.task), healthDescription);
     }
     return null;
   }
 
+  private static String targetKey(TargetDescription target) {
+    return target.getId() + ":" + target.getPort();
+  }
+
   private void evictStaleData(Task task, Service loadBalancerService) {
     String serviceEvictionKey =
         Keys.getTaskDefinitionKey(accountName, region, loadBalancerService.getServiceName());
@@ -229,48 +333,6 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
     return taskHealth;
   }
 
-  private TaskHealth inferHealthNetworkBindedContainer(
-      AmazonElasticLoadBalancing amazonloadBalancing,
-      Task task,
-      ContainerInstance containerInstance,
-      String serviceName,
-      Service loadBalancerService) {
-    int port = task.getContainers().get(0).getNetworkBindings().get(0).getHostPort();
-
-    List<LoadBalancer> loadBalancers = loadBalancerService.getLoadBalancers();
-
-    for (LoadBalancer loadBalancer : loadBalancers) {
-      if (loadBalancer.getTargetGroupArn() == null
-          || containerInstance == null
-          || containerInstance.getEc2InstanceId() == null) {
-        continue;
-      }
-
-      DescribeTargetHealthResult describeTargetHealthResult;
-      describeTargetHealthResult =
-          amazonloadBalancing.describeTargetHealth(
-              new DescribeTargetHealthRequest()
-                  .withTargetGroupArn(loadBalancer.getTargetGroupArn())
-                  .withTargets(
-                      new TargetDescription()
-                          .withId(containerInstance.getEc2InstanceId())
-                          .withPort(port)));
-
-      if (describeTargetHealthResult.getTargetHealthDescriptions().isEmpty()) {
-        evictStaleData(task, loadBalancerService);
-        continue;
-      }
-
-      TargetHealthDescription healthDescription =
-          describeTargetHealthResult.getTargetHealthDescriptions().get(0);
-
-      TaskHealth taskHealth = makeTaskHealth(task, serviceName, healthDescription);
-      return taskHealth;
-    }
-
-    return null;
-  }
-
   private boolean isContainerMissingNetworking(Task task) {
     if (task.getContainers().isEmpty()) {
       return true;
@@ -357,4 +419,20 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
   public String getHealthId() {
     return HEALTH_ID;
   }
+
+  /** The targets of a task, in the order of its service's load balancers. */
+  private static class TaskTargets {
+    private final Task task;
+    private final Service service;
+    private final List<Map.Entry<String, TargetDescription>> targets = new ArrayList<>();
+
+    TaskTargets(Task task, Service service) {
+      this.task = task;
+      this.service = service;
+    }
+
+    void add(String targetGroupArn, TargetDescription target) {
+      targets.add(new AbstractMap.SimpleImmutableEntry<>(targetGroupArn, target));
+    }
+  }
 }
@@ -24,6 +24,7 @@ import com.google.common.collect.Sets;
 import com.netflix.spinnaker.clouddriver.aws.security.AmazonCredentials;
 import com.netflix.spinnaker.clouddriver.ecs.EcsCloudProvider;
 import com.netflix.spinnaker.clouddriver.ecs.cache.Keys;
+import com.netflix.spinnaker.clouddriver.ecs.cache.client.CacheDataView;
 import com.netflix.spinnaker.clouddriver.ecs.cache.client.EcsCloudWatchAlarmCacheClient;
 import com.netflix.spinnaker.clouddriver.ecs.cache.client.EcsLoadbalancerCacheClient;
 import com.netflix.spinnaker.clouddriver.ecs.cache.client.ScalableTargetCacheClient;
@@ -39,6 +40,7 @@ import com.netflix.spinnaker.clouddriver.ecs.model.EcsTask;
 import com.netflix.spinnaker.clouddriver.ecs.model.TaskDefinition;
 import com.netflix.spinnaker.clouddriver.ecs.services.ContainerInformationService;
 import com.netflix.spinnaker.clouddriver.ecs.services.SubnetSelector;
+import com.netflix.spinnaker.clouddriver.ecs.services.TaskHydrationContext;
 import com.netflix.spinnaker.clouddriver.model.ClusterProvider;
 import com.netflix.spinnaker.clouddriver.model.Instance;
 import com.netflix.spinnaker.clouddriver.model.LoadBalancer;
@@ -47,6 +49,7 @@ import com.netflix.spinnaker.clouddriver.security.AccountCredentials;
 import com.netflix.spinnaker.clouddriver.security.AccountCredentialsProvider;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -119,40 +122,93 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
       AmazonCredentials.AWSRegion awsRegion,
       String application) {
 
-    Collection<Service> services =
-        serviceCacheClient.getAll(credentials.getName(), awsRegion.getName());
-    Collection<Task> allTasks = taskCacheClient.getAll(credentials.getName(), awsRegion.getName());
+    // services and tasks are filtered on their raw cached attributes, so only those belonging to
+    // the application are ever converted
+    List<Service> services =
+        serviceCacheClient.getViews(credentials.getName(), awsRegion.getName()).stream()
+            .filter(
+                view ->
+                    application == null
+                        || application.equals(view.getAttribute("applicationName")))
+            .map(CacheDataView::get)
+            .collect(Collectors.toList());
+    if (services.isEmpty()) {
+      return clusterMap;
+    }
+
+    Set<String> serviceGroups =
+        services.stream()
+            .map(service -> "service:" + service.getServiceName())
+            .collect(Collectors.toSet());
+    Map<String, List<Task>> tasksByGroup =
+        taskCacheClient.getViews(credentials.getName(), awsRegion.getName()).stream()
+            .filter(view -> serviceGroups.contains(view.<String>getAttribute("group")))
+            .map(CacheDataView::get)
+            .collect(Collectors.groupingBy(Task::getGroup));
+
+    Set<LoadBalancer> loadBalancers =
+        new HashSet<>(ecsLoadbalancerCacheClient.find(credentials.getName(), awsRegion.getName()));
+
+    // everything the services and their tasks refer to is read in one go, so building the
+    // clusters takes the same number of cache reads however many services and tasks there are
+    TaskHydrationContext taskContext =
+        containerInformationService.hydrate(
+            credentials.getName(),
+            awsRegion.getName(),
+            services,
+            tasksByGroup.values().stream().flatMap(List::stream).collect(Collectors.toList()));
+    Map<String, com.amazonaws.services.ecs.model.TaskDefinition> taskDefinitions =
+        taskDefinitionCacheClient.getAll(
+            services.stream()
+                .map(
+                    service ->
+                        Keys.getTaskDefinitionKey(
+                            credentials.getName(),
+                            awsRegion.getName(),
+                            service.getTaskDefinition()))
+                .collect(Collectors.toSet()));
+    Map<String, ScalableTarget> scalableTargets =
+        scalableTargetCacheClient.getAll(
+            services.stream()
+                .map(
+                    service ->
+                        getScalableTargetKey(credentials.getName(), awsRegion.getName(), service))
+                .collect(Collectors.toSet()));
+    Collection<EcsMetricAlarm> metricAlarms =
+        ecsCloudWatchAlarmCacheClient.getAll(credentials.getName(), awsRegion.getName());
 
     for (Service service : services) {
       String applicationName = service.getApplicationName();
       String serviceName = service.getServiceName();
 
-      if (application != null && !applicationName.equals(application)) {
-        continue;
-      }
-
-      Set<LoadBalancer> loadBalancers =
-          new HashSet<>(
-              ecsLoadbalancerCacheClient.find(credentials.getName(), awsRegion.getName()));
-
+      List<Task> tasks =
+          tasksByGroup.getOrDefault("service:" + serviceName, Collections.emptyList());
       Set<Instance> instances =
-          allTasks.stream()
-              .filter(task -> task.getGroup().equals("service:" + serviceName))
-              .map(
-                  task ->
-                      convertToEcsTask(
-                          credentials.getName(), awsRegion.getName(), serviceName, task))
+          tasks.stream()
+              .map(task -> convertToEcsTask(taskContext, serviceName, task))
               .collect(Collectors.toSet());
 
       String taskDefinitionKey =
           Keys.getTaskDefinitionKey(
               credentials.getName(), awsRegion.getName(), service.getTaskDefinition());
       com.amazonaws.services.ecs.model.TaskDefinition taskDefinition =
-          taskDefinitionCacheClient.get(taskDefinitionKey);
+          taskDefinitions.get(taskDefinitionKey);
       if (taskDefinition == null) {
         continue;
       }
 
+      ScalableTarget scalableTarget =
+          scalableTargets.get(
+              getScalableTargetKey(credentials.getName(), awsRegion.getName(), service));
+      if (scalableTarget == null) {
+        continue;
+      }
+
+      Set<String> metricAlarmNames =
+          ecsCloudWatchAlarmCacheClient.getMetricAlarms(serviceName, metricAlarms).stream()
+              .map(EcsMetricAlarm::getAlarmName)
+              .collect(Collectors.toSet());
+
       EcsServerGroup ecsServerGroup =
           buildEcsServerGroup(
               credentials.getName(),
@@ -164,11 +220,11 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
               service.getClusterName(),
               taskDefinition,
               service.getSubnets(),
-              service.getSecurityGroups());
-
-      if (ecsServerGroup == null) {
-        continue;
-      }
+              service.getSecurityGroups(),
+              scalableTarget,
+              metricAlarmNames,
+              tasks,
+              taskContext);
 
       if (clusterMap.containsKey(applicationName)) {
         String escClusterName = StringUtils.substringBeforeLast(ecsServerGroup.getName(), "-");
@@ -198,14 +254,20 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
     return clusterMap;
   }
 
-  private EcsTask convertToEcsTask(String account, String region, String serviceName, Task task) {
+  private static String getScalableTargetKey(String account, String region, Service service) {
+    String scalableTargetId =
+        "service/" + service.getClusterName() + "/" + service.getServiceName();
+    return Keys.getScalableTargetKey(account, region, scalableTargetId);
+  }
+
+  private EcsTask convertToEcsTask(
+      TaskHydrationContext taskContext, String serviceName, Task task) {
     String taskId = task.getTaskId();
     Long launchTime = task.getStartedAt();
 
-    String address = containerInformationService.getTaskPrivateAddress(account, region, task);
-    List<Map<String, Object>> healthStatus =
-        containerInformationService.getHealthStatus(taskId, serviceName, account, region);
-    String availabilityZone = containerInformationService.getTaskZone(account, region, task);
+    String address = taskContext.getTaskPrivateAddress(task);
+    List<Map<String, Object>> healthStatus = taskContext.getHealthStatus(task, serviceName);
+    String availabilityZone = taskContext.getTaskZone(task);
 
     NetworkInterface networkInterface =
         !task.getContainers().isEmpty()
@@ -298,20 +360,17 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
       String ecsCluster,
       com.amazonaws.services.ecs.model.TaskDefinition taskDefinition,
       List<String> eniSubnets,
-      List<String> eniSecurityGroups) {
+      List<String> eniSecurityGroups,
+      ScalableTarget scalableTarget,
+      Set<String> metricAlarmNames,
+      List<Task> tasks,
+      TaskHydrationContext taskContext) {
     ServerGroup.InstanceCounts instanceCounts = buildInstanceCount(instances);
     TaskDefinition ecsTaskDefinition = buildTaskDefinition(taskDefinition);
     EcsServerGroup.Image image = new EcsServerGroup.Image();
     image.setImageId(ecsTaskDefinition.getContainerImage());
     image.setName(ecsTaskDefinition.getContainerImage());
 
-    String scalableTargetId = "service/" + ecsCluster + "/" + serviceName;
-    String scalableTargetKey = Keys.getScalableTargetKey(account, region, scalableTargetId);
-    ScalableTarget scalableTarget = scalableTargetCacheClient.get(scalableTargetKey);
-    if (scalableTarget == null) {
-      return null;
-    }
-
     ServerGroup.Capacity capacity = buildServerGroupCapacity(desiredCount, scalableTarget);
 
     String vpcId = "None";
@@ -334,32 +393,20 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
           vpcId = vpcIds.iterator().next();
         }
       } else {
-        for (Instance instance : instances) {
-          String taskId = instance.getName();
-          String taskKey = Keys.getTaskKey(account, region, taskId);
-          Task task = taskCacheClient.get(taskKey);
-
-          if (task != null) {
-            com.amazonaws.services.ec2.model.Instance ec2Instance =
-                containerInformationService.getEc2Instance(account, region, task);
-            if (ec2Instance != null) {
-              vpcId = ec2Instance.getVpcId();
-              securityGroups =
-                  ec2Instance.getSecurityGroups().stream()
-                      .map(GroupIdentifier::getGroupId)
-                      .collect(Collectors.toSet());
-              break;
-            }
+        for (Task task : tasks) {
+          com.amazonaws.services.ec2.model.Instance ec2Instance = taskContext.getEc2Instance(task);
+          if (ec2Instance != null) {
+            vpcId = ec2Instance.getVpcId();
+            securityGroups =
+                ec2Instance.getSecurityGroups().stream()
+                    .map(GroupIdentifier::getGroupId)
+                    .collect(Collectors.toSet());
+            break;
           }
         }
       }
     }
 
-    Set<String> metricAlarmNames =
-        ecsCloudWatchAlarmCacheClient.getMetricAlarms(serviceName, account, region).stream()
-            .map(EcsMetricAlarm::getAlarmName)
-            .collect(Collectors.toSet());
-
     EcsServerGroup serverGroup =
         new EcsServerGroup()
             .setDisabled(capacity.getDesired() == 0)
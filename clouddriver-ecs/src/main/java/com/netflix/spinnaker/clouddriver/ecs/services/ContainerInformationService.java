@@ -31,10 +31,14 @@ import com.netflix.spinnaker.clouddriver.ecs.cache.model.Task;
 import com.netflix.spinnaker.clouddriver.ecs.cache.model.TaskHealth;
 import com.netflix.spinnaker.clouddriver.ecs.security.ECSCredentialsConfig;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -75,6 +79,11 @@ public class ContainerInformationService {
     String taskKey = Keys.getTaskKey(accountName, region, taskId);
     Task task = taskCacheClient.get(taskKey);
 
+    return getHealthStatus(taskId, service, taskHealth, task);
+  }
+
+  static List<Map<String, Object>> getHealthStatus(
+      String taskId, Service service, TaskHealth taskHealth, Task task) {
     List<Map<String, Object>> healthMetrics = new ArrayList<>();
 
     // Load balancer-based health
@@ -114,7 +123,7 @@ public class ContainerInformationService {
     return healthMetrics;
   }
 
-  private String toPlatformHealthState(String ecsTaskStatus) {
+  private static String toPlatformHealthState(String ecsTaskStatus) {
     switch (ecsTaskStatus) {
       case "PROVISIONING":
       case "PENDING":
@@ -146,23 +155,27 @@ public class ContainerInformationService {
   }
 
   public String getTaskPrivateAddress(String accountName, String region, Task task) { //
-    int hostPort;
+    int hostPort = getHostPort(task);
+    if (hostPort < 0 || hostPort > 65535) {
+      return null;
+    }
+
+    return getTaskPrivateAddress(hostPort, getEc2Instance(accountName, region, task));
+  }
 
+  static int getHostPort(Task task) {
     if (task.getContainers().size() > 1) {
-      hostPort = getAddressHostPortForMultipleContainers(task);
-    } else {
-      try {
-        hostPort = task.getContainers().get(0).getNetworkBindings().get(0).getHostPort();
-      } catch (Exception e) {
-        hostPort = -1;
-      }
+      return getAddressHostPortForMultipleContainers(task);
     }
 
-    if (hostPort < 0 || hostPort > 65535) {
-      return null;
+    try {
+      return task.getContainers().get(0).getNetworkBindings().get(0).getHostPort();
+    } catch (Exception e) {
+      return -1;
     }
+  }
 
-    Instance instance = getEc2Instance(accountName, region, task);
+  static String getTaskPrivateAddress(int hostPort, Instance instance) {
     if (instance == null) {
       return null;
     }
@@ -172,7 +185,10 @@ public class ContainerInformationService {
   }
 
   public String getTaskZone(String accountName, String region, Task task) {
-    Instance ec2Instance = getEc2Instance(accountName, region, task);
+    return getTaskZone(getEc2Instance(accountName, region, task));
+  }
+
+  static String getTaskZone(Instance ec2Instance) {
     if (ec2Instance != null) {
       return ec2Instance.getPlacement().getAvailabilityZone();
     }
@@ -182,6 +198,47 @@ public class ContainerInformationService {
     return null;
   }
 
+  /**
+   * Reads everything needed to describe `tasks` up front, in a fixed number of cache reads however
+   * many tasks there are, so that describing each task reads nothing more from the cache.
+   *
+   * @param services the services the tasks belong to
+   * @param tasks the tasks that will be described
+   */
+  public TaskHydrationContext hydrate(
+      String accountName, String region, Collection<Service> services, Collection<Task> tasks) {
+    Map<String, Service> servicesByName =
+        services.stream()
+            .collect(
+                Collectors.toMap(Service::getServiceName, Function.identity(), (s1, s2) -> s1));
+
+    Map<String, TaskHealth> taskHealth =
+        taskHealthCacheClient.getAll(
+            tasks.stream()
+                .map(task -> Keys.getTaskHealthKey(accountName, region, task.getTaskId()))
+                .collect(Collectors.toSet()));
+
+    Map<String, ContainerInstance> containerInstances =
+        containerInstanceCacheClient.getAll(
+            tasks.stream()
+                .map(Task::getContainerInstanceArn)
+                .filter(Objects::nonNull)
+                .map(arn -> Keys.getContainerInstanceKey(accountName, region, arn))
+                .collect(Collectors.toSet()));
+
+    Map<String, Instance> ec2Instances =
+        ecsInstanceCacheClient.findAll(
+            containerInstances.values().stream()
+                .map(ContainerInstance::getEc2InstanceId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()),
+            getAwsAccountName(accountName),
+            region);
+
+    return new TaskHydrationContext(
+        accountName, region, servicesByName, taskHealth, containerInstances, ec2Instances);
+  }
+
   public Instance getEc2Instance(String ecsAccount, String region, Task task) {
     String containerInstanceCacheKey =
         Keys.getContainerInstanceKey(ecsAccount, region, task.getContainerInstanceArn());
@@ -213,7 +270,7 @@ public class ContainerInformationService {
     return null;
   }
 
-  private int getAddressHostPortForMultipleContainers(Task task) {
+  private static int getAddressHostPortForMultipleContainers(Task task) {
     List<Integer> hostPorts = new ArrayList<Integer>() {};
 
     task.getContainers()
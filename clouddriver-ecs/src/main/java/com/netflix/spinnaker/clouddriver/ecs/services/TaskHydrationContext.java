@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License
+ * for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.ecs.services;
+
+import com.amazonaws.services.ec2.model.Instance;
+import com.netflix.spinnaker.clouddriver.ecs.cache.Keys;
+import com.netflix.spinnaker.clouddriver.ecs.cache.model.ContainerInstance;
+import com.netflix.spinnaker.clouddriver.ecs.cache.model.Service;
+import com.netflix.spinnaker.clouddriver.ecs.cache.model.Task;
+import com.netflix.spinnaker.clouddriver.ecs.cache.model.TaskHealth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describes the tasks of one account and region from data read up front by {@link
+ * ContainerInformationService#hydrate}. It answers the same questions as {@link
+ * ContainerInformationService} without reading from the cache, and is meant to live for a single
+ * request.
+ */
+public class TaskHydrationContext {
+  private final String accountName;
+  private final String region;
+  private final Map<String, Service> servicesByName;
+  private final Map<String, TaskHealth> taskHealth;
+  private final Map<String, ContainerInstance> containerInstances;
+  private final Map<String, Instance> ec2Instances;
+
+  TaskHydrationContext(
+      String accountName,
+      String region,
+      Map<String, Service> servicesByName,
+      Map<String, TaskHealth> taskHealth,
+      Map<String, ContainerInstance> containerInstances,
+      Map<String, Instance> ec2Instances) {
+    this.accountName = accountName;
+    this.region = region;
+    this.servicesByName = servicesByName;
+    this.taskHealth = taskHealth;
+    this.containerInstances = containerInstances;
+    this.ec2Instances = ec2Instances;
+  }
+
+  public List<Map<String, Object>> getHealthStatus(Task task, String serviceName) {
+    return ContainerInformationService.getHealthStatus(
+        task.getTaskId(),
+        servicesByName.get(serviceName),
+        taskHealth.get(Keys.getTaskHealthKey(accountName, region, task.getTaskId())),
+        task);
+  }
+
+  public String getTaskPrivateAddress(Task task) {
+    int hostPort = ContainerInformationService.getHostPort(task);
+    if (hostPort < 0 || hostPort > 65535) {
+      return null;
+    }
+
+    return ContainerInformationService.getTaskPrivateAddress(hostPort, getEc2Instance(task));
+  }
+
+  public String getTaskZone(Task task) {
+    return ContainerInformationService.getTaskZone(getEc2Instance(task));
+  }
+
+  public Instance getEc2Instance(Task task) {
+    if (task.getContainerInstanceArn() == null) {
+      return null;
+    }
+
+    ContainerInstance containerInstance =
+        containerInstances.get(
+            Keys.getContainerInstanceKey(accountName, region, task.getContainerInstanceArn()));
+    if (containerInstance == null || containerInstance.getEc2InstanceId() == null) {
+      return null;
+    }
+
+    return ec2Instances.get(containerInstance.getEc2InstanceId());
+  }
+}
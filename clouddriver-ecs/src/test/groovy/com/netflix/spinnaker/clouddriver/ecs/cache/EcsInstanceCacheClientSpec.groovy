@@ -21,6 +21,9 @@ import com.fasterxml.jackson.databind.DeserializationFeature
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.cats.cache.Cache
 import com.netflix.spinnaker.cats.cache.DefaultCacheData
+import com.netflix.spinnaker.cats.mem.InMemoryCache
+import com.netflix.spinnaker.cats.provider.DefaultProviderCache
+import com.netflix.spinnaker.cats.provider.ProviderCache
 import com.netflix.spinnaker.clouddriver.aws.data.Keys
 import com.netflix.spinnaker.clouddriver.ecs.cache.client.EcsInstanceCacheClient
 import spock.lang.Specification
@@ -60,4 +63,41 @@ class EcsInstanceCacheClientSpec extends Specification {
     foundInstances.size() == 1
     foundInstances[0] == givenInstance
   }
+
+  def 'should find many instances of an account and region with a single cache read'() {
+    given:
+    ProviderCache providerCache = Spy(DefaultProviderCache, constructorArgs: [new InMemoryCache()])
+    def cachingClient = new EcsInstanceCacheClient(providerCache, objectMapper)
+    ['i-1', 'i-2', 'i-3'].each { id ->
+      providerCache.putCacheData(INSTANCES.ns, new DefaultCacheData(
+        Keys.getInstanceKey(id, 'test-account', 'us-west-1'), objectMapper.convertValue(new Instance(instanceId: id), Map), [:]))
+    }
+
+    when:
+    def foundInstances = cachingClient.findAll(['i-1', 'i-3', 'i-missing'], 'test-account', 'us-west-1')
+
+    then:
+    1 * providerCache.getAll(INSTANCES.ns, _ as Collection)
+    0 * providerCache.filterIdentifiers(_, _)
+    foundInstances.keySet() == ['i-1', 'i-3'] as Set
+    foundInstances['i-3'].instanceId == 'i-3'
+  }
+
+  def 'should search for each instance when the account is unknown'() {
+    given:
+    ProviderCache providerCache = Spy(DefaultProviderCache, constructorArgs: [new InMemoryCache()])
+    def cachingClient = new EcsInstanceCacheClient(providerCache, objectMapper)
+    ['i-1', 'i-2'].each { id ->
+      providerCache.putCacheData(INSTANCES.ns, new DefaultCacheData(
+        Keys.getInstanceKey(id, 'test-account', 'us-west-1'), objectMapper.convertValue(new Instance(instanceId: id), Map), [:]))
+    }
+
+    when:
+    def foundInstances = cachingClient.findAll(['i-1', 'i-2'], null, 'us-west-1')
+
+    then:
+    2 * providerCache.filterIdentifiers(INSTANCES.ns, _)
+    2 * providerCache.getAll(INSTANCES.ns, _ as Collection)
+    foundInstances.keySet() == ['i-1', 'i-2'] as Set
+  }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License
+ * for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.ecs.cache
+
+import com.amazonaws.services.ecs.model.Container
+import com.amazonaws.services.ecs.model.NetworkBinding
+import com.fasterxml.jackson.databind.DeserializationFeature
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.cats.cache.Cache
+import com.netflix.spinnaker.cats.cache.DefaultCacheData
+import com.netflix.spinnaker.clouddriver.ecs.cache.client.TaskCacheClient
+import spock.lang.Specification
+import spock.lang.Subject
+
+import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.TASKS
+
+class TaskCacheClientSpec extends Specification {
+  def cacheView = Mock(Cache)
+  def objectMapper = new ObjectMapper()
+    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+
+  @Subject
+  TaskCacheClient client = new TaskCacheClient(cacheView, objectMapper)
+
+  def taskKey = Keys.getTaskKey('test-account', 'us-west-1', 'task-id')
+  def attributes = [
+    taskId    : 'task-id',
+    taskArn   : 'task-arn',
+    group     : 'service:test-service',
+    containers: [objectMapper.convertValue(new Container().withNetworkBindings(new NetworkBinding().withHostPort(1337)), Map)]
+  ]
+
+  def 'should read views of an account and region in a single cache read'() {
+    when:
+    def views = client.getViews('test-account', 'us-west-1')
+
+    then:
+    1 * cacheView.filterIdentifiers(TASKS.ns, 'ecs;tasks;test-account;us-west-1;*') >> [taskKey]
+    1 * cacheView.getAll(TASKS.ns, [taskKey] as Set) >> [new DefaultCacheData(taskKey, attributes, [:])]
+    views*.id == [taskKey]
+  }
+
+  def 'should only convert a view when asked for its model object'() {
+    given:
+    TaskCacheClient spy = Spy(TaskCacheClient, constructorArgs: [cacheView, objectMapper])
+    cacheView.filterIdentifiers(TASKS.ns, _) >> [taskKey]
+    cacheView.getAll(TASKS.ns, _ as Collection) >> [new DefaultCacheData(taskKey, attributes, [:])]
+
+    when:
+    def view = spy.getViews('test-account', 'us-west-1').first()
+    def group = view.getAttribute('group')
+
+    then:
+    0 * spy.convert(_)
+    group == 'service:test-service'
+
+    when:
+    def task = view.get()
+    view.get()
+
+    then:
+    1 * spy.convert(_)
+    task.taskId == 'task-id'
+    task.containers[0].networkBindings[0].hostPort == 1337
+  }
+}
@@ -28,6 +28,7 @@ import com.amazonaws.services.ecs.model.TaskDefinition
 import com.amazonaws.services.elasticloadbalancingv2.AmazonElasticLoadBalancing
 import com.amazonaws.services.elasticloadbalancingv2.model.DescribeTargetHealthRequest
 import com.amazonaws.services.elasticloadbalancingv2.model.DescribeTargetHealthResult
+import com.amazonaws.services.elasticloadbalancingv2.model.TargetDescription
 import com.amazonaws.services.elasticloadbalancingv2.model.TargetHealth
 import com.amazonaws.services.elasticloadbalancingv2.model.TargetHealthDescription
 import com.amazonaws.services.elasticloadbalancingv2.model.TargetHealthStateEnum
@@ -79,13 +80,17 @@ class TaskHealthCachingAgentSpec extends Specification {
       createdAt            : new Date().getTime()
     ]
     def serviceCacheData = new DefaultCacheData(serviceKey, serviceAttributes, Collections.emptyMap())
-    providerCache.get(Keys.Namespace.SERVICES.toString(), serviceKey) >> serviceCacheData
+    providerCache.getAll(Keys.Namespace.SERVICES.toString(), _) >> { String namespace, Collection<String> keys ->
+      keys.contains(serviceKey) ? [serviceCacheData] : []
+    }
 
     def containerInstanceAttributes = [
       ec2InstanceId: CommonCachingAgent.EC2_INSTANCE_ID_1
     ]
     def containerInstanceCache = new DefaultCacheData(containerInstanceKey, containerInstanceAttributes, Collections.emptyMap())
-    providerCache.get(Keys.Namespace.CONTAINER_INSTANCES.toString(), containerInstanceKey) >> containerInstanceCache
+    providerCache.getAll(Keys.Namespace.CONTAINER_INSTANCES.toString(), _) >> { String namespace, Collection<String> keys ->
+      keys.contains(containerInstanceKey) ? [containerInstanceCache] : []
+    }
   }
 
   def 'should get a list of task health'() {
@@ -169,6 +174,50 @@ class TaskHealthCachingAgentSpec extends Specification {
     taskHealth.getTaskId() == CommonCachingAgent.TASK_ID_1
   }
 
+  def 'should describe target health once for tasks sharing a target group'() {
+    given:
+    def taskCacheData = [
+      [CommonCachingAgent.TASK_ID_1, CommonCachingAgent.TASK_ARN_1, 1337],
+      [CommonCachingAgent.TASK_ID_2, CommonCachingAgent.TASK_ARN_2, 1338]
+    ].collect { String taskId, String taskArn, int hostPort ->
+      Map<String, Object> containerMap = mapper.convertValue(new Container().withNetworkBindings(new NetworkBinding().withHostPort(hostPort)), Map.class)
+      def taskAttributes = [
+        taskId              : taskId,
+        taskArn             : taskArn,
+        startedAt           : new Date().getTime(),
+        containerInstanceArn: CommonCachingAgent.CONTAINER_INSTANCE_ARN_1,
+        group               : 'service:' + CommonCachingAgent.SERVICE_NAME_1,
+        containers          : Collections.singletonList(containerMap)
+      ]
+      new DefaultCacheData(Keys.getTaskKey(CommonCachingAgent.ACCOUNT, CommonCachingAgent.REGION, taskId), taskAttributes, Collections.emptyMap())
+    }
+    providerCache.getAll(TASKS.toString(), _) >> taskCacheData
+
+    when:
+    def taskHealthList = agent.getItems(ecs, providerCache)
+
+    then:
+    1 * amazonloadBalancing.describeTargetHealth({ DescribeTargetHealthRequest request ->
+      request.targetGroupArn == targetGroupArn &&
+        request.targets*.id == [CommonCachingAgent.EC2_INSTANCE_ID_1] * 2 &&
+        request.targets*.port as Set == [1337, 1338] as Set
+    }) >> new DescribeTargetHealthResult().withTargetHealthDescriptions(
+      new TargetHealthDescription()
+        .withTarget(new TargetDescription().withId(CommonCachingAgent.EC2_INSTANCE_ID_1).withPort(1338))
+        .withTargetHealth(new TargetHealth().withState(TargetHealthStateEnum.Unhealthy)),
+      new TargetHealthDescription()
+        .withTarget(new TargetDescription().withId(CommonCachingAgent.EC2_INSTANCE_ID_1).withPort(1337))
+        .withTargetHealth(new TargetHealth().withState(TargetHealthStateEnum.Healthy))
+    )
+    0 * amazonloadBalancing.describeTargetHealth(_)
+
+    taskHealthList.size() == 2
+    taskHealthList.collectEntries { [(it.taskId): it.state] } == [
+      (CommonCachingAgent.TASK_ID_1): 'Up',
+      (CommonCachingAgent.TASK_ID_2): 'Unknown'
+    ]
+  }
+
   def 'should skip tasks with a non-cached container instance'() {
     given:
     ObjectMapper mapper = new ObjectMapper()
@@ -218,7 +267,7 @@ class TaskHealthCachingAgentSpec extends Specification {
     ]
     def taskDefKey = Keys.getTaskDefinitionKey(CommonCachingAgent.ACCOUNT, CommonCachingAgent.REGION, CommonCachingAgent.TASK_DEFINITION_ARN_1)
     def taskDefCacheData = new DefaultCacheData(taskDefKey, taskDefAttributes, Collections.emptyMap())
-    providerCache.get(TASK_DEFINITIONS.toString(), taskDefKey) >> taskDefCacheData
+    providerCache.getAll(TASK_DEFINITIONS.toString(), [taskDefKey] as Set) >> [taskDefCacheData]
 
     when:
     def taskHealthList = agent.getItems(ecs, providerCache)
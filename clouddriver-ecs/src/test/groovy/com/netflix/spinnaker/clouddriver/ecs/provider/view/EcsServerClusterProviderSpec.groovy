@@ -36,6 +36,7 @@ import com.netflix.spinnaker.clouddriver.ecs.provider.agent.ServiceCachingAgent
 import com.netflix.spinnaker.clouddriver.ecs.provider.agent.TaskCachingAgent
 import com.netflix.spinnaker.clouddriver.ecs.services.ContainerInformationService
 import com.netflix.spinnaker.clouddriver.ecs.services.SubnetSelector
+import com.netflix.spinnaker.clouddriver.ecs.services.TaskHydrationContext
 import com.netflix.spinnaker.clouddriver.model.ServerGroup
 import com.netflix.spinnaker.clouddriver.security.AccountCredentialsProvider
 import spock.lang.Specification
@@ -55,6 +56,7 @@ class EcsServerClusterProviderSpec extends Specification {
   def accountCredentialsProvider = Mock(AccountCredentialsProvider)
   def containerInformationService = Mock(ContainerInformationService)
   def subnetSelector =  Mock(SubnetSelector)
+  def taskContext = Mock(TaskHydrationContext)
 
   @Subject
   def provider = new EcsServerClusterProvider(accountCredentialsProvider,
@@ -177,13 +179,19 @@ class EcsServerClusterProviderSpec extends Specification {
 
     accountCredentialsProvider.getAll() >> [creds, creds2]
     ecsLoadbalancerCacheClient.find(_, _) >> [loadbalancer]
-    containerInformationService.getTaskPrivateAddress(_, _, _) >> "${ip}:1337"
-    containerInformationService.getHealthStatus(_, _, _, _) >> [healthStatus]
-    containerInformationService.getEc2Instance(_, _, _) >> ec2Instance
-    containerInformationService.getTaskZone(_, _, _) >> 'us-west-1a'
-    taskDefinitionCacheClient.get(_) >> cachedTaskDefinition
-    scalableTargetCacheClient.get(_) >> scalableTarget
-    ecsCloudWatchAlarmCacheClient.getMetricAlarms(_, _, _) >> []
+    containerInformationService.hydrate(_, _, _, _) >> taskContext
+    taskContext.getTaskPrivateAddress(_) >> "${ip}:1337"
+    taskContext.getHealthStatus(_, _) >> [healthStatus]
+    taskContext.getEc2Instance(_) >> ec2Instance
+    taskContext.getTaskZone(_) >> 'us-west-1a'
+    taskDefinitionCacheClient.getAll(_) >> { Collection<String> keys ->
+      keys.collectEntries { [(it): cachedTaskDefinition] }
+    }
+    scalableTargetCacheClient.getAll(_) >> { Collection<String> keys ->
+      keys.collectEntries { [(it): scalableTarget] }
+    }
+    ecsCloudWatchAlarmCacheClient.getAll(_, _) >> []
+    ecsCloudWatchAlarmCacheClient.getMetricAlarms(_, _) >> []
     subnetSelector.getSubnetVpcIds(_, _, _) >> ['vpc-1234']
 
     cacheView.filterIdentifiers(_, _) >> ['key']
@@ -238,7 +246,7 @@ class EcsServerClusterProviderSpec extends Specification {
 
     then:
     cacheView.getAll(Keys.Namespace.SERVICES.ns, _) >> [serviceCacheData]
-    containerInformationService.getEc2Instance(_, _, _) >> null
+    taskContext.getEc2Instance(_) >> null
     retrievedCluster == expectedCluster
   }
 
@@ -265,7 +273,9 @@ class EcsServerClusterProviderSpec extends Specification {
     def retrievedCluster = provider.getCluster("myapp", CREDS_NAME, FAMILY_NAME)
 
     then:
-    taskDefinitionCacheClient.get(_) >> cachedTaskDefinition
+    taskDefinitionCacheClient.getAll(_) >> { Collection<String> keys ->
+      keys.collectEntries { [(it): cachedTaskDefinition] }
+    }
     retrievedCluster == expectedCluster
   }
 
@@ -292,7 +302,9 @@ class EcsServerClusterProviderSpec extends Specification {
     def retrievedCluster = provider.getCluster("myapp", CREDS_NAME, FAMILY_NAME)
 
     then:
-    taskDefinitionCacheClient.get(_) >> cachedTaskDefinition
+    taskDefinitionCacheClient.getAll(_) >> { Collection<String> keys ->
+      keys.collectEntries { [(it): cachedTaskDefinition] }
+    }
     retrievedCluster == expectedCluster
   }
 
@@ -317,7 +329,9 @@ class EcsServerClusterProviderSpec extends Specification {
     def retrievedCluster = provider.getCluster("myapp", CREDS_NAME, FAMILY_NAME)
 
     then:
-    taskDefinitionCacheClient.get(_) >> cachedTaskDefinition
+    taskDefinitionCacheClient.getAll(_) >> { Collection<String> keys ->
+      keys.collectEntries { [(it): cachedTaskDefinition] }
+    }
     retrievedCluster == expectedCluster
   }
 
@@ -333,7 +347,7 @@ class EcsServerClusterProviderSpec extends Specification {
     def retrievedCluster = provider.getCluster("myapp", CREDS_NAME, FAMILY_NAME)
 
     then:
-    containerInformationService.getEc2Instance(_, _, _) >> null
+    taskContext.getEc2Instance(_) >> null
     retrievedCluster == expectedCluster
   }
 
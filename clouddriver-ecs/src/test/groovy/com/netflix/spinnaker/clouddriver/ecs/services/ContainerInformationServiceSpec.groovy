@@ -21,15 +21,28 @@ import com.amazonaws.services.ec2.model.Placement
 import com.amazonaws.services.ecs.model.Container
 import com.amazonaws.services.ecs.model.LoadBalancer
 import com.amazonaws.services.ecs.model.NetworkBinding
+import com.fasterxml.jackson.databind.DeserializationFeature
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.cats.cache.DefaultCacheData
+import com.netflix.spinnaker.cats.mem.InMemoryCache
+import com.netflix.spinnaker.cats.provider.DefaultProviderCache
+import com.netflix.spinnaker.cats.provider.ProviderCache
+import com.netflix.spinnaker.clouddriver.aws.data.Keys as AwsKeys
+import com.netflix.spinnaker.clouddriver.ecs.cache.Keys
 import com.netflix.spinnaker.clouddriver.ecs.cache.client.*
 import com.netflix.spinnaker.clouddriver.ecs.cache.model.ContainerInstance
 import com.netflix.spinnaker.clouddriver.ecs.cache.model.Service
 import com.netflix.spinnaker.clouddriver.ecs.cache.model.Task
 import com.netflix.spinnaker.clouddriver.ecs.cache.model.TaskHealth
+import com.netflix.spinnaker.clouddriver.ecs.provider.agent.TaskHealthCachingAgent
 import com.netflix.spinnaker.clouddriver.ecs.security.ECSCredentialsConfig
 import spock.lang.Specification
 import spock.lang.Subject
 
+import static com.netflix.spinnaker.clouddriver.core.provider.agent.Namespace.HEALTH
+import static com.netflix.spinnaker.clouddriver.core.provider.agent.Namespace.INSTANCES
+import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.CONTAINER_INSTANCES
+
 class ContainerInformationServiceSpec extends Specification {
   def ecsCredentialsConfig = Mock(ECSCredentialsConfig)
   def taskCacheClient = Mock(TaskCacheClient)
@@ -656,4 +669,64 @@ class ContainerInformationServiceSpec extends Specification {
     then:
     retrievedAccountName == null
   }
+
+  def 'should hydrate the tasks of a request with one cache read per namespace'() {
+    given:
+    def account = 'test-account'
+    def region = 'us-west-1'
+    def objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+    ProviderCache providerCache = Spy(DefaultProviderCache, constructorArgs: [new InMemoryCache()])
+    def hydratingService = new ContainerInformationService(ecsCredentialsConfig,
+      new TaskCacheClient(providerCache, objectMapper),
+      new ServiceCacheClient(providerCache, objectMapper),
+      new TaskHealthCacheClient(providerCache),
+      new EcsInstanceCacheClient(providerCache, objectMapper),
+      new ContainerInstanceCacheClient(providerCache))
+    ecsCredentialsConfig.getAccounts() >> [new ECSCredentialsConfig.Account(name: account, awsAccount: 'aws-' + account)]
+
+    def ec2Instances = [
+      'i-1': new Instance(instanceId: 'i-1', privateIpAddress: '10.0.0.1', placement: new Placement(availabilityZone: 'us-west-1a')),
+      'i-2': new Instance(instanceId: 'i-2', privateIpAddress: '10.0.0.2', placement: new Placement(availabilityZone: 'us-west-1b'))
+    ]
+    ec2Instances.each { id, instance ->
+      providerCache.putCacheData(INSTANCES.ns, new DefaultCacheData(
+        AwsKeys.getInstanceKey(id, 'aws-' + account, region), objectMapper.convertValue(instance, Map), [:]))
+      providerCache.putCacheData(CONTAINER_INSTANCES.ns, new DefaultCacheData(
+        Keys.getContainerInstanceKey(account, region, 'arn-' + id), [containerInstanceArn: 'arn-' + id, ec2InstanceId: id], [:]))
+    }
+
+    def tasks = [
+      new Task(taskId: 'task-1', containerInstanceArn: 'arn-i-1', lastStatus: 'RUNNING', containers: [new Container(networkBindings: [new NetworkBinding(hostPort: 1337)])]),
+      new Task(taskId: 'task-2', containerInstanceArn: 'arn-i-1', lastStatus: 'RUNNING', containers: [new Container(networkBindings: [new NetworkBinding(hostPort: 1338)])]),
+      new Task(taskId: 'task-3', containerInstanceArn: 'arn-i-2', lastStatus: 'RUNNING', containers: [new Container(networkBindings: [new NetworkBinding(hostPort: 1337)])])
+    ]
+    ['task-1', 'task-2'].each { taskId ->
+      providerCache.putCacheData(HEALTH.ns, new DefaultCacheData(
+        Keys.getTaskHealthKey(account, region, taskId),
+        TaskHealthCachingAgent.convertTaskHealthToAttributes(new TaskHealth(taskId: taskId, state: 'Up', type: 'loadBalancer')),
+        [:]))
+    }
+    def services = [new Service(serviceName: 'test-service', loadBalancers: [new LoadBalancer()])]
+
+    when:
+    def context = hydratingService.hydrate(account, region, services, tasks)
+
+    then:
+    1 * providerCache.getAll(HEALTH.ns, _ as Collection)
+    1 * providerCache.getAll(CONTAINER_INSTANCES.ns, _ as Collection)
+    1 * providerCache.getAll(INSTANCES.ns, _ as Collection)
+    0 * providerCache.get(_, _)
+    0 * providerCache.filterIdentifiers(_, _)
+
+    when:
+    def addresses = tasks.collect { context.getTaskPrivateAddress(it) }
+    def zones = tasks.collect { context.getTaskZone(it) }
+    def loadBalancerStates = tasks.collect { context.getHealthStatus(it, 'test-service')[0].state }
+
+    then:
+    0 * providerCache._
+    addresses == ['10.0.0.1:1337', '10.0.0.1:1338', '10.0.0.2:1337']
+    zones == ['us-west-1a', 'us-west-1a', 'us-west-1b']
+    loadBalancerStates == ['Up', 'Up', 'Unknown']
+  }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.elasticsearch.model;
+
+import com.netflix.spinnaker.clouddriver.model.EntityTags;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * An in-memory copy of the entity tags index, indexed by entity id and by application so that the
+ * lookups made when rendering clusters and server groups need not go to Elasticsearch.
+ *
+ * <p>The cache is kept current by applying every write made through the provider, and is
+ * periodically replaced wholesale by the contents of the index. Writes made while a replacement is
+ * being loaded are re-applied on top of it.
+ */
+public class ElasticSearchEntityTagsCache {
+  private final Object lock = new Object();
+  private final Object refreshLock = new Object();
+
+  private volatile Entries entries = new Entries();
+  private volatile boolean loaded;
+
+  // id -> entity tags (or empty, if deleted) written while a refresh is in progress
+  private Map<String, Optional<EntityTags>> writesDuringRefresh;
+
+  /** @return true once the cache has been loaded from the index at least once */
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  public int size() {
+    return entries.byId.size();
+  }
+
+  public void put(EntityTags entityTags) {
+    synchronized (lock) {
+      entries.put(entityTags);
+      if (writesDuringRefresh != null) {
+        writesDuringRefresh.put(entityTags.getId(), Optional.of(entityTags));
+      }
+    }
+  }
+
+  public void remove(String id) {
+    synchronized (lock) {
+      entries.remove(id);
+      if (writesDuringRefresh != null) {
+        writesDuringRefresh.put(id, Optional.empty());
+      }
+    }
+  }
+
+  public Optional<EntityTags> get(String id) {
+    return Optional.ofNullable(entries.byId.get(id));
+  }
+
+  /** @return the entity tags of every entity in {@code entityIds} */
+  public List<EntityTags> getByEntityIds(Collection<String> entityIds) {
+    Entries current = entries;
+    return entityIds.stream()
+        .distinct()
+        .flatMap(entityId -> current.get(current.idsByEntityId, entityId).stream())
+        .collect(Collectors.toList());
+  }
+
+  /** @return the entity tags of every entity belonging to {@code application} */
+  public List<EntityTags> getByApplication(String application) {
+    Entries current = entries;
+    return current.get(current.idsByApplication, application.toLowerCase());
+  }
+
+  /**
+   * Replaces the contents of the cache with the entity tags returned by {@code loader}, keeping
+   * any writes made while they were being loaded.
+   */
+  public void refresh(Supplier<Collection<EntityTags>> loader) {
+    synchronized (refreshLock) {
+      synchronized (lock) {
+        writesDuringRefresh = new HashMap<>();
+      }
+
+      Entries refreshed = new Entries();
+      try {
+        loader.get().forEach(refreshed::put);
+      } catch (RuntimeException e) {
+        synchronized (lock) {
+          writesDuringRefresh = null;
+        }
+        throw e;
+      }
+
+      synchronized (lock) {
+        writesDuringRefresh.forEach(
+            (id, entityTags) -> {
+              refreshed.remove(id);
+              entityTags.ifPresent(refreshed::put);
+            });
+        writesDuringRefresh = null;
+        entries = refreshed;
+        loaded = true;
+      }
+    }
+  }
+
+  private static class Entries {
+    final Map<String, EntityTags> byId = new ConcurrentHashMap<>();
+    final Map<String, Set<String>> idsByEntityId = new ConcurrentHashMap<>();
+    final Map<String, Set<String>> idsByApplication = new ConcurrentHashMap<>();
+
+    void put(EntityTags entityTags) {
+      remove(entityTags.getId());
+      byId.put(entityTags.getId(), entityTags);
+
+      EntityTags.EntityRef entityRef = entityTags.getEntityRef();
+      if (entityRef == null) {
+        return;
+      }
+      if (entityRef.getEntityId() != null) {
+        idsByEntityId
+            .computeIfAbsent(entityRef.getEntityId(), k -> ConcurrentHashMap.newKeySet())
+            .add(entityTags.getId());
+      }
+      if (entityRef.getApplication() != null) {
+        idsByApplication
+            .computeIfAbsent(
+                entityRef.getApplication().toLowerCase(), k -> ConcurrentHashMap.newKeySet())
+            .add(entityTags.getId());
+      }
+    }
+
+    void remove(String id) {
+      EntityTags previous = byId.remove(id);
+      if (previous == null || previous.getEntityRef() == null) {
+        return;
+      }
+
+      EntityTags.EntityRef entityRef = previous.getEntityRef();
+      if (entityRef.getEntityId() != null) {
+        removeId(idsByEntityId, entityRef.getEntityId(), id);
+      }
+      if (entityRef.getApplication() != null) {
+        removeId(idsByApplication, entityRef.getApplication().toLowerCase(), id);
+      }
+    }
+
+    List<EntityTags> get(Map<String, Set<String>> ids, String key) {
+      return ids.getOrDefault(key, Collections.emptySet()).stream()
+          .map(byId::get)
+          .filter(Objects::nonNull)
+          .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static void removeId(Map<String, Set<String>> ids, String key, String id) {
+      ids.computeIfPresent(
+          key,
+          (k, values) -> {
+            values.remove(id);
+            return values.isEmpty() ? null : values;
+          });
+    }
+  }
+}
@@ -20,7 +20,12 @@ import static java.lang.String.format;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.netflix.frigga.Names;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.clouddriver.core.services.Front50Service;
 import com.netflix.spinnaker.clouddriver.helpers.OperationPoller;
 import com.netflix.spinnaker.clouddriver.model.EntityTags;
@@ -32,16 +37,39 @@ import io.searchbox.client.JestResult;
 import io.searchbox.core.Bulk;
 import io.searchbox.core.ClearScroll;
 import io.searchbox.core.Delete;
+import io.searchbox.core.Get;
 import io.searchbox.core.Index;
 import io.searchbox.core.Search;
 import io.searchbox.core.SearchResult;
 import io.searchbox.core.SearchScroll;
 import io.searchbox.indices.CreateIndex;
 import io.searchbox.indices.DeleteIndex;
+import io.searchbox.indices.Refresh;
+import io.searchbox.indices.aliases.AddAliasMapping;
+import io.searchbox.indices.aliases.AliasMapping;
+import io.searchbox.indices.aliases.GetAliases;
+import io.searchbox.indices.aliases.ModifyAliases;
+import io.searchbox.indices.aliases.RemoveAliasMapping;
+import io.searchbox.indices.mapping.GetMapping;
+import io.searchbox.indices.settings.GetSettings;
 import io.searchbox.params.Parameters;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
@@ -56,6 +84,13 @@ import org.springframework.stereotype.Component;
 public class ElasticSearchEntityTagsProvider implements EntityTagsProvider {
   private static final Logger log = LoggerFactory.getLogger(ElasticSearchEntityTagsProvider.class);
 
+  // lastModified is set by other hosts, so catching up by it allows for their clocks to differ
+  private static final long CLOCK_SKEW_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  // settings Elasticsearch generates for every index, which can't be set when creating one
+  private static final List<String> GENERATED_INDEX_SETTINGS =
+      Arrays.asList("creation_date", "uuid", "version", "provided_name");
+
   private final ApplicationContext applicationContext;
   private final RetrySupport retrySupport;
   private final ObjectMapper objectMapper;
@@ -67,6 +102,27 @@ public class ElasticSearchEntityTagsProvider implements EntityTagsProvider {
   private final boolean singleMappingType;
   private final String mappingTypeName;
 
+  private final int reindexConcurrency;
+  private final int reindexBulkSize;
+  private final long reindexBulkMaxBytes;
+
+  private final Registry registry;
+  private final Id reindexDurationId;
+  private final AtomicLong reindexTotal;
+  private final AtomicLong reindexIndexed;
+
+  // writes hold the read lock, so that a reindex can briefly exclude them while it swaps indices
+  private final ReadWriteLock writeLock = new ReentrantReadWriteLock();
+  private final AtomicBoolean reindexing = new AtomicBoolean();
+
+  // document id -> document type of every write made while a reindex is in progress
+  private volatile Map<String, String> writesDuringReindex;
+
+  // null unless elasticSearch.cacheEnabled
+  private final ElasticSearchEntityTagsCache cache;
+  private final long cacheRefreshIntervalSeconds;
+  private ScheduledExecutorService cacheRefresher;
+
   @Autowired
   public ElasticSearchEntityTagsProvider(
       ApplicationContext applicationContext,
@@ -74,7 +130,8 @@ public class ElasticSearchEntityTagsProvider implements EntityTagsProvider {
       ObjectMapper objectMapper,
       Front50Service front50Service,
       JestClient jestClient,
-      ElasticSearchConfigProperties elasticSearchConfigProperties) {
+      ElasticSearchConfigProperties elasticSearchConfigProperties,
+      Registry registry) {
     this.applicationContext = applicationContext;
     this.retrySupport = retrySupport;
     this.objectMapper = objectMapper;
@@ -83,6 +140,73 @@ public class ElasticSearchEntityTagsProvider implements EntityTagsProvider {
     this.activeElasticSearchIndex = elasticSearchConfigProperties.getActiveIndex();
     this.singleMappingType = elasticSearchConfigProperties.isSingleMappingType();
     this.mappingTypeName = elasticSearchConfigProperties.getMappingTypeName();
+    this.reindexConcurrency = elasticSearchConfigProperties.getReindexConcurrency();
+    this.reindexBulkSize = elasticSearchConfigProperties.getReindexBulkSize();
+    this.reindexBulkMaxBytes = elasticSearchConfigProperties.getReindexBulkMaxBytes();
+
+    this.registry = registry;
+    this.reindexDurationId = registry.createId("entityTags.reindex.duration");
+    this.reindexTotal = registry.gauge("entityTags.reindex.total", new AtomicLong());
+    this.reindexIndexed = registry.gauge("entityTags.reindex.indexed", new AtomicLong());
+
+    if (elasticSearchConfigProperties.isCacheEnabled()) {
+      this.cache = new ElasticSearchEntityTagsCache();
+      registry.gauge("entityTags.cache.size", cache, ElasticSearchEntityTagsCache::size);
+    } else {
+      this.cache = null;
+    }
+    this.cacheRefreshIntervalSeconds =
+        elasticSearchConfigProperties.getCacheRefreshIntervalSeconds();
+  }
+
+  @PostConstruct
+  public void start() {
+    if (cache == null) {
+      return;
+    }
+
+    cacheRefresher =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat(ElasticSearchEntityTagsCache.class.getSimpleName() + "-%d")
+                .setDaemon(true)
+                .build());
+    cacheRefresher.scheduleWithFixedDelay(
+        this::refreshCache, 0, cacheRefreshIntervalSeconds, TimeUnit.SECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (cacheRefresher != null) {
+      cacheRefresher.shutdownNow();
+    }
+  }
+
+  /** Reloads the in-memory copy of the index, if there is one. */
+  void refreshCache() {
+    if (cache == null) {
+      return;
+    }
+
+    try {
+      long startTime = registry.clock().monotonicTime();
+      cache.refresh(
+          () -> {
+            try {
+              // writes that completed before the refresh began must be visible to the scroll
+              jestClient.execute(new Refresh.Builder().addIndex(activeElasticSearchIndex).build());
+            } catch (IOException e) {
+              throw new ElasticSearchException("Unable to refresh " + activeElasticSearchIndex, e);
+            }
+            return fetchAll(QueryBuilders.matchAllQuery(), null, 5000, "2m", this::readSources);
+          });
+      log.info(
+          "Loaded {} entity tags into the cache in {}ms",
+          cache.size(),
+          TimeUnit.NANOSECONDS.toMillis(registry.clock().monotonicTime() - startTime));
+    } catch (Exception e) {
+      log.error("Unable to refresh the entity tags cache", e);
+    }
   }
 
   @Override
@@ -97,6 +221,29 @@ public class ElasticSearchEntityTagsProvider implements EntityTagsProvider {
       String namespace,
       Map<String, Object> tags,
       int maxResults) {
+    boolean cacheable =
+        idPrefix == null
+            && namespace == null
+            && (tags == null || tags.isEmpty())
+            && (application != null || (entityIds != null && !entityIds.isEmpty()));
+    if (cacheable && cache != null && cache.isLoaded()) {
+      List<EntityTags> candidates =
+          (entityIds != null && !entityIds.isEmpty())
+              ? cache.getByEntityIds(entityIds)
+              : cache.getByApplication(application);
+
+      return candidates.stream()
+          .filter(e -> e.getEntityRef() != null)
+          .filter(e -> matches(cloudProvider, e.getEntityRef().getCloudProvider()))
+          .filter(e -> matches(application, e.getEntityRef().getApplication()))
+          .filter(e -> matches(entityType, e.getEntityRef().getEntityType()))
+          .filter(e -> matches(account, e.getEntityRef().getAccount()))
+          .filter(e -> matches(region, e.getEntityRef().getRegion()))
+          .limit(maxResults)
+          .map(this::copyOf)
+          .collect(Collectors.toList());
+    }
+
     BoolQueryBuilder queryBuilder = QueryBuilders.boolQuery();
 
     if (cloudProvider != null) {
@@ -153,6 +300,46 @@ public class ElasticSearchEntityTagsProvider implements EntityTagsProvider {
     return search(entityType, queryBuilder, maxResults);
   }
 
+  @Override
+  public Map<String, List<EntityTags>> getAllByEntityIds(
+      String cloudProvider, String entityType, Collection<String> entityIds) {
+    if (entityIds.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    if (cache == null || !cache.isLoaded()) {
+      // scroll rather than search, so that many entities' tags are never truncated
+      BoolQueryBuilder queryBuilder =
+          QueryBuilders.boolQuery()
+              .must(QueryBuilders.termsQuery("entityRef.entityId", entityIds));
+      if (cloudProvider != null) {
+        queryBuilder =
+            queryBuilder.must(QueryBuilders.termQuery("entityRef.cloudProvider", cloudProvider));
+      }
+
+      return fetchAll(
+              queryBuilder,
+              entityType == null ? null : entityType.toLowerCase(),
+              5000,
+              "2m",
+              this::readSources)
+          .stream()
+          .filter(e -> e.getEntityRef() != null && e.getEntityRef().getEntityId() != null)
+          .collect(Collectors.groupingBy(e -> e.getEntityRef().getEntityId()));
+    }
+
+    return cache.getByEntityIds(entityIds).stream()
+        .filter(e -> e.getEntityRef() != null)
+        .filter(e -> matches(cloudProvider, e.getEntityRef().getCloudProvider()))
+        .filter(e -> matches(entityType, e.getEntityRef().getEntityType()))
+        .map(this::copyOf)
+        .collect(Collectors.groupingBy(e -> e.getEntityRef().getEntityId()));
+  }
+
+  /**
+   * Always reads from the index rather than the cache, since other instances' writes only reach
+   * the cache on its next refresh and callers (such as {@link #delete}) rely on this being current.
+   */
   @Override
   public Optional<EntityTags> get(String id) {
     return get(id, Collections.emptyMap());
@@ -179,10 +366,11 @@ public class ElasticSearchEntityTagsProvider implements EntityTagsProvider {
 
   @Override
   public void index(EntityTags entityTags) {
+    writeLock.readLock().lock();
     try {
+      Map source = objectMapper.convertValue(prepareForWrite(objectMapper, entityTags), Map.class);
       Index action =
-          new Index.Builder(
-                  objectMapper.convertValue(prepareForWrite(objectMapper, entityTags), Map.class))
+          new Index.Builder(source)
               .index(activeElasticSearchIndex)
               .type(getDocumentType(entityTags))
               .id(entityTags.getId())
@@ -195,58 +383,80 @@ public class ElasticSearchEntityTagsProvider implements EntityTagsProvider {
                 "Failed to index %s, reason: '%s'",
                 entityTags.getId(), jestResult.getErrorMessage()));
       }
+      recordWrite(entityTags.getId(), getDocumentType(entityTags));
+      if (cache != null) {
+        cache.put(prepareForRead(objectMapper, source));
+      }
     } catch (IOException e) {
       throw new ElasticSearchException(
           format("Failed to index %s, reason: '%s'", entityTags.getId(), e.getMessage()));
+    } finally {
+      writeLock.readLock().unlock();
     }
   }
 
   @Override
   public void bulkIndex(Collection<EntityTags> multipleEntityTags) {
-    Lists.partition(new ArrayList<>(multipleEntityTags), 1000)
-        .forEach(
-            tags -> {
-              Bulk.Builder builder = new Bulk.Builder().defaultIndex(activeElasticSearchIndex);
-
-              for (EntityTags entityTags : tags) {
-                builder =
-                    builder.addAction(
-                        new Index.Builder(
-                                objectMapper.convertValue(
-                                    prepareForWrite(objectMapper, entityTags), Map.class))
-                            .index(activeElasticSearchIndex)
-                            .type(getDocumentType(entityTags))
-                            .id(entityTags.getId())
-                            .build());
-              }
+    writeLock.readLock().lock();
+    try {
+      Lists.partition(new ArrayList<>(multipleEntityTags), 1000)
+          .forEach(
+              tags -> {
+                Bulk.Builder builder = new Bulk.Builder().defaultIndex(activeElasticSearchIndex);
+                List<Map> sources = new ArrayList<>();
+
+                for (EntityTags entityTags : tags) {
+                  Map source =
+                      objectMapper.convertValue(
+                          prepareForWrite(objectMapper, entityTags), Map.class);
+                  sources.add(source);
+                  builder =
+                      builder.addAction(
+                          new Index.Builder(source)
+                              .index(activeElasticSearchIndex)
+                              .type(getDocumentType(entityTags))
+                              .id(entityTags.getId())
+                              .build());
+                }
 
-              Bulk bulk = builder.build();
-              retrySupport.retry(
-                  () -> {
-                    try {
-                      JestResult jestResult = jestClient.execute(bulk);
-                      if (!jestResult.isSucceeded()) {
-                        throw new ElasticSearchException(
-                            format(
-                                "Failed to index bulk entity tags, reason: '%s'",
-                                jestResult.getErrorMessage()));
-                      }
-                      return true;
-                    } catch (IOException e) {
-                      String message =
-                          format("Failed to index bulk entity tags, reason: '%s'", e.getMessage());
-                      log.error(message + " ... retrying!");
-                      throw new ElasticSearchException(message);
-                    }
-                  },
-                  5,
-                  1000,
-                  false);
-            });
+                executeBulkIndex(builder.build());
+                tags.forEach(t -> recordWrite(t.getId(), getDocumentType(t)));
+                if (cache != null) {
+                  sources.forEach(source -> cache.put(prepareForRead(objectMapper, source)));
+                }
+              });
+    } finally {
+      writeLock.readLock().unlock();
+    }
+  }
+
+  private void executeBulkIndex(Bulk bulk) {
+    retrySupport.retry(
+        () -> {
+          try {
+            JestResult jestResult = jestClient.execute(bulk);
+            if (!jestResult.isSucceeded()) {
+              throw new ElasticSearchException(
+                  format(
+                      "Failed to index bulk entity tags, reason: '%s'",
+                      jestResult.getErrorMessage()));
+            }
+            return true;
+          } catch (IOException e) {
+            String message =
+                format("Failed to index bulk entity tags, reason: '%s'", e.getMessage());
+            log.error(message + " ... retrying!");
+            throw new ElasticSearchException(message);
+          }
+        },
+        5,
+        1000,
+        false);
   }
 
   @Override
   public void delete(String id) {
+    writeLock.readLock().lock();
     try {
       EntityTags entityTags = get(id).orElse(null);
       if (entityTags == null) {
@@ -265,73 +475,486 @@ public class ElasticSearchEntityTagsProvider implements EntityTagsProvider {
         throw new ElasticSearchException(
             format("Failed to delete %s, reason: '%s'", id, jestResult.getErrorMessage()));
       }
+      recordWrite(id, getDocumentType(entityTags));
+      if (cache != null) {
+        cache.remove(id);
+      }
     } catch (IOException e) {
       throw new ElasticSearchException(
           format("Failed to delete %s, reason: '%s'", id, e.getMessage()));
+    } finally {
+      writeLock.readLock().unlock();
     }
   }
 
   @Override
   public void bulkDelete(Collection<EntityTags> multipleEntityTags) {
-    Lists.partition(new ArrayList<>(multipleEntityTags), 1000)
-        .forEach(
-            tags -> {
-              Bulk.Builder builder = new Bulk.Builder().defaultIndex(activeElasticSearchIndex);
-
-              for (EntityTags entityTags : tags) {
-                builder =
-                    builder.addAction(
-                        new Delete.Builder(entityTags.getId())
-                            .type(getDocumentType(entityTags))
-                            .build());
-              }
+    writeLock.readLock().lock();
+    try {
+      Lists.partition(new ArrayList<>(multipleEntityTags), 1000)
+          .forEach(
+              tags -> {
+                Bulk.Builder builder = new Bulk.Builder().defaultIndex(activeElasticSearchIndex);
+
+                for (EntityTags entityTags : tags) {
+                  builder =
+                      builder.addAction(
+                          new Delete.Builder(entityTags.getId())
+                              .type(getDocumentType(entityTags))
+                              .build());
+                }
 
-              Bulk bulk = builder.build();
-              try {
-                JestResult jestResult = jestClient.execute(bulk);
-                if (!jestResult.isSucceeded()) {
+                Bulk bulk = builder.build();
+                try {
+                  JestResult jestResult = jestClient.execute(bulk);
+                  if (!jestResult.isSucceeded()) {
+                    throw new ElasticSearchException(
+                        format(
+                            "Failed to bulk delete entity tags, reason: '%s'",
+                            jestResult.getErrorMessage()));
+                  }
+                } catch (IOException e) {
                   throw new ElasticSearchException(
-                      format(
-                          "Failed to bulk delete entity tags, reason: '%s'",
-                          jestResult.getErrorMessage()));
+                      format("Failed to bulk delete entity tags, reason: '%s'", e.getMessage()));
                 }
-              } catch (IOException e) {
-                throw new ElasticSearchException(
-                    format("Failed to bulk delete entity tags, reason: '%s'", e.getMessage()));
-              }
-            });
+                tags.forEach(t -> recordWrite(t.getId(), getDocumentType(t)));
+                if (cache != null) {
+                  tags.forEach(t -> cache.remove(t.getId()));
+                }
+              });
+    } finally {
+      writeLock.readLock().unlock();
+    }
   }
 
+  /**
+   * Rebuilds the index from Front50 without taking searches offline.
+   *
+   * <p>Entity tags are bulk loaded into a new, timestamped index, created with the settings and
+   * mappings of the current one, while the current one keeps serving searches and writes. Writes
+   * this instance makes during the load are tracked and copied across, as is every document whose
+   * {@code lastModified} is later than the start of the reindex, which covers writes made by other
+   * instances. Deletes made by other instances during the load are not seen and are left to the
+   * next reconciliation. The active index name is then atomically re-pointed (as an alias) at the
+   * new index, and the indices it previously pointed at are only deleted once that succeeded. If
+   * the active index name is still a concrete index, it is removed in that same request.
+   */
   @Override
   public void reindex() {
+    if (!reindexing.compareAndSet(false, true)) {
+      throw new ElasticSearchException(
+          "A reindex of '" + activeElasticSearchIndex + "' is already in progress");
+    }
+
+    long startTime = registry.clock().monotonicTime();
+    long modifiedSince = System.currentTimeMillis() - CLOCK_SKEW_MARGIN_MILLIS;
+    // once set, the new index may hold the only copy of the entity tags and must not be deleted
+    boolean committed = false;
+    boolean success = false;
+    String newIndex = activeElasticSearchIndex + "-" + System.currentTimeMillis();
     try {
-      log.info("Deleting Index {}", activeElasticSearchIndex);
-      jestClient.execute(new DeleteIndex.Builder(activeElasticSearchIndex).build());
-      log.info("Deleted Index {}", activeElasticSearchIndex);
+      Set<String> previousIndices = getAliasedIndices();
+      createIndex(newIndex, getIndexDefinition());
+
+      // start tracking writes before reading from Front50 so that none are missed
+      writeLock.writeLock().lock();
+      try {
+        writesDuringReindex = new ConcurrentHashMap<>();
+      } finally {
+        writeLock.writeLock().unlock();
+      }
+
+      Collection<EntityTags> entityTags = front50Service.getAllEntityTags(true);
+      Collection<EntityTags> filteredEntityTags =
+          getElasticSearchEntityTagsReconciler().filter(entityTags).stream()
+              .filter(e -> e.getEntityRef() != null)
+              .collect(Collectors.toList());
+
+      log.info(
+          "Indexing {} entity tags into {} ({} orphans have been excluded)",
+          filteredEntityTags.size(),
+          newIndex,
+          entityTags.size() - filteredEntityTags.size());
+
+      load(newIndex, filteredEntityTags);
+
+      // copy writes made while loading, repeating while they keep arriving
+      for (int pass = 0; pass < 3 && !writesDuringReindex.isEmpty(); pass++) {
+        catchUp(newIndex);
+      }
+      long lastModifiedSince = modifiedSince;
+      modifiedSince = System.currentTimeMillis() - CLOCK_SKEW_MARGIN_MILLIS;
+      catchUpModifiedSince(newIndex, lastModifiedSince);
+
+      writeLock.writeLock().lock();
+      try {
+        catchUp(newIndex);
+        catchUpModifiedSince(newIndex, modifiedSince);
+
+        if (!aliasIndex(newIndex, previousIndices)) {
+          // Elasticsearch versions without remove_index (added in 6.x) reject the atomic swap, so
+          // the concrete index is deleted first and searches briefly have no index
+          deleteConcreteIndex();
+          committed = true;
+          aliasIndex(newIndex, Collections.emptySet());
+        }
+        committed = true;
+        writesDuringReindex = null;
+      } finally {
+        writeLock.writeLock().unlock();
+      }
+
+      for (String previousIndex : previousIndices) {
+        if (!previousIndex.equals(activeElasticSearchIndex)) {
+          log.info("Deleting Index {}", previousIndex);
+          JestResult result = jestClient.execute(new DeleteIndex.Builder(previousIndex).build());
+          if (!result.isSucceeded()) {
+            log.warn(
+                "Unable to delete index {}, reason: '{}'", previousIndex, result.getErrorMessage());
+          }
+        }
+      }
+
+      log.info("Indexed {} entity tags into {}", filteredEntityTags.size(), newIndex);
+      success = true;
 
-      log.info("Creating Index {}", activeElasticSearchIndex);
-      jestClient.execute(new CreateIndex.Builder(activeElasticSearchIndex).build());
-      log.info("Created Index {}", activeElasticSearchIndex);
+      if (cacheRefresher != null) {
+        cacheRefresher.execute(this::refreshCache);
+      }
     } catch (IOException e) {
       throw new ElasticSearchException(
-          "Unable to re-create index '" + activeElasticSearchIndex + "'");
+          format("Unable to reindex '%s', reason: '%s'", activeElasticSearchIndex, e.getMessage()));
+    } finally {
+      writesDuringReindex = null;
+      reindexing.set(false);
+      if (!committed) {
+        deleteQuietly(newIndex);
+      }
+      registry
+          .timer(reindexDurationId.withTag("success", success))
+          .record(registry.clock().monotonicTime() - startTime, TimeUnit.NANOSECONDS);
     }
+  }
 
-    Collection<EntityTags> entityTags = front50Service.getAllEntityTags(true);
-    Collection<EntityTags> filteredEntityTags =
-        getElasticSearchEntityTagsReconciler().filter(entityTags);
+  /**
+   * @return the indices currently behind the active index name, which is the active index itself
+   *     if it has not been reindexed since it was a concrete index
+   */
+  private Set<String> getAliasedIndices() throws IOException {
+    JestResult result =
+        jestClient.execute(new GetAliases.Builder().addIndex(activeElasticSearchIndex).build());
+    if (result.getResponseCode() == 404) {
+      return Collections.emptySet();
+    }
+    if (!result.isSucceeded()) {
+      throw new ElasticSearchException(
+          format(
+              "Unable to resolve index '%s', reason: '%s'",
+              activeElasticSearchIndex, result.getErrorMessage()));
+    }
+    return result.getJsonObject().entrySet().stream()
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * @return the body to create an index like the active one with: its mappings, and the settings
+   *     (such as analyzers) that can be set when creating an index
+   */
+  private JsonObject getIndexDefinition() throws IOException {
+    JsonObject definition = new JsonObject();
+
+    // every index behind the active index shares the same settings and mappings
+    JestResult settingsResult =
+        jestClient.execute(new GetSettings.Builder().addIndex(activeElasticSearchIndex).build());
+    if (settingsResult.isSucceeded()) {
+      settingsResult.getJsonObject().entrySet().stream()
+          .map(e -> e.getValue().getAsJsonObject().getAsJsonObject("settings"))
+          .filter(Objects::nonNull)
+          .findFirst()
+          .ifPresent(
+              settings -> {
+                JsonObject index = settings.getAsJsonObject("index");
+                if (index != null) {
+                  GENERATED_INDEX_SETTINGS.forEach(index::remove);
+                }
+                definition.add("settings", settings);
+              });
+    }
+
+    JestResult mappingsResult =
+        jestClient.execute(new GetMapping.Builder().addIndex(activeElasticSearchIndex).build());
+    if (mappingsResult.isSucceeded()) {
+      mappingsResult.getJsonObject().entrySet().stream()
+          .map(e -> e.getValue().getAsJsonObject().getAsJsonObject("mappings"))
+          .filter(Objects::nonNull)
+          .findFirst()
+          .ifPresent(mappings -> definition.add("mappings", mappings));
+    }
+
+    return definition;
+  }
+
+  private void createIndex(String index, JsonObject definition) throws IOException {
+    log.info("Creating Index {}", index);
+    CreateIndex.Builder builder = new CreateIndex.Builder(index);
+    if (!definition.entrySet().isEmpty()) {
+      builder.settings(definition.toString());
+    }
+
+    JestResult result = jestClient.execute(builder.build());
+    if (!result.isSucceeded()) {
+      throw new ElasticSearchException(
+          format("Unable to create index '%s', reason: '%s'", index, result.getErrorMessage()));
+    }
+    log.info("Created Index {}", index);
+  }
+
+  /**
+   * Bulk loads entity tags into {@code index}, with up to {@code reindexConcurrency} bulk requests
+   * in flight, each bounded by both {@code reindexBulkSize} documents and {@code
+   * reindexBulkMaxBytes}.
+   */
+  private void load(String index, Collection<EntityTags> entityTags) {
+    reindexTotal.set(entityTags.size());
+    reindexIndexed.set(0);
+
+    ExecutorService executorService = Executors.newFixedThreadPool(reindexConcurrency);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      Bulk.Builder builder = new Bulk.Builder().defaultIndex(index);
+      int count = 0;
+      long bytes = 0;
+
+      for (EntityTags tags : entityTags) {
+        String source;
+        try {
+          source = objectMapper.writeValueAsString(prepareForWrite(objectMapper, tags));
+        } catch (IOException e) {
+          log.error("Unable to serialize entity tags (id: {})", tags.getId(), e);
+          continue;
+        }
+
+        boolean full = count >= reindexBulkSize || bytes + source.length() > reindexBulkMaxBytes;
+        if (count > 0 && full) {
+          futures.add(submitBulk(executorService, builder.build(), count));
+          builder = new Bulk.Builder().defaultIndex(index);
+          count = 0;
+          bytes = 0;
+        }
+
+        builder.addAction(
+            new Index.Builder(source)
+                .index(index)
+                .type(getDocumentType(tags))
+                .id(tags.getId())
+                .build());
+        count++;
+        bytes += source.length();
+      }
+
+      if (count > 0) {
+        futures.add(submitBulk(executorService, builder.build(), count));
+      }
+
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ElasticSearchException(format("Interrupted while indexing into '%s'", index));
+    } catch (ExecutionException e) {
+      throw new ElasticSearchException(
+          format("Failed to index into '%s', reason: '%s'", index, e.getCause().getMessage()));
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private Future<?> submitBulk(ExecutorService executorService, Bulk bulk, int count) {
+    return executorService.submit(
+        () -> {
+          executeBulkIndex(bulk);
+          log.info(
+              "Indexed {} of {} entity tags", reindexIndexed.addAndGet(count), reindexTotal.get());
+        });
+  }
 
-    log.info(
-        "Indexing {} entity tags ({} orphans have been excluded)",
-        filteredEntityTags.size(),
-        entityTags.size() - filteredEntityTags.size());
+  /**
+   * Copies the current state of every document written since the reindex started (or since the
+   * previous catch up) from the active index into {@code index}.
+   */
+  private void catchUp(String index) throws IOException {
+    Map<String, String> writes = writesDuringReindex;
+    for (String id : new ArrayList<>(writes.keySet())) {
+      String type = writes.remove(id);
+
+      JestResult result =
+          jestClient.execute(new Get.Builder(activeElasticSearchIndex, id).type(type).build());
+      JsonObject source =
+          result.getJsonObject() == null ? null : result.getJsonObject().getAsJsonObject("_source");
+
+      JestResult copyResult;
+      if (result.isSucceeded() && source != null) {
+        copyResult =
+            jestClient.execute(
+                new Index.Builder(source.toString()).index(index).type(type).id(id).build());
+      } else {
+        copyResult = jestClient.execute(new Delete.Builder(id).index(index).type(type).build());
+      }
 
-    bulkIndex(
-        filteredEntityTags.stream()
-            .filter(e -> e.getEntityRef() != null)
-            .collect(Collectors.toList()));
+      if (!copyResult.isSucceeded() && copyResult.getResponseCode() != 404) {
+        throw new ElasticSearchException(
+            format("Failed to copy %s, reason: '%s'", id, copyResult.getErrorMessage()));
+      }
+      registry.counter("entityTags.reindex.catchUp").increment();
+    }
+  }
 
-    log.info("Indexed {} entity tags", filteredEntityTags.size());
+  /**
+   * Copies every document modified since {@code since} from the active index into {@code index}.
+   * Unlike {@link #catchUp}, this also picks up writes made by other instances, as long as they
+   * set {@code lastModified}.
+   */
+  private void catchUpModifiedSince(String index, long since) throws IOException {
+    jestClient.execute(new Refresh.Builder().addIndex(activeElasticSearchIndex).build());
+    List<EntityTags> modified =
+        fetchAll(
+            QueryBuilders.rangeQuery("lastModified").gte(since),
+            null,
+            reindexBulkSize,
+            "2m",
+            this::readSources);
+
+    for (List<EntityTags> tags : Lists.partition(modified, reindexBulkSize)) {
+      Bulk.Builder builder = new Bulk.Builder().defaultIndex(index);
+      for (EntityTags entityTags : tags) {
+        builder.addAction(
+            new Index.Builder(
+                    objectMapper.convertValue(prepareForWrite(objectMapper, entityTags), Map.class))
+                .index(index)
+                .type(getDocumentType(entityTags))
+                .id(entityTags.getId())
+                .build());
+      }
+      executeBulkIndex(builder.build());
+    }
+    registry.counter("entityTags.reindex.catchUp").increment(modified.size());
+  }
+
+  /**
+   * Points the active index name at {@code newIndex}, and away from any indices it was an alias
+   * for, in a single atomic request that is retried on failure. A concrete index holding the
+   * active index name is removed by that same request, as an alias can't be created while it
+   * exists, so searches are never left without an index.
+   *
+   * <p>If the indices behind the active index name no longer match {@code previousIndices}, the new
+   * index has not caught up with them and the reindex is aborted, unless a write re-created the
+   * active index name as a concrete index where there was none, which is deleted again.
+   *
+   * @return false if the request to remove the concrete index was rejected, leaving it in place
+   */
+  private boolean aliasIndex(String newIndex, Set<String> previousIndices) {
+    boolean removeConcreteIndex = previousIndices.contains(activeElasticSearchIndex);
+    List<AliasMapping> aliasMappings = new ArrayList<>();
+    if (removeConcreteIndex) {
+      aliasMappings.add(new RemoveIndexMapping(activeElasticSearchIndex));
+    }
+    aliasMappings.add(new AddAliasMapping.Builder(newIndex, activeElasticSearchIndex).build());
+    List<String> aliasedIndices =
+        previousIndices.stream()
+            .filter(i -> !i.equals(activeElasticSearchIndex))
+            .collect(Collectors.toList());
+    if (!aliasedIndices.isEmpty()) {
+      aliasMappings.add(
+          new RemoveAliasMapping.Builder(aliasedIndices, activeElasticSearchIndex).build());
+    }
+    ModifyAliases modifyAliases = new ModifyAliases.Builder(aliasMappings).build();
+
+    AliasResult aliasResult =
+        retrySupport.retry(
+            () -> {
+              String reason;
+              try {
+                JestResult result = jestClient.execute(modifyAliases);
+                if (result.isSucceeded()) {
+                  return AliasResult.ALIASED;
+                }
+                reason = result.getErrorMessage();
+
+                Set<String> currentIndices = getAliasedIndices();
+                if (currentIndices.equals(previousIndices)) {
+                  if (removeConcreteIndex && result.getResponseCode() == 400) {
+                    return AliasResult.REJECTED;
+                  }
+                } else if (previousIndices.isEmpty()
+                    && currentIndices.equals(Collections.singleton(activeElasticSearchIndex))) {
+                  log.warn(
+                      "Index {} was re-created before it could be aliased, deleting it again",
+                      activeElasticSearchIndex);
+                  deleteConcreteIndex();
+                } else {
+                  return AliasResult.CHANGED;
+                }
+              } catch (IOException e) {
+                reason = e.getMessage();
+              }
+              String message =
+                  format(
+                      "Unable to alias '%s' to '%s', reason: '%s'",
+                      activeElasticSearchIndex, newIndex, reason);
+              log.error(message + " ... retrying!");
+              throw new ElasticSearchException(message);
+            },
+            5,
+            1000,
+            false);
+
+    switch (aliasResult) {
+      case REJECTED:
+        log.warn("Unable to remove Index {} while aliasing it", activeElasticSearchIndex);
+        return false;
+      case CHANGED:
+        throw new ElasticSearchException(
+            format(
+                "Indices behind '%s' changed during the reindex, aborting",
+                activeElasticSearchIndex));
+      default:
+        log.info("Aliased {} to {}", activeElasticSearchIndex, newIndex);
+        return true;
+    }
+  }
+
+  /**
+   * Deletes the concrete index holding the active index name, so that the name can become an
+   * alias. Until the alias is created searches have no index, so this is only done when the
+   * concrete index can't be removed while aliasing.
+   */
+  private void deleteConcreteIndex() throws IOException {
+    log.info("Deleting Index {} to replace it with an alias", activeElasticSearchIndex);
+    JestResult result =
+        jestClient.execute(new DeleteIndex.Builder(activeElasticSearchIndex).build());
+    if (!result.isSucceeded()) {
+      throw new ElasticSearchException(
+          format(
+              "Unable to delete index '%s', reason: '%s'",
+              activeElasticSearchIndex, result.getErrorMessage()));
+    }
+  }
+
+  private void deleteQuietly(String index) {
+    try {
+      jestClient.execute(new DeleteIndex.Builder(index).build());
+    } catch (IOException e) {
+      log.warn("Unable to delete index {}", index, e);
+    }
+  }
+
+  private void recordWrite(String id, String type) {
+    Map<String, String> writes = writesDuringReindex;
+    if (writes != null) {
+      writes.put(id, type);
+    }
   }
 
   @Override
@@ -653,6 +1276,20 @@ public class ElasticSearchEntityTagsProvider implements EntityTagsProvider {
 
   private List<EntityTags> fetchAll(
       QueryBuilder queryBuilder, String type, int scrollSize, String scrollTime) {
+    return fetchAll(
+        queryBuilder,
+        type,
+        scrollSize,
+        scrollTime,
+        result -> result.getSourceAsObjectList(EntityTags.class));
+  }
+
+  private List<EntityTags> fetchAll(
+      QueryBuilder queryBuilder,
+      String type,
+      int scrollSize,
+      String scrollTime,
+      Function<JestResult, List<EntityTags>> reader) {
     SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
     searchSourceBuilder.query(queryBuilder);
 
@@ -677,7 +1314,7 @@ public class ElasticSearchEntityTagsProvider implements EntityTagsProvider {
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
-    Collection<EntityTags> entityTags = result.getSourceAsObjectList(EntityTags.class);
+    Collection<EntityTags> entityTags = reader.apply(result);
     allEntityTags.addAll(entityTags);
 
     String scrollId = result.getJsonObject().get("_scroll_id").getAsString();
@@ -695,7 +1332,7 @@ public class ElasticSearchEntityTagsProvider implements EntityTagsProvider {
           throw new RuntimeException(e);
         }
 
-        entityTags = result.getSourceAsObjectList(EntityTags.class);
+        entityTags = reader.apply(result);
         allEntityTags.addAll(entityTags);
 
         scrollId = result.getJsonObject().getAsJsonPrimitive("_scroll_id").getAsString();
@@ -711,6 +1348,31 @@ public class ElasticSearchEntityTagsProvider implements EntityTagsProvider {
     }
   }
 
+  /** Reads search hits the same way as {@link #search}, rather than through Gson's mapping */
+  private List<EntityTags> readSources(JestResult result) {
+    List<EntityTags> entityTags = new ArrayList<>();
+    for (JsonElement hit : result.getJsonObject().getAsJsonObject("hits").getAsJsonArray("hits")) {
+      try {
+        Map source =
+            objectMapper.readValue(hit.getAsJsonObject().get("_source").toString(), Map.class);
+        entityTags.add(prepareForRead(objectMapper, source));
+      } catch (IOException e) {
+        throw new ElasticSearchException("Unable to read entity tags", e);
+      }
+    }
+    return entityTags;
+  }
+
+  /** Cached entity tags are handed out as copies, callers are free to modify what they get */
+  private EntityTags copyOf(EntityTags entityTags) {
+    return objectMapper.convertValue(
+        objectMapper.convertValue(entityTags, Map.class), EntityTags.class);
+  }
+
+  private static boolean matches(String expected, String actual) {
+    return expected == null || expected.equalsIgnoreCase(actual);
+  }
+
   private ElasticSearchEntityTagsReconciler getElasticSearchEntityTagsReconciler() {
     return applicationContext.getBean(ElasticSearchEntityTagsReconciler.class);
   }
@@ -756,4 +1418,32 @@ public class ElasticSearchEntityTagsProvider implements EntityTagsProvider {
       return entityTags.getEntityRef().getEntityType();
     }
   }
+
+  private enum AliasResult {
+    ALIASED,
+    // the cluster does not support removing the concrete index in the same request
+    REJECTED,
+    // the indices behind the active index name changed since the reindex started
+    CHANGED
+  }
+
+  /** A {@code remove_index} alias action, which Jest has no builder for. */
+  private static class RemoveIndexMapping extends AliasMapping {
+    private final String index;
+
+    RemoveIndexMapping(String index) {
+      this.index = index;
+    }
+
+    @Override
+    public String getType() {
+      return "remove_index";
+    }
+
+    @Override
+    public List<Map<String, Object>> getData() {
+      return Collections.singletonList(
+          Collections.singletonMap(getType(), Collections.singletonMap("index", index)));
+    }
+  }
 }
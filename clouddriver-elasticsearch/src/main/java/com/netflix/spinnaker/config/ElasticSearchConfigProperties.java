@@ -37,6 +37,19 @@ public class ElasticSearchConfigProperties {
   private boolean singleMappingType = false;
   private String mappingTypeName = "_doc";
 
+  // A reindex builds a new index from Front50 with this many concurrent bulk requests, each
+  // bounded by both a document count and an (approximate) payload size.
+  private int reindexConcurrency = 4;
+  private int reindexBulkSize = 1000;
+  private long reindexBulkMaxBytes = 5 * 1024 * 1024;
+
+  // When enabled, entity tags are also kept in memory and bulk lookups by application or entity id
+  // are served from there; lookups by id always go to the index. The in-memory copy is reloaded
+  // at this interval by scrolling through the whole index, so every instance reads (and briefly
+  // holds a second copy of) every entity tag once per interval; raise it for large indices.
+  private boolean cacheEnabled = false;
+  private long cacheRefreshIntervalSeconds = 300;
+
   public String getActiveIndex() {
     return activeIndex;
   }
@@ -84,4 +97,44 @@ public class ElasticSearchConfigProperties {
   public String getMappingTypeName() {
     return mappingTypeName;
   }
+
+  public int getReindexConcurrency() {
+    return reindexConcurrency;
+  }
+
+  public void setReindexConcurrency(int reindexConcurrency) {
+    this.reindexConcurrency = reindexConcurrency;
+  }
+
+  public int getReindexBulkSize() {
+    return reindexBulkSize;
+  }
+
+  public void setReindexBulkSize(int reindexBulkSize) {
+    this.reindexBulkSize = reindexBulkSize;
+  }
+
+  public long getReindexBulkMaxBytes() {
+    return reindexBulkMaxBytes;
+  }
+
+  public void setReindexBulkMaxBytes(long reindexBulkMaxBytes) {
+    this.reindexBulkMaxBytes = reindexBulkMaxBytes;
+  }
+
+  public boolean isCacheEnabled() {
+    return cacheEnabled;
+  }
+
+  public void setCacheEnabled(boolean cacheEnabled) {
+    this.cacheEnabled = cacheEnabled;
+  }
+
+  public long getCacheRefreshIntervalSeconds() {
+    return cacheRefreshIntervalSeconds;
+  }
+
+  public void setCacheRefreshIntervalSeconds(long cacheRefreshIntervalSeconds) {
+    this.cacheRefreshIntervalSeconds = cacheRefreshIntervalSeconds;
+  }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.elasticsearch.model
+
+import com.netflix.spinnaker.clouddriver.model.EntityTags
+import spock.lang.Specification
+
+class ElasticSearchEntityTagsCacheSpec extends Specification {
+
+  def cache = new ElasticSearchEntityTagsCache()
+
+  void 'looks entity tags up by entity id and application'() {
+    given:
+    cache.put(entityTags('aws:servergroup:app-v001:test:us-east-1', 'app', 'app-v001'))
+    cache.put(entityTags('aws:servergroup:app-v001:test:us-west-2', 'app', 'app-v001'))
+    cache.put(entityTags('aws:servergroup:other-v001:test:us-east-1', 'other', 'other-v001'))
+
+    expect:
+    cache.getByEntityIds(['app-v001'])*.id.sort() == ['aws:servergroup:app-v001:test:us-east-1', 'aws:servergroup:app-v001:test:us-west-2']
+    cache.getByApplication('APP').size() == 2
+    cache.getByEntityIds(['app-v001', 'other-v001', 'missing']).size() == 3
+  }
+
+  void 'moving an entity tags to another entity updates both lookups'() {
+    given:
+    cache.put(entityTags('id', 'app', 'app-v001'))
+
+    when:
+    cache.put(entityTags('id', 'other', 'other-v001'))
+
+    then:
+    cache.getByEntityIds(['app-v001']).isEmpty()
+    cache.getByApplication('app').isEmpty()
+    cache.getByEntityIds(['other-v001'])*.id == ['id']
+
+    when:
+    cache.remove('id')
+
+    then:
+    !cache.get('id').isPresent()
+    cache.getByApplication('other').isEmpty()
+    cache.size() == 0
+  }
+
+  void 'keeps writes made while a refresh was loading'() {
+    given:
+    cache.put(entityTags('deleted', 'app', 'app-v001'))
+    cache.put(entityTags('unchanged', 'app', 'app-v002'))
+
+    when:
+    cache.refresh({
+      // the index still has 'deleted', and has not seen 'added' yet
+      cache.remove('deleted')
+      cache.put(entityTags('added', 'app', 'app-v003'))
+      return [entityTags('deleted', 'app', 'app-v001'), entityTags('unchanged', 'app', 'app-v002')]
+    })
+
+    then:
+    cache.loaded
+    cache.getByApplication('app')*.id.sort() == ['added', 'unchanged']
+  }
+
+  void 'a failed refresh leaves the cache untouched'() {
+    given:
+    cache.put(entityTags('id', 'app', 'app-v001'))
+
+    when:
+    cache.refresh({ throw new IllegalStateException('unavailable') })
+
+    then:
+    thrown(IllegalStateException)
+    !cache.loaded
+    cache.get('id').isPresent()
+  }
+
+  private static EntityTags entityTags(String id, String application, String entityId) {
+    return new EntityTags(
+      id: id,
+      entityRef: new EntityTags.EntityRef(application: application, entityId: entityId, entityType: 'servergroup')
+    )
+  }
+}
@@ -18,14 +18,20 @@
 package com.netflix.spinnaker.clouddriver.elasticsearch.model
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spectator.api.NoopRegistry
 import com.netflix.spinnaker.clouddriver.core.services.Front50Service
 import com.netflix.spinnaker.clouddriver.model.EntityTags
 import com.netflix.spinnaker.config.ElasticSearchConfig
 import com.netflix.spinnaker.config.ElasticSearchConfigProperties
 import com.netflix.spinnaker.kork.core.RetrySupport
 import io.searchbox.client.JestClient
+import io.searchbox.core.Delete
 import io.searchbox.indices.CreateIndex
 import io.searchbox.indices.DeleteIndex
+import io.searchbox.indices.aliases.AddAliasMapping
+import io.searchbox.indices.aliases.GetAliases
+import io.searchbox.indices.aliases.ModifyAliases
+import io.searchbox.indices.settings.GetSettings
 import org.elasticsearch.common.settings.Settings
 import org.elasticsearch.node.Node
 import org.springframework.context.ApplicationContext
@@ -116,7 +122,8 @@ class ElasticSearchEntityTagsProviderSpec extends Specification {
       objectMapper,
       front50Service,
       jestClient,
-      elasticSearchConfigProperties
+      elasticSearchConfigProperties,
+      new NoopRegistry()
     )
   }
 
@@ -233,6 +240,131 @@ class ElasticSearchEntityTagsProviderSpec extends Specification {
     !entityTagsProvider.get(allEntityTags[0].id).isPresent()
   }
 
+  def "should swap the active index for a newly built one when performing a reindex"() {
+    given:
+    def allEntityTags = [
+      buildEntityTags("aws:servergroup:clouddriver-main-v001:myaccount:us-west-1", ["a": "1"]),
+      buildEntityTags("aws:servergroup:clouddriver-main-v002:myaccount:us-west-1", ["a": "2"]),
+    ]
+    front50Service.getAllEntityTags(true) >> { return allEntityTags }
+    entityTagsReconciler.filter(_) >> { Collection entityTags -> return entityTags }
+
+    when:
+    entityTagsProvider.reindex()
+    def firstIndices = aliasedIndices()
+
+    then:
+    firstIndices.size() == 1
+    firstIndices[0].startsWith("tags_v1-")
+    indexSettings(firstIndices[0]).index.refresh_interval == "1s"
+    allEntityTags.each { entityTagsProvider.verifyIndex(it) }
+
+    when:
+    entityTagsProvider.reindex()
+    def secondIndices = aliasedIndices()
+
+    then:
+    secondIndices.size() == 1
+    secondIndices != firstIndices
+    allEntityTags.each { entityTagsProvider.verifyIndex(it) }
+  }
+
+  def "should copy entity tags written by other instances while performing a reindex"() {
+    given:
+    def loaded = buildEntityTags("aws:servergroup:clouddriver-main-v001:myaccount:us-west-1", ["a": "1"])
+    def written = buildEntityTags("aws:servergroup:clouddriver-main-v002:myaccount:us-west-1", ["a": "2"])
+    written.lastModified = System.currentTimeMillis()
+    def otherInstance = new ElasticSearchEntityTagsProvider(
+      applicationContext,
+      retrySupport,
+      objectMapper,
+      front50Service,
+      jestClient,
+      elasticSearchConfigProperties,
+      new NoopRegistry()
+    )
+    entityTagsReconciler.filter(_) >> { Collection entityTags -> return entityTags }
+
+    when:
+    entityTagsProvider.reindex()
+
+    then:
+    1 * front50Service.getAllEntityTags(true) >> {
+      otherInstance.index(written)
+      return [loaded]
+    }
+    aliasedIndices()[0].startsWith("tags_v1-")
+    entityTagsProvider.verifyIndex(loaded)
+    entityTagsProvider.verifyIndex(written)
+  }
+
+  def "should abort a reindex when the indices behind the active index change"() {
+    given:
+    entityTagsReconciler.filter(_) >> { Collection entityTags -> return entityTags }
+
+    when:
+    entityTagsProvider.reindex()
+
+    then:
+    1 * front50Service.getAllEntityTags(true) >> {
+      jestClient.execute(new DeleteIndex.Builder("tags_v1").build())
+      jestClient.execute(new CreateIndex.Builder("tags_v1-other").build())
+      jestClient.execute(new ModifyAliases.Builder(new AddAliasMapping.Builder("tags_v1-other", "tags_v1").build()).build())
+      return []
+    }
+    thrown(ElasticSearchException)
+    aliasedIndices() == ["tags_v1-other"]
+  }
+
+  def "should serve lookups from the cache once it has been loaded"() {
+    given:
+    def cachingProvider = new ElasticSearchEntityTagsProvider(
+      applicationContext,
+      retrySupport,
+      objectMapper,
+      front50Service,
+      jestClient,
+      new ElasticSearchConfigProperties(activeIndex: elasticSearchConfigProperties.activeIndex, cacheEnabled: true),
+      new NoopRegistry()
+    )
+    def entityTags = buildEntityTags("aws:servergroup:clouddriver-main-v001:myaccount:us-west-1", ["a": "1"])
+    cachingProvider.index(entityTags)
+    cachingProvider.verifyIndex(entityTags)
+    cachingProvider.refreshCache()
+
+    when: "the document is removed from elasticsearch behind the cache's back"
+    jestClient.execute(new Delete.Builder(entityTags.id).index(elasticSearchConfigProperties.activeIndex).type("servergroup").build())
+
+    then: "bulk lookups are served from the cache, lookups by id are not"
+    cachingProvider.getAll(null, "clouddriver", null, null, null, null, null, null, null, 10)*.id == [entityTags.id]
+    cachingProvider.getAllByEntityIds("aws", "servergroup", ["clouddriver-main-v001"])["clouddriver-main-v001"]*.id == [entityTags.id]
+    verifyNotIndexed(cachingProvider, entityTags)
+
+    when: "writes made through the provider are applied to the cache"
+    def otherEntityTags = buildEntityTags("aws:servergroup:clouddriver-main-v002:myaccount:us-west-1", ["a": "2"])
+    cachingProvider.index(otherEntityTags)
+
+    then:
+    cachingProvider.getAll(null, "clouddriver", "servergroup", null, null, "myaccount", null, null, null, 10)*.id.sort() == [entityTags.id, otherEntityTags.id]
+    cachingProvider.getAllByEntityIds("aws", "servergroup", ["clouddriver-main-v002"])["clouddriver-main-v002"]*.tags*.value == [["2"]]
+  }
+
+  def "should fetch the entity tags of many entities without truncating them"() {
+    given:
+    def allEntityTags = (1..12).collect {
+      buildEntityTags("aws:servergroup:clouddriver-main-v${String.format('%03d', it)}:myaccount:us-west-1", ["a": "$it"])
+    }
+    entityTagsProvider.bulkIndex(allEntityTags)
+    allEntityTags.each { entityTagsProvider.verifyIndex(it) }
+
+    when:
+    def entityTagsByEntityId = entityTagsProvider.getAllByEntityIds("aws", "servergroup", allEntityTags*.entityRef*.entityId)
+
+    then:
+    entityTagsByEntityId.keySet() == allEntityTags*.entityRef*.entityId as Set
+    entityTagsByEntityId.values().flatten()*.id.sort() == allEntityTags*.id.sort()
+  }
+
   def "should delete multiple entity tags (bulk)"() {
     given:
     def allEntityTags = [
@@ -319,9 +451,23 @@ class ElasticSearchEntityTagsProviderSpec extends Specification {
     0 * _
   }
 
+  List<String> aliasedIndices() {
+    def result = jestClient.execute(new GetAliases.Builder().addIndex(elasticSearchConfigProperties.activeIndex).build())
+    return result.jsonObject.entrySet()*.key
+  }
+
+  Map indexSettings(String index) {
+    def result = jestClient.execute(new GetSettings.Builder().addIndex(index).build())
+    return objectMapper.readValue(result.jsonString, Map)[index].settings
+  }
+
   boolean verifyNotIndexed(EntityTags entityTags) {
+    return verifyNotIndexed(entityTagsProvider, entityTags)
+  }
+
+  static boolean verifyNotIndexed(ElasticSearchEntityTagsProvider provider, EntityTags entityTags) {
     return (1..5).any {
-      if (!entityTagsProvider.get(entityTags.id).isPresent()) {
+      if (!provider.get(entityTags.id).isPresent()) {
         return true
       }
 
@@ -25,4 +25,12 @@ interface EurekaApi {
   @GET('/apps')
   @Headers(['Accept: application/json'])
   EurekaApplications loadEurekaApplications()
+
+  /**
+   * The instances added, modified or deleted in roughly the last three minutes, along with the
+   * hash code of the complete registry once they are applied.
+   */
+  @GET('/apps/delta')
+  @Headers(['Accept: application/json'])
+  EurekaApplications loadEurekaApplicationsDelta()
 }
@@ -57,6 +57,27 @@ class EurekaInstance extends DiscoveryHealth {
   String titusTaskId
   String titusStack
 
+  /** ADDED, MODIFIED or DELETED when this instance is part of a registry delta. */
+  String actionType
+
+  public static EurekaInstance buildInstance(String hostName,
+                                             String app,
+                                             String ipAddr,
+                                             String status,
+                                             String overriddenstatus,
+                                             DataCenterInfo dataCenterInfo,
+                                             String statusPageUrl,
+                                             String healthCheckUrl,
+                                             String vipAddress,
+                                             String secureVipAddress,
+                                             long lastUpdatedTimestamp,
+                                             String asgName,
+                                             Metadata metadata,
+                                             String registrationInstanceId) {
+    buildInstance(hostName, app, ipAddr, status, overriddenstatus, dataCenterInfo, statusPageUrl, healthCheckUrl,
+      vipAddress, secureVipAddress, lastUpdatedTimestamp, asgName, metadata, registrationInstanceId, null)
+  }
+
   @JsonCreator
   public static EurekaInstance buildInstance(@JsonProperty('hostName') String hostName,
                                              @JsonProperty('app') String app,
@@ -71,7 +92,8 @@ class EurekaInstance extends DiscoveryHealth {
                                              @JsonProperty('lastUpdatedTimestamp') long lastUpdatedTimestamp,
                                              @JsonProperty('asgName') String asgName,
                                              @JsonProperty('metadata') Metadata metadata,
-                                             @JsonProperty('instanceId') String registrationInstanceId) {
+                                             @JsonProperty('instanceId') String registrationInstanceId,
+                                             @JsonProperty('actionType') String actionType) {
     def meta = dataCenterInfo.metadata
     final HealthState healthState
     if ('UP' == status) {
@@ -126,7 +148,8 @@ class EurekaInstance extends DiscoveryHealth {
       lastUpdatedTimestamp,
       asgName,
       metadata?.titusTaskId,
-      metadata?.titusStack)
+      metadata?.titusStack,
+      actionType)
   }
 }
 
@@ -16,7 +16,6 @@
 
 package com.netflix.spinnaker.clouddriver.eureka.provider.agent
 
-import com.fasterxml.jackson.core.type.TypeReference
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.databind.SerializationFeature
 import com.netflix.spinnaker.cats.agent.AgentDataType
@@ -33,14 +32,24 @@ import com.netflix.spinnaker.clouddriver.eureka.model.EurekaApplication
 import com.netflix.spinnaker.clouddriver.eureka.model.EurekaApplications
 import com.netflix.spinnaker.clouddriver.eureka.model.EurekaInstance
 import com.netflix.spinnaker.clouddriver.model.HealthState
+import groovy.transform.PackageScope
 import groovy.util.logging.Slf4j
 
+import java.time.Clock
+import java.util.concurrent.TimeUnit
+
 import static com.netflix.spinnaker.clouddriver.core.provider.agent.Namespace.HEALTH
 import static com.netflix.spinnaker.clouddriver.core.provider.agent.Namespace.INSTANCES
 
 @Slf4j
 class EurekaCachingAgent implements CachingAgent, HealthProvidingCachingAgent, CustomScheduledAgent {
 
+  /**
+   * How long Eureka keeps changes in its delta queue (eureka.retentionTimeInMSInDeltaQueue). A delta fetched longer
+   * than this after the registry was last brought up to date may be missing changes.
+   */
+  static final long DELTA_RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(3)
+
   private final String region
   private final EurekaApi eurekaApi
   private final ObjectMapper objectMapper
@@ -50,9 +59,23 @@ class EurekaCachingAgent implements CachingAgent, HealthProvidingCachingAgent, C
   final String healthId = "Discovery"
   private final long pollIntervalMillis
   private final long timeoutMillis
+  private final boolean deltaEnabled
+  private final Clock clock
 
   private List<EurekaAwareProvider> eurekaAwareProviderList
 
+  /**
+   * In delta mode, the registry as of the last cycle: application name -> registration key -> instance, with the
+   * health records it was converted to. Every registered instance is kept, including those no provider caches health
+   * for, so that the registry hashes like Eureka's. Null until bootstrapped from the full registry.
+   */
+  private Map<String, Map<String, RegisteredInstance>> registry
+
+  /**
+   * When the registry was last fetched or brought up to date by a delta, taken before the request was made.
+   */
+  private long lastDeltaAppliedAt
+
   EurekaCachingAgent(EurekaApi eurekaApi,
                      String region,
                      ObjectMapper objectMapper,
@@ -62,6 +85,37 @@ class EurekaCachingAgent implements CachingAgent, HealthProvidingCachingAgent, C
                      eurekaAwareProviderList,
                      long pollIntervalMillis,
                      long timeoutMillis
+  ) {
+    this(eurekaApi, region, objectMapper, eurekaHost, allowMultipleEurekaPerAccount, eurekaAccountName,
+      eurekaAwareProviderList, pollIntervalMillis, timeoutMillis, false)
+  }
+
+  EurekaCachingAgent(EurekaApi eurekaApi,
+                     String region,
+                     ObjectMapper objectMapper,
+                     eurekaHost,
+                     allowMultipleEurekaPerAccount,
+                     eurekaAccountName,
+                     eurekaAwareProviderList,
+                     long pollIntervalMillis,
+                     long timeoutMillis,
+                     boolean deltaEnabled
+  ) {
+    this(eurekaApi, region, objectMapper, eurekaHost, allowMultipleEurekaPerAccount, eurekaAccountName,
+      eurekaAwareProviderList, pollIntervalMillis, timeoutMillis, deltaEnabled, Clock.systemDefaultZone())
+  }
+
+  EurekaCachingAgent(EurekaApi eurekaApi,
+                     String region,
+                     ObjectMapper objectMapper,
+                     eurekaHost,
+                     allowMultipleEurekaPerAccount,
+                     eurekaAccountName,
+                     eurekaAwareProviderList,
+                     long pollIntervalMillis,
+                     long timeoutMillis,
+                     boolean deltaEnabled,
+                     Clock clock
   ) {
     this.region = region
     this.eurekaApi = eurekaApi
@@ -72,6 +126,8 @@ class EurekaCachingAgent implements CachingAgent, HealthProvidingCachingAgent, C
     this.eurekaAwareProviderList = eurekaAwareProviderList
     this.timeoutMillis = timeoutMillis
     this.pollIntervalMillis = pollIntervalMillis
+    this.deltaEnabled = deltaEnabled
+    this.clock = clock
   }
 
   @Override
@@ -92,35 +148,23 @@ class EurekaCachingAgent implements CachingAgent, HealthProvidingCachingAgent, C
   @Override
   CacheResult loadData(ProviderCache providerCache) {
     log.info("Describing items in ${agentType}")
-    EurekaApplications disco = eurekaApi.loadEurekaApplications()
+
+    Collection<HealthRecord> healthRecords
+    if (deltaEnabled) {
+      healthRecords = loadRegistry().values().collectMany { it.values().collectMany { it.healthRecords } }
+    } else {
+      healthRecords = eurekaApi.loadEurekaApplications().applications.collectMany { EurekaApplication application ->
+        application.instances.collectMany { register(application.name, it).healthRecords }
+      }
+    }
 
     Map<String, Set<String>> instanceHealthRelationships = [:].withDefault { new HashSet<String>() }
     Map<String, List<CacheData>> eurekaInstances = [:].withDefault { [] }
-
-    for (EurekaApplication application : disco.applications) {
-      List<Map<String, Object>> instanceAttributes = objectMapper.convertValue(application.instances,
-        new TypeReference<List<Map<String, Object>>>() {})
-
-      for (Map<String, Object> attributes : instanceAttributes) {
-        if (attributes.instanceId) {
-          attributes.eurekaAccountName = eurekaAccountName
-          attributes.allowMultipleEurekaPerAccount = allowMultipleEurekaPerAccount
-          attributes.application = application.name.toLowerCase()
-
-          eurekaAwareProviderList.each { provider ->
-            if (provider.isProviderForEurekaRecord(attributes)) {
-              String instanceKey = provider.getInstanceKey(attributes, region)
-              if (instanceKey) {
-                String instanceHealthKey = provider.getInstanceHealthKey(attributes, region, healthId)
-                instanceHealthRelationships[instanceKey].add(instanceHealthKey)
-                Map<String, Collection<String>> healthRelationship = [(INSTANCES.ns): [instanceKey]]
-                eurekaInstances[instanceHealthKey].add(new DefaultCacheData(instanceHealthKey, attributes, healthRelationship))
-              }
-            }
-          }
-        }
-      }
+    for (HealthRecord record : healthRecords) {
+      instanceHealthRelationships[record.instanceKey].add(record.healthData.id)
+      eurekaInstances[record.healthData.id].add(record.healthData)
     }
+
     Collection<CacheData> instanceCacheData = instanceHealthRelationships.collect { instanceId, healths ->
       new DefaultCacheData(instanceId, Collections.emptyMap(), [(HEALTH.ns): healths])
     }
@@ -145,6 +189,140 @@ class EurekaCachingAgent implements CachingAgent, HealthProvidingCachingAgent, C
       (HEALTH.ns): eurekaCacheData)
   }
 
+  /**
+   * Brings the local registry up to date by applying the registry delta, only converting instances that were added or
+   * modified. Whenever the delta cannot be applied, may be missing changes because the last update is older than
+   * Eureka's delta retention, or the resulting registry does not hash to what Eureka reports, the full registry is
+   * fetched instead.
+   */
+  private Map<String, Map<String, RegisteredInstance>> loadRegistry() {
+    long fetchedAt = clock.millis()
+    if (registry != null && fetchedAt - lastDeltaAppliedAt > DELTA_RETENTION_MILLIS) {
+      log.warn("Registry in ${agentType} was last updated ${fetchedAt - lastDeltaAppliedAt}ms ago, longer than the delta is retained, fetching full registry")
+    } else if (registry != null) {
+      try {
+        EurekaApplications delta = eurekaApi.loadEurekaApplicationsDelta()
+        applyDelta(delta)
+
+        // a delta without a hash code can't be verified, so it's treated as one that drifted
+        String localHashCode = reconcileHashCode(registry)
+        if (delta.appsHashCode == localHashCode) {
+          lastDeltaAppliedAt = fetchedAt
+          return registry
+        }
+        log.warn("Registry in ${agentType} drifted from Eureka (local: ${localHashCode}, remote: ${delta.appsHashCode}), fetching full registry")
+      } catch (Exception e) {
+        log.warn("Failed to apply registry delta in ${agentType}, fetching full registry", e)
+      }
+    }
+
+    // if the full fetch fails too, the next cycle starts over from the full registry
+    registry = null
+    registry = bootstrapRegistry()
+    lastDeltaAppliedAt = fetchedAt
+    return registry
+  }
+
+  private Map<String, Map<String, RegisteredInstance>> bootstrapRegistry() {
+    EurekaApplications disco = eurekaApi.loadEurekaApplications()
+
+    Map<String, Map<String, RegisteredInstance>> applications = [:]
+    for (EurekaApplication application : disco.applications) {
+      Map<String, RegisteredInstance> instances = applications.computeIfAbsent(application.name) { [:] }
+      for (EurekaInstance instance : application.instances) {
+        String key = registrationKey(instance)
+        if (key) {
+          instances.put(key, register(application.name, instance))
+        }
+      }
+    }
+    return applications
+  }
+
+  private void applyDelta(EurekaApplications delta) {
+    for (EurekaApplication application : delta.applications ?: []) {
+      Map<String, RegisteredInstance> instances = registry.computeIfAbsent(application.name) { [:] }
+      for (EurekaInstance instance : application.instances ?: []) {
+        String key = registrationKey(instance)
+        if (!key) {
+          continue
+        }
+        if (instance.actionType == 'DELETED') {
+          instances.remove(key)
+        } else {
+          instances.put(key, register(application.name, instance))
+        }
+      }
+      if (instances.isEmpty()) {
+        registry.remove(application.name)
+      }
+    }
+  }
+
+  /**
+   * Identifies an instance within its application: by its instance id, which prefers the DataCenterInfo metadata
+   * instanceId over the registration's, falling back to its host name for registrations without either.
+   */
+  private static String registrationKey(EurekaInstance instance) {
+    return instance.instanceId ?: instance.hostName
+  }
+
+  private RegisteredInstance register(String applicationName, EurekaInstance instance) {
+    Map<String, Object> attributes = objectMapper.convertValue(instance, ATTRIBUTES)
+    attributes.remove('actionType')
+
+    List<HealthRecord> healthRecords = []
+    if (attributes.instanceId) {
+      attributes.eurekaAccountName = eurekaAccountName
+      attributes.allowMultipleEurekaPerAccount = allowMultipleEurekaPerAccount
+      attributes.application = applicationName.toLowerCase()
+
+      eurekaAwareProviderList.each { provider ->
+        if (provider.isProviderForEurekaRecord(attributes)) {
+          String instanceKey = provider.getInstanceKey(attributes, region)
+          if (instanceKey) {
+            String instanceHealthKey = provider.getInstanceHealthKey(attributes, region, healthId)
+            Map<String, Collection<String>> healthRelationship = [(INSTANCES.ns): [instanceKey]]
+            healthRecords << new HealthRecord(instanceKey, new DefaultCacheData(instanceHealthKey, attributes, healthRelationship))
+          }
+        }
+      }
+    }
+    return new RegisteredInstance(instance.status, healthRecords)
+  }
+
+  /**
+   * Eureka's reconciliation hash code: the number of instances in each status, ordered by status, e.g. DOWN_1_UP_12_.
+   */
+  static String reconcileHashCode(Map<String, Map<String, RegisteredInstance>> registry) {
+    Map<String, Integer> statusCounts = new TreeMap<>()
+    registry.values().each { instances ->
+      instances.values().each { statusCounts.merge(it.status, 1, Integer.&sum) }
+    }
+    return statusCounts.collect { status, count -> "${status}_${count}_" }.join('')
+  }
+
+  @PackageScope
+  static class RegisteredInstance {
+    final String status
+    final List<HealthRecord> healthRecords
+
+    RegisteredInstance(String status, List<HealthRecord> healthRecords) {
+      this.status = status
+      this.healthRecords = healthRecords
+    }
+  }
+
+  private static class HealthRecord {
+    final String instanceKey
+    final CacheData healthData
+
+    HealthRecord(String instanceKey, CacheData healthData) {
+      this.instanceKey = instanceKey
+      this.healthData = healthData
+    }
+  }
+
   private static class EurekaHealthComparator implements Comparator<CacheData> {
     @Override
     int compare(CacheData a, CacheData b) {
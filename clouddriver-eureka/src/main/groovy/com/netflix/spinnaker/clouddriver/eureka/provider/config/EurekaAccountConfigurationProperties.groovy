@@ -29,4 +29,10 @@ class EurekaAccountConfigurationProperties {
   }
   List<EurekaAccount> accounts = []
   boolean allowMultipleEurekaPerAccount
+
+  /**
+   * Bootstrap from the full registry once, then only fetch the registry delta each cycle,
+   * falling back to the full registry whenever the delta's hash code does not match.
+   */
+  boolean deltaEnabled
 }
@@ -11,6 +11,8 @@ import com.netflix.spinnaker.clouddriver.eureka.model.EurekaInstance
 import com.netflix.spinnaker.clouddriver.model.HealthState
 import spock.lang.Specification
 
+import java.time.Clock
+
 import static com.netflix.spinnaker.clouddriver.core.provider.agent.Namespace.HEALTH
 import static com.netflix.spinnaker.clouddriver.core.provider.agent.Namespace.INSTANCES
 
@@ -82,9 +84,153 @@ class EurekaCachingAgentSpec extends Specification {
 
   }
 
-  private static EurekaInstance instance(String app, String id, String status, Long timestamp = System.currentTimeMillis()) {
+  def "it should apply registry deltas on top of the bootstrapped registry"() {
+    given:
+    def api = Mock(EurekaApi)
+    def deltaAgent = new EurekaCachingAgent(api, "us-foo-2", new ObjectMapper(), "http://eureka", "true", "eureka-foo", [eap], 0, 0, true)
+
+    when:
+    def first = deltaAgent.loadData(providerCache)
+
+    then:
+    1 * api.loadEurekaApplications() >> new EurekaApplications(applications: [
+      new EurekaApplication(name: "foo", instances: [
+        instance("foo", "i-1", "UP"),
+        instance("foo", "i-2", "UP")
+      ])
+    ])
+    0 * api.loadEurekaApplicationsDelta()
+    first.cacheResults[HEALTH.ns]*.id.sort() == ["us-foo-2:i-1:Discovery", "us-foo-2:i-2:Discovery"]
+
+    when:
+    def second = deltaAgent.loadData(providerCache)
+
+    then:
+    1 * api.loadEurekaApplicationsDelta() >> new EurekaApplications(appsHashCode: "DOWN_1_UP_1_", applications: [
+      new EurekaApplication(name: "foo", instances: [
+        instance("foo", "i-1", "DOWN", 1L, "MODIFIED"),
+        instance("foo", "i-2", "UP", 1L, "DELETED"),
+        instance("foo", "i-3", "UP", 1L, "ADDED")
+      ])
+    ])
+    0 * api.loadEurekaApplications()
+    second.cacheResults[HEALTH.ns]*.id.sort() == ["us-foo-2:i-1:Discovery", "us-foo-2:i-3:Discovery"]
+    second.cacheResults[INSTANCES.ns]*.id.sort() == ["us-foo-2:i-1", "us-foo-2:i-3"]
+    second.cacheResults[HEALTH.ns].find { it.id == "us-foo-2:i-1:Discovery" }.attributes.state == HealthState.Down.name()
+  }
+
+  def "it should fetch the full registry when the delta does not reconcile"() {
+    given:
+    def api = Mock(EurekaApi)
+    def deltaAgent = new EurekaCachingAgent(api, "us-foo-2", new ObjectMapper(), "http://eureka", "true", "eureka-foo", [eap], 0, 0, true)
+    def registry = new EurekaApplications(applications: [
+      new EurekaApplication(name: "foo", instances: [instance("foo", "i-1", "UP")])
+    ])
+
+    when:
+    deltaAgent.loadData(providerCache)
+    def result = deltaAgent.loadData(providerCache)
+
+    then:
+    1 * api.loadEurekaApplicationsDelta() >> new EurekaApplications(appsHashCode: "UP_2_", applications: [])
+    2 * api.loadEurekaApplications() >> registry
+    result.cacheResults[HEALTH.ns]*.id == ["us-foo-2:i-1:Discovery"]
+  }
+
+  def "it should fetch the full registry when the last update is older than the delta retention"() {
+    given:
+    def api = Mock(EurekaApi)
+    long now = 0
+    def clock = Stub(Clock) {
+      millis() >> { now }
+    }
+    def deltaAgent = new EurekaCachingAgent(api, "us-foo-2", new ObjectMapper(), "http://eureka", "true", "eureka-foo", [eap], 0, 0, true, clock)
+
+    when:
+    deltaAgent.loadData(providerCache)
+
+    then:
+    1 * api.loadEurekaApplications() >> new EurekaApplications(applications: [
+      new EurekaApplication(name: "foo", instances: [instance("foo", "i-1", "UP")])
+    ])
+
+    when:
+    now += EurekaCachingAgent.DELTA_RETENTION_MILLIS
+    deltaAgent.loadData(providerCache)
+
+    then:
+    1 * api.loadEurekaApplicationsDelta() >> new EurekaApplications(appsHashCode: "UP_1_", applications: [])
+    0 * api.loadEurekaApplications()
+
+    when: "a cycle is missed, so changes may have dropped out of the delta"
+    now += EurekaCachingAgent.DELTA_RETENTION_MILLIS + 1
+    def result = deltaAgent.loadData(providerCache)
+
+    then:
+    0 * api.loadEurekaApplicationsDelta()
+    1 * api.loadEurekaApplications() >> new EurekaApplications(applications: [
+      new EurekaApplication(name: "foo", instances: [instance("foo", "i-1", "DOWN"), instance("foo", "i-2", "UP")])
+    ])
+    result.cacheResults[HEALTH.ns]*.id.sort() == ["us-foo-2:i-1:Discovery", "us-foo-2:i-2:Discovery"]
+    result.cacheResults[HEALTH.ns].find { it.id == "us-foo-2:i-1:Discovery" }.attributes.state == HealthState.Down.name()
+  }
+
+  def "it should fetch the full registry when the delta has no hash code"() {
+    given:
+    def api = Mock(EurekaApi)
+    def deltaAgent = new EurekaCachingAgent(api, "us-foo-2", new ObjectMapper(), "http://eureka", "true", "eureka-foo", [eap], 0, 0, true)
+    def registry = new EurekaApplications(applications: [
+      new EurekaApplication(name: "foo", instances: [instance("foo", "i-1", "UP")])
+    ])
+
+    when:
+    deltaAgent.loadData(providerCache)
+    deltaAgent.loadData(providerCache)
+
+    then:
+    1 * api.loadEurekaApplicationsDelta() >> new EurekaApplications(applications: [])
+    2 * api.loadEurekaApplications() >> registry
+  }
+
+  def "it should reconcile instances registered without an instance id"() {
+    given:
+    def api = Mock(EurekaApi)
+    def deltaAgent = new EurekaCachingAgent(api, "us-foo-2", new ObjectMapper(), "http://eureka", "true", "eureka-foo", [eap], 0, 0, true)
+
+    when:
+    deltaAgent.loadData(providerCache)
+    def result = deltaAgent.loadData(providerCache)
+
+    then:
+    1 * api.loadEurekaApplications() >> new EurekaApplications(applications: [
+      new EurekaApplication(name: "foo", instances: [
+        instance("foo", "i-1", "UP"),
+        instance("foo", null, "UP", System.currentTimeMillis(), null, "host-2"),
+        instance("foo", null, "DOWN", System.currentTimeMillis(), null, "host-3")
+      ])
+    ])
+    1 * api.loadEurekaApplicationsDelta() >> new EurekaApplications(appsHashCode: "UP_3_", applications: [
+      new EurekaApplication(name: "foo", instances: [
+        instance("foo", null, "UP", 1L, "MODIFIED", "host-3")
+      ])
+    ])
+    result.cacheResults[HEALTH.ns]*.id == ["us-foo-2:i-1:Discovery"]
+  }
+
+  def "it should compute the reconciliation hash code like eureka"() {
+    expect:
+    EurekaCachingAgent.reconcileHashCode([
+      foo: [
+        "i-1": new EurekaCachingAgent.RegisteredInstance("UP", []),
+        "i-2": new EurekaCachingAgent.RegisteredInstance("UP", [])
+      ],
+      bar: ["i-3": new EurekaCachingAgent.RegisteredInstance("DOWN", [])]
+    ]) == "DOWN_1_UP_2_"
+  }
+
+  private static EurekaInstance instance(String app, String id, String status, Long timestamp = System.currentTimeMillis(), String actionType = null, String hostName = "host") {
     EurekaInstance.buildInstance(
-      "host",
+      hostName,
       app,
       "127.0.0.1",
       status,
@@ -104,7 +250,8 @@ class EurekaCachingAgentSpec extends Specification {
       timestamp,
       "$app-v000",
       null,
-      id)
+      id,
+      actionType)
   }
 
   static class TestEurekaAwareProvider implements EurekaAwareProvider {
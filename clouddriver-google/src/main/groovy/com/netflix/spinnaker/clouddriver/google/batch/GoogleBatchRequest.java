@@ -16,40 +16,34 @@
 
 package com.netflix.spinnaker.clouddriver.google.batch;
 
-import com.google.api.client.googleapis.batch.BatchRequest;
 import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
-import com.google.api.client.http.HttpRequest;
-import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.services.compute.Compute;
 import com.google.api.services.compute.ComputeRequest;
-import com.google.common.collect.Lists;
+import com.netflix.spinnaker.clouddriver.google.compute.GoogleBatchExecutor;
+import com.netflix.spinnaker.clouddriver.google.compute.GoogleBatchExecutor.QueuedRequest;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.TimeUnit;
-import lombok.AllArgsConstructor;
-import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 
-/** Helper class for sending batch requests to GCE. */
+/**
+ * Helper class for sending batch requests to GCE. Queued requests are executed through the shared
+ * {@link GoogleBatchExecutor}, which bounds concurrency per project and may combine them with
+ * requests queued concurrently by other callers.
+ */
 @Slf4j
 public class GoogleBatchRequest {
 
-  private static final int MAX_BATCH_SIZE =
-      100; // Platform specified max to not overwhelm batch backends.
-  private static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = (int) TimeUnit.MINUTES.toMillis(2);
-  private static final int DEFAULT_READ_TIMEOUT_MILLIS = (int) TimeUnit.MINUTES.toMillis(2);
-
   private List<QueuedRequest> queuedRequests;
   private String clouddriverUserAgentApplicationName;
   private Compute compute;
+  private String project;
 
-  public GoogleBatchRequest(Compute compute, String clouddriverUserAgentApplicationName) {
+  public GoogleBatchRequest(
+      Compute compute, String clouddriverUserAgentApplicationName, String project) {
     this.compute = compute;
     this.clouddriverUserAgentApplicationName = clouddriverUserAgentApplicationName;
+    this.project = project;
     this.queuedRequests = new ArrayList<>();
   }
 
@@ -59,55 +53,15 @@ public class GoogleBatchRequest {
       return;
     }
 
-    List<BatchRequest> queuedBatches = new ArrayList<>();
-    List<List<QueuedRequest>> requestPartitions = Lists.partition(queuedRequests, MAX_BATCH_SIZE);
-    requestPartitions.forEach(
-        requestPart -> {
-          BatchRequest newBatch = newBatch();
-          requestPart.forEach(
-              qr -> {
-                try {
-                  qr.getRequest().queue(newBatch, qr.getCallback());
-                } catch (IOException ioe) {
-                  log.error("Queueing request {} in batch failed.", qr);
-                  throw new RuntimeException(ioe);
-                }
-              });
-          queuedBatches.add(newBatch);
-        });
-
-    ExecutorService threadPool = new ForkJoinPool(10);
     try {
-      threadPool
-          .submit(() -> queuedBatches.stream().parallel().forEach(this::executeInternalBatch))
-          .get();
-    } catch (InterruptedException | ExecutionException e) {
-      throw new RuntimeException(e);
-    }
-    threadPool.shutdown();
-  }
-
-  private void executeInternalBatch(BatchRequest b) {
-    try {
-      b.execute();
+      GoogleBatchExecutor.getShared()
+          .execute(project, compute, clouddriverUserAgentApplicationName, queuedRequests);
     } catch (IOException ioe) {
-      log.error("Executing batch {} failed.", b);
+      log.error("Executing batch of {} requests in {} failed.", queuedRequests.size(), project);
       throw new RuntimeException(ioe);
     }
   }
 
-  private BatchRequest newBatch() {
-    return compute.batch(
-        new HttpRequestInitializer() {
-          @Override
-          public void initialize(HttpRequest request) {
-            request.getHeaders().setUserAgent(clouddriverUserAgentApplicationName);
-            request.setConnectTimeout(DEFAULT_CONNECT_TIMEOUT_MILLIS);
-            request.setReadTimeout(DEFAULT_READ_TIMEOUT_MILLIS);
-          }
-        });
-  }
-
   public void queue(ComputeRequest request, JsonBatchCallback callback) {
     queuedRequests.add(new QueuedRequest(request, callback));
   }
@@ -115,11 +69,4 @@ public class GoogleBatchRequest {
   public Integer size() {
     return queuedRequests.size();
   }
-
-  @Data
-  @AllArgsConstructor
-  private static class QueuedRequest {
-    private ComputeRequest request;
-    private JsonBatchCallback callback;
-  }
 }
@@ -0,0 +1,489 @@
+/*
+ * Copyright 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.google.compute;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonErrorContainer;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.services.compute.Compute;
+import com.google.api.services.compute.ComputeRequest;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.cats.thread.NamedThreadFactory;
+import com.netflix.spinnaker.clouddriver.google.GoogleExecutor;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executes GCE batch requests for every caching agent and operation in the process.
+ *
+ * <p>Each project gets its own bounded thread pool and an adaptive limit on the number of batches
+ * in flight against it. Requests queued by different callers for the same project (and the same
+ * {@link Compute} client) wait in a shared queue while that limit is reached, and are drained into
+ * batches of up to {@link #MAX_BATCH_SIZE} requests, so concurrent callers fill each other's
+ * batches instead of each sending small ones. The limit is halved whenever GCE reports that a rate
+ * limit was exceeded, and grows back by one after a limit's worth of clean batches.
+ *
+ * <p>Like {@link GoogleExecutor}, the executor is exposed statically through {@link #getShared()}
+ * because the caching agents that use it are not spring-managed.
+ */
+@Component
+@Slf4j
+public class GoogleBatchExecutor {
+
+  // Platform-specified max to not overwhelm batch backends.
+  @VisibleForTesting static final int MAX_BATCH_SIZE = 100;
+  static final int DEFAULT_MAX_CONCURRENCY = 10;
+  private static final Duration CONNECT_TIMEOUT = Duration.ofMinutes(2);
+  private static final Duration READ_TIMEOUT = Duration.ofMinutes(2);
+  private static final Duration IDLE_THREAD_TIMEOUT = Duration.ofMinutes(1);
+  private static final String UNKNOWN_PROJECT = "unknown";
+
+  private static volatile GoogleBatchExecutor shared;
+  // set on threads executing a batch, so requests queued from its callbacks run inline
+  private static final ThreadLocal<Boolean> IN_BATCH = ThreadLocal.withInitial(() -> false);
+
+  private final Registry registry;
+  private final int maxConcurrency;
+  private final Map<String, ProjectQueue> projects = new ConcurrentHashMap<>();
+
+  @Autowired
+  public GoogleBatchExecutor(Registry registry) {
+    this(registry, DEFAULT_MAX_CONCURRENCY);
+  }
+
+  @VisibleForTesting
+  GoogleBatchExecutor(Registry registry, int maxConcurrency) {
+    this.registry = registry;
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  @PostConstruct
+  public void bindShared() {
+    shared = this;
+  }
+
+  /**
+   * Returns the spring-managed executor, or a default one if it hasn't been created yet (e.g. while
+   * credentials are initialized, or in tests).
+   */
+  public static GoogleBatchExecutor getShared() {
+    if (shared == null) {
+      synchronized (GoogleBatchExecutor.class) {
+        if (shared == null) {
+          Registry registry = GoogleExecutor.getRegistry();
+          shared = new GoogleBatchExecutor(registry != null ? registry : new NoopRegistry());
+        }
+      }
+    }
+    return shared;
+  }
+
+  /**
+   * Executes `requests` against `project`, returning once the callback of every request has been
+   * invoked. Throws the first exception raised by one of their callbacks, or by a batch that failed
+   * before delivering one of their responses. Failures of other callers' requests merged into the
+   * same batch are never reported here.
+   */
+  public void execute(
+      String project, Compute compute, String userAgent, List<QueuedRequest> requests)
+      throws IOException {
+    if (requests.isEmpty()) {
+      return;
+    }
+
+    Submission submission = new Submission(requests.size());
+    ProjectQueue queue =
+        projects.computeIfAbsent(project != null ? project : UNKNOWN_PROJECT, ProjectQueue::new);
+    if (IN_BATCH.get()) {
+      queue.executeInline(compute, userAgent, requests, submission);
+    } else {
+      queue.enqueue(compute, userAgent, requests, submission);
+    }
+
+    try {
+      submission.done.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new RuntimeException(cause);
+    }
+  }
+
+  @VisibleForTesting
+  int getPendingCount(String project) {
+    ProjectQueue queue = projects.get(project);
+    if (queue == null) {
+      return 0;
+    }
+    synchronized (queue) {
+      return queue.pending.size();
+    }
+  }
+
+  @VisibleForTesting
+  int getConcurrencyLimit(String project) {
+    ProjectQueue queue = projects.get(project);
+    return queue == null ? maxConcurrency : queue.limit.get();
+  }
+
+  private static boolean isRateLimited(GoogleJsonError error) {
+    if (error == null) {
+      return false;
+    }
+
+    if (error.getCode() == 429) {
+      return true;
+    }
+
+    return error.getCode() == 403
+        && error.getErrors() != null
+        && error.getErrors().stream()
+            .anyMatch(
+                e ->
+                    "rateLimitExceeded".equals(e.getReason())
+                        || "userRateLimitExceeded".equals(e.getReason()));
+  }
+
+  /**
+   * Whether the failure of a whole batch means the project is being rate limited. A 403 alone
+   * isn't enough (it's also returned for missing permissions), so like the per-request check this
+   * requires a 429 or one of the rate limit reasons in the error details.
+   */
+  private static boolean isRateLimited(Exception e, JsonFactory jsonFactory) {
+    if (e instanceof GoogleJsonResponseException) {
+      GoogleJsonResponseException jsonException = (GoogleJsonResponseException) e;
+      return jsonException.getStatusCode() == 429 || isRateLimited(jsonException.getDetails());
+    }
+
+    if (!(e instanceof HttpResponseException)) {
+      return false;
+    }
+
+    HttpResponseException responseException = (HttpResponseException) e;
+    if (responseException.getStatusCode() == 429) {
+      return true;
+    }
+
+    if (responseException.getStatusCode() != 403 || responseException.getContent() == null) {
+      return false;
+    }
+
+    // the batch endpoint reports its own failures as a plain HttpResponseException, so parse the
+    // error details out of the response body
+    try {
+      GoogleJsonErrorContainer container =
+          jsonFactory.fromString(responseException.getContent(), GoogleJsonErrorContainer.class);
+      return container != null && isRateLimited(container.getError());
+    } catch (IOException | IllegalArgumentException parseFailure) {
+      return false;
+    }
+  }
+
+  private class ProjectQueue {
+    private final String project;
+    private final ThreadPoolExecutor pool;
+    private final AdaptiveConcurrencyLimit limit;
+    private final LinkedList<PendingRequest> pending = new LinkedList<>();
+    private int inFlight = 0;
+
+    ProjectQueue(String project) {
+      this.project = project;
+      this.limit = new AdaptiveConcurrencyLimit(maxConcurrency);
+      this.pool =
+          new ThreadPoolExecutor(
+              maxConcurrency,
+              maxConcurrency,
+              IDLE_THREAD_TIMEOUT.toMillis(),
+              TimeUnit.MILLISECONDS,
+              new LinkedBlockingQueue<>(),
+              new NamedThreadFactory(GoogleBatchExecutor.class.getSimpleName() + "-" + project));
+      this.pool.allowCoreThreadTimeOut(true);
+      registry.gauge(
+          registry.createId("google.batch.concurrencyLimit", "project", project),
+          limit,
+          AdaptiveConcurrencyLimit::get);
+    }
+
+    synchronized void enqueue(
+        Compute compute, String userAgent, List<QueuedRequest> requests, Submission submission) {
+      for (QueuedRequest request : requests) {
+        pending.add(new PendingRequest(compute, userAgent, request, submission));
+      }
+      dispatch();
+    }
+
+    /** Starts as many batches as the current limit allows. Must hold the lock. */
+    private void dispatch() {
+      while (inFlight < limit.get() && !pending.isEmpty()) {
+        // batches are bound to a single client, so only merge requests sharing the oldest one's
+        Compute compute = pending.getFirst().compute;
+        List<PendingRequest> batch = new ArrayList<>();
+        Iterator<PendingRequest> it = pending.iterator();
+        while (it.hasNext() && batch.size() < MAX_BATCH_SIZE) {
+          PendingRequest next = it.next();
+          if (next.compute == compute) {
+            batch.add(next);
+            it.remove();
+          }
+        }
+
+        inFlight++;
+        pool.execute(() -> run(batch));
+      }
+    }
+
+    /**
+     * Executes requests queued from a callback of a batch that is already running for this project
+     * on the calling thread. Sending them through the queue could deadlock if every batch in flight
+     * were waiting on a nested request.
+     */
+    void executeInline(
+        Compute compute, String userAgent, List<QueuedRequest> requests, Submission submission) {
+      List<PendingRequest> pendingRequests = new ArrayList<>();
+      for (QueuedRequest request : requests) {
+        pendingRequests.add(new PendingRequest(compute, userAgent, request, submission));
+      }
+      Lists.partition(pendingRequests, MAX_BATCH_SIZE).forEach(this::executeBatch);
+    }
+
+    private void run(List<PendingRequest> batch) {
+      IN_BATCH.set(true);
+      try {
+        executeBatch(batch);
+      } finally {
+        IN_BATCH.remove();
+        synchronized (this) {
+          inFlight--;
+          dispatch();
+        }
+      }
+    }
+
+    private void executeBatch(List<PendingRequest> batch) {
+      AtomicBoolean rateLimited = new AtomicBoolean(false);
+      String success = "false";
+      long start = registry.clock().monotonicTime();
+      List<PendingRequest> queued = new ArrayList<>();
+      try {
+        BatchRequest batchRequest = newBatch(batch.get(0));
+        for (PendingRequest request : batch) {
+          try {
+            queue(batchRequest, request, rateLimited);
+            queued.add(request);
+          } catch (IOException e) {
+            // only the caller that built this request is affected
+            request.submission.fail(e);
+          }
+        }
+
+        if (!queued.isEmpty()) {
+          batchRequest.execute();
+        }
+        success = "true";
+        queued.forEach(r -> r.submission.completeOne());
+      } catch (Exception e) {
+        if (isRateLimited(e, batch.get(0).compute.getJsonFactory())) {
+          rateLimited.set(true);
+        }
+        // the batch itself failed, so requests whose response wasn't delivered fail with it
+        for (PendingRequest request : queued) {
+          if (request.answered) {
+            request.submission.completeOne();
+          } else {
+            request.submission.fail(e);
+          }
+        }
+      } finally {
+        long nanos = registry.clock().monotonicTime() - start;
+        Id latencyId =
+            registry.createId("google.batch.latency", "project", project, "success", success);
+        registry.timer(latencyId).record(nanos, TimeUnit.NANOSECONDS);
+        registry
+            .distributionSummary(registry.createId("google.batch.fillRatio", "project", project))
+            .record(batch.size() * 100L / MAX_BATCH_SIZE);
+
+        if (rateLimited.get()) {
+          registry
+              .counter(registry.createId("google.batch.rateLimited", "project", project))
+              .increment();
+          int newLimit = limit.onRateLimited();
+          log.warn(
+              "Rate limited by GCE in project {}, reducing batch concurrency to {}",
+              project,
+              newLimit);
+        } else {
+          limit.onSuccess();
+        }
+      }
+    }
+
+    /**
+     * Queues `pending` on `batch`. Exceptions thrown by its callback are recorded against its own
+     * submission instead of escaping {@link BatchRequest#execute()}, which would fail every other
+     * caller whose requests were merged into the same batch.
+     */
+    @SuppressWarnings("unchecked")
+    private void queue(BatchRequest batch, PendingRequest pending, AtomicBoolean rateLimited)
+        throws IOException {
+      JsonBatchCallback callback = pending.request.getCallback();
+      pending
+          .request
+          .getRequest()
+          .queue(
+              batch,
+              new JsonBatchCallback<Object>() {
+                @Override
+                public void onSuccess(Object o, HttpHeaders responseHeaders) {
+                  pending.answered = true;
+                  try {
+                    callback.onSuccess(o, responseHeaders);
+                  } catch (Exception e) {
+                    pending.submission.fail(e);
+                  }
+                }
+
+                @Override
+                public void onFailure(GoogleJsonError e, HttpHeaders responseHeaders) {
+                  pending.answered = true;
+                  if (isRateLimited(e)) {
+                    rateLimited.set(true);
+                  }
+                  try {
+                    callback.onFailure(e, responseHeaders);
+                  } catch (Exception ex) {
+                    pending.submission.fail(ex);
+                  }
+                }
+              });
+    }
+
+    private BatchRequest newBatch(PendingRequest first) {
+      return first.compute.batch(
+          request -> {
+            request.getHeaders().setUserAgent(first.userAgent);
+            request.setConnectTimeout((int) CONNECT_TIMEOUT.toMillis());
+            request.setReadTimeout((int) READ_TIMEOUT.toMillis());
+          });
+    }
+  }
+
+  /** Additive-increase/multiplicative-decrease limit on the batches in flight against a project. */
+  static class AdaptiveConcurrencyLimit {
+    private final int max;
+    private int limit;
+    private int successesSinceChange = 0;
+
+    AdaptiveConcurrencyLimit(int max) {
+      this.max = max;
+      this.limit = max;
+    }
+
+    synchronized int get() {
+      return limit;
+    }
+
+    synchronized int onRateLimited() {
+      limit = Math.max(1, limit / 2);
+      successesSinceChange = 0;
+      return limit;
+    }
+
+    synchronized void onSuccess() {
+      if (limit < max && ++successesSinceChange >= limit) {
+        limit++;
+        successesSinceChange = 0;
+      }
+    }
+  }
+
+  @Value
+  @AllArgsConstructor
+  public static class QueuedRequest {
+    private ComputeRequest request;
+    private JsonBatchCallback callback;
+  }
+
+  private static class PendingRequest {
+    private final Compute compute;
+    private final String userAgent;
+    private final QueuedRequest request;
+    private final Submission submission;
+    // set once the batch has delivered this request's response to its callback
+    private volatile boolean answered = false;
+
+    PendingRequest(
+        Compute compute, String userAgent, QueuedRequest request, Submission submission) {
+      this.compute = compute;
+      this.userAgent = userAgent;
+      this.request = request;
+      this.submission = submission;
+    }
+  }
+
+  private static class Submission {
+    private final AtomicInteger remaining;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    Submission(int size) {
+      this.remaining = new AtomicInteger(size);
+    }
+
+    void completeOne() {
+      if (remaining.decrementAndGet() == 0) {
+        done.complete(null);
+      }
+    }
+
+    void fail(Throwable t) {
+      done.completeExceptionally(t);
+    }
+  }
+}
@@ -42,6 +42,9 @@ class GoogleConfigurationProperties {
   int asyncOperationMaxPollingIntervalSeconds = ASYNC_OPERATION_MAX_POLLING_INTERVAL_SECONDS
   List<String> baseImageProjects
   long maxMIGPageSize = 50
+  // Lists zonal managed instance groups with one aggregated request per region, filtered to the
+  // region's zones, instead of one request per zone.
+  boolean aggregatedServerGroupCaching = false
   // Takes a list of regions you want indexed. Will default to indexing all regions if left
   // unspecified. An empty list will index no regions.
   List<String> defaultRegions
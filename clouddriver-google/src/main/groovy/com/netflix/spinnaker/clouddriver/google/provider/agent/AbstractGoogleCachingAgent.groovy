@@ -82,7 +82,7 @@ abstract class AbstractGoogleCachingAgent implements CachingAgent, AccountAware,
   }
 
   GoogleBatchRequest buildGoogleBatchRequest() {
-    return new GoogleBatchRequest(compute, clouddriverUserAgentApplicationName)
+    return new GoogleBatchRequest(compute, clouddriverUserAgentApplicationName, project)
   }
 
   def executeIfRequestsAreQueued(GoogleBatchRequest googleBatchRequest, String instrumentationContext) {
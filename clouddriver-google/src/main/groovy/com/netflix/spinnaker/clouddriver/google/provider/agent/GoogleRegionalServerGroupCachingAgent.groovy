@@ -42,6 +42,7 @@ import com.netflix.spinnaker.clouddriver.google.model.GoogleDistributionPolicy
 import com.netflix.spinnaker.clouddriver.google.model.GoogleInstance
 import com.netflix.spinnaker.clouddriver.google.model.GoogleServerGroup
 import com.netflix.spinnaker.clouddriver.google.model.callbacks.Utils
+import com.netflix.spinnaker.clouddriver.google.provider.agent.util.GoogleInstanceIndex
 import com.netflix.spinnaker.clouddriver.google.provider.agent.util.PaginatedRequest
 import com.netflix.spinnaker.clouddriver.google.security.GoogleNamedAccountCredentials
 import com.netflix.spinnaker.moniker.Moniker
@@ -58,6 +59,7 @@ import static com.netflix.spinnaker.clouddriver.google.cache.Keys.Namespace.*
 class GoogleRegionalServerGroupCachingAgent extends AbstractGoogleCachingAgent implements OnDemandAgent, GoogleExecutorTraits {
   final String region
   final long maxMIGPageSize
+  final boolean aggregatedServerGroupCaching
 
   final Set<AgentDataType> providedDataTypes = [
     AUTHORITATIVE.forType(SERVER_GROUPS.ns),
@@ -75,13 +77,15 @@ class GoogleRegionalServerGroupCachingAgent extends AbstractGoogleCachingAgent i
                                         ObjectMapper objectMapper,
                                         Registry registry,
                                         String region,
-                                        long maxMIGPageSize) {
+                                        long maxMIGPageSize,
+                                        boolean aggregatedServerGroupCaching = false) {
     super(clouddriverUserAgentApplicationName,
           credentials,
           objectMapper,
           registry)
     this.region = region
     this.maxMIGPageSize = maxMIGPageSize
+    this.aggregatedServerGroupCaching = aggregatedServerGroupCaching
     this.metricsSupport = new OnDemandMetricsSupport(
       registry,
       this,
@@ -133,8 +137,9 @@ class GoogleRegionalServerGroupCachingAgent extends AbstractGoogleCachingAgent i
     GoogleBatchRequest instanceGroupsRequest = buildGoogleBatchRequest()
     GoogleBatchRequest autoscalerRequest = buildGoogleBatchRequest()
 
-    List<InstanceTemplate> instanceTemplates = GoogleZonalServerGroupCachingAgent.fetchInstanceTemplates(cachingAgent, compute, project)
-    List<GoogleInstance> instances = GCEUtil.fetchInstances(this, credentials)
+    Map<String, InstanceTemplate> instanceTemplates = GoogleZonalServerGroupCachingAgent.indexInstanceTemplates(
+      GoogleZonalServerGroupCachingAgent.fetchInstanceTemplates(cachingAgent, compute, project))
+    GoogleInstanceIndex instances = GoogleInstanceIndex.byRegion(GCEUtil.fetchInstances(this, credentials))
 
     InstanceGroupManagerCallbacks instanceGroupManagerCallbacks = new InstanceGroupManagerCallbacks(
       providerCache: providerCache,
@@ -164,6 +169,13 @@ class GoogleRegionalServerGroupCachingAgent extends AbstractGoogleCachingAgent i
       }.queue(igmRequest, igmlCallback, "RegionalServerGroupCaching.igm")
     }
     executeIfRequestsAreQueued(igmRequest, "RegionalServerGroupCaching.igm")
+    if (aggregatedServerGroupCaching && !onDemandServerGroupName && serverGroups) {
+      // Every page of managed instance groups has been handled once the request above returns, so the autoscalers of
+      // all of them can be joined with a single aggregated list.
+      def autoscalerCallback = new AutoscalerAggregatedListCallback(serverGroups: serverGroups)
+      buildAutoscalerListRequest("region eq .*/regions/$region").queue(autoscalerRequest, autoscalerCallback,
+        'GoogleRegionalServerGroupCachingAgent.autoscalerAggregatedList')
+    }
     executeIfRequestsAreQueued(instanceGroupsRequest, "RegionalServerGroupCaching.instanceGroups")
     executeIfRequestsAreQueued(autoscalerRequest, "RegionalServerGroupCaching.autoscaler")
 
@@ -358,20 +370,20 @@ class GoogleRegionalServerGroupCachingAgent extends AbstractGoogleCachingAgent i
     String region
     GoogleBatchRequest instanceGroupsRequest
     GoogleBatchRequest autoscalerRequest
-    List<GoogleInstance> instances
+    GoogleInstanceIndex instances
 
-    InstanceGroupManagerSingletonCallback<InstanceGroupManager> newInstanceGroupManagerSingletonCallback(List<InstanceTemplate> instanceTemplates, List<GoogleInstance> instances) {
+    InstanceGroupManagerSingletonCallback<InstanceGroupManager> newInstanceGroupManagerSingletonCallback(Map<String, InstanceTemplate> instanceTemplates, GoogleInstanceIndex instances) {
       return new InstanceGroupManagerSingletonCallback<InstanceGroupManager>(instanceTemplates: instanceTemplates, instances: instances)
     }
 
-    InstanceGroupManagerListCallback<RegionInstanceGroupManagerList> newInstanceGroupManagerListCallback(List<InstanceTemplate> instanceTemplates, List<GoogleInstance> instances) {
+    InstanceGroupManagerListCallback<RegionInstanceGroupManagerList> newInstanceGroupManagerListCallback(Map<String, InstanceTemplate> instanceTemplates, GoogleInstanceIndex instances) {
       return new InstanceGroupManagerListCallback<RegionInstanceGroupManagerList>(instanceTemplates: instanceTemplates, instances: instances)
     }
 
     class InstanceGroupManagerSingletonCallback<InstanceGroupManager> extends JsonBatchCallback<InstanceGroupManager> {
 
-      List<InstanceTemplate> instanceTemplates
-      List<GoogleInstance> instances
+      Map<String, InstanceTemplate> instanceTemplates
+      GoogleInstanceIndex instances
 
       @Override
       void onFailure(GoogleJsonError e, HttpHeaders responseHeaders) throws IOException {
@@ -398,8 +410,8 @@ class GoogleRegionalServerGroupCachingAgent extends AbstractGoogleCachingAgent i
 
     class InstanceGroupManagerListCallback<RegionInstanceGroupManagerList> extends JsonBatchCallback<RegionInstanceGroupManagerList> implements FailureLogger {
 
-      List<InstanceTemplate> instanceTemplates
-      List<GoogleInstance> instances
+      Map<String, InstanceTemplate> instanceTemplates
+      GoogleInstanceIndex instances
 
       @Override
       void onSuccess(RegionInstanceGroupManagerList instanceGroupManagerList, HttpHeaders responseHeaders) throws IOException {
@@ -412,20 +424,22 @@ class GoogleRegionalServerGroupCachingAgent extends AbstractGoogleCachingAgent i
           }
         }
 
-        def autoscalerCallback = new AutoscalerAggregatedListCallback(serverGroups: serverGroups)
-        buildAutoscalerListRequest().queue(autoscalerRequest, autoscalerCallback,
-          'GoogleRegionalServerGroupCachingAgent.autoscalerAggregatedList')
+        if (!aggregatedServerGroupCaching) {
+          def autoscalerCallback = new AutoscalerAggregatedListCallback(serverGroups: serverGroups)
+          buildAutoscalerListRequest().queue(autoscalerRequest, autoscalerCallback,
+            'GoogleRegionalServerGroupCachingAgent.autoscalerAggregatedList')
+        }
       }
     }
 
     GoogleServerGroup buildServerGroupFromInstanceGroupManager(InstanceGroupManager instanceGroupManager,
-                                                               List<GoogleInstance> instances) {
+                                                               GoogleInstanceIndex instances) {
 
       DistributionPolicy distributionPolicy = instanceGroupManager?.getDistributionPolicy()
       // The distribution policy zones are URLs.
       List<String> zones = distributionPolicy?.getZones()?.collect { Utils.getLocalName(it.getZone()) }
 
-      List<GoogleInstance> groupInstances = instances.findAll { it.getName().startsWith(instanceGroupManager.getBaseInstanceName()) && it.getRegion() == region }
+      List<GoogleInstance> groupInstances = instances.findByNamePrefix(region, instanceGroupManager.getBaseInstanceName())
 
       Map<String, Integer> namedPorts = [:]
       instanceGroupManager.namedPorts.each { namedPorts[(it.name)] = it.port }
@@ -449,12 +463,12 @@ class GoogleRegionalServerGroupCachingAgent extends AbstractGoogleCachingAgent i
     }
 
     void populateInstanceTemplate(ProviderCache providerCache, InstanceGroupManager instanceGroupManager,
-                                  GoogleServerGroup serverGroup, List<InstanceTemplate> instanceTemplates) {
+                                  GoogleServerGroup serverGroup, Map<String, InstanceTemplate> instanceTemplates) {
       String instanceTemplateName = Utils.getLocalName(instanceGroupManager.instanceTemplate)
       List<String> loadBalancerNames =
         Utils.deriveNetworkLoadBalancerNamesFromTargetPoolUrls(instanceGroupManager.getTargetPools())
 
-      InstanceTemplate template = instanceTemplates.find { it -> it.getName() == instanceTemplateName }
+      InstanceTemplate template = instanceTemplates[instanceTemplateName]
       GoogleZonalServerGroupCachingAgent.populateServerGroupWithTemplate(serverGroup, providerCache, loadBalancerNames,
           template, accountName, project, objectMapper)
       def instanceMetadata = template?.properties?.metadata
@@ -498,15 +512,17 @@ class GoogleRegionalServerGroupCachingAgent extends AbstractGoogleCachingAgent i
 
     @Override
     void onSuccess(AutoscalerAggregatedList autoscalerAggregatedList, HttpHeaders responseHeaders) throws IOException {
+      Map<String, GoogleServerGroup> serverGroupsByRegionAndName = serverGroups.collectEntries {
+        [("$it.region/$it.name".toString()): it]
+      }
+
       autoscalerAggregatedList?.items?.each { String location, AutoscalersScopedList autoscalersScopedList ->
         if (location.startsWith("regions/")) {
           def region = Utils.getLocalName(location)
 
           autoscalersScopedList.autoscalers.each { Autoscaler autoscaler ->
             def migName = Utils.getLocalName(autoscaler.target as String)
-            def serverGroup = serverGroups.find {
-              it.name == migName && it.region == region
-            }
+            def serverGroup = serverGroupsByRegionAndName["$region/$migName".toString()]
 
             if (serverGroup) {
               serverGroup.autoscalingPolicy = autoscaler.getAutoscalingPolicy()
@@ -525,7 +541,7 @@ class GoogleRegionalServerGroupCachingAgent extends AbstractGoogleCachingAgent i
     }
   }
 
-  PaginatedRequest<AutoscalerAggregatedList> buildAutoscalerListRequest() {
+  PaginatedRequest<AutoscalerAggregatedList> buildAutoscalerListRequest(String filter = null) {
     return new PaginatedRequest<AutoscalerAggregatedList>(this) {
       @Override
       protected String getNextPageToken(AutoscalerAggregatedList autoscalerAggregatedList) {
@@ -534,7 +550,7 @@ class GoogleRegionalServerGroupCachingAgent extends AbstractGoogleCachingAgent i
 
       @Override
       protected ComputeRequest<AutoscalerAggregatedList> request(String pageToken) {
-        return compute.autoscalers().aggregatedList(project).setPageToken(pageToken)
+        return compute.autoscalers().aggregatedList(project).setFilter(filter).setPageToken(pageToken)
       }
     }
   }
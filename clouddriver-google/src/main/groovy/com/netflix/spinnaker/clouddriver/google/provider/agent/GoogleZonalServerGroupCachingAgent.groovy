@@ -45,6 +45,7 @@ import com.netflix.spinnaker.clouddriver.google.model.GoogleInstance
 import com.netflix.spinnaker.clouddriver.google.model.GoogleServerGroup
 import com.netflix.spinnaker.clouddriver.google.model.callbacks.Utils
 import com.netflix.spinnaker.clouddriver.google.model.loadbalancing.GoogleHttpLoadBalancingPolicy
+import com.netflix.spinnaker.clouddriver.google.provider.agent.util.GoogleInstanceIndex
 import com.netflix.spinnaker.clouddriver.google.provider.agent.util.PaginatedRequest
 import com.netflix.spinnaker.clouddriver.google.security.AccountForClient
 import com.netflix.spinnaker.clouddriver.google.security.GoogleNamedAccountCredentials
@@ -64,6 +65,7 @@ class GoogleZonalServerGroupCachingAgent extends AbstractGoogleCachingAgent impl
 
   final String region
   final long maxMIGPageSize
+  final boolean aggregatedServerGroupCaching
 
   final Set<AgentDataType> providedDataTypes = [
     AUTHORITATIVE.forType(SERVER_GROUPS.ns),
@@ -81,13 +83,15 @@ class GoogleZonalServerGroupCachingAgent extends AbstractGoogleCachingAgent impl
                                      ObjectMapper objectMapper,
                                      Registry registry,
                                      String region,
-                                     long maxMIGPageSize) {
+                                     long maxMIGPageSize,
+                                     boolean aggregatedServerGroupCaching = false) {
     super(clouddriverUserAgentApplicationName,
           credentials,
           objectMapper,
           registry)
     this.region = region
     this.maxMIGPageSize = maxMIGPageSize
+    this.aggregatedServerGroupCaching = aggregatedServerGroupCaching
     this.metricsSupport = new OnDemandMetricsSupport(
       registry,
       this,
@@ -140,8 +144,48 @@ class GoogleZonalServerGroupCachingAgent extends AbstractGoogleCachingAgent impl
     GoogleBatchRequest instanceGroupsRequest = buildGoogleBatchRequest()
     GoogleBatchRequest autoscalerRequest = buildGoogleBatchRequest()
 
-    List<InstanceTemplate> instanceTemplates = fetchInstanceTemplates(cachingAgent, compute, project)
-    List<GoogleInstance> instances = GCEUtil.fetchInstances(this, credentials)
+    Map<String, InstanceTemplate> instanceTemplates = indexInstanceTemplates(fetchInstanceTemplates(cachingAgent, compute, project))
+    GoogleInstanceIndex instances = GoogleInstanceIndex.byZone(GCEUtil.fetchInstances(this, credentials))
+
+    if (aggregatedServerGroupCaching && !onDemandServerGroupName) {
+      InstanceGroupManagerCallbacks instanceGroupManagerCallbacks = new InstanceGroupManagerCallbacks(
+        providerCache: providerCache,
+        serverGroups: serverGroups,
+        instanceGroupsRequest: instanceGroupsRequest,
+        autoscalerRequest: autoscalerRequest,
+        instances: instances)
+      InstanceGroupManagerCallbacks.InstanceGroupManagerAggregatedListCallback igmalCallback =
+        instanceGroupManagerCallbacks.newInstanceGroupManagerAggregatedListCallback(instanceTemplates, instances, zones as Set)
+      // Only this region's zones are listed, so the agents of other regions don't each page through the whole project.
+      String zonesFilter = buildZonesFilter(zones)
+      new PaginatedRequest<InstanceGroupManagerAggregatedList>(cachingAgent) {
+        @Override
+        ComputeRequest<InstanceGroupManagerAggregatedList> request(String pageToken) {
+          return compute.instanceGroupManagers().aggregatedList(project)
+            .setFilter(zonesFilter)
+            .setMaxResults(maxMIGPageSize)
+            .setPageToken(pageToken)
+        }
+
+        @Override
+        String getNextPageToken(InstanceGroupManagerAggregatedList instanceGroupManagerAggregatedList) {
+          return instanceGroupManagerAggregatedList.getNextPageToken()
+        }
+      }.queue(igmRequest, igmalCallback, "ZonalServerGroupCaching.igm")
+      executeIfRequestsAreQueued(igmRequest, "ZonalServerGroupCaching.igm")
+
+      // Every page of managed instance groups has been handled once the request above returns, so the autoscalers of
+      // all of them can be joined with a single aggregated list.
+      if (serverGroups) {
+        def autoscalerCallback = new AutoscalerAggregatedListCallback(serverGroups: serverGroups)
+        buildAutoscalerListRequest(zonesFilter).queue(autoscalerRequest, autoscalerCallback,
+          'GoogleZonalServerGroupCachingAgent.autoscalerAggregatedList')
+      }
+      executeIfRequestsAreQueued(instanceGroupsRequest, "ZonalServerGroupCaching.instanceGroups")
+      executeIfRequestsAreQueued(autoscalerRequest, "ZonalServerGroupCaching.autoscaler")
+
+      return serverGroups
+    }
 
     zones?.each { String zone ->
       InstanceGroupManagerCallbacks instanceGroupManagerCallbacks = new InstanceGroupManagerCallbacks(
@@ -178,6 +222,13 @@ class GoogleZonalServerGroupCachingAgent extends AbstractGoogleCachingAgent impl
     serverGroups
   }
 
+  /**
+   * Returns a filter for aggregated lists that only matches resources in `zones`, or null to list every zone.
+   */
+  static String buildZonesFilter(List<String> zones) {
+    zones ? "zone eq .*/zones/(${zones.join('|')})" : null
+  }
+
   static List<InstanceTemplate> fetchInstanceTemplates(AbstractGoogleCachingAgent cachingAgent, Compute compute, String project) {
     List<InstanceTemplate> instanceTemplates = new PaginatedRequest<InstanceTemplateList>(cachingAgent) {
       @Override
@@ -198,6 +249,10 @@ class GoogleZonalServerGroupCachingAgent extends AbstractGoogleCachingAgent impl
     return instanceTemplates
   }
 
+  static Map<String, InstanceTemplate> indexInstanceTemplates(List<InstanceTemplate> instanceTemplates) {
+    return instanceTemplates?.collectEntries { [(it.getName()): it] } ?: [:]
+  }
+
   @Override
   boolean handles(OnDemandType type, String cloudProvider) {
     type == OnDemandType.ServerGroup && cloudProvider == GoogleCloudProvider.ID
@@ -400,20 +455,24 @@ class GoogleZonalServerGroupCachingAgent extends AbstractGoogleCachingAgent impl
     String zone
     GoogleBatchRequest instanceGroupsRequest
     GoogleBatchRequest autoscalerRequest
-    List<GoogleInstance> instances
+    GoogleInstanceIndex instances
 
-    InstanceGroupManagerSingletonCallback<InstanceGroupManager> newInstanceGroupManagerSingletonCallback(List<InstanceTemplate> instanceTemplates, List<GoogleInstance> instances) {
+    InstanceGroupManagerSingletonCallback<InstanceGroupManager> newInstanceGroupManagerSingletonCallback(Map<String, InstanceTemplate> instanceTemplates, GoogleInstanceIndex instances) {
       return new InstanceGroupManagerSingletonCallback<InstanceGroupManager>(instanceTemplates: instanceTemplates, instances: instances)
     }
 
-    InstanceGroupManagerListCallback<InstanceGroupManagerList> newInstanceGroupManagerListCallback(List<InstanceTemplate> instanceTemplates, List<GoogleInstance> instances) {
+    InstanceGroupManagerListCallback<InstanceGroupManagerList> newInstanceGroupManagerListCallback(Map<String, InstanceTemplate> instanceTemplates, GoogleInstanceIndex instances) {
       return new InstanceGroupManagerListCallback<InstanceGroupManagerList>(instanceTemplates: instanceTemplates, instances: instances)
     }
 
+    InstanceGroupManagerAggregatedListCallback<InstanceGroupManagerAggregatedList> newInstanceGroupManagerAggregatedListCallback(Map<String, InstanceTemplate> instanceTemplates, GoogleInstanceIndex instances, Set<String> zones) {
+      return new InstanceGroupManagerAggregatedListCallback<InstanceGroupManagerAggregatedList>(instanceTemplates: instanceTemplates, instances: instances, zones: zones)
+    }
+
     class InstanceGroupManagerSingletonCallback<InstanceGroupManager> extends JsonBatchCallback<InstanceGroupManager> {
 
-      List<InstanceTemplate> instanceTemplates
-      List<GoogleInstance> instances
+      Map<String, InstanceTemplate> instanceTemplates
+      GoogleInstanceIndex instances
 
       @Override
       void onFailure(GoogleJsonError e, HttpHeaders responseHeaders) throws IOException {
@@ -440,8 +499,8 @@ class GoogleZonalServerGroupCachingAgent extends AbstractGoogleCachingAgent impl
 
     class InstanceGroupManagerListCallback<InstanceGroupManagerList> extends JsonBatchCallback<InstanceGroupManagerList> implements FailureLogger {
 
-      List<InstanceTemplate> instanceTemplates
-      List<GoogleInstance> instances
+      Map<String, InstanceTemplate> instanceTemplates
+      GoogleInstanceIndex instances
 
       @Override
       void onSuccess(InstanceGroupManagerList instanceGroupManagerList, HttpHeaders responseHeaders) throws IOException {
@@ -460,9 +519,36 @@ class GoogleZonalServerGroupCachingAgent extends AbstractGoogleCachingAgent impl
       }
     }
 
-    GoogleServerGroup buildServerGroupFromInstanceGroupManager(InstanceGroupManager instanceGroupManager, List<GoogleInstance> instances) {
+    class InstanceGroupManagerAggregatedListCallback<InstanceGroupManagerAggregatedList> extends JsonBatchCallback<InstanceGroupManagerAggregatedList> implements FailureLogger {
+
+      Map<String, InstanceTemplate> instanceTemplates
+      GoogleInstanceIndex instances
+      Set<String> zones
+
+      @Override
+      void onSuccess(InstanceGroupManagerAggregatedList instanceGroupManagerAggregatedList, HttpHeaders responseHeaders) throws IOException {
+        instanceGroupManagerAggregatedList?.items?.each { String location, InstanceGroupManagersScopedList scopedList ->
+          // Regional managed instance groups are cached by GoogleRegionalServerGroupCachingAgent, and zones in other
+          // regions by their own agents.
+          if (!location.startsWith("zones/") || !zones?.contains(Utils.getLocalName(location))) {
+            return
+          }
+
+          scopedList.instanceGroupManagers?.each { InstanceGroupManager instanceGroupManager ->
+            if (Names.parseName(instanceGroupManager.name)) {
+              GoogleServerGroup serverGroup = buildServerGroupFromInstanceGroupManager(instanceGroupManager, instances)
+              serverGroups << serverGroup
+
+              populateInstanceTemplate(providerCache, instanceGroupManager, serverGroup, instanceTemplates)
+            }
+          }
+        }
+      }
+    }
+
+    GoogleServerGroup buildServerGroupFromInstanceGroupManager(InstanceGroupManager instanceGroupManager, GoogleInstanceIndex instances) {
       String zone = Utils.getLocalName(instanceGroupManager.zone)
-      List<GoogleInstance> groupInstances = instances.findAll { it.getName().startsWith(instanceGroupManager.getBaseInstanceName()) && it.getZone() == zone }
+      List<GoogleInstance> groupInstances = instances.findByNamePrefix(zone, instanceGroupManager.getBaseInstanceName())
 
       Map<String, Integer> namedPorts = [:]
       instanceGroupManager.namedPorts.each { namedPorts[(it.name)] = it.port }
@@ -486,11 +572,11 @@ class GoogleZonalServerGroupCachingAgent extends AbstractGoogleCachingAgent impl
     }
 
     void populateInstanceTemplate(ProviderCache providerCache, InstanceGroupManager instanceGroupManager,
-                                  GoogleServerGroup serverGroup, List<InstanceTemplate> instanceTemplates) {
+                                  GoogleServerGroup serverGroup, Map<String, InstanceTemplate> instanceTemplates) {
       String instanceTemplateName = Utils.getLocalName(instanceGroupManager.instanceTemplate)
       List<String> loadBalancerNames =
         Utils.deriveNetworkLoadBalancerNamesFromTargetPoolUrls(instanceGroupManager.getTargetPools())
-      InstanceTemplate template = instanceTemplates.find { it -> it.getName() == instanceTemplateName }
+      InstanceTemplate template = instanceTemplates[instanceTemplateName]
       populateServerGroupWithTemplate(serverGroup, providerCache, loadBalancerNames, template, accountName, project, objectMapper)
     }
   }
@@ -678,6 +764,9 @@ class GoogleZonalServerGroupCachingAgent extends AbstractGoogleCachingAgent impl
 
     @Override
     void onSuccess(AutoscalerAggregatedList autoscalerAggregatedList, HttpHeaders responseHeaders) throws IOException {
+      Map<String, GoogleServerGroup> serverGroupsByRegionAndName = serverGroups.collectEntries {
+        [("$it.region/$it.name".toString()): it]
+      }
 
       autoscalerAggregatedList?.items?.each { String location, AutoscalersScopedList autoscalersScopedList ->
         if (location.startsWith("zones/")) {
@@ -686,9 +775,7 @@ class GoogleZonalServerGroupCachingAgent extends AbstractGoogleCachingAgent impl
 
           autoscalersScopedList.autoscalers.each { Autoscaler autoscaler ->
             def migName = Utils.getLocalName(autoscaler.target as String)
-            def serverGroup = serverGroups.find {
-              it.name == migName && it.region == region
-            }
+            def serverGroup = serverGroupsByRegionAndName["$region/$migName".toString()]
 
             if (serverGroup) {
               serverGroup.autoscalingPolicy = autoscaler.getAutoscalingPolicy()
@@ -707,7 +794,7 @@ class GoogleZonalServerGroupCachingAgent extends AbstractGoogleCachingAgent impl
     }
   }
 
-  PaginatedRequest<AutoscalerAggregatedList> buildAutoscalerListRequest() {
+  PaginatedRequest<AutoscalerAggregatedList> buildAutoscalerListRequest(String filter = null) {
     return new PaginatedRequest<AutoscalerAggregatedList>(this) {
       @Override
       protected String getNextPageToken(AutoscalerAggregatedList autoscalerAggregatedList) {
@@ -716,7 +803,7 @@ class GoogleZonalServerGroupCachingAgent extends AbstractGoogleCachingAgent impl
 
       @Override
       protected ComputeRequest<AutoscalerAggregatedList> request(String pageToken) {
-        return compute.autoscalers().aggregatedList(project).setPageToken(pageToken)
+        return compute.autoscalers().aggregatedList(project).setFilter(filter).setPageToken(pageToken)
       }
     }
   }
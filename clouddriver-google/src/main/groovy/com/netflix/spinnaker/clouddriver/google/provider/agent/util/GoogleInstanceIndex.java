@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.google.provider.agent.util;
+
+import com.netflix.spinnaker.clouddriver.google.model.GoogleInstance;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Indexes instances by location (zone or region) and name so the instances of a managed instance
+ * group can be found from its base instance name without scanning every instance in the project.
+ */
+public class GoogleInstanceIndex {
+  private final Map<String, NavigableMap<String, List<GoogleInstance>>> instancesByLocation =
+      new HashMap<>();
+
+  public GoogleInstanceIndex(
+      Collection<GoogleInstance> instances, Function<GoogleInstance, String> locationOf) {
+    for (GoogleInstance instance : instances) {
+      instancesByLocation
+          .computeIfAbsent(locationOf.apply(instance), l -> new TreeMap<>())
+          .computeIfAbsent(instance.getName(), n -> new ArrayList<>(1))
+          .add(instance);
+    }
+  }
+
+  public static GoogleInstanceIndex byZone(Collection<GoogleInstance> instances) {
+    return new GoogleInstanceIndex(instances, GoogleInstance::getZone);
+  }
+
+  public static GoogleInstanceIndex byRegion(Collection<GoogleInstance> instances) {
+    return new GoogleInstanceIndex(instances, GoogleInstance::getRegion);
+  }
+
+  /** Returns the instances in `location` whose name starts with `prefix`. */
+  public List<GoogleInstance> findByNamePrefix(String location, String prefix) {
+    NavigableMap<String, List<GoogleInstance>> instancesByName = instancesByLocation.get(location);
+    if (instancesByName == null || prefix == null) {
+      return Collections.emptyList();
+    }
+
+    // every name starting with the prefix sorts between the prefix itself and the prefix followed
+    // by the largest char
+    List<GoogleInstance> result = new ArrayList<>();
+    instancesByName
+        .subMap(prefix, true, prefix + Character.MAX_VALUE, true)
+        .values()
+        .forEach(result::addAll);
+    return result;
+  }
+}
@@ -26,6 +26,7 @@ import com.netflix.spinnaker.clouddriver.google.provider.GoogleInfrastructurePro
 import com.netflix.spinnaker.clouddriver.google.provider.agent.*
 import com.netflix.spinnaker.clouddriver.google.security.GoogleNamedAccountCredentials
 import com.netflix.spinnaker.clouddriver.security.AccountCredentialsRepository
+import com.netflix.spinnaker.clouddriver.security.ParallelAccountInitializer
 import com.netflix.spinnaker.clouddriver.security.ProviderUtils
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.context.properties.EnableConfigurationProperties
@@ -40,6 +41,9 @@ class GoogleInfrastructureProviderConfig {
 
   @Autowired Registry registry
 
+  @Autowired(required = false)
+  ParallelAccountInitializer parallelAccountInitializer
+
   @Bean
   @DependsOn('googleNamedAccountCredentials')
   GoogleInfrastructureProvider googleInfrastructureProvider(String clouddriverUserAgentApplicationName,
@@ -57,6 +61,19 @@ class GoogleInfrastructureProviderConfig {
                                             objectMapper,
                                             registry)
 
+    // Accounts that were slow or failed at startup are initialized in the background; schedule their agents once
+    // they have been added to the repository.
+    parallelAccountInitializer?.onActivation("Google") { String accountName ->
+      synchronized (googleInfrastructureProvider) {
+        synchronizeGoogleInfrastructureProvider(clouddriverUserAgentApplicationName,
+                                                googleConfigurationProperties,
+                                                googleInfrastructureProvider,
+                                                accountCredentialsRepository,
+                                                objectMapper,
+                                                registry)
+      }
+    }
+
     googleInfrastructureProvider
   }
 
@@ -159,13 +176,15 @@ class GoogleInfrastructureProviderConfig {
                                                                         objectMapper,
                                                                         registry,
                                                                         region,
-                                                                        googleConfigurationProperties.maxMIGPageSize)
+                                                                        googleConfigurationProperties.maxMIGPageSize,
+                                                                        googleConfigurationProperties.aggregatedServerGroupCaching)
           newlyAddedAgents << new GoogleZonalServerGroupCachingAgent(clouddriverUserAgentApplicationName,
                                                                      credentials,
                                                                      objectMapper,
                                                                      registry,
                                                                      region,
-                                                                     googleConfigurationProperties.maxMIGPageSize)
+                                                                     googleConfigurationProperties.maxMIGPageSize,
+                                                                     googleConfigurationProperties.aggregatedServerGroupCaching)
         }
 
         // If there is an agent scheduler, then this provider has been through the AgentController in the past.
@@ -24,7 +24,9 @@ import com.netflix.spinnaker.config.GoogleConfiguration.DeployDefaults
 import com.netflix.spinnaker.clouddriver.google.config.GoogleConfigurationProperties
 import com.netflix.spinnaker.clouddriver.google.GoogleExecutor
 import com.netflix.spinnaker.clouddriver.security.AccountCredentialsRepository
+import com.netflix.spinnaker.clouddriver.security.ParallelAccountInitializer
 import com.netflix.spinnaker.clouddriver.security.ProviderUtils
+import com.netflix.spinnaker.clouddriver.security.config.CredentialsInitializationProperties
 import com.netflix.spinnaker.kork.configserver.ConfigFileService
 import groovy.util.logging.Slf4j
 import org.springframework.beans.factory.annotation.Autowired
@@ -41,6 +43,9 @@ class GoogleCredentialsInitializer {
   @Autowired
   NamerRegistry namerRegistry
 
+  @Autowired(required = false)
+  ParallelAccountInitializer parallelAccountInitializer
+
   @Bean
   GoogleExecutor initGoogleExecutor() {  // This is to satisfy the autowiring
     return new GoogleExecutor()
@@ -71,40 +76,34 @@ class GoogleCredentialsInitializer {
                                            GoogleNamedAccountCredentials,
                                            googleConfigurationProperties.accounts)
 
-    accountsToAdd.each { GoogleConfigurationProperties.ManagedAccount managedAccount ->
-      try {
-        def jsonKey = configFileService.getContents(managedAccount.getJsonPath())
-        def googleAccount = new GoogleNamedAccountCredentials.Builder()
-            .name(managedAccount.name)
-            .environment(managedAccount.environment ?: managedAccount.name)
-            .accountType(managedAccount.accountType ?: managedAccount.name)
-            .project(managedAccount.project)
-            .computeVersion(managedAccount.alphaListed ? ComputeVersion.ALPHA : ComputeVersion.DEFAULT)
-            .jsonKey(jsonKey)
-            .serviceAccountId(managedAccount.serviceAccountId)
-            .serviceAccountProject(managedAccount.serviceAccountProject)
-            .imageProjects(managedAccount.imageProjects)
-            .requiredGroupMembership(managedAccount.requiredGroupMembership)
-            .permissions(managedAccount.permissions.build())
-            .applicationName(clouddriverUserAgentApplicationName)
-            .consulConfig(managedAccount.consul)
-            .instanceTypeDisks(googleDeployDefaults.instanceTypeDisks)
-            .userDataFile(managedAccount.userDataFile)
-            .regionsToManage(managedAccount.regions, googleConfigurationProperties.defaultRegions)
-            .namer(namerRegistry.getNamingStrategy(managedAccount.namingStrategy))
-            .build()
-
-        if (!managedAccount.project) {
-          throw new IllegalArgumentException("No project was specified for Google account $managedAccount.name.");
-        }
-
-        accountCredentialsRepository.save(managedAccount.name, googleAccount)
-      } catch (e) {
-        log.error "Could not load account ${managedAccount.name} for Google.", e
-        if (managedAccount.required) {
-          throw new IllegalArgumentException("Could not load required account ${managedAccount.name} for Google.", e)
-        }
+    def initializer = parallelAccountInitializer ?: new ParallelAccountInitializer(new CredentialsInitializationProperties())
+    initializer.initialize("Google", accountsToAdd, { it.name }, { it.required }) { GoogleConfigurationProperties.ManagedAccount managedAccount ->
+      def jsonKey = configFileService.getContents(managedAccount.getJsonPath())
+      def googleAccount = new GoogleNamedAccountCredentials.Builder()
+          .name(managedAccount.name)
+          .environment(managedAccount.environment ?: managedAccount.name)
+          .accountType(managedAccount.accountType ?: managedAccount.name)
+          .project(managedAccount.project)
+          .computeVersion(managedAccount.alphaListed ? ComputeVersion.ALPHA : ComputeVersion.DEFAULT)
+          .jsonKey(jsonKey)
+          .serviceAccountId(managedAccount.serviceAccountId)
+          .serviceAccountProject(managedAccount.serviceAccountProject)
+          .imageProjects(managedAccount.imageProjects)
+          .requiredGroupMembership(managedAccount.requiredGroupMembership)
+          .permissions(managedAccount.permissions.build())
+          .applicationName(clouddriverUserAgentApplicationName)
+          .consulConfig(managedAccount.consul)
+          .instanceTypeDisks(googleDeployDefaults.instanceTypeDisks)
+          .userDataFile(managedAccount.userDataFile)
+          .regionsToManage(managedAccount.regions, googleConfigurationProperties.defaultRegions)
+          .namer(namerRegistry.getNamingStrategy(managedAccount.namingStrategy))
+          .build()
+
+      if (!managedAccount.project) {
+        throw new IllegalArgumentException("No project was specified for Google account $managedAccount.name.");
       }
+
+      accountCredentialsRepository.save(managedAccount.name, googleAccount)
     }
 
     ProviderUtils.unscheduleAndDeregisterAgents(namesOfDeletedAccounts, catsModule)
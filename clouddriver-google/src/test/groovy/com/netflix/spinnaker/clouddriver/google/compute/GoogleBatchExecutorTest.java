@@ -0,0 +1,365 @@
+/*
+ * Copyright 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.google.compute;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.compute.Compute;
+import com.google.api.services.compute.model.Image;
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.clouddriver.google.compute.GoogleBatchExecutor.AdaptiveConcurrencyLimit;
+import com.netflix.spinnaker.clouddriver.google.compute.GoogleBatchExecutor.QueuedRequest;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class GoogleBatchExecutorTest {
+
+  private static final String PROJECT = "my-project";
+  private static final String USER_AGENT = "spinnaker-test";
+  private static final String MIME_BOUNDARY = "batch_foobarbaz";
+  private static final String MIME_PART_START = "--batch_foobarbaz\n";
+  private static final String MIME_END = "--batch_foobarbaz--\n";
+  private static final String BATCH_CONTENT_TYPE = "multipart/mixed; boundary=" + MIME_BOUNDARY;
+
+  private Registry registry;
+
+  @Before
+  public void setUp() {
+    registry = new DefaultRegistry();
+  }
+
+  @Test
+  public void splitsRequestsIntoFullBatches() throws IOException {
+    Compute compute =
+        computeWithResponses(
+            successBatchResponse(GoogleBatchExecutor.MAX_BATCH_SIZE),
+            successBatchResponse(GoogleBatchExecutor.MAX_BATCH_SIZE),
+            successBatchResponse(37));
+    GoogleBatchExecutor executor = new GoogleBatchExecutor(registry, 1);
+
+    CountResponses responses = new CountResponses();
+    executor.execute(
+        PROJECT,
+        compute,
+        USER_AGENT,
+        requests(compute, responses, GoogleBatchExecutor.MAX_BATCH_SIZE * 2 + 37));
+
+    assertThat(responses.successes).hasValue(GoogleBatchExecutor.MAX_BATCH_SIZE * 2 + 37);
+    assertThat(responses.failures).hasValue(0);
+    assertThat(registry.distributionSummary("google.batch.fillRatio", "project", PROJECT).count())
+        .isEqualTo(3);
+  }
+
+  @Test
+  public void reducesConcurrencyWhenRateLimited() throws IOException {
+    StringBuilder content = new StringBuilder();
+    appendSuccessResponse(content);
+    appendRateLimitedResponse(content);
+    content.append(MIME_END);
+
+    Compute compute = computeWithResponses(batchResponse(content.toString()));
+    GoogleBatchExecutor executor = new GoogleBatchExecutor(registry, 8);
+
+    CountResponses responses = new CountResponses();
+    executor.execute(PROJECT, compute, USER_AGENT, requests(compute, responses, 2));
+
+    assertThat(responses.successes).hasValue(1);
+    assertThat(responses.failures).hasValue(1);
+    assertThat(executor.getConcurrencyLimit(PROJECT)).isEqualTo(4);
+    assertThat(registry.counter("google.batch.rateLimited", "project", PROJECT).count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void reducesConcurrencyWhenTheWholeBatchIsRateLimited() throws IOException {
+    Compute compute =
+        computeWithResponses(
+            errorResponse(
+                403,
+                "{\"error\":{\"code\":403,\"message\":\"Rate Limit Exceeded\","
+                    + "\"errors\":[{\"reason\":\"userRateLimitExceeded\"}]}}"),
+            errorResponse(429, "Too Many Requests"));
+    GoogleBatchExecutor executor = new GoogleBatchExecutor(registry, 8);
+
+    for (int i = 0; i < 2; i++) {
+      assertThatThrownBy(
+              () ->
+                  executor.execute(
+                      PROJECT, compute, USER_AGENT, requests(compute, new CountResponses(), 1)))
+          .isInstanceOf(HttpResponseException.class);
+    }
+
+    assertThat(executor.getConcurrencyLimit(PROJECT)).isEqualTo(2);
+    assertThat(registry.counter("google.batch.rateLimited", "project", PROJECT).count())
+        .isEqualTo(2);
+  }
+
+  @Test
+  public void forbiddenBatchIsNotTreatedAsRateLimited() throws IOException {
+    Compute compute =
+        computeWithResponses(
+            errorResponse(
+                403,
+                "{\"error\":{\"code\":403,\"message\":\"Permission denied\","
+                    + "\"errors\":[{\"reason\":\"forbidden\"}]}}"));
+    GoogleBatchExecutor executor = new GoogleBatchExecutor(registry, 8);
+
+    assertThatThrownBy(
+            () ->
+                executor.execute(
+                    PROJECT, compute, USER_AGENT, requests(compute, new CountResponses(), 1)))
+        .isInstanceOf(HttpResponseException.class);
+
+    assertThat(executor.getConcurrencyLimit(PROJECT)).isEqualTo(8);
+    assertThat(registry.counter("google.batch.rateLimited", "project", PROJECT).count())
+        .isEqualTo(0);
+  }
+
+  @Test
+  public void failsOnlyTheCallerWhoseRequestFailed() throws Exception {
+    CountDownLatch firstBatchSent = new CountDownLatch(1);
+    CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+    Compute compute =
+        new Compute(
+            responses(
+                firstBatchSent,
+                releaseFirstBatch,
+                successBatchResponse(1),
+                successBatchResponse(2)),
+            JacksonFactory.getDefaultInstance(),
+            /* httpRequestInitializer= */ null);
+    GoogleBatchExecutor executor = new GoogleBatchExecutor(registry, 1);
+    ExecutorService callers = Executors.newFixedThreadPool(3);
+
+    try {
+      // occupies the only batch slot, so the next two callers are merged into one batch
+      Future<?> blocker = callers.submit(execute(executor, compute, new CountResponses()));
+      assertThat(firstBatchSent.await(10, TimeUnit.SECONDS)).isTrue();
+      CountResponses healthyResponses = new CountResponses();
+      Future<?> healthy = callers.submit(execute(executor, compute, healthyResponses));
+      Future<?> failing = callers.submit(execute(executor, compute, new ThrowingResponses()));
+
+      while (executor.getPendingCount(PROJECT) < 2) {
+        Thread.sleep(10);
+      }
+      releaseFirstBatch.countDown();
+
+      blocker.get(10, TimeUnit.SECONDS);
+      healthy.get(10, TimeUnit.SECONDS);
+      assertThat(healthyResponses.successes).hasValue(1);
+      assertThatThrownBy(() -> failing.get(10, TimeUnit.SECONDS))
+          .isInstanceOf(ExecutionException.class)
+          .hasRootCauseInstanceOf(IOException.class)
+          .hasMessageContaining("callback failed");
+      assertThat(registry.distributionSummary("google.batch.fillRatio", "project", PROJECT).count())
+          .isEqualTo(2);
+    } finally {
+      callers.shutdownNow();
+    }
+  }
+
+  @Test
+  public void concurrencyLimitRecoversAfterSuccessfulBatches() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8);
+
+    limit.onRateLimited();
+    limit.onRateLimited();
+    assertThat(limit.get()).isEqualTo(2);
+
+    limit.onSuccess();
+    assertThat(limit.get()).isEqualTo(2);
+    limit.onSuccess();
+    assertThat(limit.get()).isEqualTo(3);
+
+    for (int i = 0; i < 100; i++) {
+      limit.onSuccess();
+    }
+    assertThat(limit.get()).isEqualTo(8);
+  }
+
+  private static List<QueuedRequest> requests(
+      Compute compute, CountResponses responses, int count) throws IOException {
+    List<QueuedRequest> requests = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      requests.add(new QueuedRequest(compute.images().get("project", "image-name"), responses));
+    }
+    return requests;
+  }
+
+  private static Callable<Void> execute(
+      GoogleBatchExecutor executor, Compute compute, JsonBatchCallback<Image> callback) {
+    return () -> {
+      executor.execute(
+          PROJECT,
+          compute,
+          USER_AGENT,
+          Collections.singletonList(
+              new QueuedRequest(compute.images().get("project", "image-name"), callback)));
+      return null;
+    };
+  }
+
+  private static Compute computeWithResponses(MockLowLevelHttpResponse... responses) {
+    return new Compute(
+        responses(responses),
+        JacksonFactory.getDefaultInstance(),
+        /* httpRequestInitializer= */ null);
+  }
+
+  private static HttpTransport responses(MockLowLevelHttpResponse... responses) {
+    return responses(new CountDownLatch(1), new CountDownLatch(0), responses);
+  }
+
+  /**
+   * Returns a transport that counts down `firstRequestSent` when the first request is sent, and
+   * holds back its response until `firstResponseGate` opens.
+   */
+  private static HttpTransport responses(
+      CountDownLatch firstRequestSent,
+      CountDownLatch firstResponseGate,
+      MockLowLevelHttpResponse... responses) {
+    return new HttpTransport() {
+      private AtomicInteger requests = new AtomicInteger(0);
+
+      @Override
+      protected LowLevelHttpRequest buildRequest(String method, String url) {
+        int requestNum = requests.getAndIncrement();
+        LowLevelHttpResponse response =
+            requestNum < responses.length
+                ? responses[requestNum]
+                : new MockLowLevelHttpResponse()
+                    .setStatusCode(500)
+                    .setContent("Sent more requests than expected.");
+        return new LowLevelHttpRequest() {
+          @Override
+          public void addHeader(String name, String value) {}
+
+          @Override
+          public LowLevelHttpResponse execute() throws IOException {
+            if (requestNum == 0) {
+              firstRequestSent.countDown();
+              try {
+                firstResponseGate.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+              }
+            }
+            return response;
+          }
+        };
+      }
+    };
+  }
+
+  private static MockLowLevelHttpResponse successBatchResponse(int responses) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < responses; ++i) {
+      appendSuccessResponse(sb);
+    }
+    return batchResponse(sb.append(MIME_END).toString());
+  }
+
+  private static MockLowLevelHttpResponse batchResponse(String content) {
+    return new MockLowLevelHttpResponse()
+        .setStatusCode(200)
+        .addHeader("Content-Type", BATCH_CONTENT_TYPE)
+        .setContent(content);
+  }
+
+  private static MockLowLevelHttpResponse errorResponse(int statusCode, String content) {
+    return new MockLowLevelHttpResponse()
+        .setStatusCode(statusCode)
+        .setContentType("application/json; charset=UTF-8")
+        .setContent(content);
+  }
+
+  private static void appendSuccessResponse(StringBuilder sb) {
+    sb.append(MIME_PART_START)
+        .append("Content-Type: application/http\n")
+        .append('\n')
+        .append("HTTP/1.1 200 OK\n")
+        .append("Content-Type: application/json\n")
+        .append("\n")
+        .append("{\"name\":\"foobar\"}\n\n");
+  }
+
+  private static void appendRateLimitedResponse(StringBuilder sb) {
+    sb.append(MIME_PART_START)
+        .append("Content-Type: application/http\n")
+        .append('\n')
+        .append("HTTP/1.1 403 Forbidden\n")
+        .append("Content-Type: application/json\n")
+        .append("\n")
+        .append(
+            "{\"error\":{\"code\":403,\"message\":\"Rate Limit Exceeded\","
+                + "\"errors\":[{\"reason\":\"rateLimitExceeded\"}]}}\n\n");
+  }
+
+  private static class ThrowingResponses extends JsonBatchCallback<Image> {
+    @Override
+    public void onFailure(GoogleJsonError e, HttpHeaders responseHeaders) throws IOException {
+      throw new IOException("callback failed");
+    }
+
+    @Override
+    public void onSuccess(Image image, HttpHeaders responseHeaders) throws IOException {
+      throw new IOException("callback failed");
+    }
+  }
+
+  private static class CountResponses extends JsonBatchCallback<Image> {
+    AtomicInteger successes = new AtomicInteger();
+    AtomicInteger failures = new AtomicInteger();
+
+    @Override
+    public void onFailure(GoogleJsonError e, HttpHeaders responseHeaders) {
+      failures.incrementAndGet();
+    }
+
+    @Override
+    public void onSuccess(Image image, HttpHeaders responseHeaders) {
+      successes.incrementAndGet();
+    }
+  }
+}
@@ -16,12 +16,26 @@
 
 package com.netflix.spinnaker.clouddriver.google.provider.agent
 
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.google.api.services.compute.Compute
+import com.google.api.services.compute.model.InstanceGroupManager
+import com.google.api.services.compute.model.InstanceGroupManagerAggregatedList
+import com.google.api.services.compute.model.InstanceGroupManagersScopedList
+import com.netflix.spectator.api.DefaultRegistry
+import com.netflix.spinnaker.cats.provider.ProviderCache
+import com.netflix.spinnaker.clouddriver.google.model.GoogleInstance
 import com.netflix.spinnaker.clouddriver.google.model.GoogleServerGroup
+import com.netflix.spinnaker.clouddriver.google.provider.agent.util.GoogleInstanceIndex
+import com.netflix.spinnaker.clouddriver.google.security.GoogleNamedAccountCredentials
 import spock.lang.Specification
 import spock.lang.Unroll
 
 class GoogleServerGroupCachingAgentSpec extends Specification {
   private static final String BUILD_HOST = "http://some-jenkins-host:8080/"
+  private static final String PROJECT = "my-project"
+  private static final String ACCOUNT_NAME = "my-account"
+  private static final String REGION = "us-central1"
+  private static final String COMPUTE_URL = "https://compute.googleapis.com/compute/v1/projects/my-project"
 
   def "should not set build info if no image description is found"() {
     setup:
@@ -139,4 +153,64 @@ class GoogleServerGroupCachingAgentSpec extends Specification {
         [properties: [disks: []]]
       ]
   }
+
+  def "aggregated server group lists are filtered to the zones of the agent's region"() {
+    expect:
+      GoogleZonalServerGroupCachingAgent.buildZonesFilter(["us-central1-a", "us-central1-b"]) ==
+        "zone eq .*/zones/(us-central1-a|us-central1-b)"
+      GoogleZonalServerGroupCachingAgent.buildZonesFilter([]) == null
+  }
+
+  def "aggregated list callback only builds the zonal server groups of the agent's region"() {
+    setup:
+      def credentials = new GoogleNamedAccountCredentials.Builder()
+        .project(PROJECT)
+        .name(ACCOUNT_NAME)
+        .compute(Mock(Compute))
+        .regionToZonesMap([(REGION): ["us-central1-a", "us-central1-b"]])
+        .build()
+      def agent = new GoogleZonalServerGroupCachingAgent(
+        "testApplicationName", credentials, new ObjectMapper(), new DefaultRegistry(), REGION, 50, true)
+      def instanceIndex = GoogleInstanceIndex.byZone([
+        new GoogleInstance(name: "app-v000-abcd", zone: "us-central1-a"),
+        new GoogleInstance(name: "app-v001-efgh", zone: "us-east1-b")
+      ])
+      List<GoogleServerGroup> serverGroups = []
+      def callbacks = new GoogleZonalServerGroupCachingAgent.InstanceGroupManagerCallbacks(agent)
+      callbacks.providerCache = Mock(ProviderCache)
+      callbacks.serverGroups = serverGroups
+      callbacks.instances = instanceIndex
+      def callback = callbacks.newInstanceGroupManagerAggregatedListCallback(
+        [:], instanceIndex, ["us-central1-a", "us-central1-b"] as Set)
+
+    when:
+      callback.onSuccess(new InstanceGroupManagerAggregatedList(items: [
+        "zones/us-central1-a": new InstanceGroupManagersScopedList(instanceGroupManagers: [zonalIgm("app-v000", "us-central1-a")]),
+        "zones/us-central1-b": new InstanceGroupManagersScopedList(),
+        "zones/us-east1-b"   : new InstanceGroupManagersScopedList(instanceGroupManagers: [zonalIgm("app-v001", "us-east1-b")]),
+        "regions/us-central1": new InstanceGroupManagersScopedList(instanceGroupManagers: [
+          new InstanceGroupManager(name: "app-v002", region: "$COMPUTE_URL/regions/us-central1", targetSize: 1)
+        ])
+      ]), null)
+
+    then:
+      serverGroups.size() == 1
+      with(serverGroups.first()) {
+        name == "app-v000"
+        zone == "us-central1-a"
+        region == REGION
+        instances*.name == ["app-v000-abcd"]
+        asg.desiredCapacity == 2
+      }
+  }
+
+  private static InstanceGroupManager zonalIgm(String name, String zone) {
+    return new InstanceGroupManager(
+      name: name,
+      zone: "$COMPUTE_URL/zones/$zone",
+      baseInstanceName: name,
+      instanceTemplate: "$COMPUTE_URL/global/instanceTemplates/$name",
+      selfLink: "$COMPUTE_URL/zones/$zone/instanceGroupManagers/$name",
+      targetSize: 2)
+  }
 }
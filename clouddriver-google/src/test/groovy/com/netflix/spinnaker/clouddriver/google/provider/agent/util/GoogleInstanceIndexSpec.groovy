@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.google.provider.agent.util
+
+import com.netflix.spinnaker.clouddriver.google.model.GoogleInstance
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class GoogleInstanceIndexSpec extends Specification {
+
+  def instances = [
+    new GoogleInstance(name: "app-v000-abcd", zone: "us-central1-a", region: "us-central1"),
+    new GoogleInstance(name: "app-v000-efgh", zone: "us-central1-b", region: "us-central1"),
+    new GoogleInstance(name: "app-v001-ijkl", zone: "us-central1-a", region: "us-central1"),
+    new GoogleInstance(name: "app-v000-mnop", zone: "us-east1-b", region: "us-east1"),
+    new GoogleInstance(name: "other-v000-qrst", zone: "us-central1-a", region: "us-central1"),
+  ]
+
+  @Unroll
+  def "finds instances in zone #zone starting with #prefix"() {
+    when:
+    def index = GoogleInstanceIndex.byZone(instances)
+
+    then:
+    index.findByNamePrefix(zone, prefix)*.name as Set == expected as Set
+
+    where:
+    zone            | prefix     || expected
+    "us-central1-a" | "app-v000" || ["app-v000-abcd"]
+    "us-central1-a" | "app-v00"  || ["app-v000-abcd", "app-v001-ijkl"]
+    "us-central1-b" | "app-v000" || ["app-v000-efgh"]
+    "us-central1-c" | "app-v000" || []
+    "us-central1-a" | "missing"  || []
+    "us-central1-a" | null       || []
+  }
+
+  def "groups instances by region"() {
+    when:
+    def index = GoogleInstanceIndex.byRegion(instances)
+
+    then:
+    index.findByNamePrefix("us-central1", "app-v000")*.name as Set == ["app-v000-abcd", "app-v000-efgh"] as Set
+    index.findByNamePrefix("us-east1", "app-v000")*.name == ["app-v000-mnop"]
+  }
+}
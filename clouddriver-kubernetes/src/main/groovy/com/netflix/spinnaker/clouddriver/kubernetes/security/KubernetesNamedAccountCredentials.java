@@ -25,6 +25,7 @@ import com.netflix.spinnaker.clouddriver.kubernetes.v1.security.KubernetesV1Cred
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesSpinnakerKindMap;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesManifest;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job.KubectlJobExecutor;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesPermissionCache;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesV2Credentials;
 import com.netflix.spinnaker.clouddriver.names.NamerRegistry;
 import com.netflix.spinnaker.clouddriver.security.AccountCredentials;
@@ -138,6 +139,7 @@ public class KubernetesNamedAccountCredentials<C extends KubernetesCredentials>
     private final AccountCredentialsRepository accountCredentialsRepository;
     private final KubectlJobExecutor jobExecutor;
     private final ConfigFileService configFileService;
+    private final KubernetesPermissionCache permissionCache;
 
     KubernetesV1Credentials buildV1Credentials(
         KubernetesConfigurationProperties.ManagedAccount managedAccount) {
@@ -168,7 +170,11 @@ public class KubernetesNamedAccountCredentials<C extends KubernetesCredentials>
               KubernetesManifest.class,
               namerRegistry.getNamingStrategy(managedAccount.getNamingStrategy()));
       return new KubernetesV2Credentials(
-          spectatorRegistry, jobExecutor, managedAccount, getKubeconfigFile(managedAccount));
+          spectatorRegistry,
+          jobExecutor,
+          managedAccount,
+          getKubeconfigFile(managedAccount),
+          permissionCache);
     }
 
     private void validateAccount(KubernetesConfigurationProperties.ManagedAccount managedAccount) {
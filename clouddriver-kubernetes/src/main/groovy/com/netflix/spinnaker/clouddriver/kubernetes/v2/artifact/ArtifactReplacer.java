@@ -17,23 +17,24 @@
 
 package com.netflix.spinnaker.clouddriver.kubernetes.v2.artifact;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
 import com.jayway.jsonpath.PathNotFoundException;
 import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
 import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
 import com.netflix.spinnaker.clouddriver.artifacts.kubernetes.KubernetesArtifactType;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesManifest;
 import com.netflix.spinnaker.kork.artifacts.model.Artifact;
-import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
@@ -41,7 +42,6 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Value;
@@ -56,6 +56,8 @@ public class ArtifactReplacer {
           .jsonProvider(new JacksonJsonNodeJsonProvider())
           .mappingProvider(new JacksonMappingProvider())
           .build();
+  private static final Configuration pathConfiguration =
+      configuration.addOptions(Option.AS_PATH_LIST);
 
   List<Replacer> replacers = new ArrayList<>();
 
@@ -104,67 +106,60 @@ public class ArtifactReplacer {
   public ReplaceResult replaceAll(
       KubernetesManifest input, List<Artifact> artifacts, String namespace, String account) {
     log.debug("Doing replacement on {} using {}", input, artifacts);
-    // final to use in below lambda
-    final List<Artifact> finalArtifacts =
+    List<Artifact> filteredArtifacts =
         filterKubernetesArtifactsByNamespaceAndAccount(namespace, account, artifacts);
-    DocumentContext document;
-    try {
-      document = JsonPath.using(configuration).parse(mapper.writeValueAsString(input));
-    } catch (JsonProcessingException e) {
-      log.error("Malformed manifest", e);
-      throw new RuntimeException(e);
-    }
+    DocumentContext document = parse(input);
+
+    Set<Artifact> replacedArtifacts = new HashSet<>();
+    for (Replacer replacer : replacers) {
+      List<Artifact> candidates =
+          filteredArtifacts.stream().filter(replacer::handles).collect(Collectors.toList());
+      if (candidates.isEmpty()) {
+        continue;
+      }
 
-    Set<Artifact> replacedArtifacts =
-        replacers.stream()
-            .map(
-                r ->
-                    finalArtifacts.stream()
-                        .filter(a -> r.replaceIfPossible(document, a))
-                        .collect(Collectors.toSet()))
-            .flatMap(Collection::stream)
-            .collect(Collectors.toSet());
+      // a single traversal finds every location this replacer could bind, whatever the number of
+      // artifacts; each location is bound at most once, by the first artifact naming its value
+      Map<String, List<String>> locations = replacer.findLocations(document);
+      for (Artifact artifact : candidates) {
+        List<String> paths = locations.remove(artifact.getName());
+        if (paths == null) {
+          continue;
+        }
 
-    try {
-      return new ReplaceResult(
-          mapper.readValue(document.jsonString(), KubernetesManifest.class), replacedArtifacts);
-    } catch (IOException e) {
-      log.error("Malformed Document Context", e);
-      throw new RuntimeException(e);
+        log.info("Found valid swap for {} at {}", artifact, paths);
+        paths.forEach(path -> document.set(path, artifact.getReference()));
+        replacedArtifacts.add(artifact);
+      }
     }
+
+    return new ReplaceResult(
+        mapper.convertValue(document.json(), KubernetesManifest.class), replacedArtifacts);
   }
 
   public Set<Artifact> findAll(KubernetesManifest input) {
-    DocumentContext document;
-    try {
-      document = JsonPath.using(configuration).parse(mapper.writeValueAsString(input));
-    } catch (JsonProcessingException e) {
-      throw new RuntimeException("Malformed manifest", e);
-    }
+    DocumentContext document = parse(input);
 
     return replacers.stream()
         .map(
             r -> {
               try {
-                return ((List<String>)
-                        mapper.convertValue(
-                            r.findAll(document), new TypeReference<List<String>>() {}))
-                    .stream()
-                        .map(
-                            s -> {
-                              String nameFromReference = r.getNameFromReference(s);
-                              String name = nameFromReference == null ? s : nameFromReference;
-                              if (r.namePattern == null || nameFromReference != null) {
-                                return Artifact.builder()
-                                    .type(r.getType().getType())
-                                    .reference(s)
-                                    .name(name)
-                                    .build();
-                              } else {
-                                return null;
-                              }
-                            })
-                        .filter(Objects::nonNull);
+                return r.findAll(document).stream()
+                    .map(
+                        s -> {
+                          String nameFromReference = r.getNameFromReference(s);
+                          String name = nameFromReference == null ? s : nameFromReference;
+                          if (r.namePattern == null || nameFromReference != null) {
+                            return Artifact.builder()
+                                .type(r.getType().getType())
+                                .reference(s)
+                                .name(name)
+                                .build();
+                          } else {
+                            return null;
+                          }
+                        })
+                    .filter(Objects::nonNull);
               } catch (Exception e) {
                 // This happens when a manifest isn't fully defined (e.g. not all properties are
                 // there)
@@ -180,32 +175,77 @@ public class ArtifactReplacer {
         .collect(Collectors.toSet());
   }
 
+  // converts the manifest's object tree directly, rather than round-tripping it through a string
+  private static DocumentContext parse(KubernetesManifest input) {
+    JsonNode tree = mapper.valueToTree(input);
+    return JsonPath.using(configuration).parse(tree);
+  }
+
   @Slf4j
-  @Builder
-  @AllArgsConstructor
   public static class Replacer {
-    private final String replacePath;
-    private final String findPath;
+    private final JsonPath findPath;
     private final Pattern namePattern; // the first group should be the artifact name
     private final Function<String, String> nameFromReference;
 
     @Getter private final KubernetesArtifactType type;
 
-    private static String substituteField(String result, String fieldName, String field) {
-      field = field == null ? "" : field;
-      return result.replace("{%" + fieldName + "%}", field);
+    /**
+     * @param findPath a path selecting every value in a manifest that refers to an artifact of
+     *     {@code type}; a value is replaced by an artifact's reference when it equals the
+     *     artifact's name
+     */
+    @Builder
+    public Replacer(
+        String findPath,
+        Pattern namePattern,
+        Function<String, String> nameFromReference,
+        KubernetesArtifactType type) {
+      this.findPath = JsonPath.compile(findPath);
+      this.namePattern = namePattern;
+      this.nameFromReference = nameFromReference;
+      this.type = type;
     }
 
-    private static String processPath(String path, Artifact artifact) {
-      String result = substituteField(path, "name", artifact.getName());
-      result = substituteField(result, "type", artifact.getType());
-      result = substituteField(result, "version", artifact.getVersion());
-      result = substituteField(result, "reference", artifact.getReference());
-      return result;
+    public static class ReplacerBuilder {
+      /**
+       * @deprecated values are now replaced wherever {@code findPath} selects a value equal to the
+       *     artifact's name, so a separate replace path is no longer needed and this is ignored.
+       */
+      @Deprecated
+      public ReplacerBuilder replacePath(String replacePath) {
+        log.warn("Ignoring replace path {}; values are replaced at the find path", replacePath);
+        return this;
+      }
     }
 
-    ArrayNode findAll(DocumentContext obj) {
-      return obj.read(findPath);
+    List<String> findAll(DocumentContext document) {
+      return mapper.convertValue(document.read(findPath), new TypeReference<List<String>>() {});
+    }
+
+    /**
+     * @return every value {@link #findPath} selects, mapped to the concrete paths holding it; the
+     *     document is traversed once to list those paths, and each value is then read directly
+     *     from its concrete path
+     */
+    Map<String, List<String>> findLocations(DocumentContext document) {
+      List<String> paths;
+      try {
+        paths =
+            mapper.convertValue(
+                findPath.read(document.json(), pathConfiguration),
+                new TypeReference<List<String>>() {});
+      } catch (PathNotFoundException e) {
+        return new HashMap<>();
+      }
+
+      Map<String, List<String>> locations = new HashMap<>();
+      for (String path : paths) {
+        JsonNode value = document.read(path);
+        if (value != null && value.isValueNode() && !value.isNull()) {
+          locations.computeIfAbsent(value.asText(), v -> new ArrayList<>()).add(path);
+        }
+      }
+      return locations;
     }
 
     String getNameFromReference(String reference) {
@@ -223,33 +263,12 @@ public class ArtifactReplacer {
       }
     }
 
-    boolean replaceIfPossible(DocumentContext obj, Artifact artifact) {
+    boolean handles(Artifact artifact) {
       if (artifact == null || StringUtils.isEmpty(artifact.getType())) {
         throw new IllegalArgumentException("Artifact and artifact type must be set.");
       }
 
-      if (!artifact.getType().equals(type.getType())) {
-        return false;
-      }
-
-      String jsonPath = processPath(replacePath, artifact);
-
-      log.debug("Processed jsonPath == {}", jsonPath);
-
-      Object get;
-      try {
-        get = obj.read(jsonPath);
-      } catch (PathNotFoundException e) {
-        return false;
-      }
-      if (get == null || (get instanceof ArrayNode && ((ArrayNode) get).size() == 0)) {
-        return false;
-      }
-
-      log.info("Found valid swap for " + artifact + " using " + jsonPath + ": " + get);
-      obj.set(jsonPath, artifact.getReference());
-
-      return true;
+      return artifact.getType().equals(type.getType());
     }
   }
 
@@ -53,8 +53,6 @@ public class ArtifactReplacerFactory {
 
   public static Replacer dockerImageReplacer() {
     return Replacer.builder()
-        .replacePath(
-            "$..spec.template.spec['containers', 'initContainers'].[?( @.image == \"{%name%}\" )].image")
         .findPath("$..spec.template.spec['containers', 'initContainers'].*.image")
         .nameFromReference(
             ref -> {
@@ -84,8 +82,6 @@ public class ArtifactReplacerFactory {
 
   public static Replacer configMapVolumeReplacer() {
     return Replacer.builder()
-        .replacePath(
-            "$..spec.template.spec.volumes.[?( @.configMap.name == \"{%name%}\" )].configMap.name")
         .findPath("$..spec.template.spec.volumes.*.configMap.name")
         .type(KubernetesArtifactType.ConfigMap)
         .build();
@@ -93,8 +89,6 @@ public class ArtifactReplacerFactory {
 
   public static Replacer secretVolumeReplacer() {
     return Replacer.builder()
-        .replacePath(
-            "$..spec.template.spec.volumes.[?( @.secret.secretName == \"{%name%}\" )].secret.secretName")
         .findPath("$..spec.template.spec.volumes.*.secret.secretName")
         .type(KubernetesArtifactType.Secret)
         .build();
@@ -102,8 +96,6 @@ public class ArtifactReplacerFactory {
 
   public static Replacer configMapKeyValueFromReplacer() {
     return Replacer.builder()
-        .replacePath(
-            "$..spec.template.spec['containers', 'initContainers'].*.env.[?( @.valueFrom.configMapKeyRef.name == \"{%name%}\" )].valueFrom.configMapKeyRef.name")
         .findPath(
             "$..spec.template.spec['containers', 'initContainers'].*.env.*.valueFrom.configMapKeyRef.name")
         .type(KubernetesArtifactType.ConfigMap)
@@ -112,8 +104,6 @@ public class ArtifactReplacerFactory {
 
   public static Replacer secretKeyValueFromReplacer() {
     return Replacer.builder()
-        .replacePath(
-            "$..spec.template.spec['containers', 'initContainers'].*.env.[?( @.valueFrom.secretKeyRef.name == \"{%name%}\" )].valueFrom.secretKeyRef.name")
         .findPath(
             "$..spec.template.spec['containers', 'initContainers'].*.env.*.valueFrom.secretKeyRef.name")
         .type(KubernetesArtifactType.Secret)
@@ -122,8 +112,6 @@ public class ArtifactReplacerFactory {
 
   public static Replacer configMapEnvFromReplacer() {
     return Replacer.builder()
-        .replacePath(
-            "$..spec.template.spec['containers', 'initContainers'].*.envFrom.[?( @.configMapRef.name == \"{%name%}\" )].configMapRef.name")
         .findPath(
             "$..spec.template.spec['containers', 'initContainers'].*.envFrom.*.configMapRef.name")
         .type(KubernetesArtifactType.ConfigMap)
@@ -132,8 +120,6 @@ public class ArtifactReplacerFactory {
 
   public static Replacer secretEnvFromReplacer() {
     return Replacer.builder()
-        .replacePath(
-            "$..spec.template.spec['containers', 'initContainers'].*.envFrom.[?( @.secretRef.name == \"{%name%}\" )].secretRef.name")
         .findPath(
             "$..spec.template.spec['containers', 'initContainers'].*.envFrom.*.secretRef.name")
         .type(KubernetesArtifactType.Secret)
@@ -142,8 +128,6 @@ public class ArtifactReplacerFactory {
 
   public static Replacer hpaDeploymentReplacer() {
     return Replacer.builder()
-        .replacePath(
-            "$[?( (@.spec.scaleTargetRef.kind == \"Deployment\" || @.spec.scaleTargetRef.kind == \"deployment\") && @.spec.scaleTargetRef.name == \"{%name%}\" )].spec.scaleTargetRef.name")
         .findPath(
             "$[?( @.spec.scaleTargetRef.kind == \"Deployment\" || @.spec.scaleTargetRef.kind == \"deployment\" )].spec.scaleTargetRef.name")
         .type(KubernetesArtifactType.Deployment)
@@ -152,8 +136,6 @@ public class ArtifactReplacerFactory {
 
   public static Replacer hpaReplicaSetReplacer() {
     return Replacer.builder()
-        .replacePath(
-            "$[?( (@.spec.scaleTargetRef.kind == \"ReplicaSet\" || @.spec.scaleTargetRef.kind == \"replicaSet\") && @.spec.scaleTargetRef.name == \"{%name%}\" )].spec.scaleTargetRef.name")
         .findPath(
             "$[?( @.spec.scaleTargetRef.kind == \"ReplicaSet\" || @.spec.scaleTargetRef.kind == \"replicaSet\" )].spec.scaleTargetRef.name")
         .type(KubernetesArtifactType.ReplicaSet)
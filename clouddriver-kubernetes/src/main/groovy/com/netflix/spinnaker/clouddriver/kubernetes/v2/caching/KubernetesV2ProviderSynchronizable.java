@@ -41,7 +41,6 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class KubernetesV2ProviderSynchronizable implements CredentialsInitializerSynchronizable {
-
   private KubernetesV2Provider kubernetesV2Provider;
   private AccountCredentialsRepository accountCredentialsRepository;
   private KubernetesV2CachingAgentDispatcher kubernetesV2CachingAgentDispatcher;
@@ -50,6 +49,12 @@ public class KubernetesV2ProviderSynchronizable implements CredentialsInitialize
   private KubernetesNamedAccountCredentials.CredentialFactory credentialFactory;
   private KubernetesSpinnakerKindMap kubernetesSpinnakerKindMap;
   private CatsModule catsModule;
+  private ParallelAccountInitializer parallelAccountInitializer;
+
+  // names of the v2 accounts the repository reported as changed since the last synchronization
+  private final Set<String> addedAccounts = new HashSet<>();
+  private final Set<String> updatedAccounts = new HashSet<>();
+  private final Set<String> removedAccounts = new HashSet<>();
 
   public KubernetesV2ProviderSynchronizable(
       KubernetesV2Provider kubernetesV2Provider,
@@ -59,7 +64,8 @@ public class KubernetesV2ProviderSynchronizable implements CredentialsInitialize
       KubernetesConfigurationProperties kubernetesConfigurationProperties,
       KubernetesNamedAccountCredentials.CredentialFactory credentialFactory,
       KubernetesSpinnakerKindMap kubernetesSpinnakerKindMap,
-      CatsModule catsModule) {
+      CatsModule catsModule,
+      ParallelAccountInitializer parallelAccountInitializer) {
     this.kubernetesV2Provider = kubernetesV2Provider;
     this.accountCredentialsRepository = accountCredentialsRepository;
     this.kubernetesV2CachingAgentDispatcher = kubernetesV2CachingAgentDispatcher;
@@ -68,10 +74,50 @@ public class KubernetesV2ProviderSynchronizable implements CredentialsInitialize
     this.credentialFactory = credentialFactory;
     this.kubernetesSpinnakerKindMap = kubernetesSpinnakerKindMap;
     this.catsModule = catsModule;
+    this.parallelAccountInitializer = parallelAccountInitializer;
 
     ScheduledExecutorService poller =
         Executors.newSingleThreadScheduledExecutor(
             new NamedThreadFactory(KubernetesV2ProviderSynchronizable.class.getSimpleName()));
+
+    accountCredentialsRepository.addListener(this::onAccountCredentialsChanged);
+  }
+
+  /**
+   * The repository only publishes an event when an account's credentials actually change, so
+   * recording them here means unchanged accounts keep their caching agents.
+   */
+  private synchronized void onAccountCredentialsChanged(AccountCredentialsEvent event) {
+    if (!isV2Account(event.getPrevious()) && !isV2Account(event.getCurrent())) {
+      return;
+    }
+
+    String name = event.getName();
+    switch (event.getType()) {
+      case ADDED:
+        // an account removed and then added again replaces its old agents
+        if (removedAccounts.remove(name)) {
+          updatedAccounts.add(name);
+        } else {
+          addedAccounts.add(name);
+        }
+        break;
+      case UPDATED:
+        updatedAccounts.add(name);
+        break;
+      case REMOVED:
+        // an account added since the last synchronization has no agents to remove
+        if (!addedAccounts.remove(name)) {
+          updatedAccounts.remove(name);
+          removedAccounts.add(name);
+        }
+        break;
+    }
+  }
+
+  private static boolean isV2Account(AccountCredentials credentials) {
+    return credentials instanceof KubernetesNamedAccountCredentials
+        && ProviderVersion.v2.equals(credentials.getProviderVersion());
   }
 
   @Override
@@ -100,11 +146,7 @@ public class KubernetesV2ProviderSynchronizable implements CredentialsInitialize
   }
 
   private Set<String> synchronizeAccountCredentials() {
-    List<String> deletedAccounts = getDeletedAccountNames();
-    List<String> changedAccounts = new ArrayList<>();
-    Set<String> newAndChangedAccounts = new HashSet<>();
-
-    deletedAccounts.forEach(accountCredentialsRepository::delete);
+    getDeletedAccountNames().forEach(accountCredentialsRepository::delete);
 
     kubernetesConfigurationProperties.getAccounts().stream()
         .filter(a -> ProviderVersion.v2.equals(a.getProviderVersion()))
@@ -113,22 +155,23 @@ public class KubernetesV2ProviderSynchronizable implements CredentialsInitialize
               KubernetesNamedAccountCredentials credentials =
                   new KubernetesNamedAccountCredentials(
                       managedAccount, kubernetesSpinnakerKindMap, credentialFactory);
-
-              AccountCredentials existingCredentials =
-                  accountCredentialsRepository.getOne(managedAccount.getName());
-
-              if (existingCredentials == null) {
-                // account didn't previously exist
-                newAndChangedAccounts.add(managedAccount.getName());
-              } else if (!existingCredentials.equals(credentials)) {
-                // account exists but has changed
-                changedAccounts.add(managedAccount.getName());
-                newAndChangedAccounts.add(managedAccount.getName());
-              }
-
               accountCredentialsRepository.save(managedAccount.getName(), credentials);
             });
 
+    Set<String> deletedAccounts;
+    Set<String> changedAccounts;
+    Set<String> newAndChangedAccounts;
+    synchronized (this) {
+      deletedAccounts = new HashSet<>(removedAccounts);
+      changedAccounts = new HashSet<>(updatedAccounts);
+      newAndChangedAccounts = new HashSet<>(addedAccounts);
+      newAndChangedAccounts.addAll(updatedAccounts);
+
+      addedAccounts.clear();
+      updatedAccounts.clear();
+      removedAccounts.clear();
+    }
+
     ProviderUtils.unscheduleAndDeregisterAgents(deletedAccounts, catsModule);
     ProviderUtils.unscheduleAndDeregisterAgents(changedAccounts, catsModule);
 
@@ -137,10 +180,7 @@ public class KubernetesV2ProviderSynchronizable implements CredentialsInitialize
 
   private List<String> getDeletedAccountNames() {
     List<String> existingNames =
-        accountCredentialsRepository.getAll().stream()
-            .filter(
-                (AccountCredentials c) ->
-                    KubernetesCloudProvider.getID().equals(c.getCloudProvider()))
+        accountCredentialsRepository.getAllByCloudProvider(KubernetesCloudProvider.getID()).stream()
             .filter((AccountCredentials c) -> ProviderVersion.v2.equals(c.getProviderVersion()))
             .map(AccountCredentials::getName)
             .collect(Collectors.toList());
@@ -174,7 +214,11 @@ public class KubernetesV2ProviderSynchronizable implements CredentialsInitialize
                     log.warn("Error encountered registering {}: ", cr, e);
                   }
                 });
-        v2Credentials.initialize();
+      }
+
+      initializeCredentials(allAccounts);
+
+      for (KubernetesNamedAccountCredentials credentials : allAccounts) {
         List<Agent> newlyAddedAgents =
             kubernetesV2CachingAgentDispatcher.buildAllCachingAgents(credentials).stream()
                 .map(c -> (Agent) c)
@@ -200,4 +244,21 @@ public class KubernetesV2ProviderSynchronizable implements CredentialsInitialize
 
     kubernetesV2Provider.switchToNewAgents();
   }
+
+  /**
+   * Initializing credentials runs api discovery and permission checks against each cluster, which
+   * is dominated by waiting on kubectl. Accounts go through the shared {@link
+   * ParallelAccountInitializer} so they initialize concurrently when
+   * `credentials.initialization.parallel` is enabled. Every account is treated as required: agents
+   * are only swapped in once all changed accounts have initialized, so a failure keeps the old
+   * agent set as before.
+   */
+  private void initializeCredentials(Set<KubernetesNamedAccountCredentials> allAccounts) {
+    parallelAccountInitializer.initialize(
+        "Kubernetes",
+        allAccounts,
+        KubernetesNamedAccountCredentials::getName,
+        credentials -> true,
+        credentials -> ((KubernetesV2Credentials) credentials.getCredentials()).initialize());
+  }
 }
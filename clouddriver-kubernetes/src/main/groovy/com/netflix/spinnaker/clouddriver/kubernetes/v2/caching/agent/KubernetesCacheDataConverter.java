@@ -28,6 +28,7 @@ import com.netflix.spinnaker.cats.cache.CacheData;
 import com.netflix.spinnaker.cats.cache.DefaultCacheData;
 import com.netflix.spinnaker.clouddriver.kubernetes.KubernetesCloudProvider;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.Keys;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent.KubernetesPodMetricStore.ContainerMetricSummary;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesPodMetric;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesApiVersion;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesCachingProperties;
@@ -60,6 +61,9 @@ public class KubernetesCacheDataConverter {
   // todo(lwander) investigate if this can cause flapping in UI for on demand updates -- no
   // consensus on this yet.
   @Getter private static final List<KubernetesKind> stickyKinds = Arrays.asList(SERVICE, POD);
+  // Decoded manifests keyed by cache key, only populated within withManifestMemo(...).
+  private static final ThreadLocal<Map<String, KubernetesManifest>> manifestMemo =
+      new ThreadLocal<>();
 
   public static Optional<Keys.CacheKey> convertAsArtifact(
       KubernetesCacheData kubernetesCacheData, String account, KubernetesManifest manifest) {
@@ -136,17 +140,27 @@ public class KubernetesCacheDataConverter {
 
   public static void convertPodMetric(
       KubernetesCacheData kubernetesCacheData, String account, KubernetesPodMetric podMetric) {
+    convertPodMetric(kubernetesCacheData, account, podMetric, Collections.emptyList());
+  }
+
+  public static void convertPodMetric(
+      KubernetesCacheData kubernetesCacheData,
+      String account,
+      KubernetesPodMetric podMetric,
+      List<ContainerMetricSummary> summaries) {
     String podName = podMetric.getPodName();
     String namespace = podMetric.getNamespace();
-    Map<String, Object> attributes =
+    ImmutableMap.Builder<String, Object> attributes =
         new ImmutableMap.Builder<String, Object>()
             .put("name", podName)
             .put("namespace", namespace)
-            .put("metrics", podMetric.getContainerMetrics())
-            .build();
+            .put("metrics", podMetric.getContainerMetrics());
+    if (!summaries.isEmpty()) {
+      attributes.put("metricSummaries", summaries);
+    }
 
     Keys.CacheKey key = new Keys.MetricCacheKey(POD, account, namespace, podName);
-    kubernetesCacheData.addItem(key, attributes);
+    kubernetesCacheData.addItem(key, attributes.build());
     kubernetesCacheData.addRelationship(
         key, new Keys.InfrastructureCacheKey(POD, account, namespace, podName));
   }
@@ -226,7 +240,43 @@ public class KubernetesCacheDataConverter {
         new TypeReference<List<KubernetesPodMetric.ContainerMetric>>() {});
   }
 
+  public static List<ContainerMetricSummary> getMetricSummaries(CacheData cacheData) {
+    Object summaries = cacheData.getAttributes().get("metricSummaries");
+    if (summaries == null) {
+      return Collections.emptyList();
+    }
+
+    return mapper.convertValue(summaries, new TypeReference<List<ContainerMetricSummary>>() {});
+  }
+
   public static KubernetesManifest getManifest(CacheData cacheData) {
+    Map<String, KubernetesManifest> memo = manifestMemo.get();
+    if (memo == null) {
+      return decodeManifest(cacheData);
+    }
+
+    return memo.computeIfAbsent(cacheData.getId(), k -> decodeManifest(cacheData));
+  }
+
+  /**
+   * Runs the supplied read with every manifest decoded by {@link #getManifest(CacheData)}
+   * memoized by its cache key, so a single read request decodes each manifest at most once. The
+   * memoized manifests are shared, so callers must treat them as read-only.
+   */
+  public static <T> T withManifestMemo(Supplier<T> read) {
+    if (manifestMemo.get() != null) {
+      return read.get();
+    }
+
+    manifestMemo.set(new HashMap<>());
+    try {
+      return read.get();
+    } finally {
+      manifestMemo.remove();
+    }
+  }
+
+  private static KubernetesManifest decodeManifest(CacheData cacheData) {
     return mapper.convertValue(cacheData.getAttributes().get("manifest"), KubernetesManifest.class);
   }
 
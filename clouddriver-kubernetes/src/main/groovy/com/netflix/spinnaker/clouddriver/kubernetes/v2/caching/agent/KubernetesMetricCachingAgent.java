@@ -30,6 +30,7 @@ import com.netflix.spinnaker.cats.provider.ProviderCache;
 import com.netflix.spinnaker.clouddriver.kubernetes.KubernetesCloudProvider;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.KubernetesCachingAgent;
 import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesNamedAccountCredentials;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent.KubernetesPodMetricStore.PublishedMetric;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesPodMetric;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job.KubectlJobExecutor;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesV2Credentials;
@@ -49,6 +50,8 @@ public class KubernetesMetricCachingAgent extends KubernetesCachingAgent<Kuberne
 
   @Getter private final Long agentInterval;
 
+  private final KubernetesPodMetricStore metricStore;
+
   @Getter
   protected Collection<AgentDataType> providedDataTypes =
       Collections.unmodifiableCollection(
@@ -60,9 +63,11 @@ public class KubernetesMetricCachingAgent extends KubernetesCachingAgent<Kuberne
       Registry registry,
       int agentIndex,
       int agentCount,
-      Long agentInterval) {
+      Long agentInterval,
+      KubernetesPodMetricStore metricStore) {
     super(namedAccountCredentials, objectMapper, registry, agentIndex, agentCount);
     this.agentInterval = agentInterval;
+    this.metricStore = metricStore;
   }
 
   @Override
@@ -96,11 +101,19 @@ public class KubernetesMetricCachingAgent extends KubernetesCachingAgent<Kuberne
             .filter(Objects::nonNull)
             .collect(Collectors.toList());
 
+    // Metrics that haven't moved beyond the store's threshold are replaced with the values
+    // previously written, so the cache can recognize the entry as unchanged and skip the write.
     KubernetesCacheData kubernetesCacheData = new KubernetesCacheData();
     podMetrics.forEach(
-        metric ->
-            KubernetesCacheDataConverter.convertPodMetric(
-                kubernetesCacheData, accountName, metric));
+        metric -> {
+          PublishedMetric published = metricStore.record(metric);
+          KubernetesCacheDataConverter.convertPodMetric(
+              kubernetesCacheData,
+              accountName,
+              published.getMetric(),
+              published.getSummaries());
+        });
+    metricStore.retainOnly(podMetrics);
 
     Map<String, Collection<CacheData>> entries = kubernetesCacheData.toStratifiedCacheData();
     KubernetesCacheDataConverter.logStratifiedCacheData(getAgentType(), entries);
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent;
+
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesPodMetric;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesPodMetric.ContainerMetric;
+import io.kubernetes.client.custom.Quantity;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps a short in-memory history of the pod metrics reported by one {@link
+ * KubernetesMetricCachingAgent}. Each container metric is recorded into a fixed-size ring buffer,
+ * which is used both to compute aggregated windows (average and p95) and to decide whether a new
+ * sample differs enough from what was last written to the cache to be worth writing at all.
+ * Samples older than the window are evicted on every read, and the summaries are recomputed then
+ * too, so an entry is rewritten once the samples it was summarized from have aged out and moved its
+ * aggregates.
+ *
+ * <p>The history only lives as long as the agent that owns it, and is pruned to the pods and
+ * containers reported by the agent's latest read. The aggregates are written to the cache next to
+ * the metric they were computed with, so every replica serves the same summaries.
+ */
+@Slf4j
+public class KubernetesPodMetricStore {
+  private final Map<String, PodSeries> series = new ConcurrentHashMap<>();
+  private final Clock clock;
+  private final int samples;
+  private final double changeThreshold;
+  private final Duration window;
+
+  public KubernetesPodMetricStore(int samples, double changeThreshold, long windowMinutes) {
+    this(Clock.systemUTC(), samples, changeThreshold, windowMinutes);
+  }
+
+  KubernetesPodMetricStore(Clock clock, int samples, double changeThreshold, long windowMinutes) {
+    this.clock = clock;
+    this.samples = samples;
+    this.changeThreshold = changeThreshold;
+    this.window = Duration.ofMinutes(windowMinutes);
+  }
+
+  /**
+   * Records a freshly read pod metric and returns what should be written to the cache. If no
+   * container value or summary moved by more than the configured relative threshold since the
+   * last published metric, the previously published metric (and the summaries computed with it) is
+   * returned unchanged so the cache sees an identical entry and can skip the write. A summary that
+   * moved is published with the previously published metric if only the summary changed.
+   */
+  public PublishedMetric record(KubernetesPodMetric metric) {
+    long now = clock.millis();
+    long since = now - window.toMillis();
+    PodSeries podSeries =
+        series.computeIfAbsent(
+            podKey(metric.getNamespace(), metric.getPodName()), k -> new PodSeries());
+
+    synchronized (podSeries) {
+      // containers that are no longer reported (e.g. after the pod was replaced in place) are
+      // dropped along with their history
+      Set<String> containerNames =
+          metric.getContainerMetrics().stream()
+              .map(ContainerMetric::getContainerName)
+              .collect(Collectors.toSet());
+      podSeries.containers.keySet().retainAll(containerNames);
+
+      for (ContainerMetric containerMetric : metric.getContainerMetrics()) {
+        Map<String, RingBuffer> containerSeries =
+            podSeries.containers.computeIfAbsent(
+                containerMetric.getContainerName(), k -> new HashMap<>());
+        if (containerMetric.getMetrics() == null) {
+          continue;
+        }
+
+        containerMetric
+            .getMetrics()
+            .forEach(
+                (name, value) -> {
+                  Double parsed = parseQuantity(value);
+                  if (parsed != null) {
+                    containerSeries
+                        .computeIfAbsent(name, k -> new RingBuffer(samples))
+                        .add(now, parsed);
+                  }
+                });
+      }
+
+      List<ContainerMetricSummary> summaries = summarize(podSeries, since);
+      if (podSeries.published == null || hasChanged(podSeries.published.getMetric(), metric)) {
+        podSeries.published = new PublishedMetric(metric, summaries);
+      } else if (hasChanged(podSeries.published.getSummaries(), summaries)) {
+        podSeries.published = new PublishedMetric(podSeries.published.getMetric(), summaries);
+      }
+
+      return podSeries.published;
+    }
+  }
+
+  /** Drops the history of every pod that is not in {@code current}, the agent's latest read. */
+  public void retainOnly(Collection<KubernetesPodMetric> current) {
+    Set<String> podKeys =
+        current.stream()
+            .map(m -> podKey(m.getNamespace(), m.getPodName()))
+            .collect(Collectors.toSet());
+    series.keySet().retainAll(podKeys);
+  }
+
+  int size() {
+    return series.size();
+  }
+
+  private List<ContainerMetricSummary> summarize(PodSeries podSeries, long since) {
+    List<ContainerMetricSummary> result = new ArrayList<>();
+    podSeries.containers.forEach(
+        (containerName, containerSeries) -> {
+          Map<String, MetricWindow> windows = new HashMap<>();
+          containerSeries.forEach(
+              (name, buffer) -> {
+                buffer.evictBefore(since);
+                MetricWindow metricWindow = buffer.aggregate();
+                if (metricWindow != null) {
+                  windows.put(name, metricWindow);
+                }
+              });
+
+          if (!windows.isEmpty()) {
+            result.add(
+                ContainerMetricSummary.builder()
+                    .containerName(containerName)
+                    .windowMinutes(window.toMinutes())
+                    .metrics(windows)
+                    .build());
+          }
+        });
+
+    return Collections.unmodifiableList(result);
+  }
+
+  private boolean hasChanged(KubernetesPodMetric published, KubernetesPodMetric current) {
+    Map<String, Map<String, String>> previous = new HashMap<>();
+    published
+        .getContainerMetrics()
+        .forEach(m -> previous.put(m.getContainerName(), m.getMetrics()));
+
+    if (previous.size() != current.getContainerMetrics().size()) {
+      return true;
+    }
+
+    for (ContainerMetric containerMetric : current.getContainerMetrics()) {
+      Map<String, String> previousMetrics = previous.get(containerMetric.getContainerName());
+      Map<String, String> currentMetrics = containerMetric.getMetrics();
+      if (previousMetrics == null || currentMetrics == null) {
+        if (!Objects.equals(previousMetrics, currentMetrics)) {
+          return true;
+        }
+        continue;
+      }
+
+      if (!previousMetrics.keySet().equals(currentMetrics.keySet())) {
+        return true;
+      }
+
+      for (Map.Entry<String, String> entry : currentMetrics.entrySet()) {
+        Double oldValue = parseQuantity(previousMetrics.get(entry.getKey()));
+        Double newValue = parseQuantity(entry.getValue());
+        if (oldValue == null || newValue == null) {
+          if (!Objects.equals(previousMetrics.get(entry.getKey()), entry.getValue())) {
+            return true;
+          }
+        } else if (hasChanged(oldValue, newValue)) {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  private boolean hasChanged(
+      List<ContainerMetricSummary> published, List<ContainerMetricSummary> current) {
+    Map<String, Map<String, MetricWindow>> previous = new HashMap<>();
+    published.forEach(s -> previous.put(s.getContainerName(), s.getMetrics()));
+
+    if (previous.size() != current.size()) {
+      return true;
+    }
+
+    for (ContainerMetricSummary summary : current) {
+      Map<String, MetricWindow> previousWindows = previous.get(summary.getContainerName());
+      if (previousWindows == null
+          || !previousWindows.keySet().equals(summary.getMetrics().keySet())) {
+        return true;
+      }
+
+      for (Map.Entry<String, MetricWindow> entry : summary.getMetrics().entrySet()) {
+        MetricWindow oldWindow = previousWindows.get(entry.getKey());
+        MetricWindow newWindow = entry.getValue();
+        // the sample count grows with every read until the window fills, so it is only refreshed
+        // along with the aggregates
+        if (hasChanged(oldWindow.getAverage(), newWindow.getAverage())
+            || hasChanged(oldWindow.getP95(), newWindow.getP95())) {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  private boolean hasChanged(double oldValue, double newValue) {
+    return Math.abs(newValue - oldValue) > changeThreshold * Math.abs(oldValue);
+  }
+
+  private static Double parseQuantity(String value) {
+    if (value == null) {
+      return null;
+    }
+
+    try {
+      return new Quantity(value).getNumber().doubleValue();
+    } catch (Exception e) {
+      log.debug("Unable to parse metric value '{}'", value, e);
+      return null;
+    }
+  }
+
+  private static String podKey(String namespace, String pod) {
+    return String.join(":", namespace, pod);
+  }
+
+  /** A metric to write to the cache, with the summaries of its history when it was published. */
+  @Value
+  public static class PublishedMetric {
+    private final KubernetesPodMetric metric;
+    private final List<ContainerMetricSummary> summaries;
+  }
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class ContainerMetricSummary {
+    private String containerName;
+    private long windowMinutes;
+    private Map<String, MetricWindow> metrics;
+  }
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class MetricWindow {
+    private double average;
+    private double p95;
+    private int samples;
+  }
+
+  private static class PodSeries {
+    private final Map<String, Map<String, RingBuffer>> containers = new HashMap<>();
+    private PublishedMetric published;
+  }
+
+  private static class RingBuffer {
+    private final long[] timestamps;
+    private final double[] values;
+    private int next;
+    private int size;
+
+    RingBuffer(int capacity) {
+      this.timestamps = new long[capacity];
+      this.values = new double[capacity];
+    }
+
+    void add(long timestamp, double value) {
+      timestamps[next] = timestamp;
+      values[next] = value;
+      next = (next + 1) % values.length;
+      size = Math.min(size + 1, values.length);
+    }
+
+    /** Samples are added in time order, so the expired ones are always the oldest. */
+    void evictBefore(long since) {
+      while (size > 0 && timestamps[oldest()] < since) {
+        size--;
+      }
+    }
+
+    MetricWindow aggregate() {
+      int count = size;
+      if (count == 0) {
+        return null;
+      }
+
+      double[] sorted = new double[count];
+      double sum = 0;
+      for (int i = 0; i < count; i++) {
+        sorted[i] = values[(oldest() + i) % values.length];
+        sum += sorted[i];
+      }
+      Arrays.sort(sorted);
+      int p95Index = (int) Math.ceil(0.95 * count) - 1;
+
+      return MetricWindow.builder()
+          .average(sum / count)
+          .p95(sorted[Math.max(p95Index, 0)])
+          .samples(count)
+          .build();
+    }
+
+    private int oldest() {
+      return Math.floorMod(next - size, values.length);
+    }
+  }
+}
@@ -37,6 +37,7 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -48,6 +49,15 @@ public class KubernetesV2CachingAgentDispatcher implements KubernetesCachingAgen
 
   @Autowired private KubernetesResourcePropertyRegistry propertyRegistry;
 
+  @Value("${kubernetes.v2.metrics.samples:60}")
+  private int metricSamples = 60;
+
+  @Value("${kubernetes.v2.metrics.change-threshold:0.05}")
+  private double metricChangeThreshold = 0.05;
+
+  @Value("${kubernetes.v2.metrics.window-minutes:5}")
+  private long metricWindowMinutes = 5;
+
   @Override
   public Collection<KubernetesCachingAgent> buildAllCachingAgents(
       KubernetesNamedAccountCredentials credentials) {
@@ -91,7 +101,9 @@ public class KubernetesV2CachingAgentDispatcher implements KubernetesCachingAgen
                           registry,
                           i,
                           credentials.getCacheThreads(),
-                          agentInterval)));
+                          agentInterval,
+                          new KubernetesPodMetricStore(
+                              metricSamples, metricChangeThreshold, metricWindowMinutes))));
     }
 
     return result.stream()
@@ -21,6 +21,7 @@ import com.netflix.spinnaker.cats.cache.CacheData;
 import com.netflix.spinnaker.clouddriver.kubernetes.provider.KubernetesModelUtil;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.Keys;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent.KubernetesCacheDataConverter;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent.KubernetesPodMetricStore.ContainerMetricSummary;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesManifest;
 import com.netflix.spinnaker.clouddriver.model.HealthState;
 import com.netflix.spinnaker.clouddriver.model.Instance;
@@ -45,6 +46,7 @@ public class KubernetesV2Instance extends ManifestBasedModel implements Instance
   List<Map<String, Object>> health = new ArrayList<>();
   KubernetesManifest manifest;
   Keys.InfrastructureCacheKey key;
+  List<ContainerMetricSummary> metricSummaries = new ArrayList<>();
 
   private KubernetesV2Instance(KubernetesManifest manifest, String key) {
     this.manifest = manifest;
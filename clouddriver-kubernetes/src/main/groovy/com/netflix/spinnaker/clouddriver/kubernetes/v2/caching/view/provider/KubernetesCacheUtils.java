@@ -35,10 +35,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -125,14 +127,18 @@ public class KubernetesCacheUtils {
 
   public Collection<CacheData> loadRelationshipsFromCache(
       Collection<CacheData> sources, String relationshipType) {
-    List<String> keys =
+    Set<String> keys =
         cleanupCollection(sources).stream()
             .map(CacheData::getRelationships)
             .filter(Objects::nonNull)
             .map(r -> r.get(relationshipType))
             .filter(Objects::nonNull)
             .flatMap(Collection::stream)
-            .collect(Collectors.toList());
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+
+    if (keys.isEmpty()) {
+      return new ArrayList<>();
+    }
 
     return cleanupCollection(cache.getAll(relationshipType, keys));
   }
@@ -28,6 +28,7 @@ import com.netflix.spinnaker.cats.cache.CacheData;
 import com.netflix.spinnaker.clouddriver.kubernetes.KubernetesCloudProvider;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.Keys;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.Keys.InfrastructureCacheKey;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent.KubernetesCacheDataConverter;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.view.model.KubernetesV2Cluster;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.view.model.KubernetesV2LoadBalancer;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.view.model.KubernetesV2ServerGroup;
@@ -167,12 +168,14 @@ public class KubernetesV2ClusterProvider implements ClusterProvider<KubernetesV2
                       .flatMap(Collection::stream)
                       .collect(Collectors.toList());
 
-              return cacheUtils.<KubernetesV2ServerGroup>resourceModelFromCacheData(
-                  KubernetesV2ServerGroupCacheData.builder()
-                      .serverGroupData(cd)
-                      .instanceData(instanceData)
-                      .loadBalancerData(loadBalancerData)
-                      .build());
+              return KubernetesCacheDataConverter.withManifestMemo(
+                  () ->
+                      cacheUtils.<KubernetesV2ServerGroup>resourceModelFromCacheData(
+                          KubernetesV2ServerGroupCacheData.builder()
+                              .serverGroupData(cd)
+                              .instanceData(instanceData)
+                              .loadBalancerData(loadBalancerData)
+                              .build()));
             })
         .orElse(null);
   }
@@ -218,6 +221,14 @@ public class KubernetesV2ClusterProvider implements ClusterProvider<KubernetesV2
 
   private Set<KubernetesV2Cluster> translateClustersWithRelationships(
       Collection<CacheData> clusterData) {
+    // Server groups, load balancers and instances are each decoded several times while building
+    // the clusters' server groups and load balancers, so decode every manifest only once.
+    return KubernetesCacheDataConverter.withManifestMemo(
+        () -> doTranslateClustersWithRelationships(clusterData));
+  }
+
+  private Set<KubernetesV2Cluster> doTranslateClustersWithRelationships(
+      Collection<CacheData> clusterData) {
     // TODO(lwander) possible optimization: store lb relationships in cluster object to cut down on
     // number of loads here.
     List<CacheData> serverGroupData =
@@ -35,6 +35,7 @@ import com.netflix.spinnaker.clouddriver.security.ProviderVersion;
 import io.kubernetes.client.models.V1Container;
 import io.kubernetes.client.models.V1Pod;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
@@ -88,7 +89,17 @@ public class KubernetesV2InstanceProvider
 
     CacheData instanceData = optionalInstanceData.get();
 
-    return KubernetesV2Instance.fromCacheData(instanceData);
+    KubernetesV2Instance instance = KubernetesV2Instance.fromCacheData(instanceData);
+    if (instance != null && KubernetesKind.POD.equals(kind)) {
+      String metricKey = Keys.MetricCacheKey.createKey(kind, account, location, name);
+      instance.setMetricSummaries(
+          cacheUtils
+              .getSingleEntry(Keys.Kind.KUBERNETES_METRIC.toString(), metricKey)
+              .map(KubernetesCacheDataConverter::getMetricSummaries)
+              .orElse(Collections.emptyList()));
+    }
+
+    return instance;
   }
 
   @Override
@@ -40,7 +40,6 @@ public class KubernetesPodHandler extends KubernetesHandler {
   public KubernetesPodHandler() {
     registerReplacer(
         ArtifactReplacer.Replacer.builder()
-            .replacePath("$.spec.containers.[?( @.image == \"{%name%}\" )].image")
             .findPath("$.spec.containers.*.image")
             .type(KubernetesArtifactType.DockerImage)
             .build());
@@ -32,6 +32,7 @@ import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.Kube
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesManifest;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesApiResourceParser;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesSelectorList;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesSelfSubjectRulesParser;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesV2Credentials;
 import io.kubernetes.client.models.V1DeleteOptions;
 import java.io.BufferedReader;
@@ -450,6 +451,59 @@ public class KubectlJobExecutor {
     return null;
   }
 
+  /**
+   * Applies all `manifests` with a single `kubectl apply`, which submits them in the order given.
+   * Returns what kubectl reported for each resource, e.g. `deployment.apps/my-app` -> `configured`,
+   * in the order they were applied. If any resource fails the exception names the resources that
+   * were applied before the failure.
+   */
+  public Map<String, String> deploy(
+      KubernetesV2Credentials credentials, List<KubernetesManifest> manifests) {
+    List<String> command = kubectlAuthPrefix(credentials);
+
+    Map<String, Object> manifestList = new LinkedHashMap<>();
+    manifestList.put("apiVersion", "v1");
+    manifestList.put("kind", "List");
+    manifestList.put("items", manifests);
+    String manifestsAsJson = gson.toJson(manifestList);
+
+    // Read from stdin
+    command.add("apply");
+    command.add("-f");
+    command.add("-");
+
+    JobResult<String> status =
+        jobExecutor.runJob(
+            new JobRequest(command, new ByteArrayInputStream(manifestsAsJson.getBytes())));
+
+    Map<String, String> applied = parseApplyOutput(status.getOutput());
+    if (status.getResult() != JobResult.Result.SUCCESS) {
+      throw new KubectlException(
+          "Deploy failed: " + status.getError() + " (applied before failure: " + applied + ")");
+    }
+
+    return applied;
+  }
+
+  private static Map<String, String> parseApplyOutput(String output) {
+    Map<String, String> result = new LinkedHashMap<>();
+    if (StringUtils.isEmpty(output)) {
+      return result;
+    }
+
+    for (String line : output.split("\n")) {
+      line = line.trim();
+      int separator = line.lastIndexOf(' ');
+      if (separator > 0) {
+        result.put(line.substring(0, separator), line.substring(separator + 1));
+      } else if (!line.isEmpty()) {
+        result.put(line, "");
+      }
+    }
+
+    return result;
+  }
+
   public Void replace(KubernetesV2Credentials credentials, KubernetesManifest manifest) {
     List<String> command = kubectlAuthPrefix(credentials);
 
@@ -623,6 +677,35 @@ public class KubectlJobExecutor {
     return status.getResult() == JobResult.Result.SUCCESS;
   }
 
+  public List<KubernetesSelfSubjectRulesParser.ResourceRule> authCanIList(
+      KubernetesV2Credentials credentials, String namespace) {
+    List<String> command = kubectlNamespacedAuthPrefix(credentials, namespace);
+    command.add("auth");
+    command.add("can-i");
+    command.add("--list");
+
+    JobResult<String> status = jobExecutor.runJob(new JobRequest(command));
+
+    // older kubectl binaries and api servers don't support listing rules; callers fall back to
+    // checking kinds one at a time
+    if (status.getResult() != JobResult.Result.SUCCESS) {
+      log.debug("Unable to list permission rules: {}", status.getError());
+      return new ArrayList<>();
+    }
+
+    String output = status.getOutput().trim();
+    if (StringUtils.isEmpty(output)) {
+      return new ArrayList<>();
+    }
+
+    try {
+      return KubernetesSelfSubjectRulesParser.parse(output);
+    } catch (IllegalArgumentException e) {
+      log.warn("Unable to parse permission rules: {}", e.getMessage());
+      return new ArrayList<>();
+    }
+  }
+
   public Collection<KubernetesPodMetric> topPod(
       KubernetesV2Credentials credentials, String namespace, String pod) {
     List<String> command = kubectlNamespacedAuthPrefix(credentials, namespace);
@@ -29,6 +29,7 @@ import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.OperationResult;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.handler.CanLoadBalance;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.handler.CanScale;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.handler.KubernetesHandler;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job.KubectlJobExecutor;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesV2Credentials;
 import com.netflix.spinnaker.clouddriver.model.ArtifactProvider;
 import com.netflix.spinnaker.clouddriver.names.NamerRegistry;
@@ -50,6 +51,8 @@ public class KubernetesDeployManifestOperation implements AtomicOperation<Operat
   private final Namer namer;
   private final KubernetesResourcePropertyRegistry registry;
   private final String accountName;
+  // manifests ready to be applied together in a single kubectl call, in deploy priority order
+  private final List<KubernetesManifest> pendingManifests = new ArrayList<>();
   private static final String OP_NAME = "DEPLOY_KUBERNETES_MANIFEST";
 
   public KubernetesDeployManifestOperation(
@@ -168,6 +171,7 @@ public class KubernetesDeployManifestOperation implements AtomicOperation<Operat
                         .collect(Collectors.toList())));
 
     OperationResult result = new OperationResult();
+    pendingManifests.clear();
     for (KubernetesManifest manifest : deployManifests) {
       KubernetesResourceProperties properties = findResourceProperties(manifest);
       KubernetesManifestStrategy strategy = KubernetesManifestAnnotater.getStrategy(manifest);
@@ -232,16 +236,26 @@ public class KubernetesDeployManifestOperation implements AtomicOperation<Operat
       boundArtifacts.addAll(replaceResult.getBoundArtifacts());
       manifest = replaceResult.getManifest();
 
-      getTask()
-          .updateStatus(
-              OP_NAME,
-              "Submitting manifest " + manifest.getFullResourceName() + " to kubernetes master...");
       log.debug("Manifest in {} to be deployed: {}", accountName, manifest);
-      result.merge(deployer.deploy(credentials, manifest, recreate, replace));
-
       result.getCreatedArtifacts().add(artifact);
+
+      if (recreate || replace) {
+        // these strategies need their own kubectl calls, so flush what's pending to keep the order
+        deployPending(result);
+        getTask()
+            .updateStatus(
+                OP_NAME,
+                "Submitting manifest "
+                    + manifest.getFullResourceName()
+                    + " to kubernetes master...");
+        result.merge(deployer.deploy(credentials, manifest, recreate, replace));
+      } else {
+        pendingManifests.add(manifest);
+      }
     }
 
+    deployPending(result);
+
     result.getBoundArtifacts().addAll(boundArtifacts);
     result.removeSensitiveKeys(registry, accountName);
 
@@ -249,6 +263,65 @@ public class KubernetesDeployManifestOperation implements AtomicOperation<Operat
     return result;
   }
 
+  private void deployPending(OperationResult result) {
+    if (pendingManifests.isEmpty()) {
+      return;
+    }
+
+    // custom resources can't be mapped by the api server until their definition is established,
+    // so a batch that defines a CRD is applied one manifest at a time, as is a single manifest
+    boolean definesCrd =
+        pendingManifests.stream()
+            .anyMatch(m -> KubernetesKind.CUSTOM_RESOURCE_DEFINITION.equals(m.getKind()));
+    if (pendingManifests.size() == 1 || definesCrd) {
+      deployEach(result);
+      return;
+    }
+
+    getTask()
+        .updateStatus(
+            OP_NAME,
+            "Submitting "
+                + pendingManifests.size()
+                + " manifests to kubernetes master in a single request...");
+    Map<String, String> applied;
+    try {
+      applied = credentials.deploy(pendingManifests);
+    } catch (KubectlJobExecutor.KubectlException e) {
+      // apply is idempotent, so re-apply everything one manifest at a time; this attributes the
+      // failure to the manifest that caused it, and applies the manifests before it as it used to
+      log.warn(
+          "Applying {} manifests in a single request failed, applying them one at a time",
+          pendingManifests.size(),
+          e);
+      getTask()
+          .updateStatus(
+              OP_NAME, "Single request failed (" + e.getMessage() + "), applying each manifest...");
+      deployEach(result);
+      return;
+    }
+
+    if (applied != null) {
+      applied.forEach(
+          (resource, outcome) -> getTask().updateStatus(OP_NAME, resource + " " + outcome));
+    }
+    pendingManifests.forEach(result::addManifest);
+    pendingManifests.clear();
+  }
+
+  private void deployEach(OperationResult result) {
+    List<KubernetesManifest> manifests = new ArrayList<>(pendingManifests);
+    pendingManifests.clear();
+    for (KubernetesManifest manifest : manifests) {
+      getTask()
+          .updateStatus(
+              OP_NAME,
+              "Submitting manifest " + manifest.getFullResourceName() + " to kubernetes master...");
+      KubernetesHandler deployer = findResourceProperties(manifest).getHandler();
+      result.merge(deployer.deploy(credentials, manifest, false, false));
+    }
+  }
+
   private void setTrafficAnnotation(List<String> services, KubernetesManifest manifest) {
     if (services == null || services.isEmpty()) {
       return;
@@ -282,10 +355,18 @@ public class KubernetesDeployManifestOperation implements AtomicOperation<Operat
 
     CanLoadBalance handler = CanLoadBalance.lookupProperties(registry, accountName, name);
 
-    // TODO(lwander): look into using a combination of the cache & other resources passed in with
-    // this request instead of making a live call here.
+    // the load balancer may be part of this request and not yet applied, so check those first
+    // TODO(lwander): look into using the cache instead of making a live call here.
     KubernetesManifest loadBalancer =
-        credentials.get(name.getLeft(), target.getNamespace(), name.getRight());
+        pendingManifests.stream()
+            .filter(
+                m ->
+                    m.getKind().equals(name.getLeft())
+                        && m.getName().equals(name.getRight())
+                        && Objects.equals(m.getNamespace(), target.getNamespace()))
+            .findFirst()
+            .orElseGet(
+                () -> credentials.get(name.getLeft(), target.getNamespace(), name.getRight()));
     if (loadBalancer == null) {
       throw new IllegalArgumentException("Load balancer " + loadBalancerName + " does not exist");
     }
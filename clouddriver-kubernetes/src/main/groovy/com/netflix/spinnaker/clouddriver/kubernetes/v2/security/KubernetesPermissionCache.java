@@ -0,0 +1,182 @@
+/*
+ * Copyright 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.security;
+
+import com.netflix.spinnaker.cats.thread.NamedThreadFactory;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesKind;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesV2Credentials.InvalidKindReason;
+import java.lang.ref.WeakReference;
+import java.time.Clock;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the result of api discovery and permission checks for each kubernetes account, so that
+ * they are computed once per account configuration rather than every time the account's
+ * credentials are rebuilt. Entries are keyed by account name and compared by the account's
+ * configuration; a changed configuration recomputes the entry immediately.
+ *
+ * <p>Credentials hold on to the entry they were given, which keeps the last computed permissions
+ * and is refreshed in place in the background once it is older than the configured ttl. An entry
+ * is only referenced weakly by the cache, so once no credentials use it (e.g. the account was
+ * deleted) it is no longer refreshed.
+ */
+@Component
+@Slf4j
+public class KubernetesPermissionCache {
+  private final Map<String, WeakReference<CachedPermissions>> entries = new ConcurrentHashMap<>();
+  private final Clock clock;
+  private ScheduledExecutorService refresher;
+
+  @Value("${kubernetes.v2.permission-cache.ttl-seconds:600}")
+  long ttlSeconds = 600;
+
+  public KubernetesPermissionCache() {
+    this(Clock.systemUTC());
+  }
+
+  KubernetesPermissionCache(Clock clock) {
+    this.clock = clock;
+  }
+
+  @PostConstruct
+  public void start() {
+    refresher =
+        Executors.newSingleThreadScheduledExecutor(
+            new NamedThreadFactory(KubernetesPermissionCache.class.getSimpleName()));
+    long period = Math.max(ttlSeconds / 2, 1);
+    refresher.scheduleWithFixedDelay(this::refreshExpired, period, period, TimeUnit.SECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (refresher != null) {
+      refresher.shutdownNow();
+    }
+  }
+
+  /**
+   * Returns the entry for an account's configuration, running `loader` on the calling thread if no
+   * credentials with an equal configuration have computed it yet.
+   *
+   * @param configuration compared with {@link Object#equals(Object)} to the configuration the
+   *     existing entry was computed for
+   */
+  public CachedPermissions get(
+      String accountName, Object configuration, Supplier<AccountPermissions> loader) {
+    CachedPermissions existing = dereference(entries.get(accountName));
+    if (existing != null && existing.configuration.equals(configuration)) {
+      return existing;
+    }
+
+    // loading runs outside of the map so accounts initializing in parallel don't block each other
+    CachedPermissions entry =
+        new CachedPermissions(configuration, loader, load(accountName, loader), clock.millis());
+    entries.put(accountName, new WeakReference<>(entry));
+    return entry;
+  }
+
+  void refreshExpired() {
+    entries.values().removeIf(reference -> reference.get() == null);
+
+    long ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    entries.forEach(
+        (name, reference) -> {
+          CachedPermissions entry = reference.get();
+          if (entry == null || clock.millis() - entry.computedAt < ttlMillis) {
+            return;
+          }
+
+          try {
+            entry.update(load(name, entry.loader), clock.millis());
+          } catch (Exception e) {
+            log.warn(
+                "Failed to refresh permissions for account {}, keeping previous result", name, e);
+          }
+        });
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  private static CachedPermissions dereference(WeakReference<CachedPermissions> reference) {
+    return reference == null ? null : reference.get();
+  }
+
+  private AccountPermissions load(String accountName, Supplier<AccountPermissions> loader) {
+    long startTime = clock.millis();
+    AccountPermissions permissions = loader.get();
+    log.info(
+        "Computed permissions for account {} in {} ms", accountName, clock.millis() - startTime);
+    return permissions;
+  }
+
+  /** The last permissions computed for an account configuration. */
+  public static class CachedPermissions {
+    private final Object configuration;
+    private final Supplier<AccountPermissions> loader;
+    private volatile AccountPermissions permissions;
+    private volatile long computedAt;
+
+    CachedPermissions(
+        Object configuration,
+        Supplier<AccountPermissions> loader,
+        AccountPermissions permissions,
+        long computedAt) {
+      this.configuration = configuration;
+      this.loader = loader;
+      this.permissions = permissions;
+      this.computedAt = computedAt;
+    }
+
+    public AccountPermissions get() {
+      return permissions;
+    }
+
+    private void update(AccountPermissions permissions, long computedAt) {
+      this.permissions = permissions;
+      this.computedAt = computedAt;
+    }
+  }
+
+  @Getter
+  @Builder
+  public static class AccountPermissions {
+    @Builder.Default
+    private final Map<KubernetesKind, InvalidKindReason> unreadableKinds = new HashMap<>();
+
+    @Builder.Default private final boolean metricsReadable = true;
+
+    public static AccountPermissions unchecked() {
+      return AccountPermissions.builder().unreadableKinds(Collections.emptyMap()).build();
+    }
+  }
+}
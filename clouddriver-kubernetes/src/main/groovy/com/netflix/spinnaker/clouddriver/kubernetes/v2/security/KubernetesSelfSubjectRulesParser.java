@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.security;
+
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesApiGroup;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesKind;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.Value;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Parses the output of `kubectl auth can-i --list`, which renders the SelfSubjectRulesReview for
+ * the current user as a table of resources, non-resource urls, resource names and verbs.
+ */
+public class KubernetesSelfSubjectRulesParser {
+  private static final String WILDCARD = "*";
+
+  public static List<ResourceRule> parse(String input) {
+    String[] lines = input.trim().split("\n");
+    String headerRow = lines[0];
+    int resourcesIndex = headerRow.indexOf("Resources");
+    int nonResourceIndex = headerRow.indexOf("Non-Resource URLs");
+    int resourceNamesIndex = headerRow.indexOf("Resource Names");
+    int verbsIndex = headerRow.indexOf("Verbs");
+
+    if (resourcesIndex != 0 || nonResourceIndex < 0 || resourceNamesIndex < 0 || verbsIndex < 0) {
+      throw new IllegalArgumentException(
+          "auth can-i --list input not in the proper format. expected to find Resources header.");
+    }
+
+    List<ResourceRule> rules = new ArrayList<>();
+    for (int i = 1; i < lines.length; i++) {
+      String line = lines[i];
+      if (line.length() <= verbsIndex) {
+        continue;
+      }
+
+      String resource = line.substring(resourcesIndex, nonResourceIndex).trim();
+      if (resource.isEmpty()) {
+        // non-resource url rules have no bearing on which kinds can be read
+        continue;
+      }
+
+      List<String> resourceNames = toList(line.substring(resourceNamesIndex, verbsIndex).trim());
+      List<String> verbs = toList(line.substring(verbsIndex).trim());
+      rules.add(new ResourceRule(resource, !resourceNames.isEmpty(), verbs));
+    }
+
+    return rules;
+  }
+
+  private static List<String> toList(String bracketed) {
+    String contents = StringUtils.strip(bracketed, "[]").trim();
+    if (contents.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    return Arrays.asList(contents.split("\\s+"));
+  }
+
+  @Value
+  public static class ResourceRule {
+    // either `resource` for the core group or `resource.group`, either part possibly `*`
+    String resource;
+    // rules restricted to named resources never grant collection verbs such as list
+    boolean restrictedToNames;
+    List<String> verbs;
+
+    /**
+     * True if this rule grants `verb` on every resource of the given kind. Resources are matched by
+     * the plural forms of the kind name since the rules review doesn't report kinds, so a `false`
+     * result means "unknown" rather than "denied".
+     *
+     * <p>The rules are reviewed for a single namespace, so they say nothing about cluster-scoped
+     * kinds: those are never granted here and must be checked on their own.
+     */
+    public boolean allows(KubernetesKind kind, String verb) {
+      if (!kind.isNamespaced()
+          || restrictedToNames
+          || !(verbs.contains(verb) || verbs.contains(WILDCARD))) {
+        return false;
+      }
+
+      int groupSeparator = resource.indexOf('.');
+      String resourceName = groupSeparator < 0 ? resource : resource.substring(0, groupSeparator);
+      String group = groupSeparator < 0 ? "" : resource.substring(groupSeparator + 1);
+
+      return matchesGroup(group, kind.getScopedKind().getApiGroup())
+          && matchesResource(resourceName, kind.getScopedKind().getName());
+    }
+
+    private static boolean matchesGroup(String group, KubernetesApiGroup apiGroup) {
+      if (group.equals(WILDCARD)) {
+        return true;
+      }
+
+      String kindGroup = apiGroup.toString();
+      if (kindGroup.equals(KubernetesApiGroup.CORE.toString())) {
+        kindGroup = "";
+      }
+
+      return group.equalsIgnoreCase(kindGroup);
+    }
+
+    private static boolean matchesResource(String resourceName, String kindName) {
+      if (resourceName.equals(WILDCARD)) {
+        return true;
+      }
+
+      String name = kindName.toLowerCase();
+      return resourceName.equals(name + "s")
+          || resourceName.equals(name + "es")
+          || (name.endsWith("y")
+              && resourceName.equals(name.substring(0, name.length() - 1) + "ies"));
+    }
+  }
+}
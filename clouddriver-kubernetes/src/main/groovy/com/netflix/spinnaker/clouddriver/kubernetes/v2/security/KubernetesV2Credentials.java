@@ -44,6 +44,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -65,6 +66,7 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
   private final Registry registry;
   private final Clock clock;
   private final KubectlJobExecutor jobExecutor;
+  private final KubernetesPermissionCache permissionCache;
 
   @Include private final String accountName;
 
@@ -106,11 +108,10 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
 
   @Include @Getter private boolean metrics;
 
-  @Getter private boolean metricsComputed;
-
   @Include @Getter private final boolean debug;
 
   private String cachedDefaultNamespace;
+  private volatile KubernetesPermissionCache.CachedPermissions cachedPermissions;
   private final Supplier<List<String>> liveNamespaceSupplier;
   private final Supplier<List<KubernetesKind>> liveCrdSupplier;
 
@@ -118,10 +119,12 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
       Registry registry,
       KubectlJobExecutor jobExecutor,
       KubernetesConfigurationProperties.ManagedAccount managedAccount,
-      String kubeconfigFile) {
+      String kubeconfigFile,
+      KubernetesPermissionCache permissionCache) {
     this.registry = registry;
     this.clock = registry.clock();
     this.jobExecutor = jobExecutor;
+    this.permissionCache = permissionCache;
 
     this.accountName = managedAccount.getName();
     this.namespaces = managedAccount.getNamespaces();
@@ -156,7 +159,6 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
     this.oAuthScopes = managedAccount.getoAuthScopes();
 
     this.metrics = managedAccount.getMetrics();
-    this.metricsComputed = managedAccount.getMetrics();
 
     this.debug = managedAccount.getDebug();
 
@@ -266,11 +268,34 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
       return InvalidKindReason.KIND_NONE;
     } else if (!this.kinds.isEmpty()) {
       return !kinds.contains(kind) ? InvalidKindReason.MISSING_FROM_ALLOWED_KINDS : null;
+    } else if (this.omitKindsComputed.containsKey(kind)) {
+      return this.omitKindsComputed.get(kind);
     } else {
-      return this.omitKindsComputed.getOrDefault(kind, null);
+      return computedPermissions().getUnreadableKinds().getOrDefault(kind, null);
     }
   }
 
+  public boolean isMetricsComputed() {
+    return metrics && computedPermissions().isMetricsReadable();
+  }
+
+  private KubernetesPermissionCache.AccountPermissions computedPermissions() {
+    if (!checkPermissionsOnStartup) {
+      return KubernetesPermissionCache.AccountPermissions.unchecked();
+    }
+
+    // the entry is looked up once and then refreshed in place by the cache; credentials that
+    // weren't initialized compute their permissions here rather than treating every kind as
+    // readable
+    KubernetesPermissionCache.CachedPermissions permissions = cachedPermissions;
+    if (permissions == null) {
+      permissions = permissionCache.get(accountName, this, this::determineOmitKinds);
+      cachedPermissions = permissions;
+    }
+
+    return permissions.get();
+  }
+
   public String getDefaultNamespace() {
     if (StringUtils.isEmpty(cachedDefaultNamespace)) {
       cachedDefaultNamespace = lookupDefaultNamespace();
@@ -319,9 +344,9 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
     // crds are registered
     this.liveCrdSupplier.get();
 
-    if (checkPermissionsOnStartup) {
-      determineOmitKinds();
-    }
+    // discovery and permission checks are shared with any earlier credentials built from the
+    // same account configuration, and refreshed in the background by the cache
+    computedPermissions();
   }
 
   public List<KubernetesKind> getCrds() {
@@ -345,7 +370,7 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
     return result;
   }
 
-  private void determineOmitKinds() {
+  private KubernetesPermissionCache.AccountPermissions determineOmitKinds() {
     List<String> namespaces = getDeclaredNamespaces();
 
     if (namespaces.isEmpty()) {
@@ -353,7 +378,7 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
           "There are no namespaces configured (or loadable) -- please check that the list of 'omitNamespaces' for account '"
               + accountName
               + "' doesn't prevent access from all namespaces in this cluster, or that the cluster is reachable.");
-      return;
+      return KubernetesPermissionCache.AccountPermissions.unchecked();
     }
 
     // we are making the assumption that the roles granted to spinnaker for this account in all
@@ -367,33 +392,38 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
         "Checking permissions on configured kinds for account {}... {}", accountName, allKinds);
     long startTime = System.nanoTime();
 
+    Map<KubernetesKind, InvalidKindReason> unreadableKinds = new ConcurrentHashMap<>();
+
     // compute list of kinds we explicitly know the server doesn't support
     try {
       Set<KubernetesKind.ScopedKind> availableResources = jobExecutor.apiResources(this);
-      Map<KubernetesKind, InvalidKindReason> unavailableKinds =
-          allKinds.stream()
-              .filter(k -> k != KubernetesKind.NONE)
-              .filter(k -> !availableResources.contains(k.getScopedKind()))
-              .collect(Collectors.toConcurrentMap(k -> k, k -> InvalidKindReason.READ_ERROR));
-
-      omitKindsComputed.putAll(unavailableKinds);
+      allKinds.stream()
+          .filter(k -> k != KubernetesKind.NONE)
+          .filter(k -> !availableResources.contains(k.getScopedKind()))
+          .forEach(k -> unreadableKinds.put(k, InvalidKindReason.READ_ERROR));
     } catch (Exception e) {
       log.warn("Failed to evaluate kinds available on server. {}.", e.getMessage());
     }
 
-    Map<KubernetesKind, InvalidKindReason> unreadableKinds =
-        allKinds
-            .parallelStream()
-            .filter(k -> k != KubernetesKind.NONE)
-            .filter(k -> !omitKindsComputed.keySet().contains(k))
-            .filter(k -> !canReadKind(k, checkNamespace))
-            .collect(Collectors.toConcurrentMap(k -> k, k -> InvalidKindReason.READ_ERROR));
+    // a single rules review answers most namespaced kinds at once; cluster-scoped kinds and kinds
+    // it doesn't explicitly grant fall back to an individual `auth can-i` check
+    List<KubernetesSelfSubjectRulesParser.ResourceRule> rules =
+        jobExecutor.authCanIList(this, checkNamespace);
+
+    allKinds
+        .parallelStream()
+        .filter(k -> k != KubernetesKind.NONE)
+        .filter(k -> !omitKindsComputed.containsKey(k))
+        .filter(k -> !unreadableKinds.containsKey(k))
+        .filter(k -> rules.stream().noneMatch(r -> r.allows(k, "list")))
+        .filter(k -> !canReadKind(k, checkNamespace))
+        .forEach(k -> unreadableKinds.put(k, InvalidKindReason.READ_ERROR));
     long endTime = System.nanoTime();
     long duration = (endTime - startTime) / 1000000;
     log.info("determineOmitKinds for account {} took {} ms", accountName, duration);
-    omitKindsComputed.putAll(unreadableKinds);
 
-    if (metricsComputed) {
+    boolean metricsReadable = true;
+    if (metrics) {
       try {
         log.info("Checking if pod metrics are readable for account {}...", accountName);
         topPod(checkNamespace, null);
@@ -403,9 +433,14 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
             accountName,
             e.getMessage());
         log.debug("Reading logs for account '{}' failed with exception: ", accountName, e);
-        metricsComputed = false;
+        metricsReadable = false;
       }
     }
+
+    return KubernetesPermissionCache.AccountPermissions.builder()
+        .unreadableKinds(unreadableKinds)
+        .metricsReadable(metricsReadable)
+        .build();
   }
 
   private boolean canReadKind(KubernetesKind kind, String checkNamespace) {
@@ -517,6 +552,18 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
         () -> jobExecutor.deploy(this, manifest));
   }
 
+  public Map<String, String> deploy(List<KubernetesManifest> manifests) {
+    List<KubernetesKind> kinds =
+        manifests.stream().map(KubernetesManifest::getKind).distinct().collect(Collectors.toList());
+    Set<String> namespaces =
+        manifests.stream().map(KubernetesManifest::getNamespace).collect(Collectors.toSet());
+    return runAndRecordMetrics(
+        "deploy",
+        kinds,
+        namespaces.size() == 1 ? namespaces.iterator().next() : "",
+        () -> jobExecutor.deploy(this, manifests));
+  }
+
   public void replace(KubernetesManifest manifest) {
     runAndRecordMetrics(
         "replace",
@@ -32,6 +32,7 @@ import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent.KubernetesV
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesResourcePropertyRegistry
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesSpinnakerKindMap
 import com.netflix.spinnaker.clouddriver.security.AccountCredentialsRepository
+import com.netflix.spinnaker.clouddriver.security.ParallelAccountInitializer
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.boot.context.properties.ConfigurationProperties
 import org.springframework.boot.context.properties.EnableConfigurationProperties
@@ -88,7 +89,8 @@ class KubernetesConfiguration {
     KubernetesConfigurationProperties kubernetesConfigurationProperties,
     KubernetesNamedAccountCredentials.CredentialFactory credentialFactory,
     KubernetesSpinnakerKindMap kubernetesSpinnakerKindMap,
-    CatsModule catsModule
+    CatsModule catsModule,
+    ParallelAccountInitializer parallelAccountInitializer
   ){
     new KubernetesV2ProviderSynchronizable(
       kubernetesV2Provider,
@@ -98,7 +100,8 @@ class KubernetesConfiguration {
       kubernetesConfigurationProperties,
       credentialFactory,
       kubernetesSpinnakerKindMap,
-      catsModule
+      catsModule,
+      parallelAccountInitializer
     )
   }
 
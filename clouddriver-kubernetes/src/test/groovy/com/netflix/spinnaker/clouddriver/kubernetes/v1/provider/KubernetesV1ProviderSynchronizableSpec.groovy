@@ -25,6 +25,7 @@ import com.netflix.spinnaker.clouddriver.kubernetes.v1.provider.agent.Kubernetes
 import com.netflix.spinnaker.clouddriver.kubernetes.v1.security.KubernetesV1Credentials
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesSpinnakerKindMap
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job.KubectlJobExecutor
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesPermissionCache
 import com.netflix.spinnaker.clouddriver.names.NamerRegistry
 import com.netflix.spinnaker.clouddriver.security.AccountCredentials
 import com.netflix.spinnaker.clouddriver.security.AccountCredentialsRepository
@@ -48,7 +49,8 @@ class KubernetesV1ProviderSynchronizableSpec extends Specification {
     namerRegistry,
     accountCredentialsRepository,
     Mock(KubectlJobExecutor),
-    configFileService
+    configFileService,
+    new KubernetesPermissionCache()
   )
 
   def synchronizeAccounts(KubernetesConfigurationProperties configurationProperties) {
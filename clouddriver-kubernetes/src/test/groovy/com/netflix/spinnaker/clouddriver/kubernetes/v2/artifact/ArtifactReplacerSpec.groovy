@@ -174,4 +174,68 @@ spec:
     "clouddriver@sha256:9145"                   || "clouddriver"
     "localhost:5000/test/busybox@sha256:cbbf22" || "localhost:5000/test/busybox"
   }
+
+  def "replaces every matching image and binds each location once"() {
+    when:
+    def deploymentManifest = """
+apiVersion: apps/v1
+kind: Deployment
+metadata:
+  name: my-app-deployment
+spec:
+  template:
+    spec:
+      initContainers:
+      - name: init
+        image: nginx
+      containers:
+      - name: container
+        image: nginx
+      - name: sidecar
+        image: envoy
+"""
+    def artifactReplacer = new ArtifactReplacer()
+    artifactReplacer.addReplacer(ArtifactReplacerFactory.dockerImageReplacer())
+    def manifest = stringToManifest(deploymentManifest)
+    def nginx = Artifact.builder().type(KubernetesArtifactType.DockerImage.type).name("nginx").reference("nginx:1.17").build()
+    def other = Artifact.builder().type(KubernetesArtifactType.DockerImage.type).name("nginx").reference("nginx:other").build()
+    def unused = Artifact.builder().type(KubernetesArtifactType.DockerImage.type).name("redis").reference("redis:5").build()
+    def result = artifactReplacer.replaceAll(manifest, [nginx, other, unused], "default", "account")
+
+    then:
+    result.boundArtifacts == [nginx] as Set
+    result.manifest.spec.template.spec.initContainers[0].image == "nginx:1.17"
+    result.manifest.spec.template.spec.containers[0].image == "nginx:1.17"
+    result.manifest.spec.template.spec.containers[1].image == "envoy"
+  }
+
+  def "ignores the deprecated replace path of custom replacers"() {
+    when:
+    def configMapManifest = """
+apiVersion: apps/v1
+kind: Deployment
+metadata:
+  name: my-app-deployment
+spec:
+  template:
+    spec:
+      volumes:
+      - name: config
+        configMap:
+          name: my-config
+"""
+    def artifactReplacer = new ArtifactReplacer()
+    artifactReplacer.addReplacer(ArtifactReplacer.Replacer.builder()
+      .replacePath("\$..spec.template.spec.volumes.[?( @.configMap.name == \"{%name%}\" )].configMap.name")
+      .findPath("\$..spec.template.spec.volumes.*.configMap.name")
+      .type(KubernetesArtifactType.ConfigMap)
+      .build())
+    def manifest = stringToManifest(configMapManifest)
+    def configMap = Artifact.builder().type(KubernetesArtifactType.ConfigMap.type).name("my-config").reference("my-config-v001").build()
+    def result = artifactReplacer.replaceAll(manifest, [configMap], "", "account")
+
+    then:
+    result.boundArtifacts == [configMap] as Set
+    result.manifest.spec.template.spec.volumes[0].configMap.name == "my-config-v001"
+  }
 }
@@ -18,6 +18,7 @@ package com.netflix.spinnaker.clouddriver.kubernetes.v2.caching
 
 import com.netflix.spectator.api.NoopRegistry
 import com.netflix.spinnaker.cats.module.CatsModule
+import com.netflix.spinnaker.cats.provider.ProviderRegistry
 import com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesConfigurationProperties
 import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesNamedAccountCredentials
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent.KubernetesV2CachingAgentDispatcher
@@ -25,18 +26,21 @@ import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesRes
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesSpinnakerKindMap
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.names.KubernetesManifestNamer
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job.KubectlJobExecutor
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesPermissionCache
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesV2Credentials
 import com.netflix.spinnaker.clouddriver.names.NamerRegistry
-import com.netflix.spinnaker.clouddriver.security.AccountCredentials
 import com.netflix.spinnaker.clouddriver.security.AccountCredentialsRepository
+import com.netflix.spinnaker.clouddriver.security.MapBackedAccountCredentialsRepository
+import com.netflix.spinnaker.clouddriver.security.ParallelAccountInitializer
 import com.netflix.spinnaker.clouddriver.security.ProviderVersion
+import com.netflix.spinnaker.clouddriver.security.config.CredentialsInitializationProperties
 import com.netflix.spinnaker.kork.configserver.ConfigFileService
 import spock.lang.Specification
 
 class KubernetesV2ProviderSynchronizableSpec extends Specification {
 
   CatsModule catsModule = Mock(CatsModule)
-  AccountCredentialsRepository accountCredentialsRepository = Mock(AccountCredentialsRepository)
+  AccountCredentialsRepository accountCredentialsRepository = Spy(MapBackedAccountCredentialsRepository)
   NamerRegistry namerRegistry = Mock(NamerRegistry)
   ConfigFileService configFileService = Mock(ConfigFileService)
   KubernetesV2Provider kubernetesV2Provider = new KubernetesV2Provider()
@@ -48,12 +52,17 @@ class KubernetesV2ProviderSynchronizableSpec extends Specification {
     new NoopRegistry(),
     namerRegistry,
     accountCredentialsRepository,
-    Mock(KubectlJobExecutor),
-    configFileService
+    Stub(KubectlJobExecutor),
+    configFileService,
+    new KubernetesPermissionCache()
   )
 
   def synchronizeAccounts(KubernetesConfigurationProperties configurationProperties) {
-    KubernetesV2ProviderSynchronizable synchronizable = new KubernetesV2ProviderSynchronizable(
+    synchronizable(configurationProperties).synchronize()
+  }
+
+  def synchronizable(KubernetesConfigurationProperties configurationProperties) {
+    return new KubernetesV2ProviderSynchronizable(
       kubernetesV2Provider,
       accountCredentialsRepository,
       agentDispatcher,
@@ -61,16 +70,14 @@ class KubernetesV2ProviderSynchronizableSpec extends Specification {
       configurationProperties,
       credentialFactory,
       new KubernetesSpinnakerKindMap(),
-      catsModule
+      catsModule,
+      new ParallelAccountInitializer(new CredentialsInitializationProperties())
     )
-
-    synchronizable.synchronize()
   }
 
   void "is a no-op when there are no configured accounts"() {
     when:
     KubernetesConfigurationProperties kubernetesConfigurationProperties = new KubernetesConfigurationProperties()
-    accountCredentialsRepository.getAll() >> new HashSet<AccountCredentials>()
     synchronizeAccounts(kubernetesConfigurationProperties)
 
 
@@ -91,12 +98,12 @@ class KubernetesV2ProviderSynchronizableSpec extends Specification {
         providerVersion: ProviderVersion.v2,
       )
     ])
-    accountCredentialsRepository.getAll() >> new HashSet<AccountCredentials>()
     synchronizeAccounts(configurationProperties)
 
     then:
     1 * accountCredentialsRepository.save("test-account", _ as KubernetesNamedAccountCredentials) >> { _, creds ->
       credentials = creds
+      callRealMethod()
     }
     1 * namerRegistry.getNamingStrategy("kubernetesAnnotations") >> Mock(KubernetesManifestNamer)
 
@@ -116,4 +123,52 @@ class KubernetesV2ProviderSynchronizableSpec extends Specification {
     accountCredentials.isMetrics() == true
     accountCredentials.isLiveManifestCalls() == false
   }
+
+  void "only builds caching agents for accounts whose credentials changed"() {
+    given:
+    namerRegistry.getNamingStrategy(_) >> Mock(KubernetesManifestNamer)
+    catsModule.getProviderRegistry() >> Stub(ProviderRegistry)
+    KubernetesConfigurationProperties configurationProperties = new KubernetesConfigurationProperties()
+    configurationProperties.setAccounts([
+      managedAccount("unchanged-account", ["default"]),
+      managedAccount("changed-account", ["default"])
+    ])
+    def synchronizable = synchronizable(configurationProperties)
+
+    when:
+    synchronizable.synchronize()
+
+    then:
+    1 * agentDispatcher.buildAllCachingAgents({ it.name == "unchanged-account" }) >> []
+    1 * agentDispatcher.buildAllCachingAgents({ it.name == "changed-account" }) >> []
+
+    when:
+    configurationProperties.setAccounts([
+      managedAccount("unchanged-account", ["default"]),
+      managedAccount("changed-account", ["other"])
+    ])
+    synchronizable.synchronize()
+
+    then:
+    0 * agentDispatcher.buildAllCachingAgents({ it.name == "unchanged-account" })
+    1 * agentDispatcher.buildAllCachingAgents({ it.name == "changed-account" }) >> []
+    accountCredentialsRepository.getAll()*.name.sort() == ["changed-account", "unchanged-account"]
+
+    when:
+    configurationProperties.setAccounts([managedAccount("changed-account", ["other"])])
+    synchronizable.synchronize()
+
+    then:
+    0 * agentDispatcher.buildAllCachingAgents(_)
+    accountCredentialsRepository.getAll()*.name == ["changed-account"]
+  }
+
+  private static KubernetesConfigurationProperties.ManagedAccount managedAccount(String name, List<String> namespaces) {
+    return new KubernetesConfigurationProperties.ManagedAccount(
+      name: name,
+      namespaces: namespaces,
+      providerVersion: ProviderVersion.v2,
+      checkPermissionsOnStartup: false
+    )
+  }
 }
@@ -166,6 +166,65 @@ metadata:
     ]
   }
 
+  def "decodes each manifest once within a manifest memo"() {
+    setup:
+    def manifest = stringToManifest("""
+apiVersion: v1
+kind: Pod
+metadata:
+  name: my-pod
+  namespace: $NAMESPACE
+""")
+    def key = Keys.InfrastructureCacheKey.createKey(KubernetesKind.POD, ACCOUNT, NAMESPACE, "my-pod")
+    def cacheData = new DefaultCacheData(key, [manifest: manifest], [:])
+    def otherCacheData = new DefaultCacheData(key + "-other", [manifest: manifest], [:])
+
+    when:
+    def memoized = KubernetesCacheDataConverter.withManifestMemo({
+      [
+        KubernetesCacheDataConverter.getManifest(cacheData),
+        KubernetesCacheDataConverter.getManifest(cacheData),
+        KubernetesCacheDataConverter.withManifestMemo({ KubernetesCacheDataConverter.getManifest(cacheData) }),
+        KubernetesCacheDataConverter.getManifest(otherCacheData)
+      ]
+    })
+
+    then:
+    memoized[0].name == "my-pod"
+    memoized[1].is(memoized[0])
+    memoized[2].is(memoized[0])
+    !memoized[3].is(memoized[0])
+
+    when:
+    def unmemoized = KubernetesCacheDataConverter.getManifest(cacheData)
+
+    then:
+    !unmemoized.is(memoized[0])
+    !KubernetesCacheDataConverter.getManifest(cacheData).is(unmemoized)
+  }
+
+  def "clears the manifest memo when the read fails"() {
+    setup:
+    def manifest = stringToManifest("""
+apiVersion: v1
+kind: Pod
+metadata:
+  name: my-pod
+""")
+    def cacheData = new DefaultCacheData("key", [manifest: manifest], [:])
+    def memoized = null
+
+    when:
+    KubernetesCacheDataConverter.withManifestMemo({
+      memoized = KubernetesCacheDataConverter.getManifest(cacheData)
+      throw new IllegalStateException("read failed")
+    })
+
+    then:
+    thrown(IllegalStateException)
+    !KubernetesCacheDataConverter.getManifest(cacheData).is(memoized)
+  }
+
   def containerMetric(String containerName) {
     return KubernetesPodMetric.ContainerMetric.builder()
       .containerName(containerName)
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent
+
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesPodMetric
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.time.Clock
+import java.time.Instant
+import java.time.ZoneOffset
+import java.util.concurrent.TimeUnit
+
+class KubernetesPodMetricStoreSpec extends Specification {
+  def NAMESPACE = "spinnaker"
+  def POD = "my-pod"
+
+  def podMetric(String cpu, String memory, String pod = POD, String container = "container") {
+    return KubernetesPodMetric.builder()
+      .podName(pod)
+      .namespace(NAMESPACE)
+      .containerMetrics([
+        KubernetesPodMetric.ContainerMetric.builder()
+          .containerName(container)
+          .metrics(["CPU(cores)": cpu, "MEMORY(bytes)": memory])
+          .build()
+      ])
+      .build()
+  }
+
+  def newStore() {
+    return new KubernetesPodMetricStore(Clock.fixed(Instant.EPOCH, ZoneOffset.UTC), 60, 0.05, 5)
+  }
+
+  @Unroll
+  def "republishes the previous metric only when values stay within the threshold"() {
+    setup:
+    def store = newStore()
+    def first = podMetric("100m", "100Mi")
+    def second = podMetric(cpu, memory)
+
+    when:
+    def previous = store.record(first)
+    def published = store.record(second)
+
+    then:
+    published.metric.is(unchanged ? first : second)
+    published.is(previous) == unchanged
+
+    where:
+    cpu    | memory  || unchanged
+    "100m" | "100Mi" || true
+    "103m" | "101Mi" || true
+    "120m" | "100Mi" || false
+    "100m" | "200Mi" || false
+  }
+
+  def "publishes summaries of the recorded samples with the metric"() {
+    setup:
+    def store = newStore()
+
+    when:
+    def published = (1..20).collect { store.record(podMetric("${it}", "1Mi")) }.last()
+
+    then:
+    published.summaries.size() == 1
+    published.summaries[0].containerName == "container"
+    published.summaries[0].metrics["CPU(cores)"].average == 10.5d
+    published.summaries[0].metrics["CPU(cores)"].p95 == 19d
+    published.summaries[0].metrics["CPU(cores)"].samples == 20
+  }
+
+  def "recomputes summaries once the samples they were computed from age out"() {
+    setup:
+    long now = 0
+    def clock = Stub(Clock) {
+      millis() >> { now }
+    }
+    def store = new KubernetesPodMetricStore(clock, 60, 0.05, 5)
+    def second = podMetric("2", "1Mi")
+
+    when:
+    store.record(podMetric("1", "1Mi"))
+    now = TimeUnit.MINUTES.toMillis(1)
+    store.record(second)
+    def published = (2..6).collect {
+      now = TimeUnit.MINUTES.toMillis(it)
+      store.record(podMetric("2", "1Mi"))
+    }.last()
+
+    then:
+    published.metric.is(second)
+    published.summaries[0].metrics["CPU(cores)"].average == 2d
+    published.summaries[0].metrics["CPU(cores)"].p95 == 2d
+  }
+
+  def "does not republish steady values as their samples age out"() {
+    setup:
+    long now = 0
+    def clock = Stub(Clock) {
+      millis() >> { now }
+    }
+    def store = new KubernetesPodMetricStore(clock, 60, 0.05, 5)
+
+    when:
+    def first = store.record(podMetric("1", "1Mi"))
+    def published = (1..10).collect {
+      now = TimeUnit.MINUTES.toMillis(it)
+      store.record(podMetric("1", "1Mi"))
+    }
+
+    then:
+    published.every { it.is(first) }
+  }
+
+  def "drops the history of pods and containers that are no longer reported"() {
+    setup:
+    def store = newStore()
+    def remaining = podMetric("1", "1Mi", "remaining")
+
+    when:
+    store.record(podMetric("1", "1Mi", "deleted"))
+    store.record(remaining)
+    store.retainOnly([remaining])
+
+    then:
+    store.size() == 1
+
+    when:
+    def published = store.record(podMetric("1", "1Mi", "remaining", "replaced"))
+
+    then:
+    published.summaries*.containerName == ["replaced"]
+    published.summaries[0].metrics["CPU(cores)"].samples == 1
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.view.provider
+
+import com.netflix.spinnaker.cats.cache.Cache
+import com.netflix.spinnaker.cats.cache.CacheData
+import com.netflix.spinnaker.cats.cache.DefaultCacheData
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesResourcePropertyRegistry
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesSpinnakerKindMap
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesKind
+import spock.lang.Specification
+
+import static com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesSpinnakerKindMap.SpinnakerKind.SERVER_GROUPS
+
+class KubernetesCacheUtilsSpec extends Specification {
+  def cache = Mock(Cache)
+  def kindMap = Stub(KubernetesSpinnakerKindMap) {
+    translateSpinnakerKind(SERVER_GROUPS) >> ([KubernetesKind.REPLICA_SET, KubernetesKind.STATEFUL_SET] as Set)
+  }
+  def cacheUtils = new KubernetesCacheUtils(cache, kindMap, Stub(KubernetesResourcePropertyRegistry))
+
+  def "loads each related kind with a single cache call for all sources"() {
+    given:
+    def sources = [
+      cacheData("cluster-1", [replicaSet: ["rs-1", "rs-2"]]),
+      cacheData("cluster-2", [replicaSet: ["rs-2", "rs-3"], statefulSet: ["sts-1"]])
+    ]
+
+    when:
+    def result = cacheUtils.getAllRelationshipsOfSpinnakerKind(sources, SERVER_GROUPS)
+
+    then:
+    1 * cache.getAll("replicaSet", { it as List == ["rs-1", "rs-2", "rs-3"] }) >> [
+      cacheData("rs-1"), cacheData("rs-2"), cacheData("rs-3")
+    ]
+    1 * cache.getAll("statefulSet", { it as List == ["sts-1"] }) >> [cacheData("sts-1")]
+    0 * cache._
+
+    result*.id.sort() == ["rs-1", "rs-2", "rs-3", "sts-1"]
+  }
+
+  def "skips null sources and missing entries"() {
+    given:
+    def sources = [
+      cacheData("rs-1", [pod: ["pod-1"]]),
+      cacheData("rs-2", [pod: ["pod-2"]]),
+      null
+    ]
+
+    when:
+    def result = cacheUtils.loadRelationshipsFromCache(sources, "pod")
+
+    then:
+    1 * cache.getAll("pod", { it as List == ["pod-1", "pod-2"] }) >> [cacheData("pod-1"), null, cacheData("pod-2")]
+    0 * cache._
+
+    result*.id == ["pod-1", "pod-2"]
+  }
+
+  def "does not call the cache when no source has related keys"() {
+    when:
+    def result = cacheUtils.getAllRelationshipsOfSpinnakerKind([cacheData("cluster-1")], SERVER_GROUPS)
+
+    then:
+    0 * cache._
+    result.isEmpty()
+  }
+
+  private static CacheData cacheData(String id, Map<String, Collection<String>> relationships = [:]) {
+    return new DefaultCacheData(id, [:], relationships)
+  }
+}
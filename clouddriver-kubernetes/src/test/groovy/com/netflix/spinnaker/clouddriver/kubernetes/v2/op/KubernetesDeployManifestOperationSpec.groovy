@@ -27,8 +27,10 @@ import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesRes
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesSpinnakerKindMap
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.*
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.names.KubernetesManifestNamer
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.handler.KubernetesCustomResourceDefinitionHandler
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.handler.KubernetesReplicaSetHandler
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.handler.KubernetesServiceHandler
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job.KubectlJobExecutor
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.manifest.KubernetesDeployManifestOperation
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesV2Credentials
 import com.netflix.spinnaker.clouddriver.names.NamerRegistry
@@ -67,6 +69,16 @@ metadata:
   name: $NAME
 """
 
+  def REPLICA_SET_WITH_LOAD_BALANCER = """
+apiVersion: $API_VERSION
+kind: $KIND
+metadata:
+  name: $NAME
+  namespace: $NAMESPACE
+  annotations:
+    traffic.spinnaker.io/load-balancers: '["service $NAME"]'
+"""
+
   def MY_SERVICE = """
 apiVersion: v1
 kind: $SERVICE
@@ -78,6 +90,16 @@ spec:
     selector-key: selector-value
 """
 
+  def MY_CRD = """
+apiVersion: apiextensions.k8s.io/v1beta1
+kind: ${KubernetesKind.CUSTOM_RESOURCE_DEFINITION}
+metadata:
+  name: crontabs.stable.example.com
+spec:
+  group: stable.example.com
+  scope: Namespaced
+"""
+
   def setupSpec() {
     TaskRepository.threadLocalTask.set(Mock(Task))
   }
@@ -111,7 +133,8 @@ spec:
     def versionedArtifactConverterMock = Mock(KubernetesVersionedArtifactConverter)
     versionedArtifactConverterMock.getDeployedName(_) >> "$NAME-$VERSION"
     versionedArtifactConverterMock.toArtifact(_, _, _) >> new Artifact()
-    def registry = new KubernetesResourcePropertyRegistry([replicaSetDeployer, serviceDeployer],
+    def registry = new KubernetesResourcePropertyRegistry(
+        [replicaSetDeployer, serviceDeployer, new KubernetesCustomResourceDefinitionHandler()],
         new KubernetesSpinnakerKindMap())
 
     NamerRegistry.lookup().withProvider(KubernetesCloudProvider.ID)
@@ -209,4 +232,103 @@ spec:
     traffic.getLoadBalancers() == ["service my-service"]
     !manifest.getLabels().containsKey("selector-key")
   }
+
+  void "deploys multiple manifests with a single request in priority order"() {
+    setup:
+    def credentialsMock = Mock(KubernetesV2Credentials)
+    credentialsMock.getDefaultNamespace() >> NAMESPACE
+    def deployDescription = getBaseDeployDescription(BASIC_REPLICA_SET)
+      .setManifests([stringToManifest(BASIC_REPLICA_SET), stringToManifest(MY_SERVICE)])
+    def deployOp = createMockDeployer(credentialsMock, deployDescription)
+
+    when:
+    def result = deployOp.operate([])
+
+    then:
+    1 * credentialsMock.deploy({ List manifests ->
+      manifests.size() == 2 && manifests[0].kind == SERVICE && manifests[1].kind == KIND
+    }) >> ["service/$NAME": "created", "replicaset.extensions/$NAME-$VERSION": "created"]
+    0 * credentialsMock.deploy(_ as KubernetesManifest)
+    result.manifestNamesByNamespace[NAMESPACE].size() == 2
+  }
+
+  void "sends traffic to a service deployed in the same request without reading it from the cluster"() {
+    setup:
+    def credentialsMock = Mock(KubernetesV2Credentials)
+    credentialsMock.getDefaultNamespace() >> NAMESPACE
+    def deployDescription = getBaseDeployDescription(REPLICA_SET_WITH_LOAD_BALANCER)
+      .setManifests([stringToManifest(REPLICA_SET_WITH_LOAD_BALANCER), stringToManifest(MY_SERVICE)])
+      .setEnableTraffic(true)
+    def deployOp = createMockDeployer(credentialsMock, deployDescription)
+
+    when:
+    def result = deployOp.operate([])
+    def manifest = result.getManifests().find { it.kind == KIND }
+
+    then:
+    0 * credentialsMock.get(_, _, _)
+    manifest.getLabels().get("selector-key") == "selector-value"
+  }
+
+  void "falls back to applying each manifest when the single request fails"() {
+    setup:
+    def credentialsMock = Mock(KubernetesV2Credentials)
+    credentialsMock.getDefaultNamespace() >> NAMESPACE
+    def deployDescription = getBaseDeployDescription(BASIC_REPLICA_SET)
+      .setManifests([stringToManifest(BASIC_REPLICA_SET), stringToManifest(MY_SERVICE)])
+    def deployOp = createMockDeployer(credentialsMock, deployDescription)
+
+    when:
+    def result = deployOp.operate([])
+
+    then:
+    1 * credentialsMock.deploy(_ as List) >> { throw new KubectlJobExecutor.KubectlException("bad manifest") }
+
+    then:
+    1 * credentialsMock.deploy({ it instanceof KubernetesManifest && it.kind == SERVICE })
+
+    then:
+    1 * credentialsMock.deploy({ it instanceof KubernetesManifest && it.kind == KIND })
+    result.manifestNamesByNamespace[NAMESPACE].size() == 2
+  }
+
+  void "fails with the manifest that could not be applied when applying each manifest"() {
+    setup:
+    def credentialsMock = Mock(KubernetesV2Credentials)
+    credentialsMock.getDefaultNamespace() >> NAMESPACE
+    def deployDescription = getBaseDeployDescription(BASIC_REPLICA_SET)
+      .setManifests([stringToManifest(BASIC_REPLICA_SET), stringToManifest(MY_SERVICE)])
+    def deployOp = createMockDeployer(credentialsMock, deployDescription)
+
+    when:
+    deployOp.operate([])
+
+    then:
+    1 * credentialsMock.deploy(_ as List) >> { throw new KubectlJobExecutor.KubectlException("bad manifest") }
+    1 * credentialsMock.deploy({ it instanceof KubernetesManifest && it.kind == SERVICE })
+    1 * credentialsMock.deploy({ it instanceof KubernetesManifest && it.kind == KIND }) >> {
+      throw new KubectlJobExecutor.KubectlException("bad replica set")
+    }
+    def e = thrown(KubectlJobExecutor.KubectlException)
+    e.message == "bad replica set"
+  }
+
+  void "applies each manifest on its own when the request defines a custom resource"() {
+    setup:
+    def credentialsMock = Mock(KubernetesV2Credentials)
+    credentialsMock.getDefaultNamespace() >> NAMESPACE
+    def deployDescription = getBaseDeployDescription(BASIC_REPLICA_SET)
+      .setManifests([stringToManifest(BASIC_REPLICA_SET), stringToManifest(MY_CRD)])
+    def deployOp = createMockDeployer(credentialsMock, deployDescription)
+
+    when:
+    deployOp.operate([])
+
+    then:
+    1 * credentialsMock.deploy({ it instanceof KubernetesManifest && it.kind == KubernetesKind.CUSTOM_RESOURCE_DEFINITION })
+
+    then:
+    1 * credentialsMock.deploy({ it instanceof KubernetesManifest && it.kind == KIND })
+    0 * credentialsMock.deploy(_ as List)
+  }
 }
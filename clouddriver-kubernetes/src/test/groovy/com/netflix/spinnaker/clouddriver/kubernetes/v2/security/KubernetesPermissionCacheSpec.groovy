@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.security
+
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesKind
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesPermissionCache.AccountPermissions
+import spock.lang.Specification
+
+import java.time.Clock
+import java.util.function.Supplier
+
+class KubernetesPermissionCacheSpec extends Specification {
+  long now = 0
+  Clock clock = Stub(Clock) {
+    millis() >> { now }
+  }
+  KubernetesPermissionCache cache = new KubernetesPermissionCache(clock)
+
+  def "shares the permissions of equal configurations and recomputes changed ones"() {
+    given:
+    Supplier<AccountPermissions> loader = Mock(Supplier)
+
+    when:
+    def first = cache.get("account", "config", loader)
+    def second = cache.get("account", new String("config"), loader)
+
+    then:
+    1 * loader.get() >> unreadable(KubernetesKind.DEPLOYMENT)
+    second.is(first)
+
+    when:
+    def changed = cache.get("account", "other-config", loader)
+
+    then:
+    1 * loader.get() >> unreadable(KubernetesKind.REPLICA_SET)
+    !changed.is(first)
+    changed.get().unreadableKinds.keySet() == [KubernetesKind.REPLICA_SET] as Set
+  }
+
+  def "refreshes expired entries in place"() {
+    given:
+    Supplier<AccountPermissions> loader = Mock(Supplier)
+    def entry
+
+    when:
+    entry = cache.get("account", "config", loader)
+    now = cache.ttlSeconds * 1000
+    cache.refreshExpired()
+
+    then:
+    2 * loader.get() >>> [unreadable(KubernetesKind.DEPLOYMENT), unreadable(KubernetesKind.REPLICA_SET)]
+    entry.get().unreadableKinds.keySet() == [KubernetesKind.REPLICA_SET] as Set
+  }
+
+  def "keeps the previous permissions when a refresh fails"() {
+    given:
+    Supplier<AccountPermissions> loader = Mock(Supplier)
+    def entry
+
+    when:
+    entry = cache.get("account", "config", loader)
+    now = cache.ttlSeconds * 1000
+    cache.refreshExpired()
+
+    then:
+    1 * loader.get() >> unreadable(KubernetesKind.DEPLOYMENT)
+    1 * loader.get() >> { throw new IllegalStateException("unreachable") }
+    entry.get().unreadableKinds.keySet() == [KubernetesKind.DEPLOYMENT] as Set
+  }
+
+  def "keeps entries that are in use however long they go unread"() {
+    given:
+    Supplier<AccountPermissions> loader = Stub(Supplier) {
+      get() >> unreadable(KubernetesKind.DEPLOYMENT)
+    }
+    def entry = cache.get("account", "config", loader)
+
+    when:
+    (1..10).each {
+      now += cache.ttlSeconds * 1000
+      cache.refreshExpired()
+    }
+
+    then:
+    cache.size() == 1
+    entry.get().unreadableKinds.keySet() == [KubernetesKind.DEPLOYMENT] as Set
+  }
+
+  private static AccountPermissions unreadable(KubernetesKind kind) {
+    return AccountPermissions.builder()
+      .unreadableKinds([(kind): KubernetesV2Credentials.InvalidKindReason.READ_ERROR])
+      .build()
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.security
+
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesKind
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class KubernetesSelfSubjectRulesParserSpec extends Specification {
+
+  def input = """
+Resources                                       Non-Resource URLs   Resource Names   Verbs
+selfsubjectaccessreviews.authorization.k8s.io   []                  []               [create]
+deployments.apps                                []                  []               [get list watch]
+pods                                            []                  []               [*]
+configmaps                                      []                  [my-config]      [get list]
+*.batch                                         []                  []               [list]
+                                                [/api/*]            []               [get]
+"""
+
+  def "parses auth can-i --list response properly"() {
+    when:
+    def result = KubernetesSelfSubjectRulesParser.parse(input)
+
+    then:
+    result.size() == 5
+    result[1].resource == "deployments.apps"
+    result[1].verbs == ["get", "list", "watch"]
+    !result[1].restrictedToNames
+    result[3].restrictedToNames
+  }
+
+  @Unroll
+  def "rules grant list on #kind: #allowed"() {
+    when:
+    def rules = KubernetesSelfSubjectRulesParser.parse(input)
+
+    then:
+    rules.any { it.allows(kind, "list") } == allowed
+
+    where:
+    kind                          || allowed
+    KubernetesKind.DEPLOYMENT     || true
+    KubernetesKind.POD            || true
+    KubernetesKind.JOB            || true
+    KubernetesKind.CRON_JOB       || true
+    KubernetesKind.CONFIG_MAP     || false
+    KubernetesKind.REPLICA_SET    || false
+    KubernetesKind.NETWORK_POLICY || false
+  }
+
+  @Unroll
+  def "namespaced rules never grant list on cluster-scoped #kind"() {
+    when:
+    def rules = KubernetesSelfSubjectRulesParser.parse("""
+Resources   Non-Resource URLs   Resource Names   Verbs
+*.*         []                  []               [*]
+""")
+
+    then:
+    rules.any { it.allows(kind, "list") } == allowed
+
+    where:
+    kind                                || allowed
+    KubernetesKind.DEPLOYMENT           || true
+    KubernetesKind.NAMESPACE            || false
+    KubernetesKind.CLUSTER_ROLE         || false
+    KubernetesKind.STORAGE_CLASS        || false
+    KubernetesKind.PERSISTENT_VOLUME    || false
+  }
+}
@@ -29,7 +29,8 @@ class KubernetesV2CredentialsSpec extends Specification {
   String NAMESPACE = "my-namespace"
 
   private buildCredentials(KubernetesConfigurationProperties.ManagedAccount managedAccount) {
-    return new KubernetesV2Credentials(registry, kubectlJobExecutor, managedAccount, null)
+    return new KubernetesV2Credentials(
+      registry, kubectlJobExecutor, managedAccount, null, new KubernetesPermissionCache())
   }
 
   void "Built-in Kubernetes kinds are considered valid by default"() {
@@ -151,4 +152,96 @@ class KubernetesV2CredentialsSpec extends Specification {
     credentials.isValidKind(KubernetesKind.DEPLOYMENT) == false
     credentials.isValidKind(KubernetesKind.REPLICA_SET) == true
   }
+
+  void "Namespaced rules grant namespaced kinds without checking them one at a time"() {
+    given:
+    KubectlJobExecutor jobExecutor = Mock(KubectlJobExecutor)
+    KubernetesV2Credentials credentials = new KubernetesV2Credentials(
+      registry,
+      jobExecutor,
+      new KubernetesConfigurationProperties.ManagedAccount(
+        namespaces: [NAMESPACE],
+        checkPermissionsOnStartup: true,
+        metrics: false
+      ),
+      null,
+      new KubernetesPermissionCache())
+    jobExecutor.list(*_) >> []
+    jobExecutor.apiResources(_) >> [
+      new KubernetesKind.ScopedKind("Deployment", KubernetesApiGroup.APPS),
+      new KubernetesKind.ScopedKind("ReplicaSet", KubernetesApiGroup.APPS)
+    ]
+    jobExecutor.authCanIList(_, NAMESPACE) >> KubernetesSelfSubjectRulesParser.parse("""
+Resources   Non-Resource URLs   Resource Names   Verbs
+*.apps      []                  []               [get list watch]
+""")
+
+    when:
+    credentials.initialize()
+
+    then:
+    0 * jobExecutor.authCanINamespaced(*_)
+    0 * jobExecutor.authCanI(*_)
+    credentials.isValidKind(KubernetesKind.DEPLOYMENT)
+    credentials.isValidKind(KubernetesKind.REPLICA_SET)
+  }
+
+  void "Cluster-scoped kinds are checked individually even when namespaced rules grant everything"() {
+    given:
+    KubectlJobExecutor jobExecutor = Mock(KubectlJobExecutor)
+    KubernetesV2Credentials credentials = new KubernetesV2Credentials(
+      registry,
+      jobExecutor,
+      new KubernetesConfigurationProperties.ManagedAccount(
+        namespaces: [NAMESPACE],
+        checkPermissionsOnStartup: true,
+        metrics: false
+      ),
+      null,
+      new KubernetesPermissionCache())
+    jobExecutor.list(*_) >> []
+    jobExecutor.apiResources(_) >> [
+      new KubernetesKind.ScopedKind("Namespace", KubernetesApiGroup.CORE),
+      new KubernetesKind.ScopedKind("StorageClass", KubernetesApiGroup.STORAGE_K8S_IO),
+      new KubernetesKind.ScopedKind("ReplicaSet", KubernetesApiGroup.APPS)
+    ]
+    jobExecutor.authCanIList(_, NAMESPACE) >> KubernetesSelfSubjectRulesParser.parse("""
+Resources   Non-Resource URLs   Resource Names   Verbs
+*.*         []                  []               [*]
+""")
+    jobExecutor.authCanI(_, "namespace", "list") >> true
+    jobExecutor.authCanI(_, "storageClass", "list") >> false
+
+    when:
+    credentials.initialize()
+
+    then:
+    credentials.isValidKind(KubernetesKind.REPLICA_SET)
+    credentials.isValidKind(KubernetesKind.NAMESPACE)
+    !credentials.isValidKind(KubernetesKind.STORAGE_CLASS)
+  }
+
+  void "Uninitialized credentials compute their permissions once instead of treating every kind as readable"() {
+    given:
+    KubectlJobExecutor jobExecutor = Mock(KubectlJobExecutor)
+    KubernetesV2Credentials credentials = new KubernetesV2Credentials(
+      registry,
+      jobExecutor,
+      new KubernetesConfigurationProperties.ManagedAccount(
+        namespaces: [NAMESPACE],
+        checkPermissionsOnStartup: true,
+        metrics: false
+      ),
+      null,
+      new KubernetesPermissionCache())
+    jobExecutor.authCanIList(_, NAMESPACE) >> []
+    jobExecutor.authCanINamespaced(*_) >> true
+
+    when:
+    def valid = (1..3).collect { credentials.isValidKind(KubernetesKind.REPLICA_SET) }
+
+    then:
+    1 * jobExecutor.apiResources(_) >> [new KubernetesKind.ScopedKind("Deployment", KubernetesApiGroup.APPS)]
+    valid == [false, false, false]
+  }
 }
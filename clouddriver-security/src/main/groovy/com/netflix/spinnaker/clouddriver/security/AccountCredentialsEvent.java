@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.security;
+
+/**
+ * Describes a change to the accounts held by an {@link AccountCredentialsRepository}, so that
+ * providers can act on the accounts that changed rather than re-synchronizing all of them.
+ */
+public class AccountCredentialsEvent {
+  public enum Type {
+    ADDED,
+    UPDATED,
+    REMOVED
+  }
+
+  private final Type type;
+  private final String name;
+  private final AccountCredentials previous;
+  private final AccountCredentials current;
+  private final long version;
+
+  public AccountCredentialsEvent(
+      Type type,
+      String name,
+      AccountCredentials previous,
+      AccountCredentials current,
+      long version) {
+    this.type = type;
+    this.name = name;
+    this.previous = previous;
+    this.current = current;
+    this.version = version;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  /** @return the name of the account that changed */
+  public String getName() {
+    return name;
+  }
+
+  /** @return the credentials replaced or removed by this change, null if the account was added */
+  public AccountCredentials getPrevious() {
+    return previous;
+  }
+
+  /** @return the credentials added or updated by this change, null if the account was removed */
+  public AccountCredentials getCurrent() {
+    return current;
+  }
+
+  /** @return the version of the repository that this change produced */
+  public long getVersion() {
+    return version;
+  }
+
+  @Override
+  public String toString() {
+    return type + " " + name + " (version " + version + ")";
+  }
+}
@@ -16,7 +16,9 @@
 
 package com.netflix.spinnaker.clouddriver.security;
 
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Implementations of this interface will provide a mechanism to store and retrieve {@link
@@ -39,4 +41,28 @@ public interface AccountCredentialsProvider {
    * @return account credentials object
    */
   AccountCredentials getCredentials(String name);
+
+  /**
+   * Returns all of the accounts known to the repository of this provider for a cloud provider.
+   *
+   * @param cloudProvider the cloud provider of the accounts to return
+   * @return a set of account credentials
+   */
+  default Set<? extends AccountCredentials> getAllByCloudProvider(String cloudProvider) {
+    return getAll().stream()
+        .filter(c -> Objects.equals(c.getCloudProvider(), cloudProvider))
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Returns all of the accounts known to the repository of this provider in an environment.
+   *
+   * @param environment the environment of the accounts to return
+   * @return a set of account credentials
+   */
+  default Set<? extends AccountCredentials> getAllByEnvironment(String environment) {
+    return getAll().stream()
+        .filter(c -> Objects.equals(c.getEnvironment(), environment))
+        .collect(Collectors.toSet());
+  }
 }
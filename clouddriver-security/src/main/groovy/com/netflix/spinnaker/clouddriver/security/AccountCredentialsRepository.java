@@ -16,7 +16,9 @@
 
 package com.netflix.spinnaker.clouddriver.security;
 
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Represents a repository for CRUD operations pertaining to {@link AccountCredentials}. May be
@@ -65,4 +67,36 @@ public interface AccountCredentialsRepository {
    * @param key ref to be removed
    */
   void delete(String key);
+
+  /**
+   * Returns all {@link AccountCredentials} objects known to this repository for a cloud provider
+   *
+   * @param cloudProvider the cloud provider of the accounts to return
+   * @return a set of account credentials
+   */
+  default Set<? extends AccountCredentials> getAllByCloudProvider(String cloudProvider) {
+    return getAll().stream()
+        .filter(c -> Objects.equals(c.getCloudProvider(), cloudProvider))
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Returns all {@link AccountCredentials} objects known to this repository in an environment
+   *
+   * @param environment the environment of the accounts to return
+   * @return a set of account credentials
+   */
+  default Set<? extends AccountCredentials> getAllByEnvironment(String environment) {
+    return getAll().stream()
+        .filter(c -> Objects.equals(c.getEnvironment(), environment))
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Registers a listener to be notified of every account added to, updated in or removed from this
+   * repository. Repositories that don't publish events ignore their listeners.
+   *
+   * @param listener the listener to notify
+   */
+  default void addListener(AccountCredentialsListener listener) {}
 }
@@ -38,4 +38,14 @@ public class DefaultAccountCredentialsProvider implements AccountCredentialsProv
   public AccountCredentials getCredentials(String name) {
     return repository.getOne(name);
   }
+
+  @Override
+  public Set<? extends AccountCredentials> getAllByCloudProvider(String cloudProvider) {
+    return repository.getAllByCloudProvider(cloudProvider);
+  }
+
+  @Override
+  public Set<? extends AccountCredentials> getAllByEnvironment(String environment) {
+    return repository.getAllByEnvironment(environment);
+  }
 }
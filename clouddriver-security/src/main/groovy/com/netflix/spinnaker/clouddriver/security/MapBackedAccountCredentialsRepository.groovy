@@ -18,15 +18,28 @@ package com.netflix.spinnaker.clouddriver.security;
 
 import groovy.util.logging.Slf4j;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * An in-memory repository of {@link AccountCredentials} objects.
  *
+ * Lookups by name read the backing map directly. Every change bumps a version, and the sets returned
+ * by {@link #getAll()}, {@link #getAllByCloudProvider(String)} and
+ * {@link #getAllByEnvironment(String)} come from an immutable snapshot that is rebuilt (at most
+ * once per version) the first time it is read after a change, rather than being copied on every
+ * call.
  *
+ * Listeners registered with {@link #addListener(AccountCredentialsListener)} are notified of each
+ * account that is added, updated or removed.
  */
 @Slf4j
 public class MapBackedAccountCredentialsRepository implements AccountCredentialsRepository {
     private final Map<String, AccountCredentials> map = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final List<AccountCredentialsListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Snapshot snapshot = new Snapshot(0, Collections.emptyList());
 
     /**
      * {@inheritDoc}
@@ -41,7 +54,39 @@ public class MapBackedAccountCredentialsRepository implements AccountCredentials
      */
     @Override
     public Set<AccountCredentials> getAll() {
-        return new HashSet<>(map.values());
+        return getSnapshot().all;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<AccountCredentials> getAllByCloudProvider(String cloudProvider) {
+        return getSnapshot().byCloudProvider.getOrDefault(cloudProvider, Collections.emptySet());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<AccountCredentials> getAllByEnvironment(String environment) {
+        return getSnapshot().byEnvironment.getOrDefault(environment, Collections.emptySet());
+    }
+
+    /**
+     * @return the number of changes made to this repository; saving credentials equal to those
+     * already held is not a change
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addListener(AccountCredentialsListener listener) {
+        listeners.add(listener);
     }
 
     /**
@@ -54,7 +99,22 @@ public class MapBackedAccountCredentialsRepository implements AccountCredentials
                          " Please update to `permissions` format.")
         }
 
-        return map.put(credentials.getName(), credentials);
+        // re-saving credentials equal to those already held (e.g. on an unchanged account refresh)
+        // is not a change worth acting on, so the held instance is kept and nothing is published
+        AccountCredentials held = map.get(credentials.getName());
+        if (held != null && held == credentials) {
+            return held;
+        }
+
+        AccountCredentials previous = map.put(credentials.getName(), credentials);
+        long currentVersion = version.incrementAndGet();
+
+        if (previous == null) {
+            publish(AccountCredentialsEvent.Type.ADDED, credentials.getName(), null, credentials, currentVersion);
+        } else {
+            publish(AccountCredentialsEvent.Type.UPDATED, credentials.getName(), previous, credentials, currentVersion);
+        }
+        return previous;
     }
 
     /**
@@ -70,6 +130,75 @@ public class MapBackedAccountCredentialsRepository implements AccountCredentials
      */
     @Override
     public void delete(String name) {
-        map.remove(name);
+        AccountCredentials previous = map.remove(name);
+        if (previous != null) {
+            publish(AccountCredentialsEvent.Type.REMOVED, name, previous, null, version.incrementAndGet());
+        }
+    }
+
+    private void publish(AccountCredentialsEvent.Type type,
+                         String name,
+                         AccountCredentials previous,
+                         AccountCredentials current,
+                         long currentVersion) {
+        AccountCredentialsEvent event = new AccountCredentialsEvent(type, name, previous, current, currentVersion);
+
+        for (AccountCredentialsListener listener : listeners) {
+            try {
+                listener.onAccountCredentialsChanged(event);
+            } catch (Exception e) {
+                log.error("Failed to notify ${listener.getClass().getSimpleName()} of ${event}", e);
+            }
+        }
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        long latest = version.get();
+        if (current.version == latest) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (snapshot.version < latest) {
+                // writes bump the version after updating the map and the version is read here before
+                // the map, so a write racing with this rebuild leaves the snapshot stale and it is
+                // rebuilt again on the next read
+                snapshot = new Snapshot(latest, new ArrayList<>(map.values()));
+            }
+            return snapshot;
+        }
+    }
+
+    private static class Snapshot {
+        final long version;
+        final Set<AccountCredentials> all;
+        final Map<String, Set<AccountCredentials>> byCloudProvider;
+        final Map<String, Set<AccountCredentials>> byEnvironment;
+
+        Snapshot(long version, Collection<AccountCredentials> credentials) {
+            this.version = version;
+            this.all = Collections.unmodifiableSet(new HashSet<>(credentials));
+            this.byCloudProvider = index(credentials) { AccountCredentials c -> c.getCloudProvider() };
+            this.byEnvironment = index(credentials) { AccountCredentials c -> c.getEnvironment() };
+        }
+
+        private static Map<String, Set<AccountCredentials>> index(Collection<AccountCredentials> credentials,
+                                                                   Closure<String> keyFn) {
+            Map<String, Set<AccountCredentials>> index = new HashMap<>();
+            for (AccountCredentials c : credentials) {
+                String key = keyFn.call(c);
+                Set<AccountCredentials> values = index.get(key);
+                if (values == null) {
+                    values = new HashSet<>();
+                    index.put(key, values);
+                }
+                values.add(c);
+            }
+            for (Map.Entry<String, Set<AccountCredentials>> entry : index.entrySet()) {
+                entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(index);
+        }
     }
 }
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.security;
+
+import com.netflix.spinnaker.cats.thread.NamedThreadFactory;
+import com.netflix.spinnaker.clouddriver.security.config.CredentialsInitializationProperties;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Initializes the accounts of a provider, either one at a time or concurrently depending on {@link
+ * CredentialsInitializationProperties}.
+ *
+ * <p>In parallel mode at most `parallelism` accounts initialize at once. Startup waits for
+ * required accounts however long they take, but stops waiting for any other account after
+ * `timeoutSeconds`; that account keeps initializing in the background (no longer counting against
+ * the parallelism limit) and is activated when it completes. Non-required accounts that fail are
+ * retried in the background. Providers register with {@link #onActivation} to be told about
+ * accounts activated after startup so they can schedule caching agents for them.
+ *
+ * <p>An account is not in its provider's repository until it is activated, so the provider's next
+ * synchronization sees it as new again. Accounts still initializing (or waiting to be retried) in
+ * the background are skipped rather than initialized a second time.
+ */
+@Slf4j
+public class ParallelAccountInitializer {
+  private final CredentialsInitializationProperties properties;
+  private final Semaphore permits;
+  private final ExecutorService executor;
+  private final ScheduledExecutorService scheduler;
+  private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+  private final Map<String, List<String>> lateActivations = new ConcurrentHashMap<>();
+  private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+  public ParallelAccountInitializer(CredentialsInitializationProperties properties) {
+    this.properties = properties;
+    this.permits = new Semaphore(Math.max(properties.getParallelism(), 1));
+    if (properties.isParallel()) {
+      this.executor =
+          Executors.newCachedThreadPool(
+              new NamedThreadFactory(ParallelAccountInitializer.class.getSimpleName()));
+      this.scheduler =
+          Executors.newSingleThreadScheduledExecutor(
+              new NamedThreadFactory(
+                  ParallelAccountInitializer.class.getSimpleName() + "-scheduler"));
+    } else {
+      this.executor = null;
+      this.scheduler = null;
+    }
+  }
+
+  public boolean isParallel() {
+    return properties.isParallel();
+  }
+
+  /**
+   * Runs `task` for every account. Returns once every account is either initialized, failed, or
+   * (in parallel mode) has exceeded its timeout. Throws an {@link IllegalArgumentException} if a
+   * required account fails.
+   */
+  public <T> void initialize(
+      String provider,
+      Collection<T> accounts,
+      Function<T, String> nameOf,
+      Predicate<T> isRequired,
+      AccountTask<T> task) {
+    if (accounts.isEmpty()) {
+      return;
+    }
+
+    long startTime = System.currentTimeMillis();
+    if (!properties.isParallel()) {
+      for (T account : accounts) {
+        initializeSerially(
+            provider, nameOf.apply(account), isRequired.test(account), account, task);
+      }
+
+      log.info(
+          "Initialized {} {} accounts in {} ms",
+          accounts.size(),
+          provider,
+          System.currentTimeMillis() - startTime);
+      return;
+    }
+
+    List<Attempt> attempts = new ArrayList<>();
+    for (T account : accounts) {
+      String name = nameOf.apply(account);
+      if (!inFlight.add(key(provider, name))) {
+        log.info(
+            "{} account {} is still initializing in the background, not initializing it again",
+            provider,
+            name);
+        continue;
+      }
+
+      attempts.add(start(provider, name, isRequired.test(account), account, task));
+    }
+
+    int initialized = 0;
+    int deferred = 0;
+    for (Attempt attempt : attempts) {
+      if (await(attempt)) {
+        initialized++;
+      } else {
+        deferred++;
+      }
+    }
+
+    log.info(
+        "Initialized {} of {} {} accounts in {} ms ({} deferred to the background)",
+        initialized,
+        attempts.size(),
+        provider,
+        System.currentTimeMillis() - startTime,
+        deferred);
+  }
+
+  /**
+   * Registers a listener called with the name of each account of `provider` that is activated in
+   * the background. Accounts activated before the listener was registered are replayed to it.
+   */
+  public synchronized void onActivation(String provider, Consumer<String> listener) {
+    listeners.computeIfAbsent(provider, p -> new CopyOnWriteArrayList<>()).add(listener);
+    lateActivations.getOrDefault(provider, new ArrayList<>()).forEach(listener);
+  }
+
+  public void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+      scheduler.shutdownNow();
+    }
+  }
+
+  private <T> void initializeSerially(
+      String provider, String name, boolean required, T account, AccountTask<T> task) {
+    long startTime = System.currentTimeMillis();
+    try {
+      task.initialize(account);
+      long elapsed = System.currentTimeMillis() - startTime;
+      log.info("Initialized {} account {} in {} ms", provider, name, elapsed);
+    } catch (Exception e) {
+      log.error("Could not load account {} for {}.", name, provider, e);
+      if (required) {
+        throw new IllegalArgumentException(
+            "Could not load required account " + name + " for " + provider + ".", e);
+      }
+    }
+  }
+
+  private <T> Attempt start(
+      String provider, String name, boolean required, T account, AccountTask<T> task) {
+    Attempt attempt = new Attempt(provider, name, required);
+    attempt.restarter = () -> start(provider, name, required, account, task);
+    executor.execute(
+        () -> {
+          try {
+            permits.acquire();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            attempt.done.completeExceptionally(e);
+            return;
+          }
+
+          attempt.startedAt = System.currentTimeMillis();
+          ScheduledFuture<?> timeout =
+              scheduler.schedule(
+                  () -> {
+                    attempt.releasePermit();
+                    attempt.timedOut.complete(null);
+                  },
+                  properties.getTimeoutSeconds(),
+                  TimeUnit.SECONDS);
+
+          try {
+            task.initialize(account);
+            attempt.finishedAt = System.currentTimeMillis();
+            attempt.done.complete(null);
+          } catch (Exception e) {
+            attempt.finishedAt = System.currentTimeMillis();
+            attempt.done.completeExceptionally(e);
+          } finally {
+            timeout.cancel(false);
+            attempt.releasePermit();
+          }
+        });
+
+    return attempt;
+  }
+
+  /** Waits for an attempt to settle, returning true if the account was initialized. */
+  private boolean await(Attempt attempt) {
+    if (attempt.required) {
+      try {
+        attempt.done.get();
+        logInitialized(attempt);
+        return true;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while initializing " + attempt.name, e);
+      } catch (ExecutionException e) {
+        settle(attempt);
+        log.error(
+            "Could not load account {} for {}.", attempt.name, attempt.provider, e.getCause());
+        throw new IllegalArgumentException(
+            "Could not load required account " + attempt.name + " for " + attempt.provider + ".",
+            e.getCause());
+      }
+    }
+
+    CompletableFuture.anyOf(attempt.done, attempt.timedOut).handle((r, e) -> null).join();
+    if (attempt.done.isDone() && !attempt.done.isCompletedExceptionally()) {
+      logInitialized(attempt);
+      return true;
+    }
+
+    if (!attempt.done.isDone()) {
+      log.warn(
+          "Account {} for {} did not initialize within {} seconds, continuing in the background",
+          attempt.name,
+          attempt.provider,
+          properties.getTimeoutSeconds());
+    }
+
+    activateInBackground(attempt, 0);
+    return false;
+  }
+
+  /**
+   * Activates the account once `attempt` succeeds, or starts another attempt after the retry
+   * interval if it fails.
+   */
+  private void activateInBackground(Attempt attempt, int retries) {
+    attempt.done.whenComplete(
+        (r, e) -> {
+          if (e == null) {
+            activate(attempt);
+            return;
+          }
+
+          log.error("Could not load account {} for {}.", attempt.name, attempt.provider, e);
+          if (retries >= properties.getMaxRetries()) {
+            log.error(
+                "Giving up on account {} for {} after {} retries",
+                attempt.name,
+                attempt.provider,
+                retries);
+            settle(attempt);
+            return;
+          }
+
+          scheduler.schedule(
+              () -> activateInBackground(attempt.retry(), retries + 1),
+              properties.getRetryIntervalSeconds(),
+              TimeUnit.SECONDS);
+        });
+  }
+
+  private synchronized void activate(Attempt attempt) {
+    settle(attempt);
+    log.info(
+        "Activated {} account {} in the background after {} ms",
+        attempt.provider,
+        attempt.name,
+        attempt.elapsedMillis());
+    lateActivations.computeIfAbsent(attempt.provider, p -> new ArrayList<>()).add(attempt.name);
+    listeners
+        .getOrDefault(attempt.provider, new ArrayList<>())
+        .forEach(
+            listener -> {
+              try {
+                listener.accept(attempt.name);
+              } catch (Exception e) {
+                log.error("Failed to activate {} account {}", attempt.provider, attempt.name, e);
+              }
+            });
+  }
+
+  private void logInitialized(Attempt attempt) {
+    settle(attempt);
+    long elapsed = attempt.elapsedMillis();
+    log.info("Initialized {} account {} in {} ms", attempt.provider, attempt.name, elapsed);
+  }
+
+  /** Marks the attempt's account as no longer initializing. */
+  private void settle(Attempt attempt) {
+    inFlight.remove(key(attempt.provider, attempt.name));
+  }
+
+  private static String key(String provider, String name) {
+    return provider + ":" + name;
+  }
+
+  @FunctionalInterface
+  public interface AccountTask<T> {
+    void initialize(T account) throws Exception;
+  }
+
+  private class Attempt {
+    private final String provider;
+    private final String name;
+    private final boolean required;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private final CompletableFuture<Void> timedOut = new CompletableFuture<>();
+    private final AtomicBoolean holdsPermit = new AtomicBoolean(true);
+    private volatile long startedAt = System.currentTimeMillis();
+    private volatile long finishedAt;
+    private Supplier<Attempt> restarter;
+
+    Attempt(String provider, String name, boolean required) {
+      this.provider = provider;
+      this.name = name;
+      this.required = required;
+    }
+
+    Attempt retry() {
+      return restarter.get();
+    }
+
+    long elapsedMillis() {
+      return (finishedAt > 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+    }
+
+    void releasePermit() {
+      // a timed out attempt gives up its permit early, so only release it once
+      if (holdsPermit.compareAndSet(true, false)) {
+        permits.release();
+      }
+    }
+  }
+}
@@ -126,25 +126,45 @@ public class ProviderUtils {
    * each agent that handles one of the specified accounts.
    */
   public static void unscheduleAndDeregisterAgents(def namesOfDeletedAccounts, def catsModule) {
-    namesOfDeletedAccounts.each { nameOfDeletedAccount ->
-      ProviderRegistry providerRegistry = catsModule.getProviderRegistry()
+    Set<String> deletedAccounts = namesOfDeletedAccounts as Set<String>
+    if (!deletedAccounts) {
+      return
+    }
 
-      for (Provider provider : providerRegistry.providers) {
-        List<Agent> agentsToDelete = []
+    ProviderRegistry providerRegistry = catsModule.getProviderRegistry()
 
-        if (provider instanceof AgentSchedulerAware) {
-          AgentScheduler agentScheduler = ((AgentSchedulerAware)provider).agentScheduler
+    // one pass over each provider's agents, rather than one per deleted account, and set lookups for both the
+    // accounts and the agents to remove
+    for (Provider provider : providerRegistry.providers) {
+      if (!(provider instanceof AgentSchedulerAware)) {
+        continue
+      }
 
-          provider.agents.each { agent ->
-            if (agent.handlesAccount(nameOfDeletedAccount)) {
-              agentScheduler?.unschedule(agent)
-              agentsToDelete << agent
-            }
-          }
-        }
+      AgentScheduler agentScheduler = ((AgentSchedulerAware)provider).agentScheduler
+      List<Agent> agentsToDelete = provider.agents.findAll { Agent agent ->
+        handlesAnyAccount(agent, deletedAccounts)
+      }
 
-        provider.agents.removeAll(agentsToDelete)
+      agentsToDelete.each { Agent agent ->
+        agentScheduler?.unschedule(agent)
+        if (agent instanceof Closeable) {
+          ((Closeable) agent).close()
+        }
       }
+      provider.agents.removeAll(agentsToDelete as Set<Agent>)
     }
   }
+
+  /**
+   * An account aware agent handles (at most) its own account, so it only needs a set lookup; other agents have to be
+   * asked about each account.
+   */
+  private static boolean handlesAnyAccount(Agent agent, Set<String> accounts) {
+    if (agent instanceof AccountAware) {
+      String accountName = ((AccountAware) agent).accountName
+      return accounts.contains(accountName) && agent.handlesAccount(accountName)
+    }
+
+    return accounts.any { String account -> agent.handlesAccount(account) }
+  }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.security;
+
+import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Answers READ permission checks for one user over the course of a single request (ie. while
+ * filtering a list of search results), asking the {@link FiatPermissionEvaluator} about each
+ * distinct application and account only once and answering every repeated check from memory.
+ *
+ * <p>Instances are meant to be short-lived so that permission changes are picked up by the next
+ * request; create one per request with {@link #forCurrentUser(FiatPermissionEvaluator)}.
+ */
+public class ReadPermissions {
+  private final FiatPermissionEvaluator permissionEvaluator;
+  private final Authentication authentication;
+
+  private final Map<String, Boolean> applications = new ConcurrentHashMap<>();
+  private final Map<String, Boolean> accounts = new ConcurrentHashMap<>();
+
+  public ReadPermissions(
+      FiatPermissionEvaluator permissionEvaluator, Authentication authentication) {
+    this.permissionEvaluator = permissionEvaluator;
+    this.authentication = authentication;
+  }
+
+  /**
+   * @param permissionEvaluator may be null (ie. when fiat is not configured), in which case
+   *     everything is readable
+   */
+  public static ReadPermissions forCurrentUser(FiatPermissionEvaluator permissionEvaluator) {
+    return new ReadPermissions(
+        permissionEvaluator, SecurityContextHolder.getContext().getAuthentication());
+  }
+
+  public boolean canReadApplication(String application) {
+    return canRead(applications, application, "APPLICATION");
+  }
+
+  public boolean canReadAccount(String account) {
+    return canRead(accounts, account, "ACCOUNT");
+  }
+
+  private boolean canRead(Map<String, Boolean> memo, String name, String resourceType) {
+    if (permissionEvaluator == null) {
+      return true;
+    }
+    if (name == null) {
+      // not memoizable, and left to the evaluator to decide
+      return permissionEvaluator.hasPermission(authentication, null, resourceType, "READ");
+    }
+    return memo.computeIfAbsent(
+        name, n -> permissionEvaluator.hasPermission(authentication, n, resourceType, "READ"));
+  }
+}
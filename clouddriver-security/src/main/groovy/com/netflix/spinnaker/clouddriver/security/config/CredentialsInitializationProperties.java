@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.security.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Controls how provider accounts are initialized when clouddriver starts. */
+@Data
+@ConfigurationProperties("credentials.initialization")
+public class CredentialsInitializationProperties {
+  /**
+   * Initialize accounts concurrently. When disabled, accounts are initialized one at a time on the
+   * startup thread, as they always have been.
+   */
+  private boolean parallel = false;
+
+  /** Maximum number of accounts initialized at once across all providers. */
+  private int parallelism = 8;
+
+  /**
+   * How long startup waits for a non-required account before continuing without it. The account
+   * keeps initializing in the background and is activated once it completes.
+   */
+  private long timeoutSeconds = 60;
+
+  /** Delay between background attempts to initialize a non-required account that failed. */
+  private long retryIntervalSeconds = 60;
+
+  /** Number of background attempts made for a failed account before giving up on it. */
+  private int maxRetries = 5;
+}
@@ -19,6 +19,7 @@ package com.netflix.spinnaker.clouddriver.security.config
 import com.netflix.spinnaker.clouddriver.security.AccountCredentialsProvider
 import com.netflix.spinnaker.clouddriver.security.AllowedAccountsValidator
 import com.netflix.spinnaker.clouddriver.security.DefaultAllowedAccountsValidator
+import com.netflix.spinnaker.clouddriver.security.ParallelAccountInitializer
 
 import com.netflix.spinnaker.fiat.shared.EnableFiatAutoConfig
 import com.netflix.spinnaker.fiat.shared.FiatStatus
@@ -29,7 +30,7 @@ import org.springframework.context.annotation.Configuration
 
 @Configuration
 @EnableFiatAutoConfig
-@EnableConfigurationProperties(OperationsSecurityConfigurationProperties)
+@EnableConfigurationProperties([OperationsSecurityConfigurationProperties, CredentialsInitializationProperties])
 class SecurityConfig {
   @Bean
   AllowedAccountsValidator allowedAccountsValidator(AccountCredentialsProvider accountCredentialsProvider,
@@ -37,6 +38,11 @@ class SecurityConfig {
     return new DefaultAllowedAccountsValidator(accountCredentialsProvider, fiatStatus)
   }
 
+  @Bean(destroyMethod = "shutdown")
+  ParallelAccountInitializer parallelAccountInitializer(CredentialsInitializationProperties credentialsInitializationProperties) {
+    return new ParallelAccountInitializer(credentialsInitializationProperties)
+  }
+
   @ConfigurationProperties("operations.security")
   static class OperationsSecurityConfigurationProperties {
     SecurityAction onMissingSecuredCheck = SecurityAction.WARN
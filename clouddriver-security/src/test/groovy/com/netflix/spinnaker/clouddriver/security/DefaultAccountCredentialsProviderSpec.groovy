@@ -43,6 +43,15 @@ class DefaultAccountCredentialsProviderSpec extends Specification {
     then:
       1 * repo.getAll()
 
+    when:
+      provider.getAllByCloudProvider("aws")
+      provider.getAllByEnvironment("prod")
+
+    then:
+      1 * repo.getAllByCloudProvider("aws")
+      1 * repo.getAllByEnvironment("prod")
+      0 * repo.getAll()
+
     where:
       key = "foo"
   }
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.security
+
+import groovy.transform.EqualsAndHashCode
+import spock.lang.Specification
+import spock.lang.Subject
+
+class MapBackedAccountCredentialsRepositorySpec extends Specification {
+
+  @Subject
+  MapBackedAccountCredentialsRepository repository = new MapBackedAccountCredentialsRepository()
+
+  void "should index accounts by cloud provider and environment"() {
+    given:
+    def prodAws = credentials("prod-aws", "aws", "prod")
+    def testAws = credentials("test-aws", "aws", "test")
+    def prodGce = credentials("prod-gce", "gce", "prod")
+
+    when:
+    [prodAws, testAws, prodGce].each { repository.save(it.name, it) }
+
+    then:
+    repository.getOne("prod-aws") == prodAws
+    repository.getAll() == [prodAws, testAws, prodGce] as Set
+    repository.getAllByCloudProvider("aws") == [prodAws, testAws] as Set
+    repository.getAllByCloudProvider("kubernetes").isEmpty()
+    repository.getAllByEnvironment("prod") == [prodAws, prodGce] as Set
+
+    when:
+    repository.delete("prod-aws")
+
+    then:
+    repository.getOne("prod-aws") == null
+    repository.getAllByCloudProvider("aws") == [testAws] as Set
+    repository.getAllByEnvironment("prod") == [prodGce] as Set
+  }
+
+  void "should reuse the same snapshot until the repository changes"() {
+    given:
+    repository.save("test", credentials("test", "aws", "test"))
+
+    when:
+    def all = repository.getAll()
+
+    then:
+    repository.getAll().is(all)
+
+    when:
+    all.add(credentials("other", "aws", "test"))
+
+    then:
+    thrown(UnsupportedOperationException)
+
+    when:
+    repository.save("other", credentials("other", "aws", "test"))
+
+    then:
+    !repository.getAll().is(all)
+    repository.getAll()*.name.sort() == ["other", "test"]
+  }
+
+  void "should notify listeners of each change with an increasing version"() {
+    given:
+    def events = []
+    repository.addListener({ events << it } as AccountCredentialsListener)
+    def original = credentials("test", "aws", "test")
+    def updated = credentials("test", "aws", "prod")
+
+    when:
+    repository.save("test", original)
+    repository.save("test", original)
+    repository.save("test", updated)
+    repository.delete("test")
+    repository.delete("test")
+
+    then:
+    events*.type == [
+      AccountCredentialsEvent.Type.ADDED,
+      AccountCredentialsEvent.Type.UPDATED,
+      AccountCredentialsEvent.Type.REMOVED
+    ]
+    events*.previous == [null, original, updated]
+    events*.current == [original, updated, null]
+    events*.version == events*.version.sort(false)
+    events.last().version == repository.version
+  }
+
+  void "should only bump the version when saved credentials change the repository"() {
+    given:
+    def original = new TestCredentials(name: "test", environment: "test")
+    repository.save("test", original)
+    def version = repository.version
+    def all = repository.getAll()
+
+    when:
+    def previous = repository.save("test", new TestCredentials(name: "test", environment: "test"))
+
+    then:
+    previous.is(original)
+    repository.getOne("test").is(original)
+    repository.version == version
+    repository.getAll().is(all)
+
+    when:
+    repository.save("test", new TestCredentials(name: "test", environment: "prod"))
+
+    then:
+    repository.version == version + 1
+    repository.getOne("test").environment == "prod"
+  }
+
+  void "should ignore listeners of repositories that do not publish events"() {
+    given:
+    AccountCredentialsRepository repository = Spy(AbstractAccountCredentialsRepository)
+
+    when:
+    repository.addListener({ throw new IllegalStateException("boom") } as AccountCredentialsListener)
+
+    then:
+    noExceptionThrown()
+  }
+
+  void "should not let a failing listener prevent a change or other notifications"() {
+    given:
+    def events = []
+    repository.addListener({ throw new IllegalStateException("boom") } as AccountCredentialsListener)
+    repository.addListener({ events << it } as AccountCredentialsListener)
+
+    when:
+    repository.save("test", credentials("test", "aws", "test"))
+
+    then:
+    repository.getOne("test") != null
+    events*.name == ["test"]
+  }
+
+  private AccountCredentials credentials(String name, String cloudProvider, String environment) {
+    return Stub(AccountCredentials) {
+      getName() >> name
+      getCloudProvider() >> cloudProvider
+      getEnvironment() >> environment
+      getRequiredGroupMembership() >> []
+    }
+  }
+
+  @EqualsAndHashCode
+  static class TestCredentials implements AccountCredentials<Void> {
+    String name
+    String environment
+    String accountType = "test"
+    Void credentials
+    String cloudProvider = "test"
+    List<String> requiredGroupMembership = []
+  }
+
+  static abstract class AbstractAccountCredentialsRepository implements AccountCredentialsRepository {}
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.security
+
+import com.netflix.spinnaker.clouddriver.security.config.CredentialsInitializationProperties
+import spock.lang.Specification
+import spock.lang.Timeout
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+@Timeout(30)
+class ParallelAccountInitializerSpec extends Specification {
+  ParallelAccountInitializer initializer
+
+  def cleanup() {
+    initializer?.shutdown()
+  }
+
+  void "should initialize accounts one at a time when parallel initialization is disabled"() {
+    given:
+    initializer = new ParallelAccountInitializer(new CredentialsInitializationProperties())
+    def initialized = []
+
+    when:
+    initializer.initialize("test", accounts("a", "b"), { it.name }, { it.required }) { initialized << it.name }
+
+    then:
+    initialized == ["a", "b"]
+
+    when:
+    initializer.initialize("test", [account("c", true)], { it.name }, { it.required }) {
+      throw new IllegalStateException("boom")
+    }
+
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  void "should stop waiting for a slow account after the timeout and activate it in the background"() {
+    given:
+    initializer = new ParallelAccountInitializer(properties(1))
+    def release = new CountDownLatch(1)
+    def activations = new LinkedBlockingQueue<String>()
+    initializer.onActivation("test") { activations << it }
+
+    when:
+    initializer.initialize("test", accounts("fast", "slow"), { it.name }, { it.required }) {
+      if (it.name == "slow") {
+        release.await()
+      }
+    }
+
+    then:
+    activations.isEmpty()
+
+    when:
+    release.countDown()
+
+    then:
+    activations.poll(10, TimeUnit.SECONDS) == "slow"
+  }
+
+  void "should wait for a required account past the timeout"() {
+    given:
+    initializer = new ParallelAccountInitializer(properties(1))
+    def initialized = new AtomicInteger()
+
+    when:
+    initializer.initialize("test", [account("required", true)], { it.name }, { it.required }) {
+      Thread.sleep(1500)
+      initialized.incrementAndGet()
+    }
+
+    then:
+    initialized.get() == 1
+  }
+
+  void "should retry a failed account in the background"() {
+    given:
+    def properties = properties(1)
+    properties.retryIntervalSeconds = 0
+    initializer = new ParallelAccountInitializer(properties)
+    def attempts = new AtomicInteger()
+    def activations = new LinkedBlockingQueue<String>()
+    initializer.onActivation("test") { activations << it }
+
+    when:
+    initializer.initialize("test", accounts("flaky"), { it.name }, { it.required }) {
+      if (attempts.incrementAndGet() == 1) {
+        throw new IllegalStateException("first attempt fails")
+      }
+    }
+
+    then:
+    activations.poll(10, TimeUnit.SECONDS) == "flaky"
+    attempts.get() == 2
+  }
+
+  void "should not initialize an account again while it is still initializing in the background"() {
+    given:
+    initializer = new ParallelAccountInitializer(properties(1))
+    def release = new CountDownLatch(1)
+    def runs = new ConcurrentHashMap<String, AtomicInteger>()
+    def activations = new LinkedBlockingQueue<String>()
+    initializer.onActivation("test") { activations << it }
+    def task = { account ->
+      runs.computeIfAbsent(account.name) { new AtomicInteger() }.incrementAndGet()
+      if (account.name == "slow") {
+        release.await()
+      }
+    } as ParallelAccountInitializer.AccountTask
+
+    when: "the slow account is deferred, then the provider synchronizes again"
+    initializer.initialize("test", accounts("slow"), { it.name }, { it.required }, task)
+    initializer.initialize("test", accounts("slow", "other"), { it.name }, { it.required }, task)
+
+    then:
+    runs["slow"].get() == 1
+    runs["other"].get() == 1
+
+    when: "once it has been activated it can be initialized again"
+    release.countDown()
+    activations.poll(10, TimeUnit.SECONDS)
+    initializer.initialize("test", accounts("slow"), { it.name }, { it.required }, task)
+
+    then:
+    runs["slow"].get() == 2
+  }
+
+  private static CredentialsInitializationProperties properties(long timeoutSeconds) {
+    return new CredentialsInitializationProperties(parallel: true, parallelism: 4, timeoutSeconds: timeoutSeconds)
+  }
+
+  private static List<Map> accounts(String... names) {
+    return names.collect { account(it, false) }
+  }
+
+  private static Map account(String name, boolean required) {
+    return [name: name, required: required]
+  }
+}
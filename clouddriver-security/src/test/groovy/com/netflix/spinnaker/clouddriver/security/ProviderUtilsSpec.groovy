@@ -174,6 +174,43 @@ class ProviderUtilsSpec extends Specification {
       agentSchedulerAwareProvider.agents == [testAgent1, testAgent4]
   }
 
+  void "should ask agents that are not account aware whether they handle deleted accounts"() {
+    setup:
+      def accountAgent = new TestAccountAwareAgent(accountName: "some-account-1")
+      def passiveAgent = new PassiveAccountAwareAgent(accountName: "some-account-1")
+      def streamingAgent = new MultiAccountAgent(accountNames: ["some-account-2", "some-account-3"])
+      def otherAgent = new MultiAccountAgent(accountNames: ["some-account-4"])
+      def agentSchedulerAwareProvider =
+          new TestAgentSchedulerAwareProvider(agents: [accountAgent, passiveAgent, streamingAgent, otherAgent])
+      def scheduler = new TestScheduler()
+      def catsModule = new DefaultCatsModule(
+          null, [agentSchedulerAwareProvider], new InMemoryNamedCacheFactory(), scheduler, new NoopExecutionInstrumentation()
+      )
+
+    when:
+      ProviderUtils.unscheduleAndDeregisterAgents(["some-account-1", "some-account-3"], catsModule)
+
+    then:
+      scheduler.scheduled.collect { it.agent } == [passiveAgent, otherAgent]
+      agentSchedulerAwareProvider.agents == [passiveAgent, otherAgent]
+  }
+
+  static class PassiveAccountAwareAgent extends TestAccountAwareAgent {
+    @Override
+    boolean handlesAccount(String accountName) {
+      return false
+    }
+  }
+
+  static class MultiAccountAgent extends TestAgent {
+    Set<String> accountNames
+
+    @Override
+    boolean handlesAccount(String accountName) {
+      return accountNames.contains(accountName)
+    }
+  }
+
   static class TestAccountCredentials1 implements AccountCredentials<TestCredentials1> {
     String name
     String environment = "some-env"
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.security
+
+import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator
+import org.springframework.security.core.Authentication
+import spock.lang.Specification
+
+class ReadPermissionsSpec extends Specification {
+  def permissionEvaluator = Mock(FiatPermissionEvaluator)
+  def authentication = Stub(Authentication)
+
+  void "should ask about each distinct application and account once"() {
+    given:
+      def permissions = new ReadPermissions(permissionEvaluator, authentication)
+
+    when:
+      def results = [
+        permissions.canReadApplication("app"),
+        permissions.canReadApplication("app"),
+        permissions.canReadApplication("other"),
+        permissions.canReadAccount("app"),
+        permissions.canReadAccount("app")
+      ]
+
+    then:
+      1 * permissionEvaluator.hasPermission(authentication, "app", "APPLICATION", "READ") >> true
+      1 * permissionEvaluator.hasPermission(authentication, "other", "APPLICATION", "READ") >> false
+      1 * permissionEvaluator.hasPermission(authentication, "app", "ACCOUNT", "READ") >> false
+      0 * permissionEvaluator._
+      results == [true, true, false, false, false]
+  }
+
+  void "should leave resources without a name to the evaluator every time"() {
+    given:
+      def permissions = new ReadPermissions(permissionEvaluator, authentication)
+
+    when:
+      def results = [permissions.canReadApplication(null), permissions.canReadApplication(null)]
+
+    then:
+      2 * permissionEvaluator.hasPermission(authentication, null, "APPLICATION", "READ") >> false
+      results == [false, false]
+  }
+
+  void "should allow everything without an evaluator"() {
+    given:
+      def permissions = new ReadPermissions(null, authentication)
+
+    expect:
+      permissions.canReadApplication("app")
+      permissions.canReadAccount("account")
+  }
+}
@@ -30,6 +30,7 @@ import com.netflix.spinnaker.clouddriver.titus.client.TitusClient
 import com.netflix.spinnaker.kork.core.RetrySupport
 import groovy.transform.Immutable
 
+import javax.annotation.PreDestroy
 import java.util.concurrent.ConcurrentHashMap
 
 class TitusClientProvider {
@@ -73,6 +74,16 @@ class TitusClientProvider {
     return titusLoadBalancerClients.computeIfAbsent(key, { k -> new RegionScopedTitusLoadBalancerClient(k.region, registry, account.environment, account.eurekaName, grpcChannelFactory) })
   }
 
+  /**
+   * Shuts down the channels shared by the clients, when the channel factory pools them.
+   */
+  @PreDestroy
+  void close() {
+    if (grpcChannelFactory instanceof Closeable) {
+      ((Closeable) grpcChannelFactory).close()
+    }
+  }
+
   @Immutable(knownImmutableClasses = [TitusRegion])
   static class TitusClientKey {
     final String account
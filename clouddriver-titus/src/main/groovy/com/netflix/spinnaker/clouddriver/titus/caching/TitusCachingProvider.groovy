@@ -27,6 +27,7 @@ import com.netflix.spinnaker.clouddriver.titus.TitusCloudProvider
 import com.netflix.spinnaker.clouddriver.titus.caching.utils.CachingSchema
 import com.netflix.spinnaker.clouddriver.titus.caching.utils.CachingSchemaUtil
 
+import javax.annotation.PreDestroy
 import javax.inject.Provider
 
 class TitusCachingProvider implements SearchableProvider, EurekaAwareProvider {
@@ -53,6 +54,14 @@ class TitusCachingProvider implements SearchableProvider, EurekaAwareProvider {
     agents
   }
 
+  /**
+   * Closes agents that hold resources of their own, such as the streams of streaming agents.
+   */
+  @PreDestroy
+  void closeAgents() {
+    agents.findAll { it instanceof Closeable }.each { ((Closeable) it).close() }
+  }
+
   @Override
   Boolean isProviderForEurekaRecord(Map<String, Object> attributes) {
     attributes.containsKey('titusTaskId') && attributes.get('titusTaskId') != null && attributes.get('instanceId') != null
@@ -38,6 +38,7 @@ import com.netflix.spinnaker.cats.agent.*;
 import com.netflix.spinnaker.cats.cache.CacheData;
 import com.netflix.spinnaker.cats.provider.ProviderCache;
 import com.netflix.spinnaker.cats.provider.ProviderRegistry;
+import com.netflix.spinnaker.cats.thread.NamedThreadFactory;
 import com.netflix.spinnaker.clouddriver.aws.data.ArnUtils;
 import com.netflix.spinnaker.clouddriver.cache.CustomScheduledAgent;
 import com.netflix.spinnaker.clouddriver.model.HealthState;
@@ -53,6 +54,8 @@ import com.netflix.spinnaker.clouddriver.titus.client.model.TaskState;
 import com.netflix.spinnaker.clouddriver.titus.credentials.NetflixTitusCredentials;
 import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService;
 import com.netflix.titus.grpc.protogen.*;
+import io.grpc.Context;
+import java.io.Closeable;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -64,7 +67,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
+public class TitusStreamingUpdateAgent implements CustomScheduledAgent, Closeable {
 
   private static final TypeReference<Map<String, Object>> ANY_MAP =
       new TypeReference<Map<String, Object>>() {};
@@ -77,8 +80,12 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
   private final ObjectMapper objectMapper;
   private final Registry registry;
   private final Id metricId;
+  private final Id eventsId;
+  private final Id snapshotsId;
   private final Provider<AwsLookupUtil> awsLookupUtil;
   private final DynamicConfigService dynamicConfigService;
+  private final ScheduledThreadPoolExecutor executor;
+  private final List<StreamingCacheExecution> executions = new CopyOnWriteArrayList<>();
 
   private final Logger log = LoggerFactory.getLogger(TitusStreamingUpdateAgent.class);
 
@@ -152,6 +159,25 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
             .createId("titus.cache.streaming")
             .withTag("account", account.getName())
             .withTag("region", region.getName());
+    this.eventsId =
+        registry
+            .createId("titus.cache.streaming.events")
+            .withTag("account", account.getName())
+            .withTag("region", region.getName());
+    this.snapshotsId =
+        registry
+            .createId("titus.cache.streaming.snapshots")
+            .withTag("account", account.getName())
+            .withTag("region", region.getName());
+
+    // Runs the stream consumer and its lease check. Both threads time out once the stream is
+    // closed, and the executor is shut down with the agent.
+    this.executor =
+        new ScheduledThreadPoolExecutor(
+            2, new NamedThreadFactory(TitusStreamingUpdateAgent.class.getSimpleName()));
+    this.executor.setKeepAliveTime(1, TimeUnit.MINUTES);
+    this.executor.allowCoreThreadTimeOut(true);
+    this.executor.setRemoveOnCancelPolicy(true);
   }
 
   @Override
@@ -161,13 +187,31 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
 
   @Override
   public AgentExecution getAgentExecution(ProviderRegistry providerRegistry) {
-    return new StreamingCacheExecution(providerRegistry);
+    StreamingCacheExecution execution = new StreamingCacheExecution(providerRegistry);
+    executions.add(execution);
+    return execution;
+  }
+
+  /** Closes the observeJobs streams of this agent and stops the threads consuming them. */
+  @Override
+  public void close() {
+    executions.forEach(StreamingCacheExecution::closeStream);
+    executor.shutdownNow();
   }
 
   class StreamingCacheExecution implements AgentExecution {
     private final ProviderRegistry providerRegistry;
     private final ProviderCache cache;
 
+    // The stream and the state built from it outlive a single agent execution, so that each
+    // execution only processes the updates since the previous one instead of a new snapshot.
+    private StreamingCacheState state;
+    private Context.CancellableContext streamContext;
+    private Future<?> consumer;
+    private ScheduledFuture<?> leaseCheck;
+    private volatile boolean owned = false;
+    private volatile long lastOwnedTime = 0;
+
     StreamingCacheExecution(ProviderRegistry providerRegistry) {
       this.providerRegistry = providerRegistry;
       this.cache = providerRegistry.getProviderCache(getProviderName());
@@ -198,96 +242,226 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
      * the last server group in a cluster is deleted, the cluster object must also be deleted, and
      * the application object updated. The later cannot currently be done incrementally in an atomic
      * operation; safely updating an application object requires rebuilding it with full context.
+     * When titus.streaming.delta-writes is enabled, only the updated server groups and instances
+     * are written instead; the full context for applications and clusters is then the server group
+     * membership kept in StreamingCacheState, and they are only rewritten when it changes.
+     *
+     * <p>The stream is consumed on a background thread that keeps running between executions, and
+     * StreamingCacheState is kept with it; updates are only written to the cache by an execution,
+     * while it holds the agent lock. A lost stream is reopened with a new snapshot after a bounded
+     * exponential backoff; after titus.streaming.max-reconnect-attempts consecutive failures the
+     * consumer gives up and the next execution opens a new stream. When this instance has not
+     * executed the agent for titus.streaming.lease-ms, another instance is assumed to own it and
+     * the stream is closed.
      */
     @Override
     public void executeAgent(Agent agent) {
-      Long startTime = System.currentTimeMillis();
-
-      StreamingCacheState state = new StreamingCacheState();
-
-      ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
-      final Future handler =
-          executor.submit(
-              () -> {
-                Iterator<JobChangeNotification> notificationIt =
-                    titusClient.observeJobs(
-                        ObserveJobsQuery.newBuilder()
-                            .putFilteringCriteria("jobType", "SERVICE")
-                            .putFilteringCriteria("attributes", "source:spinnaker")
-                            .build());
-
-                while (continueStreaming(startTime)) {
-                  try {
-                    while (notificationIt.hasNext() && continueStreaming(startTime)) {
-                      JobChangeNotification notification = notificationIt.next();
-                      switch (notification.getNotificationCase()) {
-                        case JOBUPDATE:
-                          updateJob(state, notification.getJobUpdate().getJob());
-                          break;
-                        case TASKUPDATE:
-                          if (notification.getTaskUpdate().getMovedFromAnotherJob()) {
-                            Task task = notification.getTaskUpdate().getTask();
-                            String destinationJobId = task.getJobId();
-                            String sourceJobId =
-                                task.getTaskContextOrDefault("task.movedFromJob", null);
-                            log.info(
-                                "{} task moved from job {} to {}",
-                                task.getId(),
-                                sourceJobId,
-                                destinationJobId);
-                            updateMovedTask(state, task, sourceJobId);
-                          }
-                          updateTask(state, notification.getTaskUpdate().getTask());
-                          break;
-                        case SNAPSHOTEND:
-                          state.lastUpdate.set(0);
-                          log.info(
-                              "{} snapshot finished in {}ms",
-                              getAgentType(),
-                              System.currentTimeMillis() - startTime);
-                          state.tasks.keySet().retainAll(state.jobs.keySet());
-                          if (state.snapshotComplete) {
-                            log.error(
-                                "{} received >1 SNAPSHOTEND events, this is unexpected and may be handled incorrectly",
-                                getAgentType());
-                          }
-                          state.snapshotComplete = true;
-                          break;
-                      }
-
-                      if (state.snapshotComplete) {
-                        writeToCache(state);
-                        if (!state.savedSnapshot) {
-                          state.savedSnapshot = true;
-                        }
-                      }
-                    }
-                  } catch (io.grpc.StatusRuntimeException e) {
-                    log.warn(
-                        "gRPC exception while streaming {} updates, attempting to reconnect",
-                        getAgentType(),
-                        e);
-                    notificationIt =
-                        titusClient.observeJobs(
-                            ObserveJobsQuery.newBuilder()
-                                .putFilteringCriteria("jobType", "SERVICE")
-                                .putFilteringCriteria("attributes", "source:spinnaker")
-                                .build());
-                    state.snapshotComplete = false;
-                    state.savedSnapshot = false;
-                  } catch (Exception e) {
-                    log.error("Exception while streaming {} titus updates", getAgentType(), e);
-                  }
-                }
-              });
+      long startTime = System.currentTimeMillis();
+
+      StreamingCacheState streamState;
+      Future<?> streamConsumer;
+      synchronized (this) {
+        if (consumer == null || consumer.isDone()) {
+          startStream();
+        }
+        streamState = state;
+        streamConsumer = consumer;
+        owned = true;
+      }
+
+      try {
+        while (continueStreaming(startTime) && !streamConsumer.isDone()) {
+          flush(streamState);
+          Thread.sleep(
+              dynamicConfigService.getConfig(
+                  Long.class, "titus.streaming.flush-interval-ms", 1000L));
+        }
+        // write what the stream delivered before it was given up
+        flush(streamState);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        lastOwnedTime = System.currentTimeMillis();
+        owned = false;
+      }
+    }
+
+    private synchronized void startStream() {
+      StreamingCacheState streamState = new StreamingCacheState();
+      Context.CancellableContext context = Context.current().withCancellation();
+      state = streamState;
+      streamContext = context;
+      registry.counter(snapshotsId).increment();
+      consumer = executor.submit(() -> consume(streamState, context));
+      if (leaseCheck == null || leaseCheck.isDone()) {
+        leaseCheck = executor.scheduleWithFixedDelay(this::expireStream, 30, 30, TimeUnit.SECONDS);
+      }
+    }
+
+    /** Closes the stream if this instance no longer appears to own the agent. */
+    private synchronized void expireStream() {
+      if (consumer == null || consumer.isDone()) {
+        // nothing to expire; the check is scheduled again with the next stream
+        leaseCheck.cancel(false);
+        return;
+      }
+
+      long leaseMillis =
+          dynamicConfigService.getConfig(
+              Long.class, "titus.streaming.lease-ms", 2 * getPollIntervalMillis());
+      if (!owned && System.currentTimeMillis() - lastOwnedTime > leaseMillis) {
+        log.info(
+            "{} has not executed for {}ms, closing its observeJobs stream",
+            getAgentType(),
+            System.currentTimeMillis() - lastOwnedTime);
+        closeStream();
+      }
+    }
+
+    synchronized void closeStream() {
+      if (streamContext != null) {
+        streamContext.cancel(null);
+      }
+      if (consumer != null) {
+        consumer.cancel(true);
+      }
+      if (leaseCheck != null) {
+        leaseCheck.cancel(false);
+      }
+    }
+
+    /**
+     * Consumes observeJobs streams into `state` until `context` is cancelled. Only the lock on
+     * `state` is held while a notification is applied; reading the stream and writing the cache
+     * both happen without it.
+     */
+    private void consume(StreamingCacheState state, Context.CancellableContext context) {
+      int failures = 0;
+      while (!context.isCancelled()) {
+        long startTime = System.currentTimeMillis();
+        try {
+          Iterator<JobChangeNotification> notificationIt = observeJobs(context);
+          while (notificationIt.hasNext()) {
+            JobChangeNotification notification = notificationIt.next();
+            failures = 0;
+            registry
+                .counter(eventsId.withTag("type", notification.getNotificationCase().name()))
+                .increment();
+
+            synchronized (state) {
+              apply(state, notification, startTime);
+            }
+          }
+
+          log.warn("{} observeJobs stream completed, attempting to reconnect", getAgentType());
+        } catch (Exception e) {
+          if (context.isCancelled()) {
+            break;
+          }
+          log.warn(
+              "Exception while streaming {} updates, attempting to reconnect", getAgentType(), e);
+        }
+
+        int maxAttempts =
+            dynamicConfigService.getConfig(
+                Integer.class, "titus.streaming.max-reconnect-attempts", 10);
+        if (++failures > maxAttempts) {
+          log.error(
+              "{} lost its observeJobs stream {} times in a row, giving up until the next execution",
+              getAgentType(),
+              maxAttempts);
+          return;
+        }
+        if (!backOff(failures)) {
+          return;
+        }
 
-      executor.schedule(
-          () -> {
-            handler.cancel(true);
-          },
-          getTimeoutMillis(),
-          TimeUnit.MILLISECONDS);
-      CompletableFuture.completedFuture(handler).join();
+        // The new stream starts with a snapshot, so the state built from the previous stream is
+        // discarded.
+        synchronized (state) {
+          state.reset();
+        }
+        registry.counter(snapshotsId).increment();
+      }
+    }
+
+    private void apply(
+        StreamingCacheState state, JobChangeNotification notification, long startTime) {
+      switch (notification.getNotificationCase()) {
+        case JOBUPDATE:
+          recordLag(state, notification.getJobUpdate().getJob().getStatus().getTimestamp());
+          updateJob(state, notification.getJobUpdate().getJob());
+          break;
+        case TASKUPDATE:
+          if (notification.getTaskUpdate().getMovedFromAnotherJob()) {
+            Task task = notification.getTaskUpdate().getTask();
+            String destinationJobId = task.getJobId();
+            String sourceJobId = task.getTaskContextOrDefault("task.movedFromJob", null);
+            log.info(
+                "{} task moved from job {} to {}", task.getId(), sourceJobId, destinationJobId);
+            updateMovedTask(state, task, sourceJobId);
+          }
+          recordLag(state, notification.getTaskUpdate().getTask().getStatus().getTimestamp());
+          updateTask(state, notification.getTaskUpdate().getTask());
+          break;
+        case SNAPSHOTEND:
+          state.lastUpdate.set(0);
+          log.info(
+              "{} snapshot finished in {}ms",
+              getAgentType(),
+              System.currentTimeMillis() - startTime);
+          state.tasks.keySet().retainAll(state.jobs.keySet());
+          if (state.snapshotComplete) {
+            log.error(
+                "{} received >1 SNAPSHOTEND events, this is unexpected and may be handled incorrectly",
+                getAgentType());
+          }
+          state.snapshotComplete = true;
+          break;
+      }
+    }
+
+    /**
+     * Sleeps before reconnect attempt `attempt`, doubling the delay with each consecutive attempt
+     * up to titus.streaming.max-reconnect-backoff-ms. Returns false if interrupted.
+     */
+    private boolean backOff(int attempt) {
+      long initialMillis =
+          dynamicConfigService.getConfig(
+              Long.class, "titus.streaming.reconnect-backoff-ms", 1000L);
+      long maxMillis =
+          dynamicConfigService.getConfig(
+              Long.class, "titus.streaming.max-reconnect-backoff-ms", 60000L);
+      long delay = Math.min(maxMillis, initialMillis << Math.min(attempt - 1, 16));
+      try {
+        Thread.sleep(delay);
+        return true;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+
+    /** Opens a stream that is closed when `context` is cancelled. */
+    private Iterator<JobChangeNotification> observeJobs(Context.CancellableContext context) {
+      Context previous = context.attach();
+      try {
+        return titusClient.observeJobs(
+            ObserveJobsQuery.newBuilder()
+                .putFilteringCriteria("jobType", "SERVICE")
+                .putFilteringCriteria("attributes", "source:spinnaker")
+                .build());
+      } finally {
+        context.detach(previous);
+      }
+    }
+
+    /** Records how long after a job or task changed state its update was received. */
+    private void recordLag(StreamingCacheState state, long statusTimestamp) {
+      if (state.snapshotComplete && statusTimestamp > 0) {
+        PercentileTimer.get(registry, metricId.withTag("operation", "eventLag"))
+            .record(Math.max(System.currentTimeMillis() - statusTimestamp, 0), MILLISECONDS);
+      }
     }
 
     private void updateJob(StreamingCacheState state, Job job) {
@@ -348,6 +522,7 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
 
       if (state.snapshotComplete) {
         state.updatedJobs.add(jobId);
+        state.updatedTasks.put(task.getId(), jobId);
       }
 
       state.changes.incrementAndGet();
@@ -362,46 +537,134 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
       }
     }
 
-    private void writeToCache(StreamingCacheState state) {
+    /**
+     * Writes the updates received since the last write to the cache, once enough of them have
+     * accumulated. Scaling policies and load balancers are fetched, and the cache is written,
+     * without holding the lock on `state`, so the stream consumer never waits on them.
+     */
+    private void flush(StreamingCacheState state) {
+      synchronized (state) {
+        if (!state.snapshotComplete || !shouldWrite(state)) {
+          return;
+        }
+      }
+
       long startTime = System.currentTimeMillis();
+      List<ScalingPolicyResult> scalingPolicyResults =
+          titusAutoscalingClient != null
+              ? titusAutoscalingClient.getAllScalingPolicies()
+              : emptyList();
+      PercentileTimer.get(registry, metricId.withTag("operation", "getScalingPolicies"))
+          .record(System.currentTimeMillis() - startTime, MILLISECONDS);
+
+      long startLoadBalancerTime = System.currentTimeMillis();
+      Map<String, List<String>> allLoadBalancers =
+          titusLoadBalancerClient != null
+              ? titusLoadBalancerClient.getAllLoadBalancers()
+              : emptyMap();
+      PercentileTimer.get(registry, metricId.withTag("operation", "getLoadBalancers"))
+          .record(System.currentTimeMillis() - startLoadBalancerTime, MILLISECONDS);
+
+      CacheWrite write;
+      synchronized (state) {
+        if (!state.snapshotComplete) {
+          // the stream was lost and the state reset while fetching
+          return;
+        }
+        write = prepareWrite(state, scalingPolicyResults, allLoadBalancers, startTime);
+      }
+
+      try {
+        write.apply();
+      } catch (RuntimeException e) {
+        // The updates taken from the state are lost, so rewrite everything from the state next.
+        synchronized (state) {
+          state.savedSnapshot = false;
+        }
+        throw e;
+      }
+
+      PercentileTimer.get(registry, metricId.withTag("operation", "processSnapshot"))
+          .record(System.currentTimeMillis() - startTime, MILLISECONDS);
+    }
 
-      if (!state.savedSnapshot
+    private boolean shouldWrite(StreamingCacheState state) {
+      long now = System.currentTimeMillis();
+      return !state.savedSnapshot
           || state.changes.get()
               >= dynamicConfigService.getConfig(
                   Integer.class, "titus.streaming.change-threshold", 1000)
-          || (startTime - state.lastUpdate.get()
+          || (now - state.lastUpdate.get()
                   > dynamicConfigService.getConfig(
                       Integer.class, "titus.streaming.time-threshold-ms", 5000)
-              && state.changes.get() > 0)) {
-        if (!state.savedSnapshot) {
-          log.info(
-              "Storing snapshot with {} job and tasks in {}", state.changes.get(), getAgentType());
-        } else {
-          state.tasks.keySet().retainAll(state.jobs.keySet());
+              && state.changes.get() > 0);
+    }
 
-          log.info(
-              "Updating: {} changes ( last update {} milliseconds ) in {}",
-              state.changes.get(),
-              startTime - state.lastUpdate.get(),
-              getAgentType());
-        }
+    /**
+     * Builds the cache write for the pending updates and clears them from `state`; callers must
+     * hold the lock on `state`.
+     */
+    private CacheWrite prepareWrite(
+        StreamingCacheState state,
+        List<ScalingPolicyResult> scalingPolicyResults,
+        Map<String, List<String>> allLoadBalancers,
+        long startTime) {
+      boolean snapshot = !state.savedSnapshot;
+      if (snapshot) {
+        log.info(
+            "Storing snapshot with {} job and tasks in {}", state.changes.get(), getAgentType());
+      } else {
+        state.tasks.keySet().retainAll(state.jobs.keySet());
 
-        List<ScalingPolicyResult> scalingPolicyResults =
-            titusAutoscalingClient != null
-                ? titusAutoscalingClient.getAllScalingPolicies()
-                : emptyList();
-        PercentileTimer.get(registry, metricId.withTag("operation", "getScalingPolicies"))
-            .record(System.currentTimeMillis() - startTime, MILLISECONDS);
+        log.info(
+            "Updating: {} changes ( last update {} milliseconds ) in {}",
+            state.changes.get(),
+            startTime - state.lastUpdate.get(),
+            getAgentType());
+      }
 
-        long startLoadBalancerTime = System.currentTimeMillis();
-        Map<String, List<String>> allLoadBalancers =
-            titusLoadBalancerClient != null
-                ? titusLoadBalancerClient.getAllLoadBalancers()
-                : emptyMap();
-        PercentileTimer.get(registry, metricId.withTag("operation", "getLoadBalancers"))
-            .record(System.currentTimeMillis() - startLoadBalancerTime, MILLISECONDS);
+      Map<String, Collection<String>> evictions = new LinkedHashMap<>();
+      CacheResult result =
+          !snapshot && dynamicConfigService.isEnabled("titus.streaming.delta-writes", false)
+              ? buildDeltaCacheResult(state, scalingPolicyResults, allLoadBalancers, evictions)
+              : buildCacheResult(state, scalingPolicyResults, allLoadBalancers, evictions);
+
+      // prune jobIdToApp
+      Set<String> completedJobs = new HashSet<>(state.jobIdToApp.keySet());
+      completedJobs.removeAll(state.jobs.keySet());
+      completedJobs.forEach(j -> state.jobIdToApp.remove(j));
+
+      state.updatedJobs.stream()
+          .filter(j -> !state.jobs.containsKey(j))
+          .forEach(state::removeServerGroup);
+      state.updatedJobs = new HashSet<>();
+      state.updatedTasks = new HashMap<>();
+      state.lastUpdate.set(System.currentTimeMillis());
+      state.changes.set(0);
+      state.savedSnapshot = true;
+
+      return new CacheWrite(result, snapshot, evictions);
+    }
 
-        CacheResult result = buildCacheResult(state, scalingPolicyResults, allLoadBalancers);
+    /** A cache result and its evictions, written once the lock on the state is released. */
+    private class CacheWrite {
+      private final CacheResult result;
+      private final boolean snapshot;
+      private final Map<String, Collection<String>> evictions;
+
+      CacheWrite(
+          CacheResult result, boolean snapshot, Map<String, Collection<String>> evictions) {
+        this.result = result;
+        this.snapshot = snapshot;
+        this.evictions = evictions;
+      }
+
+      void apply() {
+        evictions.forEach(
+            (namespace, keys) -> {
+              log.info("Evicting {} {} in {}", keys.size(), namespace, getAgentType());
+              cache.evictDeletedItems(namespace, keys);
+            });
 
         Collection<String> authoritative =
             TYPES.stream()
@@ -409,31 +672,20 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
                 .map(AgentDataType::getTypeName)
                 .collect(Collectors.toSet());
 
-        if (state.savedSnapshot) {
+        if (snapshot) {
+          cache.putCacheResult(getAgentType(), authoritative, result);
+        } else {
           // Incremental update without implicit evictions
           cache.addCacheResult(getAgentType(), authoritative, result);
-        } else {
-          cache.putCacheResult(getAgentType(), authoritative, result);
         }
-
-        // prune jobIdToApp
-        Set<String> completedJobs = new HashSet<>(state.jobIdToApp.keySet());
-        completedJobs.removeAll(state.jobs.keySet());
-        completedJobs.forEach(j -> state.jobIdToApp.remove(j));
-
-        state.updatedJobs = new HashSet<>();
-        state.lastUpdate.set(System.currentTimeMillis());
-        state.changes.set(0);
-
-        PercentileTimer.get(registry, metricId.withTag("operation", "processSnapshot"))
-            .record(System.currentTimeMillis() - startTime, MILLISECONDS);
       }
     }
 
     private CacheResult buildCacheResult(
         StreamingCacheState state,
         List<ScalingPolicyResult> scalingPolicyResults,
-        Map<String, List<String>> allLoadBalancers) {
+        Map<String, List<String>> allLoadBalancers,
+        Map<String, Collection<String>> evictions) {
       // INITIALIZE CACHES
       Map<String, CacheData> applicationCache = createCache();
       Map<String, CacheData> clusterCache = createCache();
@@ -486,51 +738,12 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
 
       List<ServerGroupData> serverGroupDatas =
           jobs.values().stream()
-              .map(
-                  job -> {
-                    List<ScalingPolicyData> jobScalingPolicies =
-                        scalingPolicyResults.stream()
-                            .filter(
-                                it ->
-                                    it.getJobId().equalsIgnoreCase(job.getId())
-                                        && CACHEABLE_POLICY_STATES.contains(
-                                            it.getPolicyState().getState()))
-                            .map(
-                                it ->
-                                    new ScalingPolicyData(
-                                        it.getId().getId(),
-                                        it.getScalingPolicy(),
-                                        it.getPolicyState()))
-                            .collect(Collectors.toList());
-
-                    List<String> jobLoadBalancers =
-                        allLoadBalancers.getOrDefault(job.getId(), emptyList());
-                    return new ServerGroupData(
-                        new com.netflix.spinnaker.clouddriver.titus.client.model.Job(
-                            job, EMPTY_LIST),
-                        jobScalingPolicies,
-                        jobLoadBalancers,
-                        state.tasks.getOrDefault(job.getId(), emptySet()).stream()
-                            .map(Task::getId)
-                            .collect(Collectors.toSet()),
-                        account.getName(),
-                        region.getName());
-                  })
+              .map(job -> serverGroupData(state, job, scalingPolicyResults, allLoadBalancers))
               .collect(Collectors.toList());
 
       serverGroupDatas.forEach(
           data -> {
-            String app = StringUtils.substringAfterLast(data.appNameKey, ":");
-
-            if (StringUtils.isNotEmpty(app)) {
-              state.appToClusters.computeIfAbsent(app, c -> new HashSet<>()).add(data.clusterKey);
-              state
-                  .appsToServerGroups
-                  .computeIfAbsent(app, c -> new HashSet<>())
-                  .add(data.serverGroupKey);
-              state.clusterKeyToApp.put(data.clusterKey, app);
-              state.sgKeyToApp.put(data.serverGroupKey, app);
-            }
+            String app = recordServerGroup(state, data);
 
             if (state.savedSnapshot) {
               currentApps.add(app);
@@ -538,8 +751,9 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
               currentServerGroups.add(data.serverGroupKey);
             }
 
-            cacheApplication(data, applicationCache);
-            cacheCluster(data, clusterCache);
+            ServerGroupMembership membership = new ServerGroupMembership(data);
+            cacheApplication(membership, applicationCache);
+            cacheCluster(membership, clusterCache);
             cacheServerGroup(data, serverGroupCache);
             cacheImage(data, imageCache);
             for (Task task : (Set<Task>) state.tasks.getOrDefault(data.job.getId(), EMPTY_SET)) {
@@ -569,8 +783,7 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
                 .collect(Collectors.toList());
 
         if (!missingClusters.isEmpty()) {
-          log.info("Evicting {} clusters in {}", missingClusters.size(), getAgentType());
-          cache.evictDeletedItems(CLUSTERS.ns, missingClusters);
+          evict(evictions, CLUSTERS.ns, missingClusters);
           missingClusters.forEach(
               cluster -> {
                 state
@@ -582,8 +795,7 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
         }
 
         if (!missingServerGroups.isEmpty()) {
-          log.info("Evicting {} server groups in {}", missingServerGroups.size(), getAgentType());
-          cache.evictDeletedItems(SERVER_GROUPS.ns, missingServerGroups);
+          evict(evictions, SERVER_GROUPS.ns, missingServerGroups);
           missingServerGroups.forEach(
               sg -> {
                 state
@@ -594,12 +806,8 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
               });
         }
 
-        if (!state.completedInstanceIds.isEmpty()) {
-          log.info(
-              "Evicting {} instances in {}", state.completedInstanceIds.size(), getAgentType());
-          cache.evictDeletedItems(INSTANCES.ns, state.completedInstanceIds);
-          state.completedInstanceIds = new HashSet<>();
-        }
+        evict(evictions, INSTANCES.ns, state.completedInstanceIds);
+        state.completedInstanceIds = new HashSet<>();
       }
 
       Map<String, Collection<CacheData>> cacheResults = new HashMap<>();
@@ -622,36 +830,217 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
       return new DefaultCacheResult(cacheResults);
     }
 
-    /** Build authoritative cache object for applications based on server group data */
-    private void cacheApplication(ServerGroupData data, Map<String, CacheData> applications) {
+    /** Records the application, cluster and server group of `data`, returning its application. */
+    private String recordServerGroup(StreamingCacheState state, ServerGroupData data) {
+      String app = StringUtils.substringAfterLast(data.appNameKey, ":");
+
+      state.putServerGroup(data.job.getId(), new ServerGroupMembership(data));
+      if (StringUtils.isNotEmpty(app)) {
+        state.appToClusters.computeIfAbsent(app, c -> new HashSet<>()).add(data.clusterKey);
+        state
+            .appsToServerGroups
+            .computeIfAbsent(app, c -> new HashSet<>())
+            .add(data.serverGroupKey);
+        state.clusterKeyToApp.put(data.clusterKey, app);
+        state.sgKeyToApp.put(data.serverGroupKey, app);
+      }
+      return app;
+    }
+
+    private ServerGroupData serverGroupData(
+        StreamingCacheState state,
+        Job job,
+        List<ScalingPolicyResult> scalingPolicyResults,
+        Map<String, List<String>> allLoadBalancers) {
+      List<ScalingPolicyData> jobScalingPolicies =
+          scalingPolicyResults.stream()
+              .filter(
+                  it ->
+                      it.getJobId().equalsIgnoreCase(job.getId())
+                          && CACHEABLE_POLICY_STATES.contains(it.getPolicyState().getState()))
+              .map(
+                  it ->
+                      new ScalingPolicyData(
+                          it.getId().getId(), it.getScalingPolicy(), it.getPolicyState()))
+              .collect(Collectors.toList());
+
+      List<String> jobLoadBalancers = allLoadBalancers.getOrDefault(job.getId(), emptyList());
+      return new ServerGroupData(
+          new com.netflix.spinnaker.clouddriver.titus.client.model.Job(job, EMPTY_LIST),
+          jobScalingPolicies,
+          jobLoadBalancers,
+          state.tasks.getOrDefault(job.getId(), emptySet()).stream()
+              .map(Task::getId)
+              .collect(Collectors.toSet()),
+          account.getName(),
+          region.getName());
+    }
+
+    /**
+     * Builds cacheResults for only the server groups and instances that changed since the last
+     * write. Applications and clusters are rebuilt from the server group membership kept in
+     * StreamingCacheState, and only when a server group joined, left or moved between them.
+     */
+    private CacheResult buildDeltaCacheResult(
+        StreamingCacheState state,
+        List<ScalingPolicyResult> scalingPolicyResults,
+        Map<String, List<String>> allLoadBalancers,
+        Map<String, Collection<String>> evictions) {
+      Map<String, CacheData> applicationCache = createCache();
+      Map<String, CacheData> clusterCache = createCache();
+      Map<String, CacheData> serverGroupCache = createCache();
+      Map<String, CacheData> imageCache = createCache();
+      Map<String, CacheData> instancesCache = createCache();
+
+      Set<String> changedApps = new HashSet<>();
+      Set<String> changedClusters = new HashSet<>();
+      List<String> deletedServerGroups = new ArrayList<>();
+      Map<String, String> jobNames = new HashMap<>();
+
+      for (String jobId : state.updatedJobs) {
+        Job job = state.jobs.get(jobId);
+        ServerGroupMembership previous;
+        ServerGroupMembership current = null;
+        if (job == null) {
+          previous = state.removeServerGroup(jobId);
+          if (previous != null) {
+            deletedServerGroups.add(previous.serverGroupKey);
+          }
+        } else {
+          ServerGroupData data =
+              serverGroupData(state, job, scalingPolicyResults, allLoadBalancers);
+          jobNames.put(jobId, data.job.getName());
+          previous = state.serverGroupMemberships.get(state.jobIdToServerGroupKey.get(jobId));
+          recordServerGroup(state, data);
+          current = state.serverGroupMemberships.get(data.serverGroupKey);
+          cacheServerGroup(data, serverGroupCache);
+          cacheImage(data, imageCache);
+          if (previous != null && !previous.serverGroupKey.equals(current.serverGroupKey)) {
+            // the job was renamed, so its server group is now cached under another key
+            deletedServerGroups.add(previous.serverGroupKey);
+          }
+        }
+
+        if (previous != null && !previous.sameMembership(current)) {
+          changedApps.add(previous.appKey);
+          changedClusters.add(previous.clusterKey);
+        }
+        if (current != null && !current.sameMembership(previous)) {
+          changedApps.add(current.appKey);
+          changedClusters.add(current.clusterKey);
+        }
+      }
+
+      state.updatedTasks.forEach(
+          (taskId, jobId) ->
+              state.tasks.getOrDefault(jobId, emptySet()).stream()
+                  .filter(t -> t.getId().equals(taskId))
+                  .findFirst()
+                  .ifPresent(
+                      task ->
+                          cacheInstance(
+                              new InstanceData(
+                                  new com.netflix.spinnaker.clouddriver.titus.client.model.Task(
+                                      task),
+                                  jobNames.computeIfAbsent(jobId, j -> jobName(state, j)),
+                                  account.getName(),
+                                  region.getName()),
+                              instancesCache)));
+
+      List<String> deletedClusters = new ArrayList<>();
+      for (String clusterKey : changedClusters) {
+        Set<String> members = state.clusterServerGroups.getOrDefault(clusterKey, emptySet());
+        if (members.isEmpty()) {
+          deletedClusters.add(clusterKey);
+        } else {
+          members.forEach(sg -> cacheCluster(state.serverGroupMemberships.get(sg), clusterCache));
+        }
+      }
+
+      List<String> deletedApps = new ArrayList<>();
+      for (String appKey : changedApps) {
+        Set<String> members = state.applicationServerGroups.getOrDefault(appKey, emptySet());
+        if (members.isEmpty()) {
+          deletedApps.add(appKey);
+        } else {
+          members.forEach(
+              sg -> cacheApplication(state.serverGroupMemberships.get(sg), applicationCache));
+        }
+      }
+
+      evict(evictions, SERVER_GROUPS.ns, deletedServerGroups);
+      evict(evictions, CLUSTERS.ns, deletedClusters);
+      evict(evictions, APPLICATIONS.ns, deletedApps);
+      evict(evictions, INSTANCES.ns, state.completedInstanceIds);
+      state.completedInstanceIds = new HashSet<>();
+
+      Map<String, Collection<CacheData>> cacheResults = new HashMap<>();
+      cacheResults.put(APPLICATIONS.ns, applicationCache.values());
+      cacheResults.put(CLUSTERS.ns, clusterCache.values());
+      cacheResults.put(SERVER_GROUPS.ns, serverGroupCache.values());
+      cacheResults.put(IMAGES.ns, imageCache.values());
+      cacheResults.put(INSTANCES.ns, instancesCache.values());
+
+      log.info(
+          "Delta updating {} applications, {} clusters, {} server groups and {} instances in {}",
+          applicationCache.size(),
+          clusterCache.size(),
+          serverGroupCache.size(),
+          instancesCache.size(),
+          getAgentType());
+
+      return new DefaultCacheResult(cacheResults);
+    }
+
+    private String jobName(StreamingCacheState state, String jobId) {
+      Job job = state.jobs.get(jobId);
+      return job == null
+          ? null
+          : new com.netflix.spinnaker.clouddriver.titus.client.model.Job(job, EMPTY_LIST)
+              .getName();
+    }
+
+    /** Queues `keys` to be evicted from `namespace` when the cache result is written. */
+    private void evict(
+        Map<String, Collection<String>> evictions, String namespace, Collection<String> keys) {
+      if (!keys.isEmpty()) {
+        evictions.computeIfAbsent(namespace, n -> new ArrayList<>()).addAll(keys);
+      }
+    }
+
+    /** Add a server group to the authoritative cache object of its application */
+    private void cacheApplication(
+        ServerGroupMembership membership, Map<String, CacheData> applications) {
       CacheData applicationCache =
-          applications.getOrDefault(data.appNameKey, new MutableCacheData(data.appNameKey));
-      applicationCache.getAttributes().put("name", data.name.getApp());
+          applications.computeIfAbsent(membership.appKey, MutableCacheData::new);
+      applicationCache.getAttributes().put("name", membership.appName);
       Map<String, Collection<String>> relationships = applicationCache.getRelationships();
-      relationships.computeIfAbsent(CLUSTERS.ns, key -> new HashSet<>()).add(data.clusterKey);
+      relationships
+          .computeIfAbsent(CLUSTERS.ns, key -> new HashSet<>())
+          .add(membership.clusterKey);
       relationships
           .computeIfAbsent(SERVER_GROUPS.ns, key -> new HashSet<>())
-          .add(data.serverGroupKey);
+          .add(membership.serverGroupKey);
       relationships
           .computeIfAbsent(TARGET_GROUPS.ns, key -> new HashSet<>())
-          .addAll(data.targetGroupKeys);
-      applications.put(data.appNameKey, applicationCache);
+          .addAll(membership.targetGroupKeys);
     }
 
-    /** Build informative cache object for clusters based on server group data */
-    private void cacheCluster(ServerGroupData data, Map<String, CacheData> clusters) {
+    /** Add a server group to the informative cache object of its cluster */
+    private void cacheCluster(ServerGroupMembership membership, Map<String, CacheData> clusters) {
       CacheData clusterCache =
-          clusters.getOrDefault(data.clusterKey, new MutableCacheData(data.clusterKey));
-      clusterCache.getAttributes().put("name", data.name.getCluster());
+          clusters.computeIfAbsent(membership.clusterKey, MutableCacheData::new);
+      clusterCache.getAttributes().put("name", membership.clusterName);
       Map<String, Collection<String>> relationships = clusterCache.getRelationships();
-      relationships.computeIfAbsent(APPLICATIONS.ns, key -> new HashSet<>()).add(data.appNameKey);
+      relationships
+          .computeIfAbsent(APPLICATIONS.ns, key -> new HashSet<>())
+          .add(membership.appKey);
       relationships
           .computeIfAbsent(SERVER_GROUPS.ns, key -> new HashSet<>())
-          .add(data.serverGroupKey);
+          .add(membership.serverGroupKey);
       relationships
           .computeIfAbsent(TARGET_GROUPS.ns, key -> new HashSet<>())
-          .addAll(data.targetGroupKeys);
-      clusters.put(data.clusterKey, clusterCache);
+          .addAll(membership.targetGroupKeys);
     }
 
     private void cacheServerGroup(ServerGroupData data, Map<String, CacheData> serverGroups) {
@@ -727,11 +1116,76 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
       Map<String, String> clusterKeyToApp = new HashMap<>();
       Map<String, String> sgKeyToApp = new HashMap<>();
 
+      // Server group membership of applications and clusters, used to write deltas
+      Map<String, String> jobIdToServerGroupKey = new HashMap<>();
+      Map<String, ServerGroupMembership> serverGroupMemberships = new HashMap<>();
+      Map<String, Set<String>> applicationServerGroups = new HashMap<>();
+      Map<String, Set<String>> clusterServerGroups = new HashMap<>();
+
       Set<String> completedInstanceIds = new HashSet<>();
       Set<String> updatedJobs = new HashSet<>();
+      Map<String, String> updatedTasks = new HashMap<>();
 
       Boolean snapshotComplete = false;
       Boolean savedSnapshot = false;
+
+      void reset() {
+        changes.set(0);
+        lastUpdate.set(0);
+        jobs = new HashMap<>();
+        tasks = new HashMap<>();
+        jobIdToApp = new HashMap<>();
+        appToClusters = new HashMap<>();
+        appsToServerGroups = new HashMap<>();
+        clusterKeyToApp = new HashMap<>();
+        sgKeyToApp = new HashMap<>();
+        jobIdToServerGroupKey = new HashMap<>();
+        serverGroupMemberships = new HashMap<>();
+        applicationServerGroups = new HashMap<>();
+        clusterServerGroups = new HashMap<>();
+        completedInstanceIds = new HashSet<>();
+        updatedJobs = new HashSet<>();
+        updatedTasks = new HashMap<>();
+        snapshotComplete = false;
+        savedSnapshot = false;
+      }
+
+      /** Records the membership of a job's server group, returning its previous membership. */
+      ServerGroupMembership putServerGroup(String jobId, ServerGroupMembership membership) {
+        ServerGroupMembership previous = removeServerGroup(jobId);
+        jobIdToServerGroupKey.put(jobId, membership.serverGroupKey);
+        serverGroupMemberships.put(membership.serverGroupKey, membership);
+        applicationServerGroups
+            .computeIfAbsent(membership.appKey, k -> new HashSet<>())
+            .add(membership.serverGroupKey);
+        clusterServerGroups
+            .computeIfAbsent(membership.clusterKey, k -> new HashSet<>())
+            .add(membership.serverGroupKey);
+        return previous;
+      }
+
+      ServerGroupMembership removeServerGroup(String jobId) {
+        String serverGroupKey = jobIdToServerGroupKey.remove(jobId);
+        ServerGroupMembership membership =
+            serverGroupKey == null ? null : serverGroupMemberships.remove(serverGroupKey);
+        if (membership == null) {
+          return null;
+        }
+
+        removeMember(applicationServerGroups, membership.appKey, serverGroupKey);
+        removeMember(clusterServerGroups, membership.clusterKey, serverGroupKey);
+        return membership;
+      }
+
+      private void removeMember(Map<String, Set<String>> groups, String group, String member) {
+        Set<String> members = groups.get(group);
+        if (members != null) {
+          members.remove(member);
+          if (members.isEmpty()) {
+            groups.remove(group);
+          }
+        }
+      }
     }
   }
 
@@ -955,6 +1409,33 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent {
     }
   }
 
+  /** The application, cluster and target groups a server group belongs to. */
+  private static class ServerGroupMembership {
+    final String serverGroupKey;
+    final String appName;
+    final String appKey;
+    final String clusterName;
+    final String clusterKey;
+    final Set<String> targetGroupKeys;
+
+    ServerGroupMembership(ServerGroupData data) {
+      this.serverGroupKey = data.serverGroupKey;
+      this.appName = data.name.getApp();
+      this.appKey = data.appNameKey;
+      this.clusterName = data.name.getCluster();
+      this.clusterKey = data.clusterKey;
+      this.targetGroupKeys = data.targetGroupKeys;
+    }
+
+    boolean sameMembership(ServerGroupMembership other) {
+      return other != null
+          && serverGroupKey.equals(other.serverGroupKey)
+          && appKey.equals(other.appKey)
+          && clusterKey.equals(other.clusterKey)
+          && targetGroupKeys.equals(other.targetGroupKeys);
+    }
+  }
+
   private Map<String, String> getTitusHealth(
       com.netflix.spinnaker.clouddriver.titus.client.model.Task task) {
     TaskState taskState = task.getState();
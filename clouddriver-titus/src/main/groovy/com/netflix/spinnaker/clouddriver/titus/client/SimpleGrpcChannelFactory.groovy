@@ -23,7 +23,7 @@ import io.grpc.ManagedChannelBuilder
 
 class SimpleGrpcChannelFactory implements GrpcChannelFactory {
   @Override
-  ManagedChannel build(TitusRegion titusRegion, String environment, String eurekaName, long defaultConnectTimeOut, Registry registry) {
-    return ManagedChannelBuilder.forAddress(titusRegion.url, titusRegion.port).build()
+  ManagedChannel build(TitusRegion titusRegion, String environment, String eurekaName, long defaultConnectTimeOut, Registry registry, TitusChannelOptions options) {
+    return options.applyTo(ManagedChannelBuilder.forAddress(titusRegion.url, titusRegion.port)).build()
   }
 }
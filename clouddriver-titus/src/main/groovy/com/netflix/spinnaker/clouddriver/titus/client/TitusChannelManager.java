@@ -0,0 +1,227 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.titus.client;
+
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.clouddriver.titus.client.model.GrpcChannelFactory;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientInterceptors;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands out the gRPC channels used by the Titus clients. Channels are built by the configured
+ * {@link GrpcChannelFactory}, which is handed the configured {@link TitusChannelOptions}, and unless
+ * pooling is disabled are shared by every account that points at the same Titus endpoint. Each channel handed out records per-method metrics for its account
+ * and applies the configured request compression.
+ *
+ * <p>Shutting down a handed out channel only releases that handle when the underlying channel is
+ * pooled, since other accounts may still be using it. Pooled channels are shut down by {@link
+ * #close()}.
+ */
+public class TitusChannelManager implements GrpcChannelFactory, Closeable {
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final GrpcChannelFactory delegate;
+  private final TitusChannelOptions options;
+  private final Map<ChannelKey, ManagedChannel> channels = new ConcurrentHashMap<>();
+
+  public TitusChannelManager(GrpcChannelFactory delegate, TitusChannelOptions options) {
+    this.delegate = delegate;
+    this.options = options;
+  }
+
+  @Override
+  public ManagedChannel build(
+      TitusRegion titusRegion,
+      String environment,
+      String eurekaName,
+      long defaultConnectTimeOut,
+      Registry registry) {
+    return build(titusRegion, environment, eurekaName, defaultConnectTimeOut, registry, options);
+  }
+
+  @Override
+  public ManagedChannel build(
+      TitusRegion titusRegion,
+      String environment,
+      String eurekaName,
+      long defaultConnectTimeOut,
+      Registry registry,
+      TitusChannelOptions options) {
+    ManagedChannel channel;
+    boolean pooled = options.isPoolChannels();
+    if (pooled) {
+      ChannelKey key =
+          new ChannelKey(
+              titusRegion.getName(),
+              titusRegion.getEndpoint(),
+              titusRegion.getUrl(),
+              titusRegion.getPort(),
+              environment,
+              eurekaName,
+              defaultConnectTimeOut);
+      channel =
+          channels.computeIfAbsent(
+              key,
+              k -> {
+                log.info(
+                    "Opening Titus channel for {} in {} (first requested by account {})",
+                    titusRegion.getEndpoint(),
+                    titusRegion.getName(),
+                    titusRegion.getAccount());
+                return delegate.build(
+                    titusRegion, environment, eurekaName, defaultConnectTimeOut, registry, options);
+              });
+    } else {
+      channel =
+          delegate.build(
+              titusRegion, environment, eurekaName, defaultConnectTimeOut, registry, options);
+    }
+
+    List<ClientInterceptor> interceptors = new ArrayList<>();
+    interceptors.add(new TitusClientMetricsInterceptor(registry, titusRegion));
+    if (options.getCompression() != null) {
+      interceptors.add(new CompressionInterceptor(options.getCompression()));
+    }
+    return new InterceptedManagedChannel(channel, interceptors, !pooled);
+  }
+
+  /** @return The number of distinct channels currently open. */
+  public int getChannelCount() {
+    return channels.size();
+  }
+
+  /** Shuts down every pooled channel. Channels handed out before can no longer make calls. */
+  @Override
+  public void close() {
+    channels
+        .keySet()
+        .forEach(
+            key -> {
+              ManagedChannel channel = channels.remove(key);
+              if (channel != null) {
+                log.info("Closing Titus channel for {} in {}", key.getEndpoint(), key.getRegion());
+                channel.shutdown();
+              }
+            });
+  }
+
+  @Value
+  private static class ChannelKey {
+    String region;
+    String endpoint;
+    String url;
+    Integer port;
+    String environment;
+    String eurekaName;
+    long connectTimeout;
+  }
+
+  private static class CompressionInterceptor implements ClientInterceptor {
+    private final String compression;
+
+    CompressionInterceptor(String compression) {
+      this.compression = compression;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+        MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+      return next.newCall(method, callOptions.withCompression(compression));
+    }
+  }
+
+  /**
+   * Runs calls through the given interceptors. Lifecycle calls go to the underlying channel only if
+   * this handle owns it; a handle on a pooled channel just stops accepting new calls.
+   */
+  private static class InterceptedManagedChannel extends ManagedChannel {
+    private final ManagedChannel channel;
+    private final Channel intercepted;
+    private final boolean owned;
+    private volatile boolean released;
+
+    InterceptedManagedChannel(
+        ManagedChannel channel, List<ClientInterceptor> interceptors, boolean owned) {
+      this.channel = channel;
+      this.intercepted = ClientInterceptors.intercept(channel, interceptors);
+      this.owned = owned;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(
+        MethodDescriptor<ReqT, RespT> methodDescriptor, CallOptions callOptions) {
+      if (released) {
+        throw new IllegalStateException("Titus channel handle has been shut down");
+      }
+      return intercepted.newCall(methodDescriptor, callOptions);
+    }
+
+    @Override
+    public String authority() {
+      return channel.authority();
+    }
+
+    @Override
+    public ManagedChannel shutdown() {
+      if (owned) {
+        channel.shutdown();
+      } else {
+        released = true;
+      }
+      return this;
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return released || channel.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return released || channel.isTerminated();
+    }
+
+    @Override
+    public ManagedChannel shutdownNow() {
+      if (owned) {
+        channel.shutdownNow();
+      } else {
+        released = true;
+      }
+      return this;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+      return released || channel.awaitTermination(timeout, unit);
+    }
+  }
+}
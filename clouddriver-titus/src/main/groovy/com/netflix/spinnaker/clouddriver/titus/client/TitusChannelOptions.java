@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.titus.client;
+
+import io.grpc.ManagedChannelBuilder;
+import java.util.concurrent.TimeUnit;
+import lombok.Data;
+
+/** Settings applied to the gRPC channels opened to Titus, bound from {@code titus.grpc}. */
+@Data
+public class TitusChannelOptions {
+
+  /**
+   * Whether accounts that point at the same Titus endpoint share a single channel instead of each
+   * opening their own.
+   */
+  private boolean poolChannels = true;
+
+  /** Interval between keepalive pings on an idle connection; keepalive is disabled when 0. */
+  private long keepAliveTimeSeconds = 0;
+
+  /** How long to wait for a keepalive ping to be acknowledged before closing the connection. */
+  private long keepAliveTimeoutSeconds = 20;
+
+  /** Whether keepalive pings are sent while there are no outstanding calls. */
+  private boolean keepAliveWithoutCalls = false;
+
+  /** The largest response message accepted; the gRPC default applies when not set. */
+  private Integer maxInboundMessageSizeBytes;
+
+  /**
+   * The compressor used for request messages, e.g. {@code gzip}; requests are not compressed when
+   * not set.
+   */
+  private String compression;
+
+  /** Applies the connection settings (keepalive and the inbound message size) to `builder`. */
+  public <T extends ManagedChannelBuilder<T>> T applyTo(T builder) {
+    if (keepAliveTimeSeconds > 0) {
+      builder
+          .keepAliveTime(keepAliveTimeSeconds, TimeUnit.SECONDS)
+          .keepAliveTimeout(keepAliveTimeoutSeconds, TimeUnit.SECONDS)
+          .keepAliveWithoutCalls(keepAliveWithoutCalls);
+    }
+    if (maxInboundMessageSizeBytes != null) {
+      builder.maxInboundMessageSize(maxInboundMessageSizeBytes);
+    }
+    return builder;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.titus.client;
+
+import com.google.protobuf.MessageLite;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency and outcome of every call made to Titus, along with the size of the
+ * messages sent and received, tagged by method.
+ */
+public class TitusClientMetricsInterceptor implements ClientInterceptor {
+  private final Registry registry;
+  private final Id callsId;
+  private final Id messageSizeId;
+
+  public TitusClientMetricsInterceptor(Registry registry, TitusRegion titusRegion) {
+    this.registry = registry;
+    this.callsId =
+        registry
+            .createId("titus.grpc.calls")
+            .withTag("account", titusRegion.getAccount())
+            .withTag("region", titusRegion.getName());
+    this.messageSizeId =
+        registry
+            .createId("titus.grpc.messageSize")
+            .withTag("account", titusRegion.getAccount())
+            .withTag("region", titusRegion.getName());
+  }
+
+  @Override
+  public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+      MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+    String methodName = method.getFullMethodName();
+    return new SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+      @Override
+      public void start(Listener<RespT> responseListener, Metadata headers) {
+        long startTime = registry.clock().monotonicTime();
+        super.start(
+            new SimpleForwardingClientCallListener<RespT>(responseListener) {
+              @Override
+              public void onMessage(RespT message) {
+                recordMessageSize(methodName, "received", message);
+                super.onMessage(message);
+              }
+
+              @Override
+              public void onClose(Status status, Metadata trailers) {
+                registry
+                    .timer(
+                        callsId
+                            .withTag("method", methodName)
+                            .withTag("status", status.getCode().name()))
+                    .record(registry.clock().monotonicTime() - startTime, TimeUnit.NANOSECONDS);
+                super.onClose(status, trailers);
+              }
+            },
+            headers);
+      }
+
+      @Override
+      public void sendMessage(ReqT message) {
+        recordMessageSize(methodName, "sent", message);
+        super.sendMessage(message);
+      }
+    };
+  }
+
+  private void recordMessageSize(String methodName, String direction, Object message) {
+    if (message instanceof MessageLite) {
+      registry
+          .distributionSummary(
+              messageSizeId.withTag("method", methodName).withTag("direction", direction))
+          .record(((MessageLite) message).getSerializedSize());
+    }
+  }
+}
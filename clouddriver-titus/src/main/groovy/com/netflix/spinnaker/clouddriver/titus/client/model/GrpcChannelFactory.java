@@ -17,14 +17,36 @@
 package com.netflix.spinnaker.clouddriver.titus.client.model;
 
 import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.clouddriver.titus.client.TitusChannelOptions;
 import com.netflix.spinnaker.clouddriver.titus.client.TitusRegion;
 import io.grpc.ManagedChannel;
 
 public interface GrpcChannelFactory {
-  public ManagedChannel build(
+  /** Builds a channel with the default {@link TitusChannelOptions}. */
+  default ManagedChannel build(
       TitusRegion titusRegion,
       String environment,
       String eurekaName,
       long defaultConnectTimeOut,
-      Registry registry);
+      Registry registry) {
+    return build(
+        titusRegion,
+        environment,
+        eurekaName,
+        defaultConnectTimeOut,
+        registry,
+        new TitusChannelOptions());
+  }
+
+  /**
+   * Builds a channel with the connection settings of `options` (keepalive and the inbound message
+   * size limit) applied, e.g. with {@link TitusChannelOptions#applyTo}.
+   */
+  ManagedChannel build(
+      TitusRegion titusRegion,
+      String environment,
+      String eurekaName,
+      long defaultConnectTimeOut,
+      Registry registry,
+      TitusChannelOptions options);
 }
@@ -19,6 +19,8 @@ package com.netflix.spinnaker.config
 import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.clouddriver.security.AccountCredentialsRepository
 import com.netflix.spinnaker.clouddriver.titus.TitusClientProvider
+import com.netflix.spinnaker.clouddriver.titus.client.TitusChannelManager
+import com.netflix.spinnaker.clouddriver.titus.client.TitusChannelOptions
 import com.netflix.spinnaker.clouddriver.titus.client.TitusJobCustomizer
 import com.netflix.spinnaker.clouddriver.titus.client.TitusRegion
 import com.netflix.spinnaker.clouddriver.titus.client.model.GrpcChannelFactory
@@ -69,8 +71,19 @@ class TitusConfiguration {
   }
 
   @Bean
-  TitusClientProvider titusClientProvider(Registry registry, Optional<List<TitusJobCustomizer>> titusJobCustomizers, GrpcChannelFactory grpcChannelFactory, RetrySupport retrySupport) {
-    return new TitusClientProvider(registry, titusJobCustomizers.orElse(Collections.emptyList()), grpcChannelFactory, retrySupport)
+  @ConfigurationProperties("titus.grpc")
+  TitusChannelOptions titusChannelOptions() {
+    new TitusChannelOptions()
+  }
+
+  @Bean
+  TitusClientProvider titusClientProvider(Registry registry,
+                                          Optional<List<TitusJobCustomizer>> titusJobCustomizers,
+                                          GrpcChannelFactory grpcChannelFactory,
+                                          TitusChannelOptions titusChannelOptions,
+                                          RetrySupport retrySupport) {
+    GrpcChannelFactory channelManager = new TitusChannelManager(grpcChannelFactory, titusChannelOptions)
+    return new TitusClientProvider(registry, titusJobCustomizers.orElse(Collections.emptyList()), channelManager, retrySupport)
   }
 
   @Bean
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.titus.caching.agents
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spectator.api.DefaultRegistry
+import com.netflix.spectator.api.Registry
+import com.netflix.spinnaker.cats.agent.CacheResult
+import com.netflix.spinnaker.cats.provider.ProviderCache
+import com.netflix.spinnaker.cats.provider.ProviderRegistry
+import com.netflix.spinnaker.clouddriver.titus.TitusClientProvider
+import com.netflix.spinnaker.clouddriver.titus.caching.Keys
+import com.netflix.spinnaker.clouddriver.titus.caching.utils.AwsLookupUtil
+import com.netflix.spinnaker.clouddriver.titus.client.TitusClient
+import com.netflix.spinnaker.clouddriver.titus.client.TitusRegion
+import com.netflix.spinnaker.clouddriver.titus.credentials.NetflixTitusCredentials
+import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
+import com.netflix.titus.grpc.protogen.Job
+import com.netflix.titus.grpc.protogen.JobChangeNotification
+import com.netflix.titus.grpc.protogen.JobDescriptor
+import com.netflix.titus.grpc.protogen.JobGroupInfo
+import com.netflix.titus.grpc.protogen.JobStatus
+import com.netflix.titus.grpc.protogen.ServiceJobSpec
+import com.netflix.titus.grpc.protogen.Task
+import com.netflix.titus.grpc.protogen.TaskStatus
+import io.grpc.Status
+import io.grpc.StatusRuntimeException
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Timeout
+
+import javax.inject.Provider
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.APPLICATIONS
+import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.CLUSTERS
+import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.INSTANCES
+import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.SERVER_GROUPS
+
+@Timeout(30)
+class TitusStreamingUpdateAgentSpec extends Specification {
+  static final String ACCOUNT = 'test'
+  static final String REGION = 'us-east-1'
+  static final String AGENT_TYPE = "${ACCOUNT}/${REGION}/TitusStreamingUpdateAgent"
+
+  TitusClient titusClient = Mock(TitusClient)
+  ProviderCache cache = Mock(ProviderCache)
+  Registry registry = new DefaultRegistry()
+  Map<String, Object> config = [
+    'titus.streaming.flush-interval-ms'       : 10L,
+    'titus.streaming.reconnect-backoff-ms'    : 1L,
+    'titus.streaming.max-reconnect-attempts'  : 0,
+    'titus.streaming.time-threshold-ms'       : 0
+  ]
+  Map<String, Boolean> flags = [:]
+  AwsLookupUtil awsLookupUtil = Stub(AwsLookupUtil)
+
+  NetflixTitusCredentials credentials = new NetflixTitusCredentials(
+    ACCOUNT, 'test', 'test', [new TitusRegion(REGION, ACCOUNT, 'http://foo', false, false, "blah", "blah", 7104, [])], 'test', 'test', 'test', 'test', false, '', 'mainvpc', [], "", false, false, false
+  )
+
+  @Subject
+  TitusStreamingUpdateAgent agent = new TitusStreamingUpdateAgent(
+    Stub(TitusClientProvider) {
+      getTitusClient(_, _) >> titusClient
+    },
+    credentials,
+    credentials.regions[0],
+    new ObjectMapper(),
+    registry,
+    { awsLookupUtil } as Provider<AwsLookupUtil>,
+    Stub(DynamicConfigService) {
+      getConfig(_, _, _) >> { Class type, String name, Object defaultValue ->
+        config.containsKey(name) ? config[name] : defaultValue
+      }
+      isEnabled(_ as String, _ as Boolean) >> { String name, Boolean defaultValue ->
+        flags.containsKey(name) ? flags[name] : defaultValue
+      }
+    }
+  )
+
+  def execution = agent.getAgentExecution(Stub(ProviderRegistry) {
+    getProviderCache(_) >> cache
+  })
+
+  def cleanup() {
+    agent.close()
+  }
+
+  void 'writes a completed snapshot authoritatively'() {
+    when:
+    execution.executeAgent(agent)
+
+    then:
+    1 * titusClient.observeJobs(_) >> stream([jobUpdate('1', 'v000'), taskUpdate('t1', '1'), snapshotEnd()])
+    1 * cache.putCacheResult(AGENT_TYPE, _, _) >> { String type, Collection<String> authoritative, CacheResult result ->
+      assert result.cacheResults[SERVER_GROUPS.ns]*.id == [serverGroupKey('api-test-v000')]
+      assert result.cacheResults[INSTANCES.ns]*.id == [instanceKey('t1')]
+    }
+    0 * cache.addCacheResult(*_)
+  }
+
+  void 'does not write a snapshot that never completed'() {
+    when:
+    execution.executeAgent(agent)
+
+    then:
+    1 * titusClient.observeJobs(_) >> stream([jobUpdate('1', 'v000')])
+    0 * cache.putCacheResult(*_)
+    0 * cache.addCacheResult(*_)
+  }
+
+  void 'reconnects with a new snapshot after the stream fails'() {
+    given:
+    config['titus.streaming.max-reconnect-attempts'] = 2
+    def written = new CountDownLatch(1)
+    def failing = stream([jobUpdate('1', 'v000')]) {
+      throw new StatusRuntimeException(Status.UNAVAILABLE)
+    }
+    // holds the stream open until its snapshot is written, as the state is reset on reconnect
+    def healthy = stream([jobUpdate('2', 'v001'), snapshotEnd()]) {
+      written.await(10, TimeUnit.SECONDS)
+      false
+    }
+
+    when:
+    execution.executeAgent(agent)
+
+    then:
+    4 * titusClient.observeJobs(_) >>> [failing, healthy] >> {
+      throw new StatusRuntimeException(Status.UNAVAILABLE)
+    }
+    1 * cache.putCacheResult(AGENT_TYPE, _, _) >> { String type, Collection<String> authoritative, CacheResult result ->
+      // nothing of the failed stream's partial snapshot is kept
+      assert result.cacheResults[SERVER_GROUPS.ns]*.id == [serverGroupKey('api-test-v001')]
+      written.countDown()
+    }
+    registry.counter(registry.createId('titus.cache.streaming.snapshots')
+      .withTag('account', ACCOUNT)
+      .withTag('region', REGION)).count() == 4
+  }
+
+  void 'writes updates received after the snapshot incrementally'() {
+    given:
+    def snapshotWritten = new CountDownLatch(1)
+    def updateWritten = new CountDownLatch(1)
+    // the update is only streamed once the snapshot has been written
+    def notifications = stream([
+      jobUpdate('1', 'v000'),
+      snapshotEnd(),
+      { snapshotWritten.await(10, TimeUnit.SECONDS) },
+      taskUpdate('t2', '1')
+    ]) {
+      updateWritten.await(10, TimeUnit.SECONDS)
+      false
+    }
+
+    when:
+    execution.executeAgent(agent)
+
+    then:
+    1 * titusClient.observeJobs(_) >> notifications
+    1 * cache.putCacheResult(AGENT_TYPE, _, _) >> { snapshotWritten.countDown() }
+
+    then:
+    1 * cache.addCacheResult(AGENT_TYPE, _, _) >> { String type, Collection<String> authoritative, CacheResult result ->
+      assert result.cacheResults[INSTANCES.ns]*.id == [instanceKey('t2')]
+      updateWritten.countDown()
+    }
+  }
+
+  void 'delta writes only rewrite the server group and instance of a task update'() {
+    given:
+    flags['titus.streaming.delta-writes'] = true
+    def snapshotWritten = new CountDownLatch(1)
+    def updateWritten = new CountDownLatch(1)
+    def notifications = stream([
+      jobUpdate('1', 'v000'),
+      jobUpdate('2', 'v001'),
+      taskUpdate('t1', '1'),
+      snapshotEnd(),
+      { snapshotWritten.await(10, TimeUnit.SECONDS) },
+      taskUpdate('t2', '1')
+    ]) {
+      updateWritten.await(10, TimeUnit.SECONDS)
+      false
+    }
+
+    when:
+    execution.executeAgent(agent)
+
+    then:
+    1 * titusClient.observeJobs(_) >> notifications
+    1 * cache.putCacheResult(AGENT_TYPE, _, _) >> { snapshotWritten.countDown() }
+
+    then:
+    1 * cache.addCacheResult(AGENT_TYPE, _, _) >> { String type, Collection<String> authoritative, CacheResult result ->
+      assert result.cacheResults[SERVER_GROUPS.ns]*.id == [serverGroupKey('api-test-v000')]
+      assert result.cacheResults[INSTANCES.ns]*.id == [instanceKey('t2')]
+      // the server group's membership didn't change, so neither did its application or cluster
+      assert result.cacheResults[APPLICATIONS.ns].isEmpty()
+      assert result.cacheResults[CLUSTERS.ns].isEmpty()
+      updateWritten.countDown()
+    }
+    0 * cache.evictDeletedItems(*_)
+  }
+
+  void 'delta writes evict the server group of a finished job, and its cluster once empty'() {
+    given:
+    flags['titus.streaming.delta-writes'] = true
+    def snapshotWritten = new CountDownLatch(1)
+    def updateWritten = new CountDownLatch(1)
+    def notifications = stream([
+      jobUpdate('1', 'v000'),
+      jobUpdate('2', 'v001', 'other'),
+      snapshotEnd(),
+      { snapshotWritten.await(10, TimeUnit.SECONDS) },
+      jobUpdate('1', 'v000', 'test', JobStatus.JobState.Finished),
+      jobUpdate('2', 'v002', 'other')
+    ]) {
+      updateWritten.await(10, TimeUnit.SECONDS)
+      false
+    }
+
+    when:
+    execution.executeAgent(agent)
+
+    then:
+    1 * titusClient.observeJobs(_) >> notifications
+    1 * cache.putCacheResult(AGENT_TYPE, _, _) >> { snapshotWritten.countDown() }
+
+    then:
+    // job 2 was renamed, so its previous server group goes as well
+    1 * cache.evictDeletedItems(SERVER_GROUPS.ns, {
+      it as Set == [serverGroupKey('api-test-v000'), serverGroupKey('api-other-v001')] as Set
+    })
+    1 * cache.evictDeletedItems(CLUSTERS.ns, [clusterKey('api-test')])
+    0 * cache.evictDeletedItems(APPLICATIONS.ns, _)
+
+    then:
+    1 * cache.addCacheResult(AGENT_TYPE, _, _) >> { String type, Collection<String> authoritative, CacheResult result ->
+      assert result.cacheResults[SERVER_GROUPS.ns]*.id == [serverGroupKey('api-other-v002')]
+      // job 2's server group changed, so its cluster and application are rebuilt
+      assert result.cacheResults[CLUSTERS.ns]*.id == [clusterKey('api-other')]
+      assert result.cacheResults[APPLICATIONS.ns]*.id == [Keys.getApplicationKey('api')]
+      assert result.cacheResults[APPLICATIONS.ns][0].relationships[SERVER_GROUPS.ns] == [serverGroupKey('api-other-v002')] as Set
+      updateWritten.countDown()
+    }
+  }
+
+  static String serverGroupKey(String name) {
+    Keys.getServerGroupV2Key(name, ACCOUNT, REGION)
+  }
+
+  static String clusterKey(String cluster) {
+    Keys.getClusterV2Key(cluster, 'api', ACCOUNT)
+  }
+
+  static String instanceKey(String taskId) {
+    Keys.getInstanceV2Key(taskId, ACCOUNT, REGION)
+  }
+
+  static JobChangeNotification jobUpdate(String id,
+                                         String sequence,
+                                         String stack = 'test',
+                                         JobStatus.JobState state = JobStatus.JobState.Accepted) {
+    JobChangeNotification.newBuilder()
+      .setJobUpdate(JobChangeNotification.JobUpdate.newBuilder()
+        .setJob(Job.newBuilder()
+          .setId(id)
+          .setJobDescriptor(JobDescriptor.newBuilder()
+            .setApplicationName('api')
+            .setJobGroupInfo(JobGroupInfo.newBuilder().setStack(stack).setSequence(sequence))
+            .setService(ServiceJobSpec.newBuilder()))
+          .setStatus(JobStatus.newBuilder().setState(state))))
+      .build()
+  }
+
+  static JobChangeNotification taskUpdate(String id, String jobId) {
+    JobChangeNotification.newBuilder()
+      .setTaskUpdate(JobChangeNotification.TaskUpdate.newBuilder()
+        .setTask(Task.newBuilder()
+          .setId(id)
+          .setJobId(jobId)
+          .setStatus(TaskStatus.newBuilder().setState(TaskStatus.TaskState.Started))))
+      .build()
+  }
+
+  static JobChangeNotification snapshotEnd() {
+    JobChangeNotification.newBuilder()
+      .setSnapshotEnd(JobChangeNotification.SnapshotEnd.newBuilder())
+      .build()
+  }
+
+  /**
+   * Streams `notifications`, then returns what `onEnd` returns from hasNext(). Closures in
+   * `notifications` are run when the stream reaches them instead of being streamed.
+   */
+  static Iterator<JobChangeNotification> stream(List notifications, Closure<Boolean> onEnd = { false }) {
+    LinkedList remaining = new LinkedList(notifications)
+    return [
+      hasNext: {
+        while (remaining.peek() instanceof Closure) {
+          ((Closure) remaining.poll()).call()
+        }
+        return !remaining.isEmpty() || onEnd.call()
+      },
+      next   : { (JobChangeNotification) remaining.poll() }
+    ] as Iterator<JobChangeNotification>
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.titus.client
+
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spinnaker.clouddriver.titus.client.model.GrpcChannelFactory
+import io.grpc.ManagedChannel
+import io.grpc.ManagedChannelBuilder
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class TitusChannelManagerSpec extends Specification {
+
+  def registry = new NoopRegistry()
+  def delegate = Mock(GrpcChannelFactory)
+
+  void 'accounts pointing at the same endpoint share a channel'() {
+    given:
+    def manager = new TitusChannelManager(delegate, new TitusChannelOptions())
+
+    when:
+    manager.build(region('account1', 'us-east-1'), 'test', 'titusapi', 60000, registry)
+    manager.build(region('account2', 'us-east-1'), 'test', 'titusapi', 60000, registry)
+    manager.build(region('account2', 'us-east-1'), 'test', 'titusapi', 0, registry)
+    manager.build(region('account1', 'us-west-2'), 'test', 'titusapi', 60000, registry)
+
+    then:
+    3 * delegate.build(_, _, _, _, _, _) >> Mock(ManagedChannel)
+    manager.channelCount == 3
+  }
+
+  void 'every account gets its own channel when pooling is disabled'() {
+    given:
+    def manager = new TitusChannelManager(delegate, new TitusChannelOptions(poolChannels: false))
+
+    when:
+    manager.build(region('account1', 'us-east-1'), 'test', 'titusapi', 60000, registry)
+    manager.build(region('account2', 'us-east-1'), 'test', 'titusapi', 60000, registry)
+
+    then:
+    2 * delegate.build(_, _, _, _, _, _) >> Mock(ManagedChannel)
+    manager.channelCount == 0
+  }
+
+  void 'shutting down a handed out pooled channel leaves the shared channel open'() {
+    given:
+    def channel = Mock(ManagedChannel)
+    delegate.build(_, _, _, _, _, _) >> channel
+    def manager = new TitusChannelManager(delegate, new TitusChannelOptions())
+    def released = manager.build(region('account1', 'us-east-1'), 'test', 'titusapi', 60000, registry)
+    def other = manager.build(region('account2', 'us-east-1'), 'test', 'titusapi', 60000, registry)
+
+    when:
+    released.shutdown()
+    released.shutdownNow()
+
+    then:
+    0 * channel.shutdown()
+    0 * channel.shutdownNow()
+    released.isShutdown()
+    !other.isShutdown()
+    manager.channelCount == 1
+
+    when:
+    released.newCall(null, null)
+
+    then:
+    thrown(IllegalStateException)
+  }
+
+  void 'closing the manager shuts down and forgets every pooled channel'() {
+    given:
+    def east = Mock(ManagedChannel)
+    def west = Mock(ManagedChannel)
+    delegate.build({ it.name == 'us-east-1' }, _, _, _, _, _) >> east
+    delegate.build({ it.name == 'us-west-2' }, _, _, _, _, _) >> west
+    def manager = new TitusChannelManager(delegate, new TitusChannelOptions())
+    manager.build(region('account1', 'us-east-1'), 'test', 'titusapi', 60000, registry)
+    manager.build(region('account1', 'us-west-2'), 'test', 'titusapi', 60000, registry)
+
+    when:
+    manager.close()
+
+    then:
+    1 * east.shutdown()
+    1 * west.shutdown()
+    manager.channelCount == 0
+  }
+
+  void 'shutting down an unpooled channel shuts down the underlying channel'() {
+    given:
+    def channel = Mock(ManagedChannel)
+    delegate.build(_, _, _, _, _, _) >> channel
+    def manager = new TitusChannelManager(delegate, new TitusChannelOptions(poolChannels: false))
+
+    when:
+    manager.build(region('account1', 'us-east-1'), 'test', 'titusapi', 60000, registry).shutdown()
+
+    then:
+    1 * channel.shutdown()
+  }
+
+  void 'the configured options are handed to the channel factory'() {
+    given:
+    def options = new TitusChannelOptions(keepAliveTimeSeconds: 30, maxInboundMessageSizeBytes: 16 * 1024 * 1024)
+    def manager = new TitusChannelManager(delegate, options)
+
+    when:
+    manager.build(region('account1', 'us-east-1'), 'test', 'titusapi', 60000, registry)
+
+    then:
+    1 * delegate.build(_, 'test', 'titusapi', 60000, registry, options) >> Mock(ManagedChannel)
+  }
+
+  void 'options are applied to the channel builder'() {
+    given:
+    def builder = Mock(ManagedChannelBuilder)
+
+    when:
+    new TitusChannelOptions(keepAliveTimeSeconds: 30, keepAliveWithoutCalls: true, maxInboundMessageSizeBytes: 1024).applyTo(builder)
+
+    then:
+    1 * builder.keepAliveTime(30, TimeUnit.SECONDS) >> builder
+    1 * builder.keepAliveTimeout(20, TimeUnit.SECONDS) >> builder
+    1 * builder.keepAliveWithoutCalls(true) >> builder
+    1 * builder.maxInboundMessageSize(1024) >> builder
+  }
+
+  void 'keepalive is left at the gRPC defaults unless configured'() {
+    given:
+    def builder = Mock(ManagedChannelBuilder)
+
+    when:
+    new TitusChannelOptions().applyTo(builder)
+
+    then:
+    0 * builder._
+  }
+
+  private static TitusRegion region(String account, String name) {
+    return new TitusRegion(name, account, "https://titusapi.${name}.example.com", false, false, 'titusapi', null, 7104, [])
+  }
+}
@@ -17,18 +17,21 @@
 package com.netflix.spinnaker.clouddriver.controllers
 
 import com.netflix.frigga.Names
+import com.netflix.spinnaker.clouddriver.model.Application
 import com.netflix.spinnaker.clouddriver.model.EntityTags
 import com.netflix.spinnaker.clouddriver.model.LoadBalancerProvider
 import com.netflix.spinnaker.clouddriver.security.AccountCredentials
 import com.netflix.spinnaker.clouddriver.security.AccountCredentialsProvider
+import com.netflix.spinnaker.clouddriver.security.ReadPermissions
 import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator
 import org.springframework.beans.factory.annotation.Autowired
-import org.springframework.security.core.Authentication
-import org.springframework.security.core.context.SecurityContextHolder
 import org.springframework.stereotype.Component
 
 /**
  * Support for controllers requiring authorization checks from Fiat.
+ *
+ * Each filter asks Fiat about every distinct application and account once, however many of the
+ * filtered items share them.
  */
 @Component
 class AuthorizationSupport {
@@ -49,10 +52,10 @@ class AuthorizationSupport {
       return true
     }
 
-    Authentication auth = SecurityContextHolder.context.authentication;
+    ReadPermissions permissions = ReadPermissions.forCurrentUser(permissionEvaluator)
 
     new HashMap(map).keySet().each { String account ->
-      if (!permissionEvaluator.hasPermission(auth, account, 'ACCOUNT', 'READ')) {
+      if (!permissions.canReadAccount(account)) {
         map.remove(account)
       }
     }
@@ -62,34 +65,66 @@ class AuthorizationSupport {
   /**
    *   Used for filtering result lists by searching for "account"-like properties.
    */
-  boolean filterForAccounts(List items) {
+  boolean filterForAccounts(Collection items) {
     if (!items) {
       return true
     }
 
-    Authentication auth = SecurityContextHolder.context.authentication;
+    ReadPermissions permissions = ReadPermissions.forCurrentUser(permissionEvaluator)
 
-    new ArrayList<>(items).each { Object item ->
-      Map propertySource = item.properties
-      if (item instanceof Map) {
-        propertySource = item
-      }
-      String account = propertySource.account ?: propertySource.accountName
+    items.removeIf { Object item ->
+      Map properties = propertySource(item)
+      String account = properties.account ?: properties.accountName
+      return account && !permissions.canReadAccount(account)
+    }
+    return true
+  }
 
-      if (account && !permissionEvaluator.hasPermission(auth, account, 'ACCOUNT', 'READ')) {
-        items.remove(item)
-      }
+  /**
+   * Used for filtering result lists by their "application" property; items without one are left to Fiat to decide.
+   */
+  boolean filterForApplications(Collection items) {
+    if (!items) {
+      return true
+    }
+
+    ReadPermissions permissions = ReadPermissions.forCurrentUser(permissionEvaluator)
+
+    items.removeIf { Object item ->
+      String application = item == null ? null : propertySource(item).application as String
+      return !permissions.canReadApplication(application)
     }
     return true
   }
 
+  boolean filterApplications(Collection<Application> applications) {
+    if (!applications) {
+      return true
+    }
+
+    ReadPermissions permissions = ReadPermissions.forCurrentUser(permissionEvaluator)
+    applications.removeIf { !permissions.canReadApplication(it.name) }
+    return true
+  }
+
+  boolean filterEntityTags(Collection<EntityTags> entityTags) {
+    if (!entityTags) {
+      return true
+    }
+
+    ReadPermissions permissions = ReadPermissions.forCurrentUser(permissionEvaluator)
+    entityTags.removeIf { !permissions.canReadApplication(it.entityRef?.application) }
+    return true
+  }
+
   boolean filterLoadBalancerProviderItems(List<LoadBalancerProvider.Item> lbItems) {
     if (!lbItems) {
       return true
     }
 
+    ReadPermissions permissions = ReadPermissions.forCurrentUser(permissionEvaluator)
     new ArrayList<>(lbItems).each { LoadBalancerProvider.Item lbItem ->
-      if(!filterLoadBalancerProviderItem(lbItem)) {
+      if(!filterLoadBalancerProviderItem(lbItem, permissions)) {
         lbItems.remove(lbItem)
       }
     }
@@ -97,6 +132,10 @@ class AuthorizationSupport {
   }
 
   boolean filterLoadBalancerProviderItem(LoadBalancerProvider.Item lbItem) {
+    return filterLoadBalancerProviderItem(lbItem, ReadPermissions.forCurrentUser(permissionEvaluator))
+  }
+
+  private boolean filterLoadBalancerProviderItem(LoadBalancerProvider.Item lbItem, ReadPermissions permissions) {
     if (!lbItem) {
       return false
     }
@@ -106,14 +145,12 @@ class AuthorizationSupport {
       return false
     }
 
-    Authentication auth = SecurityContextHolder.context.authentication;
-
-    if (!permissionEvaluator.hasPermission(auth, application, 'APPLICATION', 'READ')) {
+    if (!permissions.canReadApplication(application)) {
       return false
     }
 
     new ArrayList<>(lbItem.byAccounts).each { LoadBalancerProvider.ByAccount account ->
-      if (!permissionEvaluator.hasPermission(auth, account.name, 'ACCOUNT', 'READ')) {
+      if (!permissions.canReadAccount(account.name)) {
         lbItem.byAccounts.remove(account)
       }
     }
@@ -137,20 +174,24 @@ class AuthorizationSupport {
       [credentials.accountId?.toString(), credentials.name]
     }
 
-    def auth = SecurityContextHolder.context.authentication;
+    ReadPermissions permissions = ReadPermissions.forCurrentUser(permissionEvaluator)
     return entityTags.every {
       boolean hasPermission = true
 
       if (it.entityRef.application) {
-        hasPermission = hasPermission && permissionEvaluator.hasPermission(auth, it.entityRef.application, 'APPLICATION', 'READ')
+        hasPermission = hasPermission && permissions.canReadApplication(it.entityRef.application)
       }
 
       String accountName = accountNameById[it.entityRef.accountId]
       if (accountName) {
-        hasPermission = hasPermission && permissionEvaluator.hasPermission(auth, accountName, 'ACCOUNT', 'READ')
+        hasPermission = hasPermission && permissions.canReadAccount(accountName)
       }
 
       return hasPermission
     }
   }
+
+  private static Map propertySource(Object item) {
+    return item instanceof Map ? (Map) item : item.properties
+  }
 }
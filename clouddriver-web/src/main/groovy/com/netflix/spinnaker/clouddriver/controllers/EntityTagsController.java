@@ -25,7 +25,6 @@ import javax.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.security.access.prepost.PostAuthorize;
-import org.springframework.security.access.prepost.PostFilter;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -49,7 +48,7 @@ public class EntityTagsController {
 
   @RequestMapping(method = RequestMethod.GET)
   @PreAuthorize("@fiatPermissionEvaluator.storeWholePermission()")
-  @PostFilter("hasPermission(filterObject.getEntityRef().getApplication(), 'APPLICATION', 'READ')")
+  @PostAuthorize("@authorizationSupport.filterEntityTags(returnObject)")
   public Collection<EntityTags> list(
       @RequestParam(value = "cloudProvider", required = false) String cloudProvider,
       @RequestParam(value = "application", required = false) String application,
@@ -69,11 +68,26 @@ public class EntityTagsController {
                 Collectors.toMap(
                     p -> p.getKey().toLowerCase().replaceAll("tag:", ""), Map.Entry::getValue));
 
+    List<String> entityIds = entityId != null ? Arrays.asList(entityId.split(",")) : null;
+    if (entityIds != null
+        && application == null
+        && idPrefix == null
+        && account == null
+        && region == null
+        && namespace == null
+        && tags.isEmpty()) {
+      // cluster and server group views look up the tags of all of their entities at once
+      return tagProvider.getAllByEntityIds(cloudProvider, entityType, entityIds).values().stream()
+          .flatMap(Collection::stream)
+          .limit(maxResults)
+          .collect(Collectors.toList());
+    }
+
     return tagProvider.getAll(
         cloudProvider,
         application,
         entityType,
-        entityId != null ? Arrays.asList(entityId.split(",")) : null,
+        entityIds,
         idPrefix,
         account,
         region,
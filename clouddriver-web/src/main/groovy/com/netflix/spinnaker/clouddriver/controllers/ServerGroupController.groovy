@@ -31,7 +31,6 @@ import groovy.util.logging.Slf4j
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.context.MessageSource
 import org.springframework.security.access.prepost.PostAuthorize
-import org.springframework.security.access.prepost.PostFilter
 import org.springframework.security.access.prepost.PreAuthorize
 import org.springframework.web.bind.annotation.PathVariable
 import org.springframework.web.bind.annotation.RequestMapping
@@ -169,8 +168,7 @@ class ServerGroupController {
     return summaryList(application, cloudProvider)
   }
 
-  @PostFilter("hasPermission(filterObject?.application, 'APPLICATION', 'READ')")
-  @PostAuthorize("@authorizationSupport.filterForAccounts(returnObject)")
+  @PostAuthorize("@authorizationSupport.filterForApplications(returnObject) && @authorizationSupport.filterForAccounts(returnObject)")
   @RequestMapping(value = "/serverGroups", method = RequestMethod.GET)
   List getServerGroups(@RequestParam(required = false, value = 'applications') List<String> applications,
                        @RequestParam(required = false, value = 'ids') List<String> ids,
@@ -27,7 +27,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.access.prepost.PostFilter;
+import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -50,7 +50,7 @@ public class ServerGroupManagerController {
   }
 
   @PreAuthorize("hasPermission(#application, 'APPLICATION', 'READ')")
-  @PostFilter("hasPermission(filterObject.account, 'ACCOUNT', 'READ')")
+  @PostAuthorize("@authorizationSupport.filterForAccounts(returnObject)")
   @RequestMapping(method = RequestMethod.GET)
   Set<ServerGroupManager> getForApplication(@PathVariable String application) {
     return serverGroupManagerProviders.stream()
@@ -92,13 +92,12 @@ class AuthorizationSupportSpec extends Specification {
     when:
     def result = support.filterLoadBalancerProviderItems(newTestItems())
 
-    then:
+    then: "each account is only checked once, although both items are in both accounts"
     1 * permissionEvaluator.hasPermission(_, "test1", 'APPLICATION', 'READ') >> true
     1 * permissionEvaluator.hasPermission(_, "account1", 'ACCOUNT', 'READ') >> true
     1 * permissionEvaluator.hasPermission(_, "account2", 'ACCOUNT', 'READ') >> true
     1 * permissionEvaluator.hasPermission(_, "test2", 'APPLICATION', 'READ') >> true
-    1 * permissionEvaluator.hasPermission(_, "account1", 'ACCOUNT', 'READ') >> true
-    1 * permissionEvaluator.hasPermission(_, "account2", 'ACCOUNT', 'READ') >> true
+    0 * permissionEvaluator._
     result == true
 
     when:
@@ -175,6 +174,47 @@ class AuthorizationSupportSpec extends Specification {
     list.size() == 1
   }
 
+  def "filter list items by application, checking each application once"() {
+    given:
+    AuthorizationSupport support = new AuthorizationSupport(permissionEvaluator: permissionEvaluator)
+    def list = [
+      [application: "app1", account: "account1"],
+      [application: "app1", account: "account2"],
+      [application: "app2", account: "account1"],
+      [application: "app2", account: "account2"],
+    ]
+
+    when:
+    def result = support.filterForApplications(list) && support.filterForAccounts(list)
+
+    then:
+    1 * permissionEvaluator.hasPermission(_, "app1", 'APPLICATION', 'READ') >> true
+    1 * permissionEvaluator.hasPermission(_, "app2", 'APPLICATION', 'READ') >> false
+    1 * permissionEvaluator.hasPermission(_, "account1", 'ACCOUNT', 'READ') >> true
+    1 * permissionEvaluator.hasPermission(_, "account2", 'ACCOUNT', 'READ') >> false
+    0 * permissionEvaluator._
+    result == true
+    list == [[application: "app1", account: "account1"]]
+  }
+
+  def "filter entity tags by application"() {
+    given:
+    AuthorizationSupport support = new AuthorizationSupport(permissionEvaluator: permissionEvaluator)
+    def tags = [
+      entityTags("id-1", "1", "clouddriver"),
+      entityTags("id-2", "2", "clouddriver"),
+      entityTags("id-3", "1", "gate"),
+    ]
+
+    when:
+    support.filterEntityTags(tags)
+
+    then:
+    1 * permissionEvaluator.hasPermission(_, "clouddriver", 'APPLICATION', 'READ') >> true
+    1 * permissionEvaluator.hasPermission(_, "gate", 'APPLICATION', 'READ') >> false
+    tags*.id == ["id-1", "id-2"]
+  }
+
   @Unroll
   def "should verify access to entity tags account/application"() {
     given:
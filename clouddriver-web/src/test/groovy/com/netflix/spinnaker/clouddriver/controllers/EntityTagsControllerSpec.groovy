@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.controllers
+
+import com.netflix.spinnaker.clouddriver.model.EntityTags
+import com.netflix.spinnaker.clouddriver.model.EntityTagsProvider
+import org.springframework.context.MessageSource
+import spock.lang.Specification
+
+class EntityTagsControllerSpec extends Specification {
+  EntityTagsProvider tagProvider = Mock(EntityTagsProvider)
+  EntityTagsController controller = new EntityTagsController(Mock(MessageSource), Optional.of(tagProvider))
+
+  void "should look up the tags of many entities in one batch"() {
+    given:
+    def v001 = new EntityTags(id: "aws:servergroup:app-v001:test:us-west-1")
+    def v002 = new EntityTags(id: "aws:servergroup:app-v002:test:us-west-1")
+
+    when:
+    def result = controller.list("aws", null, "servergroup", "app-v001,app-v002,app-v003", null, null, null, null, 5000, [
+      cloudProvider: "aws", entityType: "servergroup", entityId: "app-v001,app-v002,app-v003"
+    ])
+
+    then:
+    1 * tagProvider.getAllByEntityIds("aws", "servergroup", ["app-v001", "app-v002", "app-v003"]) >> [
+      "app-v001": [v001],
+      "app-v002": [v002]
+    ]
+    0 * tagProvider.getAll(*_)
+    result as Set == [v001, v002] as Set
+  }
+
+  void "should search when filtering by more than entity ids"() {
+    when:
+    controller.list("aws", null, "servergroup", "app-v001", null, null, null, null, 5000, [
+      entityId: "app-v001", "tag:owner": "someone"
+    ])
+
+    then:
+    1 * tagProvider.getAll("aws", null, "servergroup", ["app-v001"], null, null, null, null, [owner: "someone"], 5000) >> []
+    0 * tagProvider.getAllByEntityIds(*_)
+  }
+}